@@ -0,0 +1,35 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+plugins {
+    `java-library`
+}
+
+dependencies {
+    // compiled against the stable SPI, so that the extension can be loaded in both the stable and the snapshot runtimes
+    compileOnly(stableLibs.edc.boot.spi)
+    compileOnly(stableLibs.edc.core.spi)
+
+    testImplementation(stableLibs.edc.boot.spi)
+    testImplementation(stableLibs.edc.core.spi)
+}
+
+edcBuild {
+    publish.set(false)
+}
@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.executor;
+
+import org.eclipse.edc.runtime.metamodel.annotation.Extension;
+import org.eclipse.edc.runtime.metamodel.annotation.Provider;
+import org.eclipse.edc.spi.system.ExecutorInstrumentation;
+import org.eclipse.edc.spi.system.ServiceExtension;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+
+@Extension("Virtual thread executor extension")
+public class VirtualThreadExecutorExtension implements ServiceExtension {
+
+    public static final String VIRTUAL_THREADS_ENABLED = "tx.edc.executor.virtual-threads.enabled";
+
+    @Provider
+    public ExecutorInstrumentation executorInstrumentation(ServiceExtensionContext context) {
+        var monitor = context.getMonitor().withPrefix("VirtualThreads");
+        if (!context.getConfig().getBoolean(VIRTUAL_THREADS_ENABLED, false)) {
+            return ExecutorInstrumentation.noop();
+        }
+        if (!VirtualThreadExecutorInstrumentation.isSupported()) {
+            monitor.warning("Virtual threads are not supported by Java %s, executors will use platform threads".formatted(Runtime.version()));
+            return ExecutorInstrumentation.noop();
+        }
+        monitor.info("Executors are backed by virtual threads");
+        return new VirtualThreadExecutorInstrumentation(monitor);
+    }
+}
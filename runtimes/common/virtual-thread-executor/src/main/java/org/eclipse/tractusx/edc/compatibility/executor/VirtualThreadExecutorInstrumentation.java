@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.executor;
+
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.system.ExecutorInstrumentation;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Function;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * {@link ExecutorInstrumentation} that replaces the executors created by the runtime, e.g. the ones of the state
+ * machines and of the data plane transfers, with executors whose threads are virtual:
+ * <ul>
+ *     <li>scheduled executors keep their kind and size, as their threads only trigger the work</li>
+ *     <li>thread pools become unbounded and start a virtual thread per task, like
+ *     {@code Executors.newThreadPerTaskExecutor}, so that blocking tasks are no longer capped by the pool size</li>
+ *     <li>single thread executors stay sequential</li>
+ * </ul>
+ * The replacement keeps the type of the original executor, so that callers can still cast it. Executors of any
+ * other kind are returned unchanged.
+ * Virtual threads are created through reflection, because the runtimes are compiled for Java 17.
+ */
+public class VirtualThreadExecutorInstrumentation implements ExecutorInstrumentation {
+
+    private final Monitor monitor;
+    private final Function<String, ThreadFactory> threadFactory;
+
+    public VirtualThreadExecutorInstrumentation(Monitor monitor) {
+        this(monitor, VirtualThreadExecutorInstrumentation::virtualThreadFactory);
+    }
+
+    VirtualThreadExecutorInstrumentation(Monitor monitor, Function<String, ThreadFactory> threadFactory) {
+        this.monitor = monitor;
+        this.threadFactory = threadFactory;
+    }
+
+    /**
+     * Whether the JVM supports virtual threads.
+     *
+     * @return true if virtual threads can be created
+     */
+    public static boolean isSupported() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T extends ExecutorService> T instrument(T target, String name) {
+        ExecutorService replacement;
+        if (target instanceof ScheduledThreadPoolExecutor scheduled) {
+            replacement = new ScheduledThreadPoolExecutor(scheduled.getCorePoolSize(), threadFactory.apply(name), scheduled.getRejectedExecutionHandler());
+        } else if (target instanceof ScheduledExecutorService) {
+            replacement = new ScheduledThreadPoolExecutor(1, threadFactory.apply(name));
+        } else if (target instanceof ThreadPoolExecutor pool && pool.getMaximumPoolSize() == 1) {
+            replacement = new ThreadPoolExecutor(1, 1, 0, NANOSECONDS, new LinkedBlockingQueue<>(), threadFactory.apply(name), pool.getRejectedExecutionHandler());
+        } else if (target instanceof ThreadPoolExecutor) {
+            replacement = threadPerTaskExecutor(name);
+        } else if (target.getClass().getName().startsWith("java.util.concurrent.Executors$")) {
+            // single thread executors are wrapped by Executors and cannot be inspected
+            replacement = new ThreadPoolExecutor(1, 1, 0, NANOSECONDS, new LinkedBlockingQueue<>(), threadFactory.apply(name));
+        } else {
+            monitor.debug("Executor %s of type %s is not backed by virtual threads".formatted(name, target.getClass().getName()));
+            return target;
+        }
+
+        target.shutdown();
+        monitor.debug("Executor %s is backed by virtual threads".formatted(name));
+        return (T) replacement;
+    }
+
+    /**
+     * Pool without core threads nor queue, whose threads end as soon as their task is done: every task runs on a new
+     * virtual thread, while the executor remains a {@link ThreadPoolExecutor}.
+     */
+    private ThreadPoolExecutor threadPerTaskExecutor(String name) {
+        return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 0, NANOSECONDS, new SynchronousQueue<>(), threadFactory.apply(name));
+    }
+
+    private static ThreadFactory virtualThreadFactory(String name) {
+        try {
+            var builderClass = Class.forName("java.lang.Thread$Builder");
+            var builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, name + "-", 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create virtual thread factory", e);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.executor;
+
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+
+class VirtualThreadExecutorInstrumentationTest {
+
+    private static final int MAX_POOL_SIZE = 2;
+    private static final int TASKS = 20;
+
+    private final Monitor monitor = mock(Monitor.class);
+
+    /**
+     * Runs with platform threads, so that the executor semantics are verified on Java 17 as well.
+     */
+    private final VirtualThreadExecutorInstrumentation instrumentation = new VirtualThreadExecutorInstrumentation(monitor, name -> Executors.defaultThreadFactory());
+
+    @Test
+    void instrument_shouldRunMoreTasksConcurrentlyThanMaxPoolSize() throws InterruptedException {
+        var executor = instrumentation.instrument(Executors.newFixedThreadPool(MAX_POOL_SIZE), "pool");
+        try {
+            var allRunning = new CountDownLatch(TASKS);
+            var running = new AtomicInteger();
+            var peak = new AtomicInteger();
+            IntStream.range(0, TASKS).forEach(i -> executor.execute(() -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                allRunning.countDown();
+                try {
+                    allRunning.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    running.decrementAndGet();
+                }
+            }));
+
+            assertThat(allRunning.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(peak.get()).isEqualTo(TASKS).isGreaterThan(MAX_POOL_SIZE);
+        } finally {
+            shutdown(executor);
+        }
+    }
+
+    @Test
+    void instrument_shouldShutdownReplacedExecutor() {
+        var target = Executors.newFixedThreadPool(MAX_POOL_SIZE);
+
+        var executor = instrumentation.instrument(target, "pool");
+
+        assertThat(executor).isNotSameAs(target).isInstanceOf(ThreadPoolExecutor.class);
+        assertThat(target.isShutdown()).isTrue();
+        shutdown(executor);
+    }
+
+    @Test
+    void instrument_shouldKeepScheduledExecutorSize() {
+        var executor = instrumentation.instrument(new ScheduledThreadPoolExecutor(3), "scheduled");
+
+        assertThat(executor).isInstanceOfSatisfying(ScheduledThreadPoolExecutor.class, scheduled -> assertThat(scheduled.getCorePoolSize()).isEqualTo(3));
+        shutdown(executor);
+    }
+
+    @Test
+    void instrument_shouldKeepSingleThreadExecutorSequential() throws InterruptedException {
+        var executor = instrumentation.instrument(Executors.newSingleThreadExecutor(), "single");
+        try {
+            var running = new AtomicInteger();
+            var peak = new AtomicInteger();
+            var done = new CountDownLatch(TASKS);
+            IntStream.range(0, TASKS).forEach(i -> executor.execute(() -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                running.decrementAndGet();
+                done.countDown();
+            }));
+
+            assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(peak.get()).isEqualTo(1);
+        } finally {
+            shutdown(executor);
+        }
+    }
+
+    @Test
+    void instrument_shouldRunTasksOnVirtualThreads() throws Exception {
+        assumeTrue(VirtualThreadExecutorInstrumentation.isSupported(), "virtual threads are not supported by this JVM");
+        var executor = new VirtualThreadExecutorInstrumentation(monitor).instrument(Executors.newFixedThreadPool(MAX_POOL_SIZE), "pool");
+        try {
+            var virtual = executor.submit(() -> (Boolean) Thread.class.getMethod("isVirtual").invoke(Thread.currentThread()));
+
+            assertThat(virtual.get(10, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            shutdown(executor);
+        }
+    }
+
+    private void shutdown(ExecutorService executor) {
+        executor.shutdownNow();
+    }
+}
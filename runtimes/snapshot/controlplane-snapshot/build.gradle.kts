@@ -33,6 +33,7 @@ dependencies {
     runtimeOnly(libs.edc.api.management.dataplaneselector)
 
     runtimeOnly(libs.tx.single.participant.vault)
+    runtimeOnly(project(":runtimes:common:virtual-thread-executor"))
 }
 
 tasks.shadowJar {
@@ -24,11 +24,14 @@ plugins {
 }
 
 dependencies {
+    implementation(libs.edc.spi.dataplane)
+
     runtimeOnly(libs.tx.edc.dataplane.postgresql.hashicorp.vault) {
         exclude(group = "org.eclipse.edc", "vault-hashicorp")
     }
 
     runtimeOnly(libs.tx.single.participant.vault)
+    runtimeOnly(project(":runtimes:common:virtual-thread-executor"))
 }
 
 tasks.shadowJar {
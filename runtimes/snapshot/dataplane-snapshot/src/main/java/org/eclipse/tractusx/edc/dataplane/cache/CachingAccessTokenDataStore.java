@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.dataplane.cache;
+
+import org.eclipse.edc.connector.dataplane.spi.AccessTokenData;
+import org.eclipse.edc.connector.dataplane.spi.store.AccessTokenDataStore;
+import org.eclipse.edc.spi.query.QuerySpec;
+import org.eclipse.edc.spi.result.StoreResult;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * {@link AccessTokenDataStore} decorator that keeps the access token data resolved on every pull of the public API
+ * in memory for the lifetime of the token, so that repeated pulls with the same EDR do not hit the store.
+ * Entries are evicted as soon as the token data is stored, updated or deleted, which is what happens when a transfer
+ * gets suspended or terminated and its EDR is revoked. A lookup that raced with such a change does not keep its
+ * result in the cache. Changes made through another instance sharing the delegate are not seen, the entries they
+ * affect are only dropped when they reach the max TTL.
+ */
+public class CachingAccessTokenDataStore implements AccessTokenDataStore {
+
+    private static final String EXPIRATION_CLAIM = "exp";
+
+    private final AccessTokenDataStore delegate;
+    private final Clock clock;
+    private final Duration maxTtl;
+    private final Map<String, CachedToken> cache = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final AtomicLong changes = new AtomicLong();
+
+    public CachingAccessTokenDataStore(AccessTokenDataStore delegate, Clock clock, Duration maxTtl) {
+        this.delegate = delegate;
+        this.clock = clock;
+        this.maxTtl = maxTtl;
+    }
+
+    @Override
+    public AccessTokenData getById(String id) {
+        var now = clock.instant();
+        var cached = cache.get(id);
+        if (cached != null) {
+            if (cached.expiresAt().isAfter(now)) {
+                hits.increment();
+                return cached.data();
+            }
+            evict(id);
+        }
+
+        misses.increment();
+        var generation = changes.get();
+        var data = delegate.getById(id);
+        if (data != null) {
+            var entry = new CachedToken(data, expiration(data, now));
+            cache.put(id, entry);
+            if (changes.get() != generation) {
+                cache.remove(id, entry);
+            }
+        }
+        return data;
+    }
+
+    @Override
+    public StoreResult<Void> store(AccessTokenData accessTokenData) {
+        return invalidating(accessTokenData.id(), () -> delegate.store(accessTokenData));
+    }
+
+    @Override
+    public StoreResult<Void> update(AccessTokenData accessTokenData) {
+        return invalidating(accessTokenData.id(), () -> delegate.update(accessTokenData));
+    }
+
+    @Override
+    public StoreResult<Void> deleteById(String id) {
+        return invalidating(id, () -> delegate.deleteById(id));
+    }
+
+    @Override
+    public Collection<AccessTokenData> query(QuerySpec querySpec) {
+        return delegate.query(querySpec);
+    }
+
+    /**
+     * Snapshot of the cache usage.
+     *
+     * @return the statistics
+     */
+    public Statistics statistics() {
+        return new Statistics(hits.sum(), misses.sum(), evictions.sum(), cache.size());
+    }
+
+    /**
+     * Evicts the entry before and after the change, whatever its outcome, so that neither a lookup that completed
+     * before the change nor one running concurrently to it leaves the previous token data in the cache.
+     */
+    private StoreResult<Void> invalidating(String id, Supplier<StoreResult<Void>> change) {
+        changes.incrementAndGet();
+        evict(id);
+        try {
+            return change.get();
+        } finally {
+            changes.incrementAndGet();
+            evict(id);
+        }
+    }
+
+    private void evict(String id) {
+        if (cache.remove(id) != null) {
+            evictions.increment();
+        }
+    }
+
+    private Instant expiration(AccessTokenData data, Instant now) {
+        var maxExpiration = now.plus(maxTtl);
+        var claims = data.claimToken();
+        var expiration = claims == null ? null : claims.getClaim(EXPIRATION_CLAIM);
+        Instant tokenExpiration = null;
+        if (expiration instanceof Instant instant) {
+            tokenExpiration = instant;
+        } else if (expiration instanceof Date date) {
+            tokenExpiration = date.toInstant();
+        } else if (expiration instanceof Number epochSeconds) {
+            tokenExpiration = Instant.ofEpochSecond(epochSeconds.longValue());
+        }
+        return tokenExpiration != null && tokenExpiration.isBefore(maxExpiration) ? tokenExpiration : maxExpiration;
+    }
+
+    private record CachedToken(AccessTokenData data, Instant expiresAt) {
+    }
+
+    /**
+     * Cache usage. Every hit is a round trip to the access token store that has been saved.
+     */
+    public record Statistics(long hits, long misses, long evictions, int size) {
+
+        public double hitRatio() {
+            var lookups = hits + misses;
+            return lookups == 0 ? 0 : (double) hits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return "%d hits, %d misses (hit ratio %.1f%%), %d saved round-trips, %d evictions, %d cached tokens"
+                    .formatted(hits, misses, hitRatio() * 100, hits, evictions, size);
+        }
+    }
+}
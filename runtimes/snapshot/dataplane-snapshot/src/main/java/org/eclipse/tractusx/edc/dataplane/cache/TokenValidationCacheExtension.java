@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.dataplane.cache;
+
+import org.eclipse.edc.connector.dataplane.spi.store.AccessTokenDataStore;
+import org.eclipse.edc.runtime.metamodel.annotation.Extension;
+import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Provides;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.system.ServiceExtension;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Decorates the {@link AccessTokenDataStore} of the data plane with a {@link CachingAccessTokenDataStore} when
+ * {@value #TOKEN_CACHE_ENABLED} is set. The extension provides the store it injects: the dependency graph orders it
+ * after the extension providing the actual store and before every extension injecting the store.
+ * <p>
+ * The cache is local to the data plane: a token revoked through another data plane sharing the store stays valid here
+ * until its entry expires, so {@value #TOKEN_CACHE_MAX_TTL} bounds that staleness and defaults to a few seconds.
+ */
+@Provides(AccessTokenDataStore.class)
+@Extension("Token validation cache extension")
+public class TokenValidationCacheExtension implements ServiceExtension {
+
+    public static final String TOKEN_CACHE_ENABLED = "tx.edc.dataplane.token.cache.enabled";
+    public static final String TOKEN_CACHE_MAX_TTL = "tx.edc.dataplane.token.cache.max-ttl-millis";
+
+    private static final long DEFAULT_MAX_TTL = Duration.ofSeconds(5).toMillis();
+
+    @Inject
+    private AccessTokenDataStore accessTokenDataStore;
+
+    @Inject
+    private Clock clock;
+
+    private Monitor monitor;
+    private CachingAccessTokenDataStore cachingStore;
+
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        monitor = context.getMonitor().withPrefix("TokenValidationCache");
+        var config = context.getConfig();
+        if (!config.getBoolean(TOKEN_CACHE_ENABLED, false)) {
+            return;
+        }
+
+        var maxTtl = Duration.ofMillis(config.getLong(TOKEN_CACHE_MAX_TTL, DEFAULT_MAX_TTL));
+        cachingStore = new CachingAccessTokenDataStore(accessTokenDataStore, clock, maxTtl);
+        monitor.info("Caching access token data for up to %d ms, tokens revoked through another data plane are accepted that long".formatted(maxTtl.toMillis()));
+        context.registerService(AccessTokenDataStore.class, cachingStore);
+    }
+
+    @Override
+    public void shutdown() {
+        if (cachingStore != null) {
+            monitor.info("Token validation cache: " + cachingStore.statistics());
+        }
+    }
+}
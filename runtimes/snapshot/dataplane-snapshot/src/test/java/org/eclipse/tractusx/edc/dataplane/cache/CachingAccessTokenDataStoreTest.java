@@ -0,0 +1,208 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.dataplane.cache;
+
+import org.eclipse.edc.connector.dataplane.spi.AccessTokenData;
+import org.eclipse.edc.connector.dataplane.spi.store.AccessTokenDataStore;
+import org.eclipse.edc.spi.iam.ClaimToken;
+import org.eclipse.edc.spi.result.StoreResult;
+import org.eclipse.edc.spi.types.domain.DataAddress;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingAccessTokenDataStoreTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+    private static final Duration MAX_TTL = Duration.ofMinutes(5);
+
+    private final AccessTokenDataStore delegate = mock(AccessTokenDataStore.class);
+    private final Clock clock = mock(Clock.class);
+    private final CachingAccessTokenDataStore store = new CachingAccessTokenDataStore(delegate, clock, MAX_TTL);
+
+    @BeforeEach
+    void setUp() {
+        when(clock.instant()).thenReturn(NOW);
+        when(delegate.store(any())).thenReturn(StoreResult.success());
+        when(delegate.update(any())).thenReturn(StoreResult.success());
+        when(delegate.deleteById(anyString())).thenReturn(StoreResult.success());
+    }
+
+    @Test
+    void getById_shouldServeRepeatedLookupsFromCache() {
+        var token = token("id", NOW.plusSeconds(60));
+        when(delegate.getById("id")).thenReturn(token);
+
+        assertThat(store.getById("id")).isSameAs(token);
+        assertThat(store.getById("id")).isSameAs(token);
+
+        verify(delegate, times(1)).getById("id");
+        assertThat(store.statistics().hits()).isEqualTo(1);
+        assertThat(store.statistics().misses()).isEqualTo(1);
+    }
+
+    @Test
+    void getById_shouldNotCacheUnknownTokens() {
+        store.getById("unknown");
+        store.getById("unknown");
+
+        verify(delegate, times(2)).getById("unknown");
+        assertThat(store.statistics().size()).isZero();
+    }
+
+    @Test
+    void getById_shouldReloadAfterTokenExpiration() {
+        when(delegate.getById("id")).thenReturn(token("id", NOW.plusSeconds(60)));
+
+        store.getById("id");
+        when(clock.instant()).thenReturn(NOW.plusSeconds(59));
+        store.getById("id");
+        when(clock.instant()).thenReturn(NOW.plusSeconds(60));
+        store.getById("id");
+
+        verify(delegate, times(2)).getById("id");
+    }
+
+    @Test
+    void getById_shouldCapExpirationToMaxTtl() {
+        when(delegate.getById("id")).thenReturn(token("id", NOW.plus(Duration.ofDays(1))));
+
+        store.getById("id");
+        when(clock.instant()).thenReturn(NOW.plus(MAX_TTL).minusMillis(1));
+        store.getById("id");
+        when(clock.instant()).thenReturn(NOW.plus(MAX_TTL));
+        store.getById("id");
+
+        verify(delegate, times(2)).getById("id");
+    }
+
+    @Test
+    void getById_shouldUseMaxTtl_whenTokenHasNoExpiration() {
+        when(delegate.getById("id")).thenReturn(new AccessTokenData("id", ClaimToken.Builder.newInstance().build(), dataAddress()));
+
+        store.getById("id");
+        when(clock.instant()).thenReturn(NOW.plus(MAX_TTL).minusMillis(1));
+        store.getById("id");
+
+        verify(delegate, times(1)).getById("id");
+    }
+
+    @Test
+    void deleteById_shouldInvalidate() {
+        when(delegate.getById("id")).thenReturn(token("id", NOW.plusSeconds(60)));
+        store.getById("id");
+
+        store.deleteById("id");
+        when(delegate.getById("id")).thenReturn(null);
+
+        assertThat(store.getById("id")).isNull();
+        verify(delegate).deleteById("id");
+        assertThat(store.statistics().evictions()).isEqualTo(1);
+    }
+
+    @Test
+    void deleteById_shouldInvalidate_whenDeletionFails() {
+        when(delegate.getById("id")).thenReturn(token("id", NOW.plusSeconds(60)));
+        when(delegate.deleteById("id")).thenReturn(StoreResult.notFound("not found"));
+        store.getById("id");
+
+        store.deleteById("id");
+        store.getById("id");
+
+        verify(delegate, times(2)).getById("id");
+    }
+
+    @Test
+    void store_shouldInvalidate() {
+        var previous = token("id", NOW.plusSeconds(60));
+        var replacement = token("id", NOW.plusSeconds(120));
+        when(delegate.getById("id")).thenReturn(previous);
+        store.getById("id");
+
+        store.store(replacement);
+        when(delegate.getById("id")).thenReturn(replacement);
+
+        assertThat(store.getById("id")).isSameAs(replacement);
+        verify(delegate).store(replacement);
+    }
+
+    @Test
+    void update_shouldInvalidate() {
+        var previous = token("id", NOW.plusSeconds(60));
+        var updated = token("id", NOW.plusSeconds(120));
+        when(delegate.getById("id")).thenReturn(previous);
+        store.getById("id");
+
+        store.update(updated);
+        when(delegate.getById("id")).thenReturn(updated);
+
+        assertThat(store.getById("id")).isSameAs(updated);
+        verify(delegate).update(updated);
+    }
+
+    @Test
+    void getById_shouldNotCacheLookupThatRacedWithDeletion() throws Exception {
+        var lookupStarted = new CountDownLatch(1);
+        var deleted = new CountDownLatch(1);
+        when(delegate.getById("id")).thenAnswer(invocation -> {
+            lookupStarted.countDown();
+            deleted.await(5, TimeUnit.SECONDS);
+            return token("id", NOW.plusSeconds(60));
+        }).thenReturn(null);
+
+        var executor = Executors.newSingleThreadExecutor();
+        try {
+            var lookup = executor.submit(() -> store.getById("id"));
+            assertThat(lookupStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            store.deleteById("id");
+            deleted.countDown();
+
+            assertThat(lookup.get(5, TimeUnit.SECONDS)).isNotNull();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(store.getById("id")).isNull();
+        verify(delegate, times(2)).getById("id");
+    }
+
+    private AccessTokenData token(String id, Instant expiration) {
+        var claims = ClaimToken.Builder.newInstance().claim("exp", expiration.getEpochSecond()).build();
+        return new AccessTokenData(id, claims, dataAddress());
+    }
+
+    private DataAddress dataAddress() {
+        return DataAddress.Builder.newInstance().type("HttpData").build();
+    }
+}
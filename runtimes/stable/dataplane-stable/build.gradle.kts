@@ -64,3 +64,40 @@ tasks.register("dockerize", DockerBuildImage::class) {
     inputDir.set(file(dockerContextDir))
     dependsOn(tasks.named("shadowJar"))
 }
+
+// optimized variant of the image, with a jlink-trimmed JRE, see Dockerfile.optimized
+tasks.register("dockerizeOptimized", DockerBuildImage::class) {
+    val dockerContextDir = project.projectDir
+    dockerFile.set(file("$dockerContextDir/src/main/docker/Dockerfile.optimized"))
+    images.add("${project.name}-optimized-base:latest")
+    if (System.getProperty("platform") != null)
+        platform.set(System.getProperty("platform"))
+    buildArgs.put("JAR", "build/libs/${project.name}.jar")
+    inputDir.set(file(dockerContextDir))
+    dependsOn(tasks.named("shadowJar"))
+}
+
+// the AppCDS archive of the runtime, out of the directory passed with -Ptx.stable.cds-archive-dir, e.g. the one the
+// "cdsTraining" task of the compatibility tests writes to
+val cdsArchive = (findProperty("tx.stable.cds-archive-dir") as String?)?.let { rootProject.file(it).resolve("${project.name}.jsa") }
+val copyCdsArchive = tasks.register("copyCdsArchive", Copy::class) {
+    cdsArchive?.let { from(it) }
+    into(layout.buildDirectory.dir("cds"))
+}
+
+// the optimized image with the AppCDS archive
+tasks.register("dockerizeOptimizedCds", DockerBuildImage::class) {
+    val dockerContextDir = project.projectDir
+    dockerFile.set(file("$dockerContextDir/src/main/docker/Dockerfile.cds"))
+    images.add("${project.name}-optimized:${stableLibs.versions.tractusx.get()}")
+    images.add("${project.name}-optimized:latest")
+    buildArgs.put("BASE", "${project.name}-optimized-base:latest")
+    buildArgs.put("ARCHIVE", "build/cds/${project.name}.jsa")
+    inputDir.set(file(dockerContextDir))
+    dependsOn(copyCdsArchive)
+    doFirst {
+        check(layout.buildDirectory.file("cds/${project.name}.jsa").get().asFile.isFile) {
+            "No AppCDS archive of ${project.name}, set -Ptx.stable.cds-archive-dir to a directory containing ${project.name}.jsa"
+        }
+    }
+}
@@ -26,7 +26,12 @@ dependencies {
 
     implementation(stableLibs.edc.boot.spi)
     implementation(stableLibs.edc.core.spi)
+    implementation(stableLibs.edc.transaction.spi)
+    implementation(stableLibs.edc.transaction.datasource.spi)
+    implementation(stableLibs.edc.sql.lib)
     implementation(stableLibs.tx.bdrs.client.spi)
+
+    runtimeOnly(project(":runtimes:common:virtual-thread-executor"))
 }
 
 edcBuild {
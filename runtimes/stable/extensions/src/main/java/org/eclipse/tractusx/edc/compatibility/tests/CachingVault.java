@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+package org.eclipse.tractusx.edc.compatibility.tests;
+
+import org.eclipse.edc.spi.result.Result;
+import org.eclipse.edc.spi.security.Vault;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Decorates a vault with a cache of the resolved secrets, which expire after a time to live. Storing or deleting a
+ * secret through the decorator invalidates it, secrets changed by another runtime on a shared backend are seen once
+ * they expire. Missing secrets are not cached, since they may be stored at any time, e.g. the EDRs. With a time to live
+ * of zero every lookup goes to the backend, and is only counted in the {@link VaultMetrics}.
+ */
+class CachingVault implements Vault {
+
+    private final Vault delegate;
+    private final long ttlNanos;
+    private final VaultMetrics metrics;
+    private final LongSupplier nanoTime;
+    private final Map<String, CachedSecret> cache = new ConcurrentHashMap<>();
+    // changes with every store and delete, so that a lookup that overlaps one does not cache the value it replaced
+    private final AtomicLong generation = new AtomicLong();
+
+    CachingVault(Vault delegate, Duration ttl, VaultMetrics metrics) {
+        this(delegate, ttl, metrics, System::nanoTime);
+    }
+
+    CachingVault(Vault delegate, Duration ttl, VaultMetrics metrics, LongSupplier nanoTime) {
+        this.delegate = delegate;
+        this.ttlNanos = ttl.toNanos();
+        this.metrics = metrics;
+        this.nanoTime = nanoTime;
+    }
+
+    @Override
+    public String resolveSecret(String key) {
+        var start = nanoTime.getAsLong();
+        if (ttlNanos > 0) {
+            var cached = cache.get(key);
+            if (cached != null && cached.expiresAt() - start > 0) {
+                metrics.hit(nanoTime.getAsLong() - start);
+                return cached.value();
+            }
+        }
+        var generationBefore = generation.get();
+        var value = delegate.resolveSecret(key);
+        var end = nanoTime.getAsLong();
+        if (ttlNanos > 0 && value != null && generation.get() == generationBefore) {
+            cache.put(key, new CachedSecret(value, end + ttlNanos));
+        }
+        metrics.miss(end - start);
+        return value;
+    }
+
+    @Override
+    public Result<Void> storeSecret(String key, String value) {
+        var result = delegate.storeSecret(key, value);
+        invalidate(key);
+        metrics.stored();
+        return result;
+    }
+
+    @Override
+    public Result<Void> deleteSecret(String key) {
+        var result = delegate.deleteSecret(key);
+        invalidate(key);
+        metrics.deleted();
+        return result;
+    }
+
+    private void invalidate(String key) {
+        generation.incrementAndGet();
+        cache.remove(key);
+    }
+
+    private record CachedSecret(String value, long expiresAt) {
+    }
+}
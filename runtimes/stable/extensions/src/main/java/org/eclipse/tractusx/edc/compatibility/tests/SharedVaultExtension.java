@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+package org.eclipse.tractusx.edc.compatibility.tests;
+
+import org.eclipse.edc.runtime.metamodel.annotation.Extension;
+import org.eclipse.edc.runtime.metamodel.annotation.Inject;
+import org.eclipse.edc.runtime.metamodel.annotation.Provides;
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.security.Vault;
+import org.eclipse.edc.spi.system.ServiceExtension;
+import org.eclipse.edc.spi.system.ServiceExtensionContext;
+import org.eclipse.edc.sql.QueryExecutor;
+import org.eclipse.edc.transaction.datasource.spi.DataSourceRegistry;
+import org.eclipse.edc.transaction.spi.TransactionContext;
+
+import java.time.Duration;
+
+/**
+ * Replaces the default vault of the runtime when one of the settings below is set, and leaves it as released otherwise.
+ * The extension provides the vault it injects: the dependency graph orders it after the extension providing the default
+ * vault and before every extension injecting the vault.
+ * <p>
+ * With {@code testing.edc.vault.shared.enabled}, the secrets are kept in the default datasource, so that the control
+ * plane and the data plane of a participant share them, as with a vault server in a deployment, e.g. the EDRs that the
+ * consumer proxy of the data plane resolves. The table is created once the datasources are registered, secrets are
+ * only stored from then on, see {@link VaultSeedExtension}.
+ * <p>
+ * {@code testing.edc.vault.latency.ms} and {@code testing.edc.vault.latency.jitter.ms} add the latency of a remote
+ * vault server to every call, {@code testing.edc.vault.cache.ttl.ms} caches the resolved secrets in front of it. With
+ * either, the lookups are counted in the {@link VaultMetrics}, which are exported over JMX and logged when the runtime
+ * shuts down.
+ */
+@Provides(Vault.class)
+@Extension("Shared Vault Extension")
+public class SharedVaultExtension implements ServiceExtension {
+
+    public static final String SHARED_VAULT_ENABLED = "testing.edc.vault.shared.enabled";
+    public static final String VAULT_LATENCY_MS = "testing.edc.vault.latency.ms";
+    public static final String VAULT_LATENCY_JITTER_MS = "testing.edc.vault.latency.jitter.ms";
+    public static final String VAULT_CACHE_TTL_MS = "testing.edc.vault.cache.ttl.ms";
+
+    @Inject
+    private Vault vault;
+
+    @Inject
+    private DataSourceRegistry dataSourceRegistry;
+
+    @Inject
+    private TransactionContext transactionContext;
+
+    @Inject
+    private QueryExecutor queryExecutor;
+
+    private Monitor monitor;
+    private SqlVault sqlVault;
+    private VaultMetrics metrics;
+
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        var config = context.getConfig();
+        monitor = context.getMonitor().withPrefix("Vault");
+        var backend = vault;
+        if (config.getBoolean(SHARED_VAULT_ENABLED, false)) {
+            sqlVault = new SqlVault(dataSourceRegistry, DataSourceRegistry.DEFAULT_DATASOURCE, transactionContext, queryExecutor, monitor);
+            backend = sqlVault;
+        }
+        var latency = Duration.ofMillis(config.getLong(VAULT_LATENCY_MS, 0L));
+        var jitter = Duration.ofMillis(config.getLong(VAULT_LATENCY_JITTER_MS, 0L));
+        var slow = !latency.isZero() || !jitter.isZero();
+        if (slow) {
+            monitor.info("Vault calls are delayed by %dms plus up to %dms".formatted(latency.toMillis(), jitter.toMillis()));
+            backend = new SlowBackendVault(backend, latency, jitter);
+        }
+        var ttl = Duration.ofMillis(config.getLong(VAULT_CACHE_TTL_MS, 0L));
+        if (!ttl.isZero()) {
+            monitor.info("Resolved secrets are cached for %dms".formatted(ttl.toMillis()));
+        }
+        if (slow || !ttl.isZero()) {
+            metrics = new VaultMetrics();
+            metrics.register(monitor);
+            backend = new CachingVault(backend, ttl, metrics);
+        }
+        if (backend != vault) {
+            context.registerService(Vault.class, backend);
+        }
+    }
+
+    @Override
+    public void prepare() {
+        if (sqlVault != null) {
+            sqlVault.createTable();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        if (metrics != null) {
+            monitor.info("Vault lookups: " + metrics);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+package org.eclipse.tractusx.edc.compatibility.tests;
+
+import org.eclipse.edc.spi.result.Result;
+import org.eclipse.edc.spi.security.Vault;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decorates a vault with the latency of a remote backend, e.g. a HashiCorp Vault in another network zone: every call
+ * waits for a fixed latency plus a random jitter before it is passed on.
+ */
+class SlowBackendVault implements Vault {
+
+    private final Vault delegate;
+    private final long latencyNanos;
+    private final long jitterNanos;
+
+    SlowBackendVault(Vault delegate, Duration latency, Duration jitter) {
+        this.delegate = delegate;
+        this.latencyNanos = latency.toNanos();
+        this.jitterNanos = jitter.toNanos();
+    }
+
+    @Override
+    public String resolveSecret(String key) {
+        delay();
+        return delegate.resolveSecret(key);
+    }
+
+    @Override
+    public Result<Void> storeSecret(String key, String value) {
+        delay();
+        return delegate.storeSecret(key, value);
+    }
+
+    @Override
+    public Result<Void> deleteSecret(String key) {
+        delay();
+        return delegate.deleteSecret(key);
+    }
+
+    private void delay() {
+        var nanos = latencyNanos + (jitterNanos > 0 ? ThreadLocalRandom.current().nextLong(jitterNanos + 1) : 0);
+        try {
+            Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
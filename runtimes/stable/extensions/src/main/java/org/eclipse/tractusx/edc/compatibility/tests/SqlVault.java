@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+package org.eclipse.tractusx.edc.compatibility.tests;
+
+import org.eclipse.edc.spi.monitor.Monitor;
+import org.eclipse.edc.spi.persistence.EdcPersistenceException;
+import org.eclipse.edc.spi.result.Result;
+import org.eclipse.edc.spi.security.Vault;
+import org.eclipse.edc.sql.QueryExecutor;
+import org.eclipse.edc.transaction.datasource.spi.DataSourceRegistry;
+import org.eclipse.edc.transaction.spi.TransactionContext;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * A vault on a table of a Postgres database, which every runtime connected to the database shares. Like the SQL stores
+ * of the runtime, it takes its connections from the datasource registry and joins the transaction of the caller.
+ */
+class SqlVault implements Vault {
+
+    static final String TABLE = "testing_edc_vault";
+
+    private static final String CREATE = "CREATE TABLE IF NOT EXISTS " + TABLE + " (key TEXT PRIMARY KEY, value TEXT NOT NULL)";
+    private static final String SELECT = "SELECT value FROM " + TABLE + " WHERE key = ?";
+    private static final String UPSERT = "INSERT INTO " + TABLE + " (key, value) VALUES (?, ?) ON CONFLICT (key) DO UPDATE SET value = excluded.value";
+    private static final String DELETE = "DELETE FROM " + TABLE + " WHERE key = ?";
+
+    private final DataSourceRegistry dataSourceRegistry;
+    private final String dataSourceName;
+    private final TransactionContext transactionContext;
+    private final QueryExecutor queryExecutor;
+    private final Monitor monitor;
+
+    SqlVault(DataSourceRegistry dataSourceRegistry, String dataSourceName, TransactionContext transactionContext, QueryExecutor queryExecutor, Monitor monitor) {
+        this.dataSourceRegistry = dataSourceRegistry;
+        this.dataSourceName = dataSourceName;
+        this.transactionContext = transactionContext;
+        this.queryExecutor = queryExecutor;
+        this.monitor = monitor;
+    }
+
+    /**
+     * Creates the table, once the datasources are registered.
+     */
+    void createTable() {
+        try {
+            execute(CREATE);
+        } catch (EdcPersistenceException e) {
+            // the control plane and the data plane may create the table at the same time
+            var state = sqlState(e);
+            if (!"23505".equals(state) && !"42P07".equals(state)) {
+                throw new EdcPersistenceException("Cannot create the vault table " + TABLE, e);
+            }
+        }
+    }
+
+    @Override
+    public String resolveSecret(String key) {
+        try {
+            return transactionContext.execute(() -> {
+                try (var connection = getConnection()) {
+                    return queryExecutor.single(connection, false, resultSet -> resultSet.getString("value"), SELECT, key);
+                } catch (SQLException e) {
+                    throw new EdcPersistenceException(e);
+                }
+            });
+        } catch (EdcPersistenceException e) {
+            monitor.warning("Cannot resolve secret " + key, e);
+            return null;
+        }
+    }
+
+    @Override
+    public Result<Void> storeSecret(String key, String value) {
+        try {
+            execute(UPSERT, key, value);
+            return Result.success();
+        } catch (EdcPersistenceException e) {
+            return Result.failure("Cannot store secret %s: %s".formatted(key, e.getMessage()));
+        }
+    }
+
+    @Override
+    public Result<Void> deleteSecret(String key) {
+        try {
+            execute(DELETE, key);
+            return Result.success();
+        } catch (EdcPersistenceException e) {
+            return Result.failure("Cannot delete secret %s: %s".formatted(key, e.getMessage()));
+        }
+    }
+
+    private void execute(String sql, Object... arguments) {
+        transactionContext.execute(() -> {
+            try (var connection = getConnection()) {
+                queryExecutor.execute(connection, sql, arguments);
+            } catch (SQLException e) {
+                throw new EdcPersistenceException(e);
+            }
+        });
+    }
+
+    private Connection getConnection() throws SQLException {
+        var dataSource = dataSourceRegistry.resolve(dataSourceName);
+        if (dataSource == null) {
+            throw new EdcPersistenceException("DataSource %s could not be resolved".formatted(dataSourceName));
+        }
+        return dataSource.getConnection();
+    }
+
+    private static String sqlState(Throwable failure) {
+        for (var cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException) {
+                return sqlException.getSQLState();
+            }
+        }
+        return null;
+    }
+}
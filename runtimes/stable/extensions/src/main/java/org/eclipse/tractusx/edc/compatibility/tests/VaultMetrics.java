@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+package org.eclipse.tractusx.edc.compatibility.tests;
+
+import org.eclipse.edc.spi.monitor.Monitor;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Counts the secret lookups of a runtime: the ones served from the cache of the {@link CachingVault}, the ones that go
+ * to the backend, and their latencies.
+ */
+public class VaultMetrics implements VaultMetricsMBean {
+
+    public static final String OBJECT_NAME = "org.eclipse.tractusx.edc.compatibility:type=Vault";
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder lookupNanos = new LongAdder();
+    private final LongAdder backendNanos = new LongAdder();
+    private final AtomicLong maxLookupNanos = new AtomicLong();
+    private final LongAdder stores = new LongAdder();
+    private final LongAdder deletes = new LongAdder();
+
+    /**
+     * Exports the metrics to the platform MBean server, replacing the ones of an earlier runtime of the same JVM.
+     *
+     * @param monitor the monitor
+     */
+    public void register(Monitor monitor) {
+        try {
+            var server = ManagementFactory.getPlatformMBeanServer();
+            var name = new ObjectName(OBJECT_NAME);
+            try {
+                server.registerMBean(this, name);
+            } catch (InstanceAlreadyExistsException e) {
+                server.unregisterMBean(name);
+                server.registerMBean(this, name);
+            }
+        } catch (JMException e) {
+            monitor.warning("Cannot export the vault metrics as " + OBJECT_NAME, e);
+        }
+    }
+
+    void hit(long nanos) {
+        hits.increment();
+        lookup(nanos);
+    }
+
+    void miss(long nanos) {
+        misses.increment();
+        backendNanos.add(nanos);
+        lookup(nanos);
+    }
+
+    void stored() {
+        stores.increment();
+    }
+
+    void deleted() {
+        deletes.increment();
+    }
+
+    @Override
+    public long getLookups() {
+        return hits.sum() + misses.sum();
+    }
+
+    @Override
+    public long getHits() {
+        return hits.sum();
+    }
+
+    @Override
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public double getHitRatio() {
+        var lookups = getLookups();
+        return lookups == 0 ? 0 : (double) hits.sum() / lookups;
+    }
+
+    @Override
+    public double getMeanLookupMicros() {
+        var lookups = getLookups();
+        return lookups == 0 ? 0 : lookupNanos.sum() / 1_000.0 / lookups;
+    }
+
+    @Override
+    public double getMaxLookupMicros() {
+        return maxLookupNanos.get() / 1_000.0;
+    }
+
+    @Override
+    public double getMeanBackendLookupMicros() {
+        var misses = this.misses.sum();
+        return misses == 0 ? 0 : backendNanos.sum() / 1_000.0 / misses;
+    }
+
+    @Override
+    public long getStores() {
+        return stores.sum();
+    }
+
+    @Override
+    public long getDeletes() {
+        return deletes.sum();
+    }
+
+    @Override
+    public void reset() {
+        hits.reset();
+        misses.reset();
+        lookupNanos.reset();
+        backendNanos.reset();
+        maxLookupNanos.set(0);
+        stores.reset();
+        deletes.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "%d lookups, hit ratio %.2f, mean %.1fus, max %.1fus, mean backend %.1fus, %d stores, %d deletes".formatted(
+                getLookups(), getHitRatio(), getMeanLookupMicros(), getMaxLookupMicros(), getMeanBackendLookupMicros(), getStores(), getDeletes());
+    }
+
+    private void lookup(long nanos) {
+        lookupNanos.add(nanos);
+        maxLookupNanos.accumulateAndGet(nanos, Math::max);
+    }
+}
@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+package org.eclipse.tractusx.edc.compatibility.tests;
+
+/**
+ * Statistics of the secret lookups of a runtime, exported over JMX as {@link VaultMetrics#OBJECT_NAME}.
+ */
+public interface VaultMetricsMBean {
+
+    long getLookups();
+
+    long getHits();
+
+    long getMisses();
+
+    double getHitRatio();
+
+    double getMeanLookupMicros();
+
+    double getMaxLookupMicros();
+
+    double getMeanBackendLookupMicros();
+
+    long getStores();
+
+    long getDeletes();
+
+    /**
+     * Starts the statistics over, e.g. after the warm-up of a benchmark.
+     */
+    void reset();
+}
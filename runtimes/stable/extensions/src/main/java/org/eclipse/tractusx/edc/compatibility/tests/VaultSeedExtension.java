@@ -25,6 +25,7 @@ import org.eclipse.edc.spi.security.Vault;
 import org.eclipse.edc.spi.system.ServiceExtension;
 import org.eclipse.edc.spi.system.ServiceExtensionContext;
 
+import java.util.List;
 import java.util.Map;
 
 @CoreExtension
@@ -38,16 +39,22 @@ public class VaultSeedExtension implements ServiceExtension {
     @Inject
     private Vault vault;
 
+    private List<Map.Entry<String, String>> secrets = List.of();
+
     @Override
     public void initialize(ServiceExtensionContext context) {
 
         var config = context.getConfig(VAULT_TESTING_PREFIX);
-        var secrets = config.partition().map((partition) -> {
+        secrets = config.partition().map((partition) -> {
             var key = partition.getString(VAULT_TESTING_KEY);
             var value = partition.getString(VAULT_TESTING_VALUE);
             return Map.entry(key, value);
         }).toList();
+    }
 
+    @Override
+    public void prepare() {
+        // the shared vault can only store secrets once the datasources are registered
         secrets.forEach(secret -> vault.storeSecret(secret.getKey(), secret.getValue()));
     }
 }
\ No newline at end of file
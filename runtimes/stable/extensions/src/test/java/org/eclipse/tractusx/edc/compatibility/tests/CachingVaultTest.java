@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+package org.eclipse.tractusx.edc.compatibility.tests;
+
+import org.eclipse.edc.spi.result.Result;
+import org.eclipse.edc.spi.security.Vault;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingVaultTest {
+
+    private static final Duration TTL = Duration.ofMinutes(1);
+
+    private final Vault delegate = mock(Vault.class);
+    private final AtomicLong now = new AtomicLong();
+    private final VaultMetrics metrics = new VaultMetrics();
+    private final CachingVault vault = new CachingVault(delegate, TTL, metrics, now::get);
+
+    @BeforeEach
+    void setUp() {
+        when(delegate.storeSecret(anyString(), anyString())).thenReturn(Result.success());
+        when(delegate.deleteSecret(anyString())).thenReturn(Result.success());
+    }
+
+    @Test
+    void resolveSecret_shouldServeRepeatedLookupsFromCache() {
+        when(delegate.resolveSecret("key")).thenReturn("value");
+
+        assertThat(vault.resolveSecret("key")).isEqualTo("value");
+        assertThat(vault.resolveSecret("key")).isEqualTo("value");
+
+        verify(delegate, times(1)).resolveSecret("key");
+        assertThat(metrics.getLookups()).isEqualTo(2);
+        assertThat(metrics.getHits()).isEqualTo(1);
+    }
+
+    @Test
+    void resolveSecret_shouldReloadAfterExpiration() {
+        when(delegate.resolveSecret("key")).thenReturn("value");
+
+        vault.resolveSecret("key");
+        now.set(TTL.toNanos() - 1);
+        vault.resolveSecret("key");
+        now.set(TTL.toNanos());
+        vault.resolveSecret("key");
+
+        verify(delegate, times(2)).resolveSecret("key");
+    }
+
+    @Test
+    void resolveSecret_shouldNotCacheMissingSecrets() {
+        vault.resolveSecret("key");
+        when(delegate.resolveSecret("key")).thenReturn("value");
+
+        assertThat(vault.resolveSecret("key")).isEqualTo("value");
+        verify(delegate, times(2)).resolveSecret("key");
+    }
+
+    @Test
+    void resolveSecret_shouldOnlyCount_whenTtlIsZero() {
+        var uncached = new CachingVault(delegate, Duration.ZERO, metrics, now::get);
+        when(delegate.resolveSecret("key")).thenReturn("value");
+
+        uncached.resolveSecret("key");
+        uncached.resolveSecret("key");
+
+        verify(delegate, times(2)).resolveSecret("key");
+        assertThat(metrics.getLookups()).isEqualTo(2);
+        assertThat(metrics.getHits()).isZero();
+    }
+
+    @Test
+    void storeSecret_shouldInvalidate() {
+        when(delegate.resolveSecret("key")).thenReturn("value");
+        vault.resolveSecret("key");
+
+        vault.storeSecret("key", "replacement");
+        when(delegate.resolveSecret("key")).thenReturn("replacement");
+
+        assertThat(vault.resolveSecret("key")).isEqualTo("replacement");
+        verify(delegate).storeSecret("key", "replacement");
+        assertThat(metrics.getStores()).isEqualTo(1);
+    }
+
+    @Test
+    void deleteSecret_shouldInvalidate() {
+        when(delegate.resolveSecret("key")).thenReturn("value");
+        vault.resolveSecret("key");
+
+        vault.deleteSecret("key");
+        when(delegate.resolveSecret("key")).thenReturn(null);
+
+        assertThat(vault.resolveSecret("key")).isNull();
+        verify(delegate).deleteSecret("key");
+        assertThat(metrics.getDeletes()).isEqualTo(1);
+    }
+
+    @Test
+    void resolveSecret_shouldNotCacheLookupThatRacedWithStore() throws Exception {
+        var lookupStarted = new CountDownLatch(1);
+        var stored = new CountDownLatch(1);
+        when(delegate.resolveSecret("key")).thenAnswer(invocation -> {
+            lookupStarted.countDown();
+            stored.await(5, TimeUnit.SECONDS);
+            return "value";
+        }).thenReturn("replacement");
+
+        var executor = Executors.newSingleThreadExecutor();
+        try {
+            var lookup = executor.submit(() -> vault.resolveSecret("key"));
+            assertThat(lookupStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            vault.storeSecret("key", "replacement");
+            stored.countDown();
+
+            assertThat(lookup.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(vault.resolveSecret("key")).isEqualTo("replacement");
+        verify(delegate, times(2)).resolveSecret("key");
+    }
+}
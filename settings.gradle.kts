@@ -47,6 +47,7 @@ dependencyResolutionManagement {
 }
 
 // add dependencies
+include(":runtimes:common:virtual-thread-executor")
 include(":runtimes:snapshot:identityhub-snapshot")
 include(":runtimes:snapshot:controlplane-snapshot")
 include(":runtimes:snapshot:dataplane-snapshot")
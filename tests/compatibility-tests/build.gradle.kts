@@ -19,6 +19,7 @@
 
 plugins {
     `java-library`
+    alias(libs.plugins.jmh)
 }
 
 dependencies {
@@ -26,6 +27,8 @@ dependencies {
     testImplementation(libs.edc.lib.cryptocommon)
     testImplementation(libs.edc.lib.jws2020)
     testImplementation(libs.edc.sql.transactionlocal)
+    testImplementation(libs.edc.spi.contract)
+    testImplementation(libs.edc.spi.jsonld)
     testImplementation(libs.edc.spi.sts)
     testImplementation(libs.edc.iam.mock)
     testImplementation(libs.edc.ih.spi.did)
@@ -41,6 +44,9 @@ dependencies {
     }
     testImplementation(libs.testcontainers.junit)
     testImplementation(libs.testcontainers.postgres)
+    testImplementation(libs.postgres)
+    // the memory footprint sweep runs the benchmark in a forked JVM per heap
+    testImplementation(libs.junit.platform.launcher)
     testImplementation(testFixtures(libs.edc.api.management.test.fixtures))
     testImplementation(testFixtures(libs.edc.sql.test.fixtures))
 
@@ -50,3 +56,170 @@ dependencies {
     testCompileOnly(project(":runtimes:stable:controlplane-stable"))
     testCompileOnly(project(":runtimes:stable:dataplane-stable"))
 }
+
+// JSON-LD benchmarks reuse the test fixtures, e.g. the runtime classpaths and the policy helpers
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    includeTests.set(true)
+    resultFormat.set("JSON")
+    resultsFile.set(project.layout.buildDirectory.file("reports/jmh/results.json"))
+}
+
+// Benchmarks are long-running scenarios, they only run on demand, see the "Benchmarks" section of the README
+tasks.test {
+    useJUnitPlatform {
+        excludeTags("BenchmarkTest")
+    }
+    // -Ptx.test.parallelism=<n> runs n test classes at once, every class on its own participant stack; the cases of a
+    // class share its participants and run one after the other
+    (findProperty("tx.test.parallelism") as String?)?.let { parallelism ->
+        systemProperty("junit.jupiter.execution.parallel.enabled", "true")
+        systemProperty("junit.jupiter.execution.parallel.mode.default", "same_thread")
+        systemProperty("junit.jupiter.execution.parallel.mode.classes.default", "concurrent")
+        systemProperty("junit.jupiter.execution.parallel.config.strategy", "fixed")
+        systemProperty("junit.jupiter.execution.parallel.config.fixed.parallelism", parallelism)
+        systemProperty("junit.jupiter.execution.parallel.config.fixed.max-pool-size", parallelism)
+    }
+    // -Ptx.test.stable.variant=optimized runs the stable runtimes on the optimized images
+    (findProperty("tx.test.stable.variant") as String?)?.let { systemProperty("tx.test.stable.variant", it) }
+    // -Ptx.test.stable.reuse=true keeps the stable runtimes alive between runs, see StableReuse
+    (findProperty("tx.test.stable.reuse") as String?)?.let {
+        check(findProperty("tx.test.parallelism") == null) { "tx.test.stable.reuse cannot be combined with tx.test.parallelism" }
+        systemProperty("tx.test.stable.reuse", it)
+    }
+    forwardContainerLogSettings()
+}
+
+// Trains the AppCDS archives of the optimized stable images on the compatibility tests, into build/cds. The images are
+// built from them with "dockerizeOptimizedCds -Ptx.stable.cds-archive-dir=tests/compatibility-tests/build/cds"
+val cdsTraining = tasks.register<Test>("cdsTraining") {
+    group = "verification"
+    description = "Runs the compatibility tests on the optimized stable images, which write an AppCDS archive on exit"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        excludeTags("BenchmarkTest")
+    }
+    val archives = layout.buildDirectory.dir("cds")
+    systemProperty("tx.test.stable.variant", "optimized-base")
+    systemProperty("tx.test.stable.cds-training-dir", archives.get().asFile.absolutePath)
+    doFirst {
+        archives.get().asFile.deleteRecursively()
+        archives.get().asFile.mkdirs()
+    }
+    outputs.dir(archives)
+    outputs.upToDateWhen { false }
+    dependsOn(":runtimes:stable:controlplane-stable:dockerizeOptimized", ":runtimes:stable:dataplane-stable:dockerizeOptimized")
+}
+
+// when both run, the archives are copied into the images once they are trained
+listOf("controlplane-stable", "dataplane-stable").forEach { runtime ->
+    project(":runtimes:stable:$runtime").tasks.matching { it.name == "copyCdsArchive" }.configureEach { mustRunAfter(cdsTraining) }
+}
+
+// -Dtx.test.logs.level=WARNING, -Dtx.test.logs.console=true etc. configure the container logs, see ContainerLogPipeline
+fun Test.forwardContainerLogSettings() = System.getProperties()
+    .filterKeys { it.toString().startsWith("tx.test.logs") }
+    .forEach { (key, value) -> systemProperty(key.toString(), value) }
+
+fun registerBenchmark(name: String, configuration: Test.() -> Unit = {}) = tasks.register<Test>(name) {
+    group = "verification"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform {
+        includeTags("BenchmarkTest")
+    }
+    System.getProperties()
+        .filterKeys { it.toString().startsWith("tx.benchmark") }
+        .forEach { (key, value) -> systemProperty(key.toString(), value) }
+    forwardContainerLogSettings()
+    // the embedded snapshot runtimes share the heap of the test JVM
+    System.getProperty("tx.benchmark.heap.snapshot")?.let { maxHeapSize = it }
+    outputs.upToDateWhen { false }
+    testLogging {
+        showStandardStreams = true
+    }
+    configuration()
+}
+
+registerBenchmark("benchmark") {
+    description = "Runs the benchmark scenarios"
+    // runs for an hour, see the "soak" task
+    filter.excludeTestsMatching("*SoakBenchmarkTest")
+    // forks a run of the memory footprint benchmark per heap, see the "memoryFootprintSweep" task
+    filter.excludeTestsMatching("*MemoryFootprintSweepBenchmarkTest")
+}
+
+registerBenchmark("openLoopSweep") {
+    description = "Sweeps open-loop arrival rates to find the saturation point of each version"
+    filter.includeTestsMatching("*OpenLoopBenchmarkTest")
+}
+
+registerBenchmark("provisionerSweep") {
+    description = "Runs provisioned transfers against a provisioner stand-in with growing tx.benchmark.provisioner.delays"
+    filter.includeTestsMatching("*HttpProvisionerBenchmarkTest")
+}
+
+registerBenchmark("consumerProxyBenchmark") {
+    description = "Compares pulls through the consumer proxy with direct pulls from the public API of the provider"
+    filter.includeTestsMatching("*ConsumerProxyBenchmarkTest")
+}
+
+registerBenchmark("soak") {
+    description = "Runs transfers at a fixed rate for tx.benchmark.soak.minutes and fails on sustained resource growth"
+    filter.includeTestsMatching("*SoakBenchmarkTest")
+}
+
+val platformThreads = registerBenchmark("concurrencyBenchmarkPlatformThreads") {
+    description = "Runs the concurrency benchmark with executors on platform threads"
+    filter.includeTestsMatching("*ConcurrentTransferBenchmarkTest")
+    systemProperty("tx.benchmark.virtual-threads", "false")
+}
+
+val virtualThreads = registerBenchmark("concurrencyBenchmarkVirtualThreads") {
+    description = "Runs the concurrency benchmark with executors on virtual threads"
+    filter.includeTestsMatching("*ConcurrentTransferBenchmarkTest")
+    systemProperty("tx.benchmark.virtual-threads", "true")
+    mustRunAfter(platformThreads)
+}
+
+// needs -Ptx.stable.cds-archive-dir=tests/compatibility-tests/build/cds, so that the optimized images get the archives trained here
+registerBenchmark("optimizedImageComparison") {
+    description = "Compares startup time, RSS and size of the default and the optimized stable images"
+    filter.includeTestsMatching("*OptimizedImageBenchmarkTest")
+    dependsOn(
+        cdsTraining,
+        ":runtimes:stable:controlplane-stable:dockerize", ":runtimes:stable:dataplane-stable:dockerize",
+        ":runtimes:stable:controlplane-stable:dockerizeOptimizedCds", ":runtimes:stable:dataplane-stable:dockerizeOptimizedCds"
+    )
+}
+
+tasks.register("virtualThreadsComparison") {
+    group = "verification"
+    description = "Compares the concurrency benchmark on platform threads and on virtual threads"
+    dependsOn(platformThreads, virtualThreads)
+}
+
+val vaultUncached = registerBenchmark("vaultBenchmarkUncached") {
+    description = "Runs the vault benchmark with a slow vault backend and without secret cache"
+    filter.includeTestsMatching("*VaultCacheBenchmarkTest")
+    systemProperty("tx.benchmark.vault.cache-ttl-ms", "0")
+}
+
+val vaultCached = registerBenchmark("vaultBenchmarkCached") {
+    description = "Runs the vault benchmark with a slow vault backend and with secret cache"
+    filter.includeTestsMatching("*VaultCacheBenchmarkTest")
+    systemProperty("tx.benchmark.vault.cache-ttl-ms", System.getProperty("tx.benchmark.vault.cache-ttl-ms")?.takeIf { it != "0" } ?: "300000")
+    mustRunAfter(vaultUncached)
+}
+
+tasks.register("vaultCacheComparison") {
+    group = "verification"
+    description = "Compares the vault benchmark without and with secret cache"
+    dependsOn(vaultUncached, vaultCached)
+}
+
+registerBenchmark("memoryFootprintSweep") {
+    description = "Finds the smallest heap out of tx.benchmark.heap-sizes with which each version passes the scenarios"
+    filter.includeTestsMatching("*MemoryFootprintSweepBenchmarkTest")
+}
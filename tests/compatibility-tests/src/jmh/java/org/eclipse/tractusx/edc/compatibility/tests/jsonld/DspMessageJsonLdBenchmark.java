@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.jsonld;
+
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.Runtimes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the JSON-LD processing of the DSP messages, per runtime version. Each version is loaded from the
+ * classpath of its runtime module in an isolated class loader, so both are measured with their own JSON-LD
+ * and JSON implementations.
+ * <ul>
+ *     <li>{@code expand}: ingress of a message received from the counter-party</li>
+ *     <li>{@code compact}: egress of a message sent to the counter-party</li>
+ *     <li>{@code roundTrip}: parsing, expansion, compaction and serialization of a message</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DspMessageJsonLdBenchmark {
+
+    @Param({ "CONTROL_PLANE", "STABLE_CONTROL_PLANE" })
+    private Runtimes runtime;
+
+    @Param({ "CATALOG_REQUEST", "CATALOG", "CONTRACT_REQUEST", "CONTRACT_AGREEMENT", "TRANSFER_START", "CONTRACT_REQUEST_LARGE_POLICY" })
+    private DspMessages message;
+
+    private JsonLdStack stack;
+    private String json;
+    private Object compacted;
+    private Object expanded;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        stack = JsonLdStack.create(runtime, DspMessages.NAMESPACES, DspMessages.CONTEXTS);
+        json = message.json();
+        compacted = stack.parse(json);
+        expanded = stack.expand(compacted);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        stack.close();
+    }
+
+    @Benchmark
+    public Object expand() {
+        return stack.expand(compacted);
+    }
+
+    @Benchmark
+    public Object compact() {
+        return stack.compact(expanded);
+    }
+
+    @Benchmark
+    public String roundTrip() {
+        return stack.serialize(stack.compact(stack.expand(stack.parse(json))));
+    }
+}
@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.jsonld;
+
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.Runtimes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the DSP {@code TypeTransformerRegistry}, per runtime version: the step between the JSON-LD processing
+ * measured by {@link DspMessageJsonLdBenchmark} and the typed messages handled by the protocol services.
+ * <ul>
+ *     <li>{@code toTyped}: expanded message received from the counter-party into the typed message</li>
+ *     <li>{@code fromTyped}: typed message into the expanded message sent to the counter-party</li>
+ *     <li>{@code ingress}: parsing, expansion and transformation into the typed message</li>
+ *     <li>{@code egress}: transformation of the typed message, compaction and serialization</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DspMessageTransformBenchmark {
+
+    @Param({ "CONTROL_PLANE", "STABLE_CONTROL_PLANE" })
+    private Runtimes runtime;
+
+    @Param({ "CATALOG_REQUEST", "CATALOG", "CONTRACT_REQUEST", "CONTRACT_AGREEMENT", "TRANSFER_START", "CONTRACT_REQUEST_LARGE_POLICY" })
+    private DspMessages message;
+
+    private JsonLdStack stack;
+    private TransformerStack transformers;
+    private String json;
+    private Class<?> type;
+    private Object expanded;
+    private Object typed;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        stack = JsonLdStack.create(runtime, DspMessages.NAMESPACES, DspMessages.CONTEXTS);
+        transformers = TransformerStack.create(stack, DspMessages.NAMESPACES.get("dspace"));
+        json = message.json();
+        type = transformers.typeOf(message.typeName());
+        expanded = stack.expand(stack.parse(json));
+        typed = transformers.toTyped(expanded, type);
+        transformers.fromTyped(typed);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        stack.close();
+    }
+
+    @Benchmark
+    public Object toTyped() {
+        return transformers.toTyped(expanded, type);
+    }
+
+    @Benchmark
+    public Object fromTyped() {
+        return transformers.fromTyped(typed);
+    }
+
+    @Benchmark
+    public Object ingress() {
+        return transformers.toTyped(stack.expand(stack.parse(json)), type);
+    }
+
+    @Benchmark
+    public String egress() {
+        return stack.serialize(stack.compact(transformers.fromTyped(typed)));
+    }
+}
@@ -0,0 +1,249 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.jsonld;
+
+import jakarta.json.Json;
+import jakarta.json.JsonArrayBuilder;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonObjectBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.eclipse.edc.spi.constants.CoreConstants.EDC_NAMESPACE;
+
+/**
+ * DSP 2024/1 messages as they are exchanged between the connectors, in compacted form: the context references the
+ * DSP context by its URL, which every runtime resolves from its own cached documents, next to the namespace prefixes
+ * the runtimes compact with.
+ */
+public enum DspMessages {
+
+    CATALOG_REQUEST("CatalogRequestMessage") {
+        @Override
+        JsonObject create() {
+            return message("dspace:CatalogRequestMessage")
+                    .add("dspace:filter", Json.createObjectBuilder()
+                            .add("@type", "QuerySpec")
+                            .add("offset", 0)
+                            .add("limit", 50))
+                    .build();
+        }
+    },
+    CATALOG("Catalog") {
+        @Override
+        JsonObject create() {
+            var datasets = Json.createArrayBuilder();
+            IntStream.range(0, CATALOG_SIZE).forEach(i -> datasets.add(dataset("asset-" + i)));
+            return message("dcat:Catalog")
+                    .add("@id", UUID.randomUUID().toString())
+                    .add("dspace:participantId", PROVIDER)
+                    .add("dcat:dataset", datasets)
+                    .add("dcat:service", dataService())
+                    .build();
+        }
+    },
+    CONTRACT_REQUEST("ContractRequestMessage") {
+        @Override
+        JsonObject create() {
+            return message("dspace:ContractRequestMessage")
+                    .add("dspace:providerPid", UUID.randomUUID().toString())
+                    .add("dspace:consumerPid", UUID.randomUUID().toString())
+                    .add("dspace:callbackAddress", "http://localhost:8282/protocol")
+                    .add("dspace:offer", policy("Offer", 1))
+                    .build();
+        }
+    },
+    CONTRACT_AGREEMENT("ContractAgreementMessage") {
+        @Override
+        JsonObject create() {
+            return message("dspace:ContractAgreementMessage")
+                    .add("dspace:providerPid", UUID.randomUUID().toString())
+                    .add("dspace:consumerPid", UUID.randomUUID().toString())
+                    .add("dspace:agreement", policy("Agreement", 1)
+                            .add("odrl:assignee", Json.createObjectBuilder().add("@id", CONSUMER))
+                            .add("odrl:assigner", Json.createObjectBuilder().add("@id", PROVIDER))
+                            .add("dspace:timestamp", "2024-01-01T00:00:00Z"))
+                    .build();
+        }
+    },
+    TRANSFER_START("TransferStartMessage") {
+        @Override
+        JsonObject create() {
+            return message("dspace:TransferStartMessage")
+                    .add("dspace:providerPid", UUID.randomUUID().toString())
+                    .add("dspace:consumerPid", UUID.randomUUID().toString())
+                    .add("dspace:dataAddress", Json.createObjectBuilder()
+                            .add("@type", "dspace:DataAddress")
+                            .add("dspace:endpointType", "https://w3id.org/idsa/v4.1/HTTP")
+                            .add("dspace:endpoint", "http://localhost:8185/public/v2/")
+                            .add("dspace:endpointProperties", Json.createArrayBuilder()
+                                    .add(endpointProperty("authorization", "x".repeat(TOKEN_SIZE)))
+                                    .add(endpointProperty("authType", "bearer"))
+                                    .add(endpointProperty(EDC_NAMESPACE + "transferProcessId", UUID.randomUUID().toString()))))
+                    .build();
+        }
+    },
+    CONTRACT_REQUEST_LARGE_POLICY("ContractRequestMessage") {
+        @Override
+        JsonObject create() {
+            return message("dspace:ContractRequestMessage")
+                    .add("dspace:providerPid", UUID.randomUUID().toString())
+                    .add("dspace:consumerPid", UUID.randomUUID().toString())
+                    .add("dspace:callbackAddress", "http://localhost:8282/protocol")
+                    .add("dspace:offer", policy("Offer", LARGE_POLICY_PERMISSIONS))
+                    .build();
+        }
+    };
+
+    public static final String DSPACE_CONTEXT = "https://w3id.org/dspace/2024/1/context.json";
+    public static final List<String> CONTEXTS = List.of(DSPACE_CONTEXT);
+    public static final Map<String, String> NAMESPACES = Map.of(
+            "@vocab", EDC_NAMESPACE,
+            "edc", EDC_NAMESPACE,
+            "dspace", "https://w3id.org/dspace/v0.8/",
+            "odrl", "http://www.w3.org/ns/odrl/2/",
+            "dcat", "http://www.w3.org/ns/dcat#",
+            "dct", "http://purl.org/dc/terms/",
+            "cx-policy", "https://w3id.org/catenax/policy/"
+    );
+
+    private static final String PROVIDER = "BPNL000000000001";
+    private static final String CONSUMER = "BPNL000000000002";
+    private static final int CATALOG_SIZE = 25;
+    private static final int LARGE_POLICY_PERMISSIONS = 50;
+    private static final int TOKEN_SIZE = 600;
+
+    private final String typeName;
+
+    DspMessages(String typeName) {
+        this.typeName = typeName;
+    }
+
+    /**
+     * Simple name of the typed message the DSP transformers produce out of this message.
+     *
+     * @return the simple class name
+     */
+    public String typeName() {
+        return typeName;
+    }
+
+    /**
+     * Serialized form of the message.
+     *
+     * @return the message as JSON string
+     */
+    public String json() {
+        return create().toString();
+    }
+
+    abstract JsonObject create();
+
+    private static JsonObjectBuilder message(String type) {
+        return Json.createObjectBuilder()
+                .add("@context", context())
+                .add("@type", type);
+    }
+
+    private static JsonArrayBuilder context() {
+        var namespaces = Json.createObjectBuilder();
+        NAMESPACES.forEach(namespaces::add);
+        var context = Json.createArrayBuilder();
+        CONTEXTS.forEach(context::add);
+        return context.add(namespaces);
+    }
+
+    /**
+     * Builds a policy out of the permission of {@code PolicyHelperFunctions.contractExpiresIn}, repeated to get
+     * to the requested size, with the ODRL terms prefixed as the runtimes compact them.
+     */
+    private static JsonObjectBuilder policy(String type, int permissions) {
+        var permissionArray = Json.createArrayBuilder();
+        IntStream.range(0, permissions).forEach(i -> permissionArray.add(contractExpiresInPermission("5s")));
+        return Json.createObjectBuilder()
+                .add("@id", UUID.randomUUID().toString())
+                .add("@type", "odrl:" + type)
+                .add("odrl:target", Json.createObjectBuilder().add("@id", "asset-" + UUID.randomUUID()))
+                .add("odrl:permission", permissionArray)
+                .add("odrl:prohibition", Json.createArrayBuilder())
+                .add("odrl:obligation", Json.createArrayBuilder());
+    }
+
+    private static JsonObjectBuilder contractExpiresInPermission(String offset) {
+        return Json.createObjectBuilder()
+                .add("odrl:action", Json.createObjectBuilder().add("@id", "odrl:use"))
+                .add("odrl:constraint", Json.createObjectBuilder()
+                        .add("@type", "odrl:LogicalConstraint")
+                        .add("odrl:and", Json.createArrayBuilder()
+                                .add(constraint("edc:inForceDate", "odrl:gteq", "contractAgreement+0s"))
+                                .add(constraint("edc:inForceDate", "odrl:lteq", "contractAgreement+" + offset))
+                                .add(constraint("cx-policy:Membership", "odrl:eq", "active"))));
+    }
+
+    private static JsonObjectBuilder constraint(String leftOperand, String operator, String rightOperand) {
+        return Json.createObjectBuilder()
+                .add("@type", "odrl:Constraint")
+                .add("odrl:leftOperand", Json.createObjectBuilder().add("@id", leftOperand))
+                .add("odrl:operator", Json.createObjectBuilder().add("@id", operator))
+                .add("odrl:rightOperand", rightOperand);
+    }
+
+    private static JsonObjectBuilder dataset(String assetId) {
+        return Json.createObjectBuilder()
+                .add("@id", assetId)
+                .add("@type", "dcat:Dataset")
+                .add("odrl:hasPolicy", policy("Offer", 1))
+                .add("dcat:distribution", distributions())
+                .add("description", "description of " + assetId)
+                .add("id", assetId);
+    }
+
+    private static JsonArrayBuilder distributions() {
+        return Json.createArrayBuilder()
+                .add(distribution("HttpData-PULL"))
+                .add(distribution("HttpData-PUSH"))
+                .add(distribution("AmazonS3-PUSH"));
+    }
+
+    private static JsonObjectBuilder distribution(String format) {
+        return Json.createObjectBuilder()
+                .add("@type", "dcat:Distribution")
+                .add("dct:format", Json.createObjectBuilder().add("@id", format))
+                .add("dcat:accessService", "data-service");
+    }
+
+    private static JsonObjectBuilder dataService() {
+        return Json.createObjectBuilder()
+                .add("@id", "data-service")
+                .add("@type", "dcat:DataService")
+                .add("dcat:endpointDescription", "dspace:connector")
+                .add("dcat:endpointUrl", "http://localhost:8282/protocol");
+    }
+
+    private static JsonObjectBuilder endpointProperty(String name, String value) {
+        return Json.createObjectBuilder()
+                .add("@type", "dspace:EndpointProperty")
+                .add("dspace:name", name)
+                .add("dspace:value", value);
+    }
+}
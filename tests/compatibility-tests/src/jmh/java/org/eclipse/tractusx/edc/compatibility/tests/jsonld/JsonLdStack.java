@@ -0,0 +1,235 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.jsonld;
+
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.Runtimes;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URLClassLoader;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * JSON-LD stack of a runtime loaded in an isolated class loader, so that the snapshot and the stable
+ * versions can be benchmarked side by side in the same JVM. Documents are handed around as opaque objects
+ * that belong to the class loader of the stack. Like in the runtime, remote contexts are resolved from the context
+ * documents its JSON-LD extension caches, taken from the classpath of the runtime.
+ */
+public class JsonLdStack implements AutoCloseable {
+
+    private static final String JSON_LD = "org.eclipse.edc.jsonld.TitaniumJsonLd";
+    private static final String JSON_LD_SPI = "org.eclipse.edc.jsonld.spi.JsonLd";
+    private static final String MONITOR = "org.eclipse.edc.spi.monitor.Monitor";
+    private static final String JSON_PROVIDER = "jakarta.json.spi.JsonProvider";
+    private static final String JSON_OBJECT = "jakarta.json.JsonObject";
+    private static final String JSON_STRUCTURE = "jakarta.json.JsonStructure";
+    // the documents the JSON-LD extension of the runtimes caches, by the URL of the context
+    private static final Map<String, String> CACHED_DOCUMENTS = Map.of(
+            "https://w3id.org/dspace/2024/1/context.json", "document/dspace.jsonld",
+            "http://www.w3.org/ns/odrl.jsonld", "document/odrl.jsonld"
+    );
+
+    private final String name;
+    private final URLClassLoader classLoader;
+    private final Object jsonLd;
+    private final Object jsonProvider;
+    private final MethodHandle expand;
+    private final MethodHandle compact;
+    private final MethodHandle succeeded;
+    private final MethodHandle content;
+    private final MethodHandle createReader;
+    private final MethodHandle readObject;
+    private final MethodHandle createWriter;
+    private final MethodHandle write;
+
+    private JsonLdStack(String name, URLClassLoader classLoader, Map<String, String> namespaces, List<String> contexts) throws ReflectiveOperationException {
+        this.name = name;
+        this.classLoader = classLoader;
+
+        var lookup = MethodHandles.publicLookup();
+        var jsonLdSpi = classLoader.loadClass(JSON_LD_SPI);
+        var monitor = classLoader.loadClass(MONITOR);
+        var providerClass = classLoader.loadClass(JSON_PROVIDER);
+        var jsonObject = classLoader.loadClass(JSON_OBJECT);
+        var jsonStructure = classLoader.loadClass(JSON_STRUCTURE);
+        var readerClass = classLoader.loadClass("jakarta.json.JsonReader");
+        var writerClass = classLoader.loadClass("jakarta.json.JsonWriter");
+
+        jsonLd = classLoader.loadClass(JSON_LD).getConstructor(monitor).newInstance(noopMonitor(monitor));
+        var registerNamespace = jsonLdSpi.getMethod("registerNamespace", String.class, String.class);
+        for (var namespace : namespaces.entrySet()) {
+            registerNamespace.invoke(jsonLd, namespace.getKey(), namespace.getValue());
+        }
+        var registerCachedDocument = jsonLdSpi.getMethod("registerCachedDocument", String.class, URI.class);
+        for (var document : CACHED_DOCUMENTS.entrySet()) {
+            registerCachedDocument.invoke(jsonLd, document.getKey(), resource(document.getValue()));
+        }
+        var registerContext = jsonLdSpi.getMethod("registerContext", String.class);
+        for (var context : contexts) {
+            if (!CACHED_DOCUMENTS.containsKey(context)) {
+                throw new IllegalArgumentException("No cached document for context " + context);
+            }
+            registerContext.invoke(jsonLd, context);
+        }
+
+        jsonProvider = withContextClassLoader(() -> providerClass.getMethod("provider").invoke(null));
+
+        var expandMethod = jsonLdSpi.getMethod("expand", jsonObject);
+        var result = expandMethod.getReturnType();
+        expand = lookup.unreflect(expandMethod)
+                .asType(methodType(Object.class, Object.class, Object.class));
+        compact = lookup.unreflect(jsonLdSpi.getMethod("compact", jsonObject))
+                .asType(methodType(Object.class, Object.class, Object.class));
+        succeeded = lookup.unreflect(result.getMethod("succeeded"))
+                .asType(methodType(boolean.class, Object.class));
+        content = lookup.unreflect(result.getMethod("getContent"))
+                .asType(methodType(Object.class, Object.class));
+        createReader = lookup.findVirtual(providerClass, "createReader", methodType(readerClass, Reader.class))
+                .asType(methodType(Object.class, Object.class, Reader.class));
+        readObject = lookup.findVirtual(readerClass, "readObject", methodType(jsonObject))
+                .asType(methodType(Object.class, Object.class));
+        createWriter = lookup.findVirtual(providerClass, "createWriter", methodType(writerClass, Writer.class))
+                .asType(methodType(Object.class, Object.class, Writer.class));
+        write = lookup.findVirtual(writerClass, "write", methodType(void.class, jsonStructure))
+                .asType(methodType(void.class, Object.class, Object.class));
+    }
+
+    /**
+     * Loads the JSON-LD stack of the given runtime in an isolated class loader.
+     *
+     * @param runtime    the runtime whose classpath should be used
+     * @param namespaces the namespaces to register for compaction
+     * @param contexts   the remote contexts to register for compaction, resolved from the cached documents
+     * @return the JSON-LD stack
+     */
+    public static JsonLdStack create(Runtimes runtime, Map<String, String> namespaces, List<String> contexts) {
+        var name = runtime.name().toLowerCase();
+        var classLoader = new URLClassLoader("jsonld-" + name, runtime.classpath(), ClassLoader.getPlatformClassLoader());
+        try {
+            return new JsonLdStack(name, classLoader, namespaces, contexts);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot load the JSON-LD stack of runtime " + name, e);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    URLClassLoader getClassLoader() {
+        return classLoader;
+    }
+
+    /**
+     * Parses a JSON document into a {@code JsonObject} of this stack.
+     *
+     * @param json the serialized document
+     * @return the parsed document
+     */
+    public Object parse(String json) {
+        return withContextClassLoader(() -> readObject.invokeExact(createReader.invokeExact(jsonProvider, (Reader) new StringReader(json))));
+    }
+
+    /**
+     * Serializes a {@code JsonObject} of this stack.
+     *
+     * @param document the document
+     * @return the serialized document
+     */
+    public String serialize(Object document) {
+        return withContextClassLoader(() -> {
+            var writer = new StringWriter();
+            write.invokeExact(createWriter.invokeExact(jsonProvider, (Writer) writer), document);
+            return writer.toString();
+        });
+    }
+
+    public Object expand(Object document) {
+        return withContextClassLoader(() -> unwrap(expand.invokeExact(jsonLd, document), "expand"));
+    }
+
+    public Object compact(Object document) {
+        return withContextClassLoader(() -> unwrap(compact.invokeExact(jsonLd, document), "compact"));
+    }
+
+    @Override
+    public void close() throws Exception {
+        classLoader.close();
+    }
+
+    private URI resource(String path) {
+        var resource = classLoader.getResource(path);
+        if (resource == null) {
+            throw new IllegalStateException("The runtime %s does not cache the context document %s".formatted(name, path));
+        }
+        try {
+            return resource.toURI();
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Invalid context document " + resource, e);
+        }
+    }
+
+    private Object unwrap(Object result, String operation) throws Throwable {
+        if (!(boolean) succeeded.invokeExact(result)) {
+            throw new IllegalStateException("JSON-LD %s failed in %s: %s".formatted(operation, name, result));
+        }
+        return content.invokeExact(result);
+    }
+
+    /**
+     * Jakarta JSON resolves its provider through the context class loader, which has to be the one of the stack
+     * in order not to mix up the JSON implementations of the two versions.
+     */
+    <T> T withContextClassLoader(ThrowingCallable<T> callable) {
+        var thread = Thread.currentThread();
+        var previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(classLoader);
+        try {
+            return callable.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+    }
+
+    Object noopMonitor(Class<?> monitor) {
+        InvocationHandler handler = (proxy, method, args) -> method.isDefault() ? InvocationHandler.invokeDefault(proxy, method, args) : null;
+        return Proxy.newProxyInstance(classLoader, new Class<?>[]{ monitor }, handler);
+    }
+
+    @FunctionalInterface
+    interface ThrowingCallable<T> {
+        T call() throws Throwable;
+    }
+}
@@ -0,0 +1,286 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.jsonld;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * {@code TypeTransformerRegistry} of a runtime, wired with the JSON-LD transformers found on the classpath of the
+ * given {@link JsonLdStack}. The transformer constructors differ between versions, so they are discovered and
+ * instantiated reflectively with the collaborators they ask for; transformers whose constructor cannot be
+ * satisfied are left out.
+ */
+public class TransformerStack {
+
+    private static final Pattern TRANSFORMER = Pattern.compile("org/eclipse/edc/.*/(JsonObject|JsonValue|JsonString)(To|From)\\w+Transformer\\.class");
+    private static final Pattern VERSIONED_PACKAGE = Pattern.compile("\\.v\\d+\\.");
+    private static final String TYPE_TRANSFORMER = "org.eclipse.edc.transform.spi.TypeTransformer";
+    private static final String REGISTRY = "org.eclipse.edc.transform.spi.TypeTransformerRegistry";
+    private static final List<String> REGISTRY_IMPLEMENTATIONS = List.of("org.eclipse.edc.transform.TypeTransformerRegistryImpl", "org.eclipse.edc.core.transform.TypeTransformerRegistryImpl");
+    private static final List<String> TYPE_MANAGER_IMPLEMENTATIONS = List.of("org.eclipse.edc.json.JacksonTypeManager", "org.eclipse.edc.spi.types.TypeManager");
+    private static final String RESULT = "org.eclipse.edc.spi.result.Result";
+
+    private final JsonLdStack stack;
+    private final URLClassLoader classLoader;
+    private final Object registry;
+    private final Class<?> jsonObject;
+    private final Map<Class<?>, Object> collaborators = new HashMap<>();
+    private final Map<String, Object> transformers = new HashMap<>();
+    private final MethodHandle transform;
+    private final MethodHandle succeeded;
+    private final MethodHandle content;
+    private final MethodHandle failureDetail;
+    private final MethodHandle outputType;
+
+    private TransformerStack(JsonLdStack stack, String dspNamespace) throws ReflectiveOperationException {
+        this.stack = stack;
+        this.classLoader = stack.getClassLoader();
+
+        var lookup = MethodHandles.publicLookup();
+        var registryClass = classLoader.loadClass(REGISTRY);
+        var transformerClass = classLoader.loadClass(TYPE_TRANSFORMER);
+        var resultClass = classLoader.loadClass(RESULT);
+        jsonObject = classLoader.loadClass("jakarta.json.JsonObject");
+        registry = instantiate(REGISTRY_IMPLEMENTATIONS);
+        transform = lookup.findVirtual(registryClass, "transform", methodType(resultClass, Object.class, Class.class))
+                .asType(methodType(Object.class, Object.class, Object.class, Class.class));
+        succeeded = lookup.unreflect(resultClass.getMethod("succeeded"))
+                .asType(methodType(boolean.class, Object.class));
+        content = lookup.unreflect(resultClass.getMethod("getContent"))
+                .asType(methodType(Object.class, Object.class));
+        failureDetail = lookup.unreflect(resultClass.getMethod("getFailureDetail"))
+                .asType(methodType(String.class, Object.class));
+        outputType = lookup.unreflect(transformerClass.getMethod("getOutputType"))
+                .asType(methodType(Class.class, Object.class));
+
+        collaborators.put(classLoader.loadClass("org.eclipse.edc.spi.monitor.Monitor"), stack.noopMonitor(classLoader.loadClass("org.eclipse.edc.spi.monitor.Monitor")));
+        collaborators.put(classLoader.loadClass("jakarta.json.JsonBuilderFactory"), stack.withContextClassLoader(() ->
+                classLoader.loadClass("jakarta.json.Json").getMethod("createBuilderFactory", Map.class).invoke(null, Map.of())));
+        collaborators.put(classLoader.loadClass("com.fasterxml.jackson.databind.ObjectMapper"), classLoader.loadClass("com.fasterxml.jackson.databind.ObjectMapper").getConstructor().newInstance());
+        collaborators.put(classLoader.loadClass("org.eclipse.edc.spi.types.TypeManager"), instantiate(TYPE_MANAGER_IMPLEMENTATIONS));
+        optionalClass("org.eclipse.edc.jsonld.spi.JsonLdNamespace")
+                .ifPresent(namespace -> collaborators.put(namespace, newNamespace(namespace, dspNamespace)));
+        optionalClass("org.eclipse.edc.participant.spi.ParticipantIdMapper")
+                .ifPresent(mapper -> collaborators.put(mapper, identity(mapper)));
+
+        var register = registryClass.getMethod("register", transformerClass);
+        for (var transformer : discover(transformerClass)) {
+            register.invoke(registry, transformer);
+            transformers.put(transformer.getClass().getSimpleName(), transformer);
+        }
+    }
+
+    /**
+     * Wires the transformers found on the classpath of the JSON-LD stack.
+     *
+     * @param stack        the JSON-LD stack of the runtime
+     * @param dspNamespace the DSP namespace the messages are expressed in
+     * @return the transformer stack
+     */
+    public static TransformerStack create(JsonLdStack stack, String dspNamespace) {
+        try {
+            return new TransformerStack(stack, dspNamespace);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot wire the DSP transformers of runtime " + stack.getName(), e);
+        }
+    }
+
+    /**
+     * Resolves the typed class produced by the {@code JsonObjectTo<typeName>Transformer}.
+     *
+     * @param typeName the simple name of the typed class
+     * @return the typed class
+     */
+    public Class<?> typeOf(String typeName) {
+        var transformer = transformers.get("JsonObjectTo" + typeName + "Transformer");
+        if (transformer == null) {
+            throw new IllegalStateException("No transformer to %s in %s, wired: %s".formatted(typeName, stack.getName(), transformers.keySet()));
+        }
+        return stack.withContextClassLoader(() -> (Class<?>) outputType.invokeExact(transformer));
+    }
+
+    /**
+     * Transforms an expanded {@code JsonObject} into the typed message.
+     *
+     * @param expanded the expanded document
+     * @param type     the typed class
+     * @return the typed message
+     */
+    public Object toTyped(Object expanded, Class<?> type) {
+        return transform(expanded, type);
+    }
+
+    /**
+     * Transforms a typed message into an expanded {@code JsonObject}.
+     *
+     * @param typed the typed message
+     * @return the expanded document
+     */
+    public Object fromTyped(Object typed) {
+        return transform(typed, jsonObject);
+    }
+
+    private Object transform(Object input, Class<?> type) {
+        return stack.withContextClassLoader(() -> {
+            var result = transform.invokeExact(registry, input, type);
+            if (!(boolean) succeeded.invokeExact(result)) {
+                throw new IllegalStateException("Transformation of %s to %s failed in %s: %s".formatted(input.getClass().getSimpleName(),
+                        type.getSimpleName(), stack.getName(), (String) failureDetail.invokeExact(result)));
+            }
+            return content.invokeExact(result);
+        });
+    }
+
+    /**
+     * Instantiates all the transformers that can be wired. Versioned packages are registered first, so that the
+     * unversioned transformers, which the DSP v0.8 endpoints use, take precedence for the same type pair.
+     */
+    private List<Object> discover(Class<?> transformerClass) {
+        var instances = new ArrayList<Object>();
+        transformerClassNames().stream()
+                .sorted(Comparator.comparing((String name) -> !VERSIONED_PACKAGE.matcher(name).find()).thenComparing(Comparator.naturalOrder()))
+                .map(this::optionalClass)
+                .flatMap(Optional::stream)
+                .filter(transformerClass::isAssignableFrom)
+                .filter(type -> !type.isInterface() && !Modifier.isAbstract(type.getModifiers()) && Modifier.isPublic(type.getModifiers()))
+                .map(this::newTransformer)
+                .flatMap(Optional::stream)
+                .forEach(instances::add);
+        return instances;
+    }
+
+    private List<String> transformerClassNames() {
+        var names = new ArrayList<String>();
+        for (var url : classLoader.getURLs()) {
+            entries(url).filter(entry -> TRANSFORMER.matcher(entry).matches())
+                    .map(entry -> entry.substring(0, entry.length() - ".class".length()).replace('/', '.'))
+                    .forEach(names::add);
+        }
+        return names;
+    }
+
+    private Stream<String> entries(URL url) {
+        try {
+            var path = Path.of(url.toURI());
+            if (Files.isDirectory(path)) {
+                try (var files = Files.walk(path)) {
+                    return files.map(file -> path.relativize(file).toString().replace('\\', '/')).toList().stream();
+                }
+            }
+            try (var jar = new JarFile(path.toFile())) {
+                return jar.stream().map(JarEntry::getName).toList().stream();
+            }
+        } catch (IOException | URISyntaxException e) {
+            throw new IllegalStateException("Cannot list the classes of " + url, e);
+        }
+    }
+
+    private Optional<Object> newTransformer(Class<?> type) {
+        return Arrays.stream(type.getConstructors())
+                .sorted(Comparator.comparingInt((Constructor<?> constructor) -> constructor.getParameterCount()).reversed())
+                .map(this::arguments)
+                .flatMap(Optional::stream)
+                .findFirst()
+                .map(wiring -> {
+                    try {
+                        return wiring.constructor().newInstance(wiring.arguments());
+                    } catch (ReflectiveOperationException e) {
+                        throw new IllegalStateException("Cannot instantiate " + type.getName(), e);
+                    }
+                });
+    }
+
+    private Optional<Wiring> arguments(Constructor<?> constructor) {
+        var parameters = constructor.getParameterTypes();
+        var arguments = new Object[parameters.length];
+        for (var i = 0; i < parameters.length; i++) {
+            var parameter = parameters[i];
+            if (parameter == boolean.class) {
+                arguments[i] = false;
+            } else if (collaborators.containsKey(parameter)) {
+                arguments[i] = collaborators.get(parameter);
+            } else {
+                return Optional.empty();
+            }
+        }
+        return Optional.of(new Wiring(constructor, arguments));
+    }
+
+    private Object instantiate(List<String> candidates) throws ReflectiveOperationException {
+        for (var candidate : candidates) {
+            var type = optionalClass(candidate);
+            if (type.isPresent() && !type.get().isInterface()) {
+                return type.get().getConstructor().newInstance();
+            }
+        }
+        throw new ClassNotFoundException("None of " + candidates + " found in " + stack.getName());
+    }
+
+    private Optional<Class<?>> optionalClass(String name) {
+        try {
+            return Optional.of(classLoader.loadClass(name));
+        } catch (ClassNotFoundException | LinkageError e) {
+            return Optional.empty();
+        }
+    }
+
+    private Object newNamespace(Class<?> namespace, String uri) {
+        try {
+            return namespace.getConstructor(String.class).newInstance(uri);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create the DSP namespace in " + stack.getName(), e);
+        }
+    }
+
+    /**
+     * Participant ids are used as they are, as the DSP v0.8 mapping does.
+     */
+    private Object identity(Class<?> mapper) {
+        InvocationHandler handler = (proxy, method, args) -> args != null && args.length == 1 && method.getReturnType() == String.class ? args[0] : null;
+        return Proxy.newProxyInstance(classLoader, new Class<?>[]{ mapper }, handler);
+    }
+
+    private record Wiring(Constructor<?> constructor, Object[] arguments) {
+    }
+}
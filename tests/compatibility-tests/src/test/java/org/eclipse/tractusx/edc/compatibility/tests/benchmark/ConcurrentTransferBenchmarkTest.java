@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.benchmark;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.eclipse.edc.connector.controlplane.test.system.utils.PolicyFixtures;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.BaseParticipant;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.DataspaceDirections;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.DataspaceExtension;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BenchmarkReport;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BenchmarkTest;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.LatencyRecorder;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferProcessStates.STARTED;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.TransferHelperFunctions.createResourcesOnProvider;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.TransferHelperFunctions.httpSourceDataAddress;
+
+/**
+ * Starts many transfers at once and measures the time until they are {@code STARTED}. The executors of the
+ * participants run on platform or on virtual threads, depending on the {@code tx.benchmark.virtual-threads}
+ * system property, so that both modes can be compared with the {@code virtualThreadsComparison} task. The snapshot
+ * runtimes are embedded in the test JVM, so virtual threads are refused when that JVM cannot create them, instead of
+ * reporting platform threads as virtual ones; every row records the Java version of the test JVM.
+ */
+@BenchmarkTest
+public class ConcurrentTransferBenchmarkTest {
+
+    private static final boolean VIRTUAL_THREADS = Boolean.getBoolean("tx.benchmark.virtual-threads");
+    private static final int TRANSFERS = Integer.getInteger("tx.benchmark.transfers", 100);
+    private static final int CONCURRENCY = Integer.getInteger("tx.benchmark.concurrency", 20);
+
+    private static final String VIRTUAL_THREADS_SETTING = "tx.edc.executor.virtual-threads.enabled";
+    private static final String VIRTUAL_THREADS_ENV = "TX_EDC_EXECUTOR_VIRTUAL-THREADS_ENABLED";
+    // same check as VirtualThreadExecutorInstrumentation.isSupported(), which falls back to platform threads otherwise
+    private static final boolean VIRTUAL_THREADS_SUPPORTED = Runtime.version().feature() >= 21;
+
+    static {
+        if (VIRTUAL_THREADS && !VIRTUAL_THREADS_SUPPORTED) {
+            throw new IllegalStateException("tx.benchmark.virtual-threads needs Java 21 or later for the snapshot runtimes embedded in the test JVM, found Java " + Runtime.version());
+        }
+    }
+
+    @Order(0)
+    @RegisterExtension
+    static final DataspaceExtension DATASPACE = DataspaceExtension.Builder.newInstance()
+            .localControlPlaneConfig(VIRTUAL_THREADS_SETTING, String.valueOf(VIRTUAL_THREADS))
+            .localDataPlaneConfig(VIRTUAL_THREADS_SETTING, String.valueOf(VIRTUAL_THREADS))
+            .remoteControlPlaneEnv(VIRTUAL_THREADS_ENV, String.valueOf(VIRTUAL_THREADS))
+            .remoteDataPlaneEnv(VIRTUAL_THREADS_ENV, String.valueOf(VIRTUAL_THREADS))
+            .build();
+
+    @RegisterExtension
+    static WireMockExtension providerDataSource = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort())
+            .build();
+
+    @RegisterExtension
+    static final BenchmarkReport REPORT = BenchmarkReport.create(reportName(VIRTUAL_THREADS))
+            .comparedTo(VIRTUAL_THREADS ? reportName(false) : null);
+
+    @ParameterizedTest
+    @ArgumentsSource(DataspaceDirections.class)
+    void concurrentTransfers(BaseParticipant consumer, BaseParticipant provider, String protocol) throws Exception {
+        consumer.setProtocol(protocol);
+        provider.setProtocol(protocol);
+        provider.waitForDataPlane();
+        providerDataSource.stubFor(any(anyUrl()).willReturn(ok("data")));
+        var assetId = UUID.randomUUID().toString();
+        createResourcesOnProvider(provider, assetId, PolicyFixtures.noConstraintPolicy(),
+                httpSourceDataAddress("http://localhost:" + providerDataSource.getPort() + "/source"));
+
+        var latencies = new LatencyRecorder();
+        var executor = Executors.newFixedThreadPool(CONCURRENCY);
+        var start = System.nanoTime();
+        try {
+            var futures = new ArrayList<Future<?>>();
+            for (var i = 0; i < TRANSFERS; i++) {
+                futures.add(executor.submit(() -> latencies.time(() -> {
+                    var transferProcessId = consumer.requestAssetFrom(assetId, provider)
+                            .withTransferType("HttpData-PULL")
+                            .execute();
+                    consumer.awaitTransferToBeInState(transferProcessId, STARTED);
+                })));
+            }
+            for (var future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new AssertionError("Transfer failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        var elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        var summary = latencies.summary();
+        assertThat(summary.count()).isEqualTo(TRANSFERS);
+
+        var row = consumer.getRuntimeVersion() + "->" + provider.getRuntimeVersion();
+        REPORT.add(row, "concurrency", CONCURRENCY);
+        REPORT.add(row, "test_jvm_java", Runtime.version().toString());
+        REPORT.add(row, "test_jvm_virtual_threads_supported", VIRTUAL_THREADS_SUPPORTED);
+        REPORT.add(row, summary.metrics("started_"));
+        REPORT.add(row, "throughput_per_s", TRANSFERS / elapsedSeconds);
+    }
+
+    private static String reportName(boolean virtualThreads) {
+        return "concurrent-transfers-" + (virtualThreads ? "virtual" : "platform") + "-threads";
+    }
+}
@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+package org.eclipse.tractusx.edc.compatibility.tests.benchmark;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.eclipse.edc.connector.controlplane.test.system.utils.PolicyFixtures;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.BaseParticipant;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.DataspaceDirections;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.DataspaceExtension;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.LocalParticipant;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BenchmarkReport;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BenchmarkTest;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.LatencyRecorder;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferProcessStates.STARTED;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.TransferHelperFunctions.createResourcesOnProvider;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.TransferHelperFunctions.httpSourceDataAddress;
+
+/**
+ * Compares the pulls through the Tractus-X consumer proxy of the consumer data plane, which resolves the EDR by
+ * transfer process id or by asset id on every request, with direct pulls from the public API of the provider. Each
+ * way runs {@code tx.benchmark.consumer-proxy.requests} pulls on {@code tx.benchmark.concurrency} threads:
+ * <ul>
+ *     <li>{@code direct}: the pull with an EDR that the backend application keeps</li>
+ *     <li>{@code edr_lookup}: the lookup of the EDR in the management API of the consumer</li>
+ *     <li>{@code direct_with_lookup}: the lookup followed by the pull, for a backend application without EDR cache</li>
+ *     <li>{@code proxy_transfer}, {@code proxy_asset}: the pull through the consumer proxy</li>
+ * </ul>
+ * The overhead of the consumer proxy is reported as the difference of its median to the one of the direct pull.
+ * <p>
+ * The stable consumer finds the EDR in the vault its control plane and its data plane share, while the EDR of the
+ * snapshot consumer is copied to its data plane by the test, which the report states as {@code edr_source}.
+ */
+@BenchmarkTest
+public class ConsumerProxyBenchmarkTest {
+
+    private static final int REQUESTS = Integer.getInteger("tx.benchmark.consumer-proxy.requests", 500);
+    private static final int WARM_UP_REQUESTS = Integer.getInteger("tx.benchmark.consumer-proxy.warm-up-requests", 50);
+    private static final int CONCURRENCY = Integer.getInteger("tx.benchmark.concurrency", 10);
+    // the consumer proxy resolves the EDRs that the control plane stores, which needs a vault both runtimes share
+    private static final String SHARED_VAULT_ENV = "TESTING_EDC_VAULT_SHARED_ENABLED";
+
+    @Order(0)
+    @RegisterExtension
+    static final DataspaceExtension DATASPACE = DataspaceExtension.Builder.newInstance()
+            .remoteControlPlaneEnv(SHARED_VAULT_ENV, "true")
+            .remoteDataPlaneEnv(SHARED_VAULT_ENV, "true")
+            .build();
+
+    @RegisterExtension
+    static WireMockExtension providerDataSource = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort())
+            .build();
+
+    @RegisterExtension
+    static final BenchmarkReport REPORT = BenchmarkReport.create("consumer-proxy");
+
+    @ParameterizedTest(name = "{0} -> {1}")
+    @ArgumentsSource(DataspaceDirections.class)
+    void pulls(BaseParticipant consumer, BaseParticipant provider, String protocol) {
+        consumer.setProtocol(protocol);
+        provider.setProtocol(protocol);
+        provider.waitForDataPlane();
+        providerDataSource.stubFor(any(anyUrl()).willReturn(ok("data")));
+        // an asset with a single transfer, so that the consumer proxy finds a single EDR by asset id
+        var assetId = UUID.randomUUID().toString();
+        createResourcesOnProvider(provider, assetId, PolicyFixtures.noConstraintPolicy(),
+                httpSourceDataAddress("http://localhost:" + providerDataSource.getPort() + "/source"));
+        var transferProcessId = consumer.requestAssetFrom(assetId, provider)
+                .withTransferType("HttpData-PULL")
+                .execute();
+        consumer.awaitTransferToBeInState(transferProcessId, STARTED);
+        var edr = await().atMost(consumer.getTimeout()).until(() -> consumer.getEdr(transferProcessId), Objects::nonNull);
+        if (consumer instanceof LocalParticipant) {
+            DATASPACE.shareLocalEdr(transferProcessId);
+        }
+
+        var byTransfer = Map.of("transferProcessId", transferProcessId);
+        var byAsset = Map.of("assetId", assetId, "providerId", provider.getId());
+        var ways = new LinkedHashMap<String, Runnable>();
+        ways.put("direct", () -> assertThat(consumer.pullDataStatus(edr)).isEqualTo(200));
+        ways.put("edr_lookup", () -> assertThat(consumer.getEdr(transferProcessId)).isNotNull());
+        ways.put("direct_with_lookup", () -> assertThat(consumer.pullDataStatus(consumer.getEdr(transferProcessId))).isEqualTo(200));
+        ways.put("proxy_transfer", () -> assertThat(consumer.pullDataThroughConsumerProxy(byTransfer)).isEqualTo(200));
+        ways.put("proxy_asset", () -> assertThat(consumer.pullDataThroughConsumerProxy(byAsset)).isEqualTo(200));
+
+        var row = "%s->%s".formatted(consumer.getRuntimeVersion(), provider.getRuntimeVersion());
+        var medians = new LinkedHashMap<String, Long>();
+        REPORT.add(row, "concurrency", CONCURRENCY);
+        REPORT.add(row, "edr_source", consumer instanceof LocalParticipant ? "fixture copy" : "shared vault");
+        ways.forEach((way, pull) -> {
+            run(pull, WARM_UP_REQUESTS, new LatencyRecorder());
+            var latencies = new LatencyRecorder();
+            var elapsedSeconds = run(pull, REQUESTS, latencies);
+            var summary = latencies.summary();
+            assertThat(summary.count()).isEqualTo(REQUESTS);
+            medians.put(way, summary.p50().toNanos());
+            REPORT.add(row, summary.metrics(way + "_"));
+            REPORT.add(row, way + "_throughput_per_s", Math.round(REQUESTS * 100 / elapsedSeconds) / 100.0);
+        });
+        for (var way : new String[]{ "proxy_transfer", "proxy_asset" }) {
+            REPORT.add(row, way + "_overhead_p50_ms", (medians.get(way) - medians.get("direct")) / 1_000_000.0);
+        }
+    }
+
+    private double run(Runnable pull, int requests, LatencyRecorder latencies) {
+        var executor = Executors.newFixedThreadPool(CONCURRENCY);
+        var start = System.nanoTime();
+        try {
+            var futures = new ArrayList<Future<?>>();
+            for (var i = 0; i < requests; i++) {
+                futures.add(executor.submit(() -> latencies.time(pull)));
+            }
+            for (var future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new AssertionError("Pull failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError("Interrupted while pulling", e);
+        } finally {
+            executor.shutdownNow();
+        }
+        return (System.nanoTime() - start) / 1_000_000_000.0;
+    }
+}
@@ -0,0 +1,248 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.benchmark;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.eclipse.edc.spi.types.domain.DataAddress;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.BaseParticipant;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.DataspaceExtension;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BenchmarkReport;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BenchmarkTest;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.LatencyRecorder;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.ArgumentsProvider;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.awaitility.Awaitility.await;
+import static org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferProcessStates.STARTED;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.PolicyHelperFunctions.contractExpiresIn;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.TransferHelperFunctions.createResourcesOnProvider;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.TransferHelperFunctions.httpSourceDataAddress;
+
+/**
+ * Starts many transfers whose contracts expire at staggered times, like in {@code httpPullTransfer} but at scale, and
+ * measures how late the policy monitor of the provider enforces the expiry: the delay until the EDR is revoked on
+ * the consumer, and until the first pull is rejected by the provider data plane with 401 or 403. Each number of active
+ * contracts is run against both versions of the provider. Enforcement is observed by sweeps over the expired contracts,
+ * the duration of a sweep is reported as the resolution of the delays.
+ */
+@BenchmarkTest
+public class ContractExpiryBenchmarkTest {
+
+    private static final List<Integer> ACTIVE_CONTRACTS = Arrays.stream(System.getProperty("tx.benchmark.active-contracts", "100,1000,2000").split(","))
+            .map(String::trim)
+            .map(Integer::valueOf)
+            .toList();
+    private static final int CONCURRENCY = Integer.getInteger("tx.benchmark.concurrency", 20);
+    private static final long EXPIRY_OFFSET_SECONDS = Long.getLong("tx.benchmark.expiry-offset-seconds", 300);
+    private static final long EXPIRY_WINDOW_SECONDS = Long.getLong("tx.benchmark.expiry-window-seconds", 120);
+    private static final int EXPIRY_BUCKETS = 20;
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(500);
+    private static final Duration ENFORCEMENT_TIMEOUT = Duration.ofMinutes(5);
+
+    @Order(0)
+    @RegisterExtension
+    static final DataspaceExtension DATASPACE = DataspaceExtension.Builder.newInstance().build();
+
+    @RegisterExtension
+    static WireMockExtension providerDataSource = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort())
+            .build();
+
+    @RegisterExtension
+    static final BenchmarkReport REPORT = BenchmarkReport.create("contract-expiry");
+
+    @ParameterizedTest(name = "{0} -> {1}, {3} contracts")
+    @ArgumentsSource(ActiveContractsArgProvider.class)
+    void expiringContracts(BaseParticipant consumer, BaseParticipant provider, String protocol, int activeContracts) throws Exception {
+        consumer.setProtocol(protocol);
+        provider.setProtocol(protocol);
+        provider.waitForDataPlane();
+        providerDataSource.stubFor(any(anyUrl()).willReturn(ok("data")));
+
+        var buckets = Math.min(activeContracts, EXPIRY_BUCKETS);
+        var offsets = new ArrayList<Long>();
+        var assetIds = new ArrayList<String>();
+        for (var bucket = 0; bucket < buckets; bucket++) {
+            var offset = EXPIRY_OFFSET_SECONDS + bucket * EXPIRY_WINDOW_SECONDS / buckets;
+            var assetId = UUID.randomUUID().toString();
+            createResourcesOnProvider(provider, assetId, contractExpiresIn(offset + "s"),
+                    httpSourceDataAddress("http://localhost:" + providerDataSource.getPort() + "/source"));
+            offsets.add(offset);
+            assetIds.add(assetId);
+        }
+
+        var executor = Executors.newFixedThreadPool(CONCURRENCY);
+        try {
+            var rampUpStart = Instant.now();
+            var started = invokeAll(executor, Stream.iterate(0, i -> i + 1).limit(activeContracts)
+                    .map(i -> (Callable<ExpiringContract>) () -> start(consumer, provider, assetIds.get(i % buckets), offsets.get(i % buckets)))
+                    .toList());
+            var rampUpEnd = Instant.now();
+
+            // contracts that expired while others were still being started would report inflated delays
+            var contracts = started.stream().filter(contract -> contract.expiry().isAfter(rampUpEnd)).toList();
+
+            var lastExpiry = contracts.stream().map(ExpiringContract::expiry).max(Instant::compareTo).orElse(rampUpEnd);
+            var deadline = lastExpiry.plus(ENFORCEMENT_TIMEOUT);
+            var sweeps = new LatencyRecorder();
+            while (contracts.stream().anyMatch(contract -> !contract.enforced()) && Instant.now().isBefore(deadline)) {
+                var now = Instant.now();
+                var expired = contracts.stream()
+                        .filter(contract -> !contract.enforced() && !contract.expiry().isAfter(now))
+                        .map(contract -> (Callable<ExpiringContract>) () -> contract.check(consumer))
+                        .toList();
+                if (!expired.isEmpty()) {
+                    var sweepStart = System.nanoTime();
+                    invokeAll(executor, expired);
+                    sweeps.record(System.nanoTime() - sweepStart + POLL_INTERVAL.toNanos());
+                }
+                Thread.sleep(POLL_INTERVAL.toMillis());
+            }
+
+            var revocation = new LatencyRecorder();
+            var rejection = new LatencyRecorder();
+            contracts.forEach(contract -> {
+                if (contract.revokedAt != null) {
+                    revocation.record(delay(contract.expiry(), contract.revokedAt));
+                }
+                if (contract.rejectedAt != null) {
+                    rejection.record(delay(contract.expiry(), contract.rejectedAt));
+                }
+            });
+
+            var row = "provider=%s contracts=%d".formatted(provider.getRuntimeVersion(), activeContracts);
+            REPORT.add(row, revocation.summary().metrics("revocation_delay_"));
+            REPORT.add(row, rejection.summary().metrics("rejection_delay_"));
+            REPORT.add(row, sweeps.summary().metrics("resolution_"));
+            REPORT.add(row, "not_enforced", contracts.stream().filter(contract -> !contract.enforced()).count());
+            REPORT.add(row, "unexpected_pull_status", contracts.stream().mapToLong(contract -> contract.unexpectedStatuses).sum());
+            REPORT.add(row, "expired_during_ramp_up", started.size() - contracts.size());
+            REPORT.add(row, "ramp_up_s", Duration.between(rampUpStart, rampUpEnd).toMillis() / 1000.0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private ExpiringContract start(BaseParticipant consumer, BaseParticipant provider, String assetId, long offsetSeconds) {
+        var transferProcessId = consumer.requestAssetFrom(assetId, provider)
+                .withTransferType("HttpData-PULL")
+                .execute();
+        consumer.awaitTransferToBeInState(transferProcessId, STARTED);
+        var edr = await().atMost(consumer.getTimeout())
+                .until(() -> consumer.getEdr(transferProcessId), Objects::nonNull);
+        var expiry = consumer.getContractSigningDate(transferProcessId).plusSeconds(offsetSeconds);
+        return new ExpiringContract(transferProcessId, edr, expiry);
+    }
+
+    private static Duration delay(Instant expiry, Instant enforcedAt) {
+        var delay = Duration.between(expiry, enforcedAt);
+        return delay.isNegative() ? Duration.ZERO : delay;
+    }
+
+    private static <T> List<T> invokeAll(ExecutorService executor, List<Callable<T>> tasks) throws InterruptedException {
+        var results = new ArrayList<T>();
+        for (Future<T> future : executor.invokeAll(tasks)) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                throw new AssertionError(e.getCause());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * A started transfer whose contract expires. The expiry is derived from the signing date of the agreement, which
+     * has a precision of seconds. Enforcement is timestamped when the probe of the contract starts, so it happened
+     * at most one sweep earlier.
+     */
+    private static final class ExpiringContract {
+
+        private final String transferProcessId;
+        private final DataAddress edr;
+        private final Instant expiry;
+        private volatile Instant revokedAt;
+        private volatile Instant rejectedAt;
+        private volatile long unexpectedStatuses;
+
+        private ExpiringContract(String transferProcessId, DataAddress edr, Instant expiry) {
+            this.transferProcessId = transferProcessId;
+            this.edr = edr;
+            this.expiry = expiry;
+        }
+
+        Instant expiry() {
+            return expiry;
+        }
+
+        boolean enforced() {
+            return revokedAt != null && rejectedAt != null;
+        }
+
+        ExpiringContract check(BaseParticipant consumer) {
+            var probedAt = Instant.now();
+            if (revokedAt == null && !consumer.hasEdr(transferProcessId)) {
+                revokedAt = probedAt;
+            }
+            if (rejectedAt == null) {
+                var status = consumer.pullDataStatus(edr);
+                if (status == 401 || status == 403) {
+                    rejectedAt = probedAt;
+                } else if (status != 200) {
+                    // errors other than an authorization failure do not prove that the contract has been enforced
+                    unexpectedStatuses++;
+                }
+            }
+            return this;
+        }
+    }
+
+    private static class ActiveContractsArgProvider implements ArgumentsProvider {
+        @Override
+        public Stream<? extends Arguments> provideArguments(ExtensionContext context) {
+            return DATASPACE.directions()
+                    .flatMap(direction -> ACTIVE_CONTRACTS.stream()
+                            .map(contracts -> Arguments.of(direction.get()[0], direction.get()[1], direction.get()[2], contracts)));
+        }
+    }
+}
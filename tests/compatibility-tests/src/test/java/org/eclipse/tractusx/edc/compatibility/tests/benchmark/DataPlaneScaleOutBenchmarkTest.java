@@ -0,0 +1,221 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.benchmark;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.awaitility.core.ConditionTimeoutException;
+import org.eclipse.edc.connector.controlplane.test.system.utils.PolicyFixtures;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.BaseParticipant;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.DataPlaneReplicas;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.DataspaceDirections;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.DataspaceExtension;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.LocalParticipant;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BenchmarkReport;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BenchmarkTest;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.LatencyRecorder;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.sql.DataPlaneAssignments;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferProcessStates.STARTED;
+import static org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferProcessStates.TERMINATED;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.TransferHelperFunctions.createResourcesOnProvider;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.TransferHelperFunctions.httpSourceDataAddress;
+
+/**
+ * Scales the provider out to several data planes, one at a time, and runs the same batch of concurrent transfers on
+ * each step. It reports the throughput gain per added data plane and how evenly the control plane selector spreads
+ * the transfers, as stored in the {@code data_plane_id} of the provider transfer processes. Then it stops one data
+ * plane and measures how long the control plane keeps selecting it, and how many transfers fail meanwhile.
+ */
+@BenchmarkTest
+public class DataPlaneScaleOutBenchmarkTest {
+
+    private static final int DATA_PLANES = Integer.getInteger("tx.benchmark.data-planes", 3);
+    private static final int TRANSFERS = Integer.getInteger("tx.benchmark.transfers", 60);
+    private static final int CONCURRENCY = Integer.getInteger("tx.benchmark.concurrency", 20);
+    private static final Duration FAILOVER_TIMEOUT = Duration.ofSeconds(Long.getLong("tx.benchmark.failover-timeout-seconds", 120));
+    private static final int FAILOVER_PROBES = 10;
+
+    @Order(0)
+    @RegisterExtension
+    static final DataspaceExtension DATASPACE = DataspaceExtension.Builder.newInstance().build();
+
+    @RegisterExtension
+    static WireMockExtension providerDataSource = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort())
+            .build();
+
+    @RegisterExtension
+    static final BenchmarkReport REPORT = BenchmarkReport.create("data-plane-scale-out");
+
+    @ParameterizedTest
+    @ArgumentsSource(DataspaceDirections.class)
+    void scaleOutAndFailover(BaseParticipant consumer, BaseParticipant provider, String protocol) throws Exception {
+        consumer.setProtocol(protocol);
+        provider.setProtocol(protocol);
+        provider.waitForDataPlane();
+        providerDataSource.stubFor(any(anyUrl()).willReturn(ok("data")));
+        var assetId = UUID.randomUUID().toString();
+        createResourcesOnProvider(provider, assetId, PolicyFixtures.noConstraintPolicy(),
+                httpSourceDataAddress("http://localhost:" + providerDataSource.getPort() + "/source"));
+
+        var assignments = new DataPlaneAssignments(DATASPACE.getPostgresql(), provider.getName());
+        var direction = "%s->%s".formatted(consumer.getRuntimeVersion(), provider.getRuntimeVersion());
+
+        try (var replicas = replicas(provider)) {
+            var baseline = 0.0;
+            for (var dataPlanes = 1; dataPlanes <= DATA_PLANES; dataPlanes++) {
+                if (dataPlanes > 1) {
+                    replicas.start();
+                    provider.waitForDataPlanes(dataPlanes);
+                }
+
+                var since = System.currentTimeMillis();
+                var latencies = new LatencyRecorder();
+                var throughput = runTransfers(consumer, provider, assetId, latencies);
+                baseline = dataPlanes == 1 ? throughput : baseline;
+                var loads = new ArrayList<>(assignments.countSince(since).values());
+                while (loads.size() < dataPlanes) {
+                    loads.add(0L);
+                }
+
+                var row = "%s x%d".formatted(direction, dataPlanes);
+                REPORT.add(row, latencies.summary().metrics("started_"));
+                REPORT.add(row, Map.of(
+                        "data_planes", dataPlanes,
+                        "throughput_per_s", throughput,
+                        "throughput_gain", throughput / baseline,
+                        "busiest_share", loads.stream().mapToLong(Long::longValue).max().orElse(0) / (double) TRANSFERS,
+                        "idlest_share", loads.stream().mapToLong(Long::longValue).min().orElse(0) / (double) TRANSFERS,
+                        "load_cv", coefficientOfVariation(loads)));
+            }
+
+            if (DATA_PLANES > 1) {
+                failover(consumer, provider, assetId, replicas, direction + " failover");
+            }
+        }
+    }
+
+    private void failover(BaseParticipant consumer, BaseParticipant provider, String assetId, DataPlaneReplicas replicas, String row) {
+        var stopped = replicas.running().get(0);
+        var start = System.nanoTime();
+        replicas.stop(stopped);
+
+        var attempted = 0;
+        var failed = 0;
+        var detectedNanos = -1L;
+        while (System.nanoTime() - start < FAILOVER_TIMEOUT.toNanos()) {
+            if (!"AVAILABLE".equals(provider.getDataPlaneStates().getOrDefault(stopped, "UNREGISTERED"))) {
+                detectedNanos = System.nanoTime() - start;
+                break;
+            }
+            attempted++;
+            failed += transfer(consumer, provider, assetId) ? 0 : 1;
+        }
+
+        var failedAfterDetection = 0;
+        for (var i = 0; i < FAILOVER_PROBES; i++) {
+            failedAfterDetection += transfer(consumer, provider, assetId) ? 0 : 1;
+        }
+
+        REPORT.add(row, Map.of(
+                "detected", detectedNanos >= 0,
+                "detection_ms", detectedNanos >= 0 ? Duration.ofNanos(detectedNanos).toMillis() : -1,
+                "transfers_before_detection", attempted,
+                "failed_before_detection", failed,
+                "failed_after_detection", failedAfterDetection));
+    }
+
+    private double runTransfers(BaseParticipant consumer, BaseParticipant provider, String assetId, LatencyRecorder latencies) throws InterruptedException {
+        var executor = Executors.newFixedThreadPool(CONCURRENCY);
+        var start = System.nanoTime();
+        try {
+            var futures = new ArrayList<Future<?>>();
+            for (var i = 0; i < TRANSFERS; i++) {
+                futures.add(executor.submit(() -> latencies.time(() -> {
+                    var transferProcessId = consumer.requestAssetFrom(assetId, provider)
+                            .withTransferType("HttpData-PULL")
+                            .execute();
+                    consumer.awaitTransferToBeInState(transferProcessId, STARTED);
+                })));
+            }
+            for (var future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new AssertionError("Transfer failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(latencies.count()).isEqualTo(TRANSFERS);
+        return TRANSFERS / ((System.nanoTime() - start) / 1_000_000_000.0);
+    }
+
+    /**
+     * Runs a single transfer while a data plane may be down.
+     *
+     * @return whether the transfer started, false if it was terminated or got stuck on the stopped data plane
+     */
+    private boolean transfer(BaseParticipant consumer, BaseParticipant provider, String assetId) {
+        var transferProcessId = consumer.requestAssetFrom(assetId, provider)
+                .withTransferType("HttpData-PULL")
+                .execute();
+        try {
+            await().atMost(consumer.getTimeout())
+                    .until(() -> consumer.getTransferProcessState(transferProcessId), state -> STARTED.name().equals(state) || TERMINATED.name().equals(state));
+        } catch (ConditionTimeoutException e) {
+            return false;
+        }
+        return STARTED.name().equals(consumer.getTransferProcessState(transferProcessId));
+    }
+
+    private DataPlaneReplicas replicas(BaseParticipant provider) {
+        return provider instanceof LocalParticipant local
+                ? DataPlaneReplicas.local(local, DATASPACE.getPostgresql(), Map.of())
+                : DataPlaneReplicas.remote(DATASPACE.getRemoteParticipant(), List.of(DATASPACE.getLocalParticipant()), DATASPACE.getPostgresql(), Map.of());
+    }
+
+    private static double coefficientOfVariation(List<Long> loads) {
+        var mean = loads.stream().mapToLong(Long::longValue).average().orElse(0);
+        if (mean == 0) {
+            return 0;
+        }
+        var variance = loads.stream().mapToDouble(load -> (load - mean) * (load - mean)).average().orElse(0);
+        return Math.sqrt(variance) / mean;
+    }
+}
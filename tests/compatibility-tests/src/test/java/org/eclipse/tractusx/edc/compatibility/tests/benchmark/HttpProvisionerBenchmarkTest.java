@@ -0,0 +1,238 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+package org.eclipse.tractusx.edc.compatibility.tests.benchmark;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.eclipse.edc.connector.controlplane.test.system.utils.PolicyFixtures;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.BaseParticipant;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.DataspaceExtension;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.LocalParticipant;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BenchmarkReport;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BenchmarkTest;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.LatencyRecorder;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.provision.HttpProvisionerStandIn;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.sql.TransferStates;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.ArgumentsProvider;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferProcessStates.INITIAL;
+import static org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferProcessStates.PROVISIONED;
+import static org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferProcessStates.PROVISIONING;
+import static org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferProcessStates.PROVISIONING_REQUESTED;
+import static org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferProcessStates.STARTED;
+import static org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferProcessStates.STARTING;
+import static org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferProcessStates.TERMINATED;
+import static org.eclipse.edc.spi.constants.CoreConstants.EDC_NAMESPACE;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.TransferHelperFunctions.createResourcesOnProvider;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.TransferHelperFunctions.httpSourceDataAddress;
+
+/**
+ * Runs concurrent transfers of an asset that the snapshot control plane provisions through its
+ * {@code provisioner.http} entry, against a {@link HttpProvisionerStandIn} that takes
+ * {@code tx.benchmark.provisioner.delays} milliseconds per request. In the {@code callback} mode the stand-in answers
+ * at once and calls the webhook after the delay, like a backend that provisions asynchronously; in the
+ * {@code response} mode it holds the provision request for the delay, which blocks the provisioner of the control
+ * plane.
+ * <p>
+ * Besides the latency and the throughput of the transfers, it reports how many provisionings the control plane keeps
+ * in flight at the backend, and the backlog of its state machine, sampled from the database: the peak number of
+ * provider transfer processes in each state before {@code STARTED}. An effective parallelism close to the
+ * concurrency means that the control plane overlaps the slow provisionings, one close to 1 that it serializes them.
+ */
+@BenchmarkTest
+public class HttpProvisionerBenchmarkTest {
+
+    private static final List<Long> DELAYS = Arrays.stream(System.getProperty("tx.benchmark.provisioner.delays", "0,100,500,2000").split(","))
+            .map(String::trim)
+            .map(Long::parseLong)
+            .toList();
+    private static final List<String> MODES = Arrays.stream(System.getProperty("tx.benchmark.provisioner.modes", "callback,response").split(","))
+            .map(String::trim)
+            .toList();
+    private static final int TRANSFERS = Integer.getInteger("tx.benchmark.transfers", 40);
+    private static final int CONCURRENCY = Integer.getInteger("tx.benchmark.concurrency", 20);
+    private static final Duration SAMPLE_INTERVAL = Duration.ofMillis(200);
+    private static final Set<String> PENDING_STATES = Set.of(INITIAL.name(), PROVISIONING.name(), PROVISIONING_REQUESTED.name(),
+            PROVISIONED.name(), STARTING.name());
+
+    @Order(0)
+    @RegisterExtension
+    static final DataspaceExtension DATASPACE = DataspaceExtension.Builder.newInstance().build();
+
+    @RegisterExtension
+    static WireMockExtension providerDataSource = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort())
+            .build();
+
+    @RegisterExtension
+    static final BenchmarkReport REPORT = BenchmarkReport.create("http-provisioner");
+
+    private static HttpProvisionerStandIn provisioner;
+
+    @BeforeAll
+    static void beforeAll() {
+        // the provisioned transfers read from the data source, the asset itself only points to the provisioner
+        provisioner = HttpProvisionerStandIn.start(DATASPACE.getLocalParticipant().getHttpProvisionerPort(),
+                httpSourceDataAddress("http://localhost:" + providerDataSource.getPort() + "/source"));
+    }
+
+    @AfterAll
+    static void afterAll() {
+        if (provisioner != null) {
+            provisioner.close();
+        }
+    }
+
+    @ParameterizedTest(name = "{0} delay {1}ms")
+    @ArgumentsSource(DelaysArgProvider.class)
+    void provisionedTransfers(String mode, long delayMillis) throws Exception {
+        // only the snapshot control plane is configured with the provisioner
+        var consumer = DATASPACE.getRemoteParticipant();
+        var provider = DATASPACE.getLocalParticipant();
+        consumer.setProtocol(DataspaceExtension.PROTOCOL);
+        provider.setProtocol(DataspaceExtension.PROTOCOL);
+        provider.waitForDataPlane();
+        providerDataSource.stubFor(any(anyUrl()).willReturn(ok("data")));
+        var assetId = UUID.randomUUID().toString();
+        createResourcesOnProvider(provider, assetId, PolicyFixtures.noConstraintPolicy(), Map.of(
+                EDC_NAMESPACE + "name", "provisioned",
+                EDC_NAMESPACE + "type", LocalParticipant.HTTP_PROVISION_TYPE));
+
+        var delay = Duration.ofMillis(delayMillis);
+        provisioner.delays("response".equals(mode) ? delay : Duration.ZERO, "callback".equals(mode) ? delay : Duration.ZERO);
+        provisioner.reset();
+        // the provisionings of one request may be serialized in the worst case
+        var timeout = consumer.getTimeout().plus(delay.multipliedBy(TRANSFERS));
+        var states = new TransferStates(DATASPACE.getPostgresql(), provider.getName());
+        var peaks = new ConcurrentHashMap<String, Long>();
+        var since = System.currentTimeMillis();
+
+        var latencies = new LatencyRecorder();
+        var transferProcessIds = new ArrayList<String>();
+        var executor = Executors.newFixedThreadPool(CONCURRENCY);
+        var sampler = Executors.newSingleThreadScheduledExecutor();
+        var start = System.nanoTime();
+        try {
+            sampler.scheduleAtFixedRate(() -> sampleBacklog(states, since, peaks), 0, SAMPLE_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+            var futures = new ArrayList<Future<String>>();
+            for (var i = 0; i < TRANSFERS; i++) {
+                futures.add(executor.submit(() -> {
+                    var begin = System.nanoTime();
+                    var transferProcessId = consumer.requestAssetFrom(assetId, provider)
+                            .withTransferType("HttpData-PULL")
+                            .execute();
+                    awaitStarted(consumer, transferProcessId, timeout);
+                    latencies.record(System.nanoTime() - begin);
+                    return transferProcessId;
+                }));
+            }
+            for (var future : futures) {
+                transferProcessIds.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            throw new AssertionError("Provisioned transfer failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+            sampler.shutdownNow();
+            sampler.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // the data is served from the address returned by the provisioner, not from the one of the asset
+        var edr = await().atMost(consumer.getTimeout()).until(() -> consumer.getEdr(transferProcessIds.get(0)), Objects::nonNull);
+        consumer.pullData(edr, Map.of(), body -> assertThat(body).isEqualTo("data"));
+
+        var provisionings = provisioner.provisionings();
+        assertThat(provisionings).hasSize(TRANSFERS).allMatch(HttpProvisionerStandIn.Provisioning::isSuccessful);
+        var provisioningLatencies = new LatencyRecorder();
+        provisionings.forEach(provisioning -> provisioningLatencies.record(provisioning.total()));
+        var busy = provisionings.stream().mapToLong(provisioning -> provisioning.total().toNanos()).sum();
+        var summary = latencies.summary();
+        var provisioningSummary = provisioningLatencies.summary();
+
+        var row = "%s %dms".formatted(mode, delayMillis);
+        REPORT.add(row, "transfers", TRANSFERS);
+        REPORT.add(row, "concurrency", CONCURRENCY);
+        REPORT.add(row, "throughput_per_s", Math.round(TRANSFERS * 100.0 / (elapsed.toNanos() / 1_000_000_000.0)) / 100.0);
+        REPORT.add(row, summary.metrics("started_"));
+        REPORT.add(row, provisioningSummary.metrics("provisioning_"));
+        REPORT.add(row, "provisioning_overhead_p50_ms", provisioningSummary.p50().minus(delay).toMillis());
+        REPORT.add(row, "provisioner_peak_in_flight", provisioner.peakInFlight());
+        REPORT.add(row, "effective_parallelism", Math.round(busy * 100.0 / elapsed.toNanos()) / 100.0);
+        REPORT.add(row, "peak_backlog", peaks.getOrDefault("backlog", 0L));
+        for (var state : List.of(INITIAL, PROVISIONING, PROVISIONING_REQUESTED, PROVISIONED, STARTING)) {
+            REPORT.add(row, "peak_" + state.name().toLowerCase(), peaks.getOrDefault(state.name(), 0L));
+        }
+    }
+
+    private void awaitStarted(BaseParticipant consumer, String transferProcessId, Duration timeout) {
+        var state = await().atMost(timeout)
+                .until(() -> consumer.getTransferProcessState(transferProcessId), s -> STARTED.name().equals(s) || TERMINATED.name().equals(s));
+        assertThat(state).as("state of transfer process %s", transferProcessId).isEqualTo(STARTED.name());
+    }
+
+    private void sampleBacklog(TransferStates states, long since, Map<String, Long> peaks) {
+        try {
+            var counts = states.countSince(since);
+            counts.forEach((state, count) -> peaks.merge(state, count, Math::max));
+            var backlog = counts.entrySet().stream()
+                    .filter(entry -> PENDING_STATES.contains(entry.getKey()))
+                    .mapToLong(Map.Entry::getValue)
+                    .sum();
+            peaks.merge("backlog", backlog, Math::max);
+        } catch (IllegalStateException e) {
+            // a missed sample only lowers the peaks, it must not stop the sampling
+        }
+    }
+
+    private static class DelaysArgProvider implements ArgumentsProvider {
+        @Override
+        public Stream<? extends Arguments> provideArguments(ExtensionContext context) {
+            return MODES.stream().flatMap(mode -> DELAYS.stream().map(delay -> Arguments.of(mode, delay)));
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.benchmark;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.eclipse.edc.connector.controlplane.contract.spi.types.negotiation.ContractNegotiationStates;
+import org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferProcessStates;
+import org.eclipse.edc.sql.testfixtures.PostgresqlEndToEndExtension;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.BaseParticipant;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.DataspaceExtension;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.LocalParticipant;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.RemoteParticipant;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BenchmarkReport;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BenchmarkTest;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.logs.ContainerLogExtension;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.sql.BulkLoader;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.sql.PgStatStatements;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.sql.QueryPlans;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.sql.SqlHotspotExtension;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.sql.StatementStatistics;
+import org.eclipse.tractusx.edc.compatibility.tests.transfer.TransferScenarios;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.sql.EdcTables.CONTRACT_NEGOTIATION;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.sql.EdcTables.TRANSFER_PROCESS;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.sql.EdcTables.contractNegotiations;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.sql.EdcTables.edrEntries;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.sql.EdcTables.leases;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.sql.EdcTables.transferProcesses;
+
+/**
+ * Runs the transfer scenarios on participant databases filled with millions of historical rows, loaded with
+ * {@code COPY} before the first scenario. After each scenario, the state machine fetches ("next N in state X") are
+ * read from {@code pg_stat_statements} with their mean latency and plan, so that a lost index shows up as a
+ * sequential scan.
+ */
+@BenchmarkTest
+public class LargeTableTransferBenchmarkTest extends TransferScenarios {
+
+    @Order(0)
+    @RegisterExtension
+    static final DataspaceExtension DATASPACE = DataspaceExtension.Builder.newInstance().build();
+
+    private static final LocalParticipant LOCAL_PARTICIPANT = DATASPACE.getLocalParticipant();
+    private static final RemoteParticipant REMOTE_PARTICIPANT = DATASPACE.getRemoteParticipant();
+    private static final PostgresqlEndToEndExtension POSTGRESQL = DATASPACE.getPostgresql();
+
+    @Order(1)
+    @RegisterExtension
+    static final SqlHotspotExtension SQL_HOTSPOTS = new SqlHotspotExtension(POSTGRESQL, REMOTE_PARTICIPANT.getName(), LOCAL_PARTICIPANT.getName());
+
+    @RegisterExtension
+    static final ContainerLogExtension CONTAINER_LOGS = new ContainerLogExtension();
+
+    @RegisterExtension
+    static WireMockExtension providerDataSource = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort())
+            .resetOnEachTest(false)
+            .build();
+
+    private static final long TRANSFER_PROCESSES = Long.getLong("tx.benchmark.rows.transfer-processes", 1_000_000);
+    private static final long CONTRACT_NEGOTIATIONS = Long.getLong("tx.benchmark.rows.contract-negotiations", 1_000_000);
+    private static final long EDR_ENTRIES = Long.getLong("tx.benchmark.rows.edr-entries", 500_000);
+    private static final long LEASES = Long.getLong("tx.benchmark.rows.leases", 100_000);
+
+    @RegisterExtension
+    static final BenchmarkReport REPORT = BenchmarkReport.create("large-tables");
+    private static final List<String> PLANS = new ArrayList<>();
+
+    @BeforeAll
+    static void loadHistoricalRows() {
+        for (var participant : participants()) {
+            var loader = new BulkLoader(POSTGRESQL, participant.getName());
+            for (var result : List.of(
+                    loader.load(transferProcesses(), TRANSFER_PROCESSES),
+                    loader.load(contractNegotiations(), CONTRACT_NEGOTIATIONS),
+                    loader.load(edrEntries(), EDR_ENTRIES),
+                    loader.load(leases(), LEASES))) {
+                REPORT.add(participant.getRuntimeVersion() + " load " + result.table(), result.metrics());
+            }
+        }
+    }
+
+    @AfterAll
+    static void writeReports() throws IOException {
+        for (var participant : participants()) {
+            var plans = new QueryPlans(POSTGRESQL, participant.getName());
+            representativeFetches().forEach((table, query) -> {
+                var plan = plans.analyze(query);
+                REPORT.add(participant.getRuntimeVersion() + " representative " + table, "seq_scan", QueryPlans.isSequentialScan(plan, table));
+                addPlan(participant.getRuntimeVersion() + " representative " + table, query, plan);
+            });
+        }
+        Files.createDirectories(SqlHotspotExtension.REPORTS_DIRECTORY);
+        Files.write(SqlHotspotExtension.REPORTS_DIRECTORY.resolve("large-tables-plans.txt"), PLANS);
+    }
+
+    @AfterEach
+    void captureStateMachineFetches(TestInfo testInfo) {
+        var scenario = testInfo.getTestMethod().orElseThrow().getName();
+        for (var participant : participants()) {
+            var plans = new QueryPlans(POSTGRESQL, participant.getName());
+            var fetches = new PgStatStatements(POSTGRESQL).dump(participant.getName()).stream()
+                    .filter(LargeTableTransferBenchmarkTest::isStateMachineFetch)
+                    .toList();
+            for (var i = 0; i < fetches.size(); i++) {
+                var fetch = fetches.get(i);
+                var table = fetch.query().contains(TRANSFER_PROCESS) ? TRANSFER_PROCESS : CONTRACT_NEGOTIATION;
+                var plan = plans.generic(fetch.query());
+                var row = "%s %s fetch %s #%d".formatted(participant.getRuntimeVersion(), scenario, table, i);
+
+                var metrics = new LinkedHashMap<String, Object>();
+                metrics.put("calls", fetch.calls());
+                metrics.put("mean_ms", fetch.totalTimeMillis() / fetch.calls());
+                metrics.put("seq_scan", QueryPlans.isSequentialScan(plan, table));
+                REPORT.add(row, metrics);
+                addPlan(row, fetch.oneLine(), plan);
+            }
+        }
+    }
+
+    private static boolean isStateMachineFetch(StatementStatistics statistics) {
+        var query = statistics.oneLine().toLowerCase(Locale.ROOT);
+        return query.startsWith("select") && query.contains("state") && query.contains("limit")
+                && (query.contains(TRANSFER_PROCESS) || query.contains(CONTRACT_NEGOTIATION));
+    }
+
+    /**
+     * State machine fetches on a state that holds a fifth of the historical rows, so that the plan shows how the
+     * database finds a few rows of a state among many, rather than answering from an empty state.
+     */
+    private static Map<String, String> representativeFetches() {
+        return Map.of(
+                TRANSFER_PROCESS, "SELECT * FROM %s WHERE state = %d AND pending = false ORDER BY state_time_stamp LIMIT 5"
+                        .formatted(TRANSFER_PROCESS, TransferProcessStates.TERMINATED.code()),
+                CONTRACT_NEGOTIATION, "SELECT * FROM %s WHERE state = %d AND pending = false ORDER BY state_timestamp LIMIT 5"
+                        .formatted(CONTRACT_NEGOTIATION, ContractNegotiationStates.TERMINATED.code())
+        );
+    }
+
+    private static void addPlan(String title, String query, List<String> plan) {
+        PLANS.add("== " + title);
+        PLANS.add(query);
+        PLANS.addAll(plan);
+        PLANS.add("");
+    }
+
+    @Override
+    protected WireMockExtension providerDataSource() {
+        return providerDataSource;
+    }
+
+    private static List<BaseParticipant> participants() {
+        return List.of(LOCAL_PARTICIPANT, REMOTE_PARTICIPANT);
+    }
+}
@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.benchmark;
+
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import org.eclipse.edc.connector.controlplane.test.system.utils.PolicyFixtures;
+import org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferProcessStates;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.BaseParticipant;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.DataspaceDirections;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.DataspaceExtension;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BenchmarkReport;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BenchmarkTest;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.LatencyRecorder;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.sql.BulkLoader;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.sql.RowCloner;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferProcessStates.STARTED;
+import static org.eclipse.edc.spi.constants.CoreConstants.EDC_NAMESPACE;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.TransferHelperFunctions.createResourcesOnProvider;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.TransferHelperFunctions.httpSourceDataAddress;
+
+/**
+ * Pages through large numbers of contract negotiations, contract agreements and transfer processes with the
+ * management API of the stable and of the snapshot participant. The entities are clones of a real negotiation and
+ * transfer of each participant, so that each management API reads rows written by its own version.
+ */
+@BenchmarkTest
+public class ManagementApiQueryBenchmarkTest {
+
+    private static final long ROWS = Long.getLong("tx.benchmark.rows.management", 100_000);
+    private static final int ITERATIONS = Integer.getInteger("tx.benchmark.iterations", 20);
+    private static final int PAGE_SIZE = 50;
+
+    private static final String RARE_ASSET = "benchmark-rare-asset";
+    private static final String OTHER_COUNTER_PARTY = "http://other-counter-party/api/dsp";
+
+    @Order(0)
+    @RegisterExtension
+    static final DataspaceExtension DATASPACE = DataspaceExtension.Builder.newInstance().build();
+
+    @RegisterExtension
+    static final BenchmarkReport REPORT = BenchmarkReport.create("management-api-queries");
+
+    @BeforeAll
+    static void fillParticipants() {
+        var local = DATASPACE.getLocalParticipant();
+        var remote = DATASPACE.getRemoteParticipant();
+        fill(local, transfer(local, remote));
+        fill(remote, transfer(remote, local));
+    }
+
+    @ParameterizedTest
+    @ArgumentsSource(DataspaceDirections.class)
+    void queryPages(BaseParticipant participant, BaseParticipant counterParty, String protocol) {
+        var offsets = List.of(0L, 1_000L, 10_000L, ROWS / 2, ROWS - PAGE_SIZE);
+
+        for (var offset : offsets) {
+            run(participant, "transferprocesses", "sorted offset=" + offset, querySpec(offset, "createdAt", null));
+            run(participant, "contractnegotiations", "sorted offset=" + offset, querySpec(offset, "createdAt", null));
+            run(participant, "contractagreements", "sorted offset=" + offset, querySpec(offset, "contractSigningDate", null));
+        }
+
+        run(participant, "transferprocesses", "filtered offset=0", querySpec(0, "createdAt", filter("assetId", RARE_ASSET)));
+        run(participant, "contractagreements", "filtered offset=0", querySpec(0, "contractSigningDate", filter("assetId", RARE_ASSET)));
+        run(participant, "contractnegotiations", "filtered offset=0", querySpec(0, "createdAt", filter("counterPartyAddress", OTHER_COUNTER_PARTY)));
+        run(participant, "contractnegotiations", "filtered offset=" + ROWS / 20, querySpec(ROWS / 20, "createdAt", filter("counterPartyAddress", OTHER_COUNTER_PARTY)));
+    }
+
+    private void run(BaseParticipant participant, String entities, String label, JsonObject querySpec) {
+        var latencies = new LatencyRecorder();
+        var bytes = 0;
+        var items = 0;
+        for (var i = 0; i < ITERATIONS; i++) {
+            var start = System.nanoTime();
+            var response = participant.queryManagementApi("/v3/%s/request".formatted(entities), querySpec);
+            latencies.record(System.nanoTime() - start);
+
+            response.then().statusCode(200);
+            bytes = response.asByteArray().length;
+            items = response.jsonPath().getList("$").size();
+        }
+
+        var row = "%s %s %s".formatted(participant.getRuntimeVersion(), entities, label);
+        REPORT.add(row, latencies.summary().metrics(""));
+        REPORT.add(row, "response_bytes", bytes);
+        REPORT.add(row, "items", items);
+    }
+
+    private static JsonObject querySpec(long offset, String sortField, JsonObject filter) {
+        var builder = Json.createObjectBuilder()
+                .add("@context", Json.createObjectBuilder().add("@vocab", EDC_NAMESPACE))
+                .add("@type", "QuerySpec")
+                .add("offset", offset)
+                .add("limit", PAGE_SIZE)
+                .add("sortOrder", "DESC")
+                .add("sortField", sortField);
+        if (filter != null) {
+            builder.add("filterExpression", Json.createArrayBuilder().add(filter));
+        }
+        return builder.build();
+    }
+
+    private static JsonObject filter(String operandLeft, String operandRight) {
+        return Json.createObjectBuilder()
+                .add("operandLeft", operandLeft)
+                .add("operator", "=")
+                .add("operandRight", operandRight)
+                .build();
+    }
+
+    private static String transfer(BaseParticipant consumer, BaseParticipant provider) {
+        consumer.setProtocol(DataspaceExtension.PROTOCOL);
+        provider.setProtocol(DataspaceExtension.PROTOCOL);
+        provider.waitForDataPlane();
+        var assetId = UUID.randomUUID().toString();
+        // the data is never pulled, the transfer only has to start
+        createResourcesOnProvider(provider, assetId, PolicyFixtures.noConstraintPolicy(), httpSourceDataAddress("http://localhost/source"));
+
+        var transferProcessId = consumer.requestAssetFrom(assetId, provider)
+                .withTransferType("HttpData-PULL")
+                .execute();
+        consumer.awaitTransferToBeInState(transferProcessId, STARTED);
+        return transferProcessId;
+    }
+
+    private static void fill(BaseParticipant participant, String transferProcessId) {
+        var cloner = new RowCloner(DATASPACE.getPostgresql(), participant.getName());
+        var agreementId = cloner.select("edc_transfer_process", "contract_id", "transferprocess_id", transferProcessId);
+        var results = new ArrayList<BulkLoader.Result>();
+
+        results.add(cloner.clone("edc_contract_agreement", "agr_id", agreementId, ROWS, Map.of(
+                "agr_id", "'benchmark-agreement-' || g",
+                "signing_date", "t.signing_date - g",
+                "asset_id", "CASE WHEN g %% 100 = 0 THEN '%s' ELSE t.asset_id END".formatted(RARE_ASSET))));
+
+        results.add(cloner.clone("edc_contract_negotiation", "agreement_id", agreementId, ROWS, Map.of(
+                "id", "'benchmark-negotiation-' || g",
+                "correlation_id", "'benchmark-negotiation-' || g",
+                "agreement_id", "'benchmark-agreement-' || g",
+                "created_at", "t.created_at - g * 1000",
+                "counterparty_address", "CASE WHEN g %% 10 = 0 THEN '%s' ELSE t.counterparty_address END".formatted(OTHER_COUNTER_PARTY),
+                "lease_id", "NULL")));
+
+        results.add(cloner.clone("edc_transfer_process", "transferprocess_id", transferProcessId, ROWS, Map.of(
+                "transferprocess_id", "'benchmark-transfer-' || g",
+                "correlation_id", "'benchmark-transfer-' || g",
+                "contract_id", "'benchmark-agreement-' || g",
+                "created_at", "t.created_at - g * 1000",
+                "state", String.valueOf(TransferProcessStates.COMPLETED.code()),
+                "state_time_stamp", "t.state_time_stamp - g * 1000",
+                "asset_id", "CASE WHEN g %% 100 = 0 THEN '%s' ELSE t.asset_id END".formatted(RARE_ASSET),
+                "lease_id", "NULL")));
+
+        results.forEach(result -> REPORT.add("%s clone %s".formatted(participant.getRuntimeVersion(), result.table()), result.metrics()));
+    }
+}
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.benchmark;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.eclipse.edc.connector.controlplane.test.system.utils.PolicyFixtures;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.BaseParticipant;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.DataspaceExtension;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.DataspaceTopology;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BenchmarkReport;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BenchmarkTest;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.LatencyRecorder;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferProcessStates.STARTED;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.TransferHelperFunctions.createResourcesOnProvider;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.TransferHelperFunctions.httpSourceDataAddress;
+
+/**
+ * Runs a dataspace of a configurable mix of snapshot and stable participants, where every participant consumes
+ * from every other at the same time, and reports the transfer latency per consumer and provider version.
+ */
+@BenchmarkTest
+public class ManyToManyTransferBenchmarkTest {
+
+    private static final int SNAPSHOT_PARTICIPANTS = Integer.getInteger("tx.benchmark.topology.snapshot", 2);
+    private static final int STABLE_PARTICIPANTS = Integer.getInteger("tx.benchmark.topology.stable", 2);
+    private static final int TRANSFERS_PER_PAIR = Integer.getInteger("tx.benchmark.transfers-per-pair", 5);
+
+    @Order(0)
+    @RegisterExtension
+    static final DataspaceTopology TOPOLOGY = DataspaceTopology.Builder.newInstance()
+            .snapshotParticipants(SNAPSHOT_PARTICIPANTS)
+            .stableParticipants(STABLE_PARTICIPANTS)
+            .build();
+
+    @RegisterExtension
+    static WireMockExtension providerDataSource = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort())
+            .build();
+
+    @RegisterExtension
+    static final BenchmarkReport REPORT = BenchmarkReport.create("many-to-many-transfers");
+
+    @Test
+    void everyParticipantConsumesFromEveryOther() throws Exception {
+        providerDataSource.stubFor(any(anyUrl()).willReturn(ok("data")));
+        var participants = TOPOLOGY.getParticipants();
+        var assets = new HashMap<BaseParticipant, String>();
+        for (var provider : participants) {
+            provider.setProtocol(DataspaceExtension.PROTOCOL);
+            provider.waitForDataPlane();
+            var assetId = UUID.randomUUID().toString();
+            createResourcesOnProvider(provider, assetId, PolicyFixtures.noConstraintPolicy(),
+                    httpSourceDataAddress("http://localhost:" + providerDataSource.getPort() + "/source"));
+            assets.put(provider, assetId);
+        }
+
+        var latencies = new ConcurrentHashMap<String, LatencyRecorder>();
+        var overall = new LatencyRecorder();
+        var executor = Executors.newFixedThreadPool(participants.size() * (participants.size() - 1));
+        var start = System.nanoTime();
+        try {
+            var futures = new ArrayList<Future<?>>();
+            TOPOLOGY.pairs().forEach(pair -> {
+                var consumer = (BaseParticipant) pair.get()[0];
+                var provider = (BaseParticipant) pair.get()[1];
+                var recorder = latencies.computeIfAbsent(row(consumer, provider), k -> new LatencyRecorder());
+                futures.add(executor.submit(() -> {
+                    for (var i = 0; i < TRANSFERS_PER_PAIR; i++) {
+                        var started = System.nanoTime();
+                        var transferProcessId = consumer.requestAssetFrom(assets.get(provider), provider)
+                                .withTransferType("HttpData-PULL")
+                                .execute();
+                        consumer.awaitTransferToBeInState(transferProcessId, STARTED);
+                        var elapsed = System.nanoTime() - started;
+                        recorder.record(elapsed);
+                        overall.record(elapsed);
+                    }
+                }));
+            });
+            for (var future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new AssertionError("Transfer failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        var elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        var pairs = participants.size() * (participants.size() - 1);
+        var summary = overall.summary();
+        assertThat(summary.count()).isEqualTo(pairs * TRANSFERS_PER_PAIR);
+
+        latencies.forEach((row, recorder) -> REPORT.add(row, recorder.summary().metrics("started_")));
+        REPORT.add("all", Map.of(
+                "participants", participants.size(),
+                "pairs", pairs,
+                "throughput_per_s", summary.count() / elapsedSeconds));
+        REPORT.add("all", summary.metrics("started_"));
+    }
+
+    private static String row(BaseParticipant consumer, BaseParticipant provider) {
+        return consumer.getRuntimeVersion() + "->" + provider.getRuntimeVersion();
+    }
+}
@@ -0,0 +1,268 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.benchmark;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.eclipse.edc.connector.controlplane.test.system.utils.PolicyFixtures;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.BaseParticipant;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.DataspaceDirections;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.DataspaceExtension;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BenchmarkReport;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BenchmarkTest;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.LatencyRecorder;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.RuntimeProbe;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.RuntimeSampler;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferProcessStates.STARTED;
+import static org.eclipse.edc.util.io.Ports.getFreePort;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.TransferHelperFunctions.createResourcesOnProvider;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.TransferHelperFunctions.httpSourceDataAddress;
+
+/**
+ * Measures the memory footprint of the runtimes: retained heap (after a full collection), metaspace, threads and
+ * resident set size, right after boot, when idle and under a steady load of pull transfers. Stable runtimes are
+ * probed over JMX, the embedded snapshot runtimes share the test JVM, so that their boot footprint is attributed by
+ * collecting and sampling it after each of them has started.
+ * <p>
+ * The heap of the stable containers is capped with {@code tx.benchmark.heap.stable}, the one of the test JVM with
+ * {@code tx.benchmark.heap.snapshot}. The {@link MemoryFootprintSweepBenchmarkTest} runs the scenarios with decreasing
+ * caps to find the smallest heap each version passes them with. The snapshot cap applies to the whole test JVM, which
+ * also runs the identity hub and the fixtures, so it is reported as a test JVM cap, not as the heap of the snapshot
+ * runtimes.
+ */
+@BenchmarkTest
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class MemoryFootprintBenchmarkTest {
+
+    private static final String SNAPSHOT_HEAP = System.getProperty("tx.benchmark.heap.snapshot");
+    private static final String STABLE_HEAP = System.getProperty("tx.benchmark.heap.stable");
+    private static final int CONCURRENCY = Integer.getInteger("tx.benchmark.concurrency", 4);
+    private static final Duration LOAD_DURATION = Duration.ofSeconds(Long.getLong("tx.benchmark.load-seconds", 60));
+    private static final Duration SAMPLE_INTERVAL = Duration.ofSeconds(1);
+    private static final Duration SETTLE_TIME = Duration.ofSeconds(30);
+    private static final int CONTROL_PLANE_JMX_PORT = getFreePort();
+    private static final int DATA_PLANE_JMX_PORT = getFreePort();
+
+    private static final RuntimeProbe TEST_JVM = RuntimeProbe.localJvm();
+    private static final Map<String, RuntimeProbe.Sample> BOOT = new LinkedHashMap<>();
+    private static final List<String> EMBEDDED = List.of("identity-hub", "local-control-plane", "local-data-plane");
+
+    @Order(0)
+    @RegisterExtension
+    static final DataspaceExtension DATASPACE = DataspaceExtension.Builder.newInstance()
+            .remoteControlPlaneEnv("JAVA_TOOL_OPTIONS", javaToolOptions(CONTROL_PLANE_JMX_PORT))
+            .remoteDataPlaneEnv("JAVA_TOOL_OPTIONS", javaToolOptions(DATA_PLANE_JMX_PORT))
+            .afterStart(component -> {
+                TEST_JVM.gc();
+                BOOT.put(component, TEST_JVM.sample());
+            })
+            .build();
+
+    @RegisterExtension
+    static WireMockExtension providerDataSource = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort())
+            .build();
+
+    @RegisterExtension
+    static final BenchmarkReport REPORT = BenchmarkReport.create(reportName());
+
+    @BeforeAll
+    static void reportHeapCap() {
+        if (SNAPSHOT_HEAP != null) {
+            REPORT.add("heap cap", Map.of("scope", "snapshot test-jvm", "size", SNAPSHOT_HEAP));
+        }
+        if (STABLE_HEAP != null) {
+            REPORT.add("heap cap", Map.of("scope", "stable container", "size", STABLE_HEAP));
+        }
+    }
+
+    @Test
+    @Order(1)
+    void boot() {
+        RuntimeProbe.Sample previous = null;
+        for (var entry : BOOT.entrySet()) {
+            var sample = entry.getValue();
+            if (previous != null && EMBEDDED.contains(entry.getKey())) {
+                var row = "snapshot " + entry.getKey().replaceFirst("^local-", "");
+                REPORT.add(row, "boot_heap_after_gc_mb", megabytes(sample.heapAfterGcBytes() - previous.heapAfterGcBytes()));
+                REPORT.add(row, "boot_metaspace_mb", megabytes(sample.metaspaceBytes() - previous.metaspaceBytes()));
+                REPORT.add(row, "boot_threads", sample.threads() - previous.threads());
+                REPORT.add(row, "boot_rss_mb", megabytes(sample.rssBytes() - previous.rssBytes()));
+            }
+            previous = sample;
+        }
+        assertThat(BOOT).containsKeys(EMBEDDED.toArray(String[]::new));
+    }
+
+    @Test
+    @Order(2)
+    void idle() throws InterruptedException {
+        Thread.sleep(SETTLE_TIME.toMillis());
+        runtimes().forEach((runtime, probe) -> REPORT.add(runtime, settled(probe, "idle_")));
+    }
+
+    @ParameterizedTest
+    @Order(3)
+    @ArgumentsSource(DataspaceDirections.class)
+    void scenario(BaseParticipant consumer, BaseParticipant provider, String protocol) {
+        var direction = "%s->%s".formatted(consumer.getRuntimeVersion(), provider.getRuntimeVersion());
+        REPORT.add("scenarios", direction, false);
+
+        var assetId = createAsset(consumer, provider, protocol);
+        transferAndPull(consumer, provider, assetId);
+
+        REPORT.add("scenarios", direction, true);
+    }
+
+    @ParameterizedTest
+    @Order(4)
+    @ArgumentsSource(DataspaceDirections.class)
+    void load(BaseParticipant consumer, BaseParticipant provider, String protocol) throws Exception {
+        var assetId = createAsset(consumer, provider, protocol);
+        var prefix = "load_%s_provider_".formatted(provider.getRuntimeVersion());
+
+        var samplers = new LinkedHashMap<String, RuntimeSampler>();
+        runtimes().forEach((runtime, probe) -> samplers.put(runtime, RuntimeSampler.start(probe, SAMPLE_INTERVAL)));
+        var latencies = new LatencyRecorder();
+        var failures = new AtomicInteger();
+        var executor = Executors.newFixedThreadPool(CONCURRENCY);
+        try {
+            var deadline = System.nanoTime() + LOAD_DURATION.toNanos();
+            var futures = new ArrayList<Future<?>>();
+            for (var i = 0; i < CONCURRENCY; i++) {
+                futures.add(executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        try {
+                            latencies.time(() -> transferAndPull(consumer, provider, assetId));
+                        } catch (RuntimeException | AssertionError e) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (var future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    throw new AssertionError("Load worker failed", e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            samplers.values().forEach(RuntimeSampler::close);
+        }
+
+        samplers.forEach((runtime, sampler) -> REPORT.add(runtime, sampler.metrics(prefix)));
+        REPORT.add("load", prefix + "transfers", latencies.count());
+        REPORT.add("load", prefix + "failures", failures.get());
+        REPORT.add("load", latencies.summary().metrics(prefix));
+
+        Thread.sleep(SETTLE_TIME.toMillis());
+        runtimes().forEach((runtime, probe) -> REPORT.add(runtime, settled(probe, "after_" + prefix)));
+    }
+
+    private String createAsset(BaseParticipant consumer, BaseParticipant provider, String protocol) {
+        consumer.setProtocol(protocol);
+        provider.setProtocol(protocol);
+        provider.waitForDataPlane();
+        providerDataSource.stubFor(any(anyUrl()).willReturn(ok("data")));
+        var assetId = UUID.randomUUID().toString();
+        createResourcesOnProvider(provider, assetId, PolicyFixtures.noConstraintPolicy(),
+                httpSourceDataAddress("http://localhost:" + providerDataSource.getPort() + "/source"));
+        return assetId;
+    }
+
+    private void transferAndPull(BaseParticipant consumer, BaseParticipant provider, String assetId) {
+        var transferProcessId = consumer.requestAssetFrom(assetId, provider)
+                .withTransferType("HttpData-PULL")
+                .execute();
+        consumer.awaitTransferToBeInState(transferProcessId, STARTED);
+
+        var edr = await().atMost(consumer.getTimeout()).until(() -> consumer.getEdr(transferProcessId), Objects::nonNull);
+        await().atMost(consumer.getTimeout())
+                .untilAsserted(() -> consumer.pullData(edr, Map.of(), body -> assertThat(body).isEqualTo("data")));
+    }
+
+    private Map<String, Object> settled(RuntimeProbe probe, String prefix) {
+        probe.gc();
+        var sample = probe.sample();
+        var metrics = new LinkedHashMap<String, Object>();
+        metrics.put(prefix + "heap_after_gc_mb", megabytes(sample.heapAfterGcBytes()));
+        metrics.put(prefix + "metaspace_mb", megabytes(sample.metaspaceBytes()));
+        metrics.put(prefix + "threads", sample.threads());
+        metrics.put(prefix + "rss_mb", megabytes(sample.rssBytes()));
+        return metrics;
+    }
+
+    // the snapshot runtimes are embedded, so they are probed together with the test JVM
+    private static Map<String, RuntimeProbe> runtimes() {
+        var remote = DATASPACE.getRemoteParticipantExtension();
+        var runtimes = new LinkedHashMap<String, RuntimeProbe>();
+        runtimes.put("snapshot test-jvm", TEST_JVM);
+        runtimes.put("stable control-plane", RuntimeProbe.jmx(remote.getControlPlane(), CONTROL_PLANE_JMX_PORT));
+        runtimes.put("stable data-plane", RuntimeProbe.jmx(remote.getDataPlane(), DATA_PLANE_JMX_PORT));
+        return runtimes;
+    }
+
+    private static String javaToolOptions(int jmxPort) {
+        var options = RuntimeProbe.jmxOptions(jmxPort);
+        return STABLE_HEAP == null ? options : options + " -Xmx" + STABLE_HEAP;
+    }
+
+    private static String reportName() {
+        if (SNAPSHOT_HEAP != null) {
+            return "memory-footprint-snapshot-" + SNAPSHOT_HEAP;
+        }
+        if (STABLE_HEAP != null) {
+            return "memory-footprint-stable-" + STABLE_HEAP;
+        }
+        return "memory-footprint";
+    }
+
+    private static long megabytes(long bytes) {
+        return bytes / (1024 * 1024);
+    }
+}
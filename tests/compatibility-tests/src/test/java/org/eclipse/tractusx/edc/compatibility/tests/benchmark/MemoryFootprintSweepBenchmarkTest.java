@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+package org.eclipse.tractusx.edc.compatibility.tests.benchmark;
+
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BenchmarkReport;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BenchmarkTest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.core.LauncherFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+/**
+ * Runs the {@link MemoryFootprintBenchmarkTest} with decreasing heaps out of {@code tx.benchmark.heap-sizes}, capping
+ * one version at a time, and reports the smallest heap with which each version passes the transfer scenarios. Every run
+ * is a JVM of its own, since the snapshot cap is the one of the whole JVM, which also runs the identity hub and the
+ * fixtures, so it is reported as a test JVM cap rather than as the heap of the snapshot runtimes. A run that fails, e.g.
+ * with an {@link OutOfMemoryError}, only fails its heap.
+ */
+@BenchmarkTest
+public class MemoryFootprintSweepBenchmarkTest {
+
+    private static final List<String> HEAP_SIZES = Arrays.stream(System.getProperty("tx.benchmark.heap-sizes", "512m,384m,256m,192m,128m").split(","))
+            .map(String::trim)
+            .toList();
+    private static final Map<String, String> SCOPES = Map.of("snapshot", "snapshot test-jvm", "stable", "stable container");
+    private static final Map<String, List<String>> PASSING = new ConcurrentHashMap<>();
+
+    @RegisterExtension
+    static final BenchmarkReport REPORT = BenchmarkReport.create("memory-footprint-smallest-heap");
+
+    @ParameterizedTest
+    @MethodSource("runs")
+    void heap(String version, String heap) throws IOException, InterruptedException {
+        var command = new ArrayList<String>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-Xmx" + (version.equals("snapshot") ? heap : Runtime.getRuntime().maxMemory() / (1024 * 1024) + "m"));
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("tx.") && !name.startsWith("tx.benchmark.heap"))
+                .forEach(name -> command.add("-D%s=%s".formatted(name, System.getProperty(name))));
+        command.add("-Dtx.benchmark.heap.%s=%s".formatted(version, heap));
+        command.addAll(List.of("-cp", System.getProperty("java.class.path"), MemoryFootprintSweepBenchmarkTest.class.getName()));
+
+        var passed = new ProcessBuilder(command).inheritIO().start().waitFor() == 0;
+
+        REPORT.add(SCOPES.get(version), "passed_" + heap, passed);
+        if (passed) {
+            PASSING.computeIfAbsent(version, v -> new ArrayList<>()).add(heap);
+        }
+    }
+
+    @AfterAll
+    static void reportSmallestHeap() {
+        SCOPES.forEach((version, scope) -> REPORT.add(scope, "smallest_passing_heap", PASSING.getOrDefault(version, List.of()).stream()
+                .min(Comparator.comparingLong(MemoryFootprintSweepBenchmarkTest::bytes))
+                .orElse("none")));
+    }
+
+    /**
+     * Runs the {@link MemoryFootprintBenchmarkTest} in the forked JVM of a heap, and exits with 0 if all its transfer
+     * scenarios passed.
+     *
+     * @param args not used
+     */
+    public static void main(String[] args) {
+        var passed = new AtomicInteger();
+        var failed = new AtomicInteger();
+        LauncherFactory.create().execute(request().selectors(selectClass(MemoryFootprintBenchmarkTest.class)).build(), new TestExecutionListener() {
+            @Override
+            public void executionFinished(TestIdentifier identifier, TestExecutionResult result) {
+                var scenario = identifier.isTest() && identifier.getSource()
+                        .filter(source -> source instanceof org.junit.platform.engine.support.descriptor.MethodSource method && method.getMethodName().equals("scenario"))
+                        .isPresent();
+                if (scenario) {
+                    (result.getStatus() == TestExecutionResult.Status.SUCCESSFUL ? passed : failed).incrementAndGet();
+                }
+            }
+        });
+        System.exit(passed.get() > 0 && failed.get() == 0 ? 0 : 1);
+    }
+
+    private static Stream<Arguments> runs() {
+        return Stream.of("snapshot", "stable").flatMap(version -> HEAP_SIZES.stream().map(heap -> Arguments.of(version, heap)));
+    }
+
+    private static long bytes(String heap) {
+        var unit = switch (Character.toLowerCase(heap.charAt(heap.length() - 1))) {
+            case 'k' -> 1024L;
+            case 'm' -> 1024L * 1024;
+            case 'g' -> 1024L * 1024 * 1024;
+            default -> 1L;
+        };
+        return Long.parseLong(unit == 1 ? heap : heap.substring(0, heap.length() - 1)) * unit;
+    }
+}
@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.benchmark;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.eclipse.edc.connector.controlplane.test.system.utils.PolicyFixtures;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.BaseParticipant;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.DataspaceDirections;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.DataspaceExtension;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BenchmarkReport;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BenchmarkTest;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.LatencyRecorder;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.network.NetworkProfile;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.sql.StateRetries;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferProcessStates.STARTED;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.TransferHelperFunctions.createResourcesOnProvider;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.TransferHelperFunctions.httpSourceDataAddress;
+
+/**
+ * Puts the protocol, STS, DID and public data plane endpoints of the participants behind a proxy that emulates a
+ * network, and runs the same negotiations, transfers and pulls for every profile of
+ * {@code tx.benchmark.network.profiles}. It reports how the latencies and the throughput degrade, how many operations
+ * fail, and how many retries the state machines fire with the configured {@code send.retry} settings.
+ */
+@BenchmarkTest
+public class NetworkDegradationBenchmarkTest {
+
+    private static final String PROFILES = System.getProperty("tx.benchmark.network.profiles", "localhost,metro,wan,intercontinental,lossy");
+    private static final int TRANSFERS = Integer.getInteger("tx.benchmark.transfers", 20);
+    private static final int CONCURRENCY = Integer.getInteger("tx.benchmark.concurrency", 5);
+    private static final String RETRY_LIMIT = System.getProperty("tx.benchmark.send.retry.limit", "1");
+    private static final String RETRY_BASE_DELAY = System.getProperty("tx.benchmark.send.retry.base-delay-ms", "100");
+
+    @Order(0)
+    @RegisterExtension
+    static final DataspaceExtension DATASPACE = DataspaceExtension.Builder.newInstance()
+            .network(NetworkProfile.LOCALHOST)
+            .localControlPlaneConfig("edc.transfer.send.retry.limit", RETRY_LIMIT)
+            .localControlPlaneConfig("edc.transfer.send.retry.base-delay.ms", RETRY_BASE_DELAY)
+            .localControlPlaneConfig("edc.negotiation.consumer.send.retry.limit", RETRY_LIMIT)
+            .localControlPlaneConfig("edc.negotiation.consumer.send.retry.base-delay.ms", RETRY_BASE_DELAY)
+            .localControlPlaneConfig("edc.negotiation.provider.send.retry.limit", RETRY_LIMIT)
+            .localControlPlaneConfig("edc.negotiation.provider.send.retry.base-delay.ms", RETRY_BASE_DELAY)
+            .remoteControlPlaneEnv("EDC_TRANSFER_SEND_RETRY_LIMIT", RETRY_LIMIT)
+            .remoteControlPlaneEnv("EDC_TRANSFER_SEND_RETRY_BASE-DELAY_MS", RETRY_BASE_DELAY)
+            .remoteControlPlaneEnv("EDC_NEGOTIATION_CONSUMER_SEND_RETRY_LIMIT", RETRY_LIMIT)
+            .remoteControlPlaneEnv("EDC_NEGOTIATION_CONSUMER_SEND_RETRY_BASE-DELAY_MS", RETRY_BASE_DELAY)
+            .remoteControlPlaneEnv("EDC_NEGOTIATION_PROVIDER_SEND_RETRY_LIMIT", RETRY_LIMIT)
+            .remoteControlPlaneEnv("EDC_NEGOTIATION_PROVIDER_SEND_RETRY_BASE-DELAY_MS", RETRY_BASE_DELAY)
+            .build();
+
+    @RegisterExtension
+    static WireMockExtension providerDataSource = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort())
+            .build();
+
+    @RegisterExtension
+    static final BenchmarkReport REPORT = BenchmarkReport.create("network-degradation");
+
+    @ParameterizedTest
+    @ArgumentsSource(DataspaceDirections.class)
+    void degradation(BaseParticipant consumer, BaseParticipant provider, String protocol) throws Exception {
+        consumer.setProtocol(protocol);
+        provider.setProtocol(protocol);
+        provider.waitForDataPlane();
+        providerDataSource.stubFor(any(anyUrl()).willReturn(ok("data")));
+        var assetId = UUID.randomUUID().toString();
+        createResourcesOnProvider(provider, assetId, PolicyFixtures.noConstraintPolicy(),
+                httpSourceDataAddress("http://localhost:" + providerDataSource.getPort() + "/source"));
+
+        var network = DATASPACE.getNetwork();
+        var consumerRetries = new StateRetries(DATASPACE.getPostgresql(), consumer.getName());
+        var providerRetries = new StateRetries(DATASPACE.getPostgresql(), provider.getName());
+        try {
+            for (var profile : NetworkProfile.parseAll(PROFILES)) {
+                network.setProfile(profile);
+                var since = System.currentTimeMillis();
+                var before = network.metrics();
+
+                var negotiation = new LatencyRecorder();
+                var transfer = new LatencyRecorder();
+                var pull = new LatencyRecorder();
+                var failures = new AtomicInteger();
+                var elapsedSeconds = run(() -> {
+                    try {
+                        var start = System.nanoTime();
+                        consumer.negotiateContract(provider, consumer.getOfferForAsset(provider, assetId));
+                        var negotiated = System.nanoTime();
+                        var transferProcessId = consumer.requestAssetFrom(assetId, provider)
+                                .withTransferType("HttpData-PULL")
+                                .execute();
+                        consumer.awaitTransferToBeInState(transferProcessId, STARTED);
+                        await().atMost(consumer.getTimeout()).until(() -> consumer.hasEdr(transferProcessId));
+                        var started = System.nanoTime();
+                        assertThat(consumer.pullDataStatus(consumer.getEdr(transferProcessId))).isEqualTo(200);
+                        negotiation.record(negotiated - start);
+                        transfer.record(started - negotiated);
+                        pull.record(System.nanoTime() - started);
+                    } catch (Exception | AssertionError e) {
+                        failures.incrementAndGet();
+                    }
+                });
+
+                var row = "%s->%s %s".formatted(consumer.getRuntimeVersion(), provider.getRuntimeVersion(), profile.name());
+                var after = network.metrics();
+                REPORT.add(row, profile.metrics());
+                REPORT.add(row, Map.of(
+                        "send_retry_limit", RETRY_LIMIT,
+                        "send_retry_base_delay_ms", RETRY_BASE_DELAY,
+                        "failures", failures.get(),
+                        "throughput_per_s", (TRANSFERS - failures.get()) / elapsedSeconds,
+                        "connections", delta(before, after, "connections"),
+                        "connection_resets", delta(before, after, "resets"),
+                        "bytes", delta(before, after, "bytes")));
+                REPORT.add(row, negotiation.summary().metrics("negotiation_"));
+                REPORT.add(row, transfer.summary().metrics("transfer_"));
+                REPORT.add(row, pull.summary().metrics("pull_"));
+                REPORT.add(row, consumerRetries.countSince("consumer_", since));
+                REPORT.add(row, providerRetries.countSince("provider_", since));
+            }
+        } finally {
+            network.setProfile(NetworkProfile.LOCALHOST);
+        }
+    }
+
+    private double run(Runnable operation) throws InterruptedException {
+        var executor = Executors.newFixedThreadPool(CONCURRENCY);
+        var start = System.nanoTime();
+        try {
+            var futures = new ArrayList<Future<?>>();
+            for (var i = 0; i < TRANSFERS; i++) {
+                futures.add(executor.submit(operation));
+            }
+            for (var future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new AssertionError("Operation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return (System.nanoTime() - start) / 1_000_000_000.0;
+    }
+
+    private static long delta(Map<String, Object> before, Map<String, Object> after, String metric) {
+        return (Long) after.get(metric) - (Long) before.get(metric);
+    }
+}
@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.benchmark;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.eclipse.edc.connector.controlplane.test.system.utils.PolicyFixtures;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.BaseParticipant;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.DataspaceDirections;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.DataspaceExtension;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BenchmarkReport;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BenchmarkTest;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.OpenLoopLoad;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferProcessStates.STARTED;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.TransferHelperFunctions.createResourcesOnProvider;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.TransferHelperFunctions.httpSourceDataAddress;
+
+/**
+ * Finds the saturation point of each version with an open-loop load: a mix of catalog requests, negotiations,
+ * transfers, pulls and EDR lookups arrives at a fixed rate, independent of the response times, for
+ * {@code tx.benchmark.open-loop.step-seconds} per rate of {@code tx.benchmark.open-loop.rates}. Response times are
+ * measured from the scheduled start of each operation, see {@link OpenLoopLoad}.
+ * <p>
+ * A rate is sustained as long as the completed operations keep up with the arrivals, the p99 response time stays
+ * below {@code tx.benchmark.open-loop.slo-ms} and at most 1% of the operations fail. The sweep stops at the first rate
+ * that is not sustained, the knee of the latency curve, and the highest sustained rate is reported.
+ */
+@BenchmarkTest
+public class OpenLoopBenchmarkTest {
+
+    private static final List<Double> RATES = Arrays.stream(System.getProperty("tx.benchmark.open-loop.rates", "1,2,5,10,20,40").split(","))
+            .map(Double::parseDouble)
+            .toList();
+    private static final Duration STEP = Duration.ofSeconds(Long.getLong("tx.benchmark.open-loop.step-seconds", 60));
+    private static final Duration WARM_UP = Duration.ofSeconds(Long.getLong("tx.benchmark.open-loop.warm-up-seconds", 10));
+    private static final Duration SLO = Duration.ofMillis(Long.getLong("tx.benchmark.open-loop.slo-ms", 2_000));
+    private static final Map<String, Integer> MIX = Arrays.stream(System.getProperty("tx.benchmark.open-loop.mix",
+                    "catalog=40,negotiation=10,transfer=10,pull=30,edr=10").split(","))
+            .map(entry -> entry.split("="))
+            .collect(Collectors.toMap(entry -> entry[0].trim(), entry -> Integer.parseInt(entry[1].trim()), (a, b) -> b, LinkedHashMap::new));
+    private static final double MIN_THROUGHPUT_RATIO = 0.9;
+    private static final double MAX_ERROR_RATIO = 0.01;
+
+    @RegisterExtension
+    static final DataspaceExtension DATASPACE = DataspaceExtension.Builder.newInstance().build();
+
+    @RegisterExtension
+    static WireMockExtension providerDataSource = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort())
+            .build();
+
+    @RegisterExtension
+    static final BenchmarkReport REPORT = BenchmarkReport.create("open-loop");
+
+    @ParameterizedTest(name = "{0} -> {1}")
+    @ArgumentsSource(DataspaceDirections.class)
+    void sweep(BaseParticipant consumer, BaseParticipant provider, String protocol) {
+        consumer.setProtocol(protocol);
+        provider.setProtocol(protocol);
+        provider.waitForDataPlane();
+        providerDataSource.stubFor(any(anyUrl()).willReturn(ok("data")));
+        var assetId = UUID.randomUUID().toString();
+        createResourcesOnProvider(provider, assetId, PolicyFixtures.noConstraintPolicy(),
+                httpSourceDataAddress("http://localhost:" + providerDataSource.getPort() + "/source"));
+        // pulls and EDR lookups go to a transfer started once
+        var transferProcessId = transfer(consumer, provider, assetId);
+        var edr = await().atMost(consumer.getTimeout()).until(() -> consumer.getEdr(transferProcessId), Objects::nonNull);
+
+        var direction = "%s->%s".formatted(consumer.getRuntimeVersion(), provider.getRuntimeVersion());
+        var sustained = 0.0;
+        for (var rate : RATES) {
+            var load = OpenLoopLoad.Builder.newInstance()
+                    .rate(rate)
+                    .duration(STEP)
+                    .warmUp(WARM_UP)
+                    .drainTimeout(consumer.getTimeout())
+                    .operation("catalog", MIX.getOrDefault("catalog", 0), () -> consumer.getOfferForAsset(provider, assetId))
+                    .operation("negotiation", MIX.getOrDefault("negotiation", 0),
+                            () -> assertThat(consumer.negotiateContract(provider, consumer.getOfferForAsset(provider, assetId))).isNotNull())
+                    .operation("transfer", MIX.getOrDefault("transfer", 0), () -> transfer(consumer, provider, assetId))
+                    .operation("pull", MIX.getOrDefault("pull", 0), () -> assertThat(consumer.pullDataStatus(edr)).isEqualTo(200))
+                    .operation("edr", MIX.getOrDefault("edr", 0), () -> assertThat(consumer.getEdr(transferProcessId)).isNotNull())
+                    .build()
+                    .run();
+
+            var row = "%s %s/s".formatted(direction, rate);
+            var saturated = load.achievedRate() < rate * MIN_THROUGHPUT_RATIO
+                    || load.responseTime(0.99).compareTo(SLO) > 0
+                    || load.errorRatio() > MAX_ERROR_RATIO;
+            REPORT.add(row, "offered_per_s", rate);
+            REPORT.add(row, "achieved_per_s", Math.round(load.achievedRate() * 100) / 100.0);
+            REPORT.add(row, "error_ratio", Math.round(load.errorRatio() * 1000) / 1000.0);
+            REPORT.add(row, "p99_ms", load.responseTime(0.99).toMillis());
+            REPORT.add(row, "saturated", saturated);
+            load.operations().forEach((operation, result) -> REPORT.add(row, result.metrics(operation + "_")));
+            if (saturated) {
+                break;
+            }
+            sustained = rate;
+        }
+        REPORT.add("saturation", direction + " max_sustained_per_s", sustained);
+    }
+
+    private String transfer(BaseParticipant consumer, BaseParticipant provider, String assetId) {
+        var transferProcessId = consumer.requestAssetFrom(assetId, provider)
+                .withTransferType("HttpData-PULL")
+                .execute();
+        consumer.awaitTransferToBeInState(transferProcessId, STARTED);
+        return transferProcessId;
+    }
+}
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.benchmark;
+
+import org.eclipse.edc.sql.testfixtures.PostgresqlEndToEndExtension;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.EdcDockerRuntimes;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.IdentityHubParticipant;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.RemoteParticipant;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BenchmarkReport;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BenchmarkTest;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.LatencyRecorder;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.RuntimeProbe;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.sql.PgStatStatements;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.testcontainers.DockerClientFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Compares the default images of the stable runtimes with the optimized ones: {@code optimized-base}, with a
+ * jlink-trimmed JRE and tuned JVM options, and {@code optimized}, which adds the AppCDS archive trained on the
+ * compatibility tests. Each variant of the control and data plane is started {@code tx.benchmark.boots} times. The
+ * report has the time until the runtimes are ready, their resident set size once settled, and the image sizes, and
+ * the change of every optimized variant compared to the default images is printed.
+ */
+@BenchmarkTest
+public class OptimizedImageBenchmarkTest {
+
+    private static final int BOOTS = Integer.getInteger("tx.benchmark.boots", 5);
+    private static final List<String> VARIANTS = Arrays.asList(System.getProperty("tx.benchmark.stable.variants", "default,optimized-base,optimized").split(","));
+    private static final Duration SETTLE_TIME = Duration.ofSeconds(Long.getLong("tx.benchmark.settle-seconds", 10));
+
+    private static final IdentityHubParticipant IDENTITY_HUB = IdentityHubParticipant.Builder.newInstance()
+            .name("images-identity-hub")
+            .id("images-identity-hub")
+            .build();
+
+    private static final RemoteParticipant STABLE = RemoteParticipant.Builder.newInstance()
+            .name("images_stable")
+            .id("images_stable")
+            .sts(IDENTITY_HUB.getSts())
+            .did(IDENTITY_HUB.didFor("images_stable"))
+            .trustedIssuer(IDENTITY_HUB.didFor("issuer"))
+            .build();
+
+    @Order(0)
+    @RegisterExtension
+    static final PostgresqlEndToEndExtension POSTGRESQL = new PostgresqlEndToEndExtension(PgStatStatements.container());
+
+    @Order(1)
+    @RegisterExtension
+    static final BeforeAllCallback CREATE_DATABASE = context -> POSTGRESQL.createDatabase(STABLE.getName());
+
+    private static final Map<String, BenchmarkReport> REPORTS = new LinkedHashMap<>();
+
+    @AfterAll
+    static void afterAll() {
+        REPORTS.values().forEach(BenchmarkReport::write);
+        var baseline = REPORTS.get("default");
+        if (baseline != null) {
+            REPORTS.forEach((variant, report) -> {
+                if (report != baseline) {
+                    System.out.println(report.diff(baseline));
+                }
+            });
+        }
+    }
+
+    private static Stream<String> variants() {
+        return VARIANTS.stream().map(String::trim);
+    }
+
+    @ParameterizedTest
+    @MethodSource("variants")
+    void startAndSettle(String variant) throws InterruptedException {
+        var image = variant.equals("default") ? "" : variant;
+        var controlPlaneBoots = new LatencyRecorder();
+        var dataPlaneBoots = new LatencyRecorder();
+        var controlPlaneRss = new ArrayList<Long>();
+        var dataPlaneRss = new ArrayList<Long>();
+
+        for (var i = 0; i < BOOTS; i++) {
+            var controlPlane = EdcDockerRuntimes.CONTROL_PLANE.create("images-controlplane", STABLE.controlPlaneEnv(List.of(), POSTGRESQL), image);
+            try {
+                controlPlaneBoots.time(controlPlane::start);
+
+                // the data plane registers with the control plane when it starts
+                var dataPlane = EdcDockerRuntimes.DATA_PLANE.create("images-dataplane", STABLE.dataPlaneEnv(List.of(), POSTGRESQL), image);
+                try {
+                    dataPlaneBoots.time(dataPlane::start);
+
+                    Thread.sleep(SETTLE_TIME.toMillis());
+                    controlPlaneRss.add(RuntimeProbe.container(controlPlane).sample().rssBytes());
+                    dataPlaneRss.add(RuntimeProbe.container(dataPlane).sample().rssBytes());
+                } finally {
+                    dataPlane.stop();
+                }
+            } finally {
+                controlPlane.stop();
+            }
+        }
+
+        var report = BenchmarkReport.create("stable-images-" + variant);
+        addMetrics(report, "controlplane", EdcDockerRuntimes.CONTROL_PLANE.image(image), controlPlaneBoots, controlPlaneRss);
+        addMetrics(report, "dataplane", EdcDockerRuntimes.DATA_PLANE.image(image), dataPlaneBoots, dataPlaneRss);
+        REPORTS.put(variant, report);
+    }
+
+    private void addMetrics(BenchmarkReport report, String runtime, String image, LatencyRecorder boots, List<Long> rss) {
+        var imageSize = DockerClientFactory.instance().client().inspectImageCmd(image).exec().getSize();
+        report.add(runtime, "image_mb", imageSize / (1024 * 1024));
+        report.add(runtime, boots.summary().metrics("ready_"));
+        report.add(runtime, "rss_mean_mb", rss.stream().mapToLong(Long::longValue).average().orElse(0) / (1024 * 1024));
+        report.add(runtime, "rss_max_mb", rss.stream().mapToLong(Long::longValue).max().orElse(0) / (1024 * 1024));
+    }
+}
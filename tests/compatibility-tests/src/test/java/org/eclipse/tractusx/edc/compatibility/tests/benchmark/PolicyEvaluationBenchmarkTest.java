@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.benchmark;
+
+import org.eclipse.edc.connector.controlplane.contract.spi.policy.ContractNegotiationPolicyContext;
+import org.eclipse.edc.jsonld.spi.JsonLd;
+import org.eclipse.edc.participant.spi.ParticipantAgent;
+import org.eclipse.edc.policy.engine.spi.PolicyEngine;
+import org.eclipse.edc.policy.model.Policy;
+import org.eclipse.edc.transform.spi.TypeTransformerRegistry;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.BaseParticipant;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.DataspaceExtension;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BenchmarkReport;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BenchmarkTest;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.LatencyRecorder;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.ArgumentsProvider;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.PolicyTrees.atoms;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.PolicyTrees.policyTree;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.TransferHelperFunctions.createResourcesOnProvider;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.TransferHelperFunctions.httpSourceDataAddress;
+
+/**
+ * Evaluates contract policies of growing size, generated by the {@code PolicyTrees}: in-process with the policy
+ * engine of the snapshot control plane, and end-to-end as contract negotiations between both versions.
+ */
+@BenchmarkTest
+public class PolicyEvaluationBenchmarkTest {
+
+    private static final List<Shape> SHAPES = Arrays.stream(System.getProperty("tx.benchmark.policy.shapes", "1x2,2x3,3x3,3x5,4x4").split(","))
+            .map(Shape::parse)
+            .toList();
+    private static final int EVALUATIONS = Integer.getInteger("tx.benchmark.evaluations", 1_000);
+    private static final int NEGOTIATIONS = Integer.getInteger("tx.benchmark.negotiations", 5);
+
+    @Order(0)
+    @RegisterExtension
+    static final DataspaceExtension DATASPACE = DataspaceExtension.Builder.newInstance().build();
+
+    @RegisterExtension
+    static final BenchmarkReport REPORT = BenchmarkReport.create("policy-evaluation");
+
+    @ParameterizedTest(name = "{0}")
+    @ArgumentsSource(ShapesArgProvider.class)
+    void evaluateInProcess(Shape shape) {
+        var controlPlane = DATASPACE.getLocalControlPlane();
+        var consumer = DATASPACE.getRemoteParticipant();
+        var expanded = controlPlane.getService(JsonLd.class).expand(policyTree(consumer.getId(), shape.depth(), shape.width()))
+                .orElseThrow(failure -> new IllegalStateException(failure.getFailureDetail()));
+        var policy = controlPlane.getService(TypeTransformerRegistry.class).transform(expanded, Policy.class)
+                .orElseThrow(failure -> new IllegalStateException(failure.getFailureDetail()));
+        var policyEngine = controlPlane.getService(PolicyEngine.class);
+
+        var credentials = DATASPACE.getIssuer().issueCredentials(consumer).stream()
+                .map(resource -> resource.getVerifiableCredential().credential())
+                .toList();
+        var agent = new ParticipantAgent(Map.of("vc", credentials), Map.of(ParticipantAgent.PARTICIPANT_IDENTITY, consumer.getId()));
+
+        for (var i = 0; i < EVALUATIONS / 10; i++) {
+            policyEngine.evaluate(policy, new ContractNegotiationPolicyContext(agent));
+        }
+        var latencies = new LatencyRecorder();
+        var allowed = true;
+        for (var i = 0; i < EVALUATIONS; i++) {
+            var start = System.nanoTime();
+            var result = policyEngine.evaluate(policy, new ContractNegotiationPolicyContext(agent));
+            latencies.record(System.nanoTime() - start);
+            allowed &= result.succeeded();
+        }
+
+        var row = "snapshot in-process " + shape;
+        REPORT.add(row, "atoms", atoms(shape.depth(), shape.width()));
+        REPORT.add(row, latencies.summary().metrics("evaluation_"));
+        REPORT.add(row, "allowed", allowed);
+        assertThat(allowed).as("policy %s allowed for %s", shape, consumer.getId()).isTrue();
+    }
+
+    @ParameterizedTest(name = "{0} -> {1} {2}")
+    @ArgumentsSource(NegotiationsArgProvider.class)
+    void negotiate(BaseParticipant consumer, BaseParticipant provider, Shape shape) {
+        consumer.setProtocol(DataspaceExtension.PROTOCOL);
+        provider.setProtocol(DataspaceExtension.PROTOCOL);
+        var assetId = UUID.randomUUID().toString();
+        // the data is never pulled, only the contract is negotiated
+        createResourcesOnProvider(provider, assetId, policyTree(consumer.getId(), shape.depth(), shape.width()),
+                httpSourceDataAddress("http://localhost/source"));
+
+        var catalog = new LatencyRecorder();
+        var negotiation = new LatencyRecorder();
+        var failures = 0;
+        for (var i = 0; i < NEGOTIATIONS; i++) {
+            try {
+                var start = System.nanoTime();
+                var offer = consumer.getOfferForAsset(provider, assetId);
+                var offered = System.nanoTime();
+                var agreementId = consumer.negotiateContract(provider, offer);
+                negotiation.record(System.nanoTime() - offered);
+                catalog.record(offered - start);
+                assertThat(agreementId).isNotNull();
+            } catch (AssertionError | RuntimeException e) {
+                failures++;
+            }
+        }
+
+        var row = "%s->%s %s".formatted(consumer.getRuntimeVersion(), provider.getRuntimeVersion(), shape);
+        REPORT.add(row, "atoms", atoms(shape.depth(), shape.width()));
+        REPORT.add(row, catalog.summary().metrics("catalog_"));
+        REPORT.add(row, negotiation.summary().metrics("negotiation_"));
+        REPORT.add(row, "failures", failures);
+        assertThat(failures).as("failed negotiations %s", row).isZero();
+    }
+
+    /**
+     * Shape of a policy tree.
+     *
+     * @param depth number of logical levels
+     * @param width number of children of each logical constraint
+     */
+    public record Shape(int depth, int width) {
+
+        static Shape parse(String shape) {
+            var parts = shape.trim().split("x");
+            return new Shape(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+        }
+
+        @Override
+        public String toString() {
+            return depth + "x" + width;
+        }
+    }
+
+    private static class ShapesArgProvider implements ArgumentsProvider {
+        @Override
+        public Stream<? extends Arguments> provideArguments(ExtensionContext context) {
+            return SHAPES.stream().map(Arguments::of);
+        }
+    }
+
+    private static class NegotiationsArgProvider implements ArgumentsProvider {
+        @Override
+        public Stream<? extends Arguments> provideArguments(ExtensionContext context) {
+            return DATASPACE.directions()
+                    .flatMap(direction -> SHAPES.stream()
+                            .map(shape -> Arguments.of(direction.get()[0], direction.get()[1], shape)));
+        }
+    }
+}
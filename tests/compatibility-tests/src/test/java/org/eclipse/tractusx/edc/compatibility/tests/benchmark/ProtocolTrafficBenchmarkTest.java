@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.benchmark;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.eclipse.edc.connector.controlplane.test.system.utils.PolicyFixtures;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.BaseParticipant;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.DataspaceDirections;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.DataspaceExtension;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BenchmarkReport;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BenchmarkTest;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.network.HttpExchange;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.network.HttpTrafficRecorder;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferProcessStates.STARTED;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.TransferHelperFunctions.createResourcesOnProvider;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.TransferHelperFunctions.httpSourceDataAddress;
+
+/**
+ * Records the HTTP exchanges between the participants, and with the identity hub, while they negotiate contracts and
+ * run pull transfers one after the other. It reports the round-trips per negotiation and the bytes per completed
+ * transfer for each endpoint (DSP, data plane public API, STS, DID and credential service), the statistics of every
+ * message type, and writes all the exchanges to {@code build/reports/traffic}.
+ */
+@BenchmarkTest
+public class ProtocolTrafficBenchmarkTest {
+
+    private static final int NEGOTIATIONS = Integer.getInteger("tx.benchmark.negotiations", 10);
+    private static final int TRANSFERS = Integer.getInteger("tx.benchmark.transfers", 10);
+    private static final int LARGEST = 10;
+    private static final Duration SETTLE_TIME = Duration.ofSeconds(2);
+    private static final Path REPORTS_DIRECTORY = Path.of("build", "reports", "traffic");
+
+    @Order(0)
+    @RegisterExtension
+    static final DataspaceExtension DATASPACE = DataspaceExtension.Builder.newInstance()
+            .recordTraffic()
+            .build();
+
+    @RegisterExtension
+    static WireMockExtension providerDataSource = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort())
+            .build();
+
+    @RegisterExtension
+    static final BenchmarkReport REPORT = BenchmarkReport.create("protocol-traffic");
+
+    @ParameterizedTest
+    @ArgumentsSource(DataspaceDirections.class)
+    void traffic(BaseParticipant consumer, BaseParticipant provider, String protocol) throws Exception {
+        consumer.setProtocol(protocol);
+        provider.setProtocol(protocol);
+        provider.waitForDataPlane();
+        providerDataSource.stubFor(any(anyUrl()).willReturn(ok("data")));
+        var assetId = UUID.randomUUID().toString();
+        createResourcesOnProvider(provider, assetId, PolicyFixtures.noConstraintPolicy(),
+                httpSourceDataAddress("http://localhost:" + providerDataSource.getPort() + "/source"));
+
+        var recorder = DATASPACE.getTrafficRecorder();
+        var direction = "%s->%s".formatted(consumer.getRuntimeVersion(), provider.getRuntimeVersion());
+        Thread.sleep(SETTLE_TIME.toMillis());
+        recorder.drain();
+
+        for (var i = 0; i < NEGOTIATIONS; i++) {
+            consumer.negotiateContract(provider, consumer.getOfferForAsset(provider, assetId));
+        }
+        Thread.sleep(SETTLE_TIME.toMillis());
+        report(direction + " negotiation", NEGOTIATIONS, recorder.drain());
+
+        for (var i = 0; i < TRANSFERS; i++) {
+            var transferProcessId = consumer.requestAssetFrom(assetId, provider)
+                    .withTransferType("HttpData-PULL")
+                    .execute();
+            consumer.awaitTransferToBeInState(transferProcessId, STARTED);
+            await().atMost(consumer.getTimeout()).until(() -> consumer.hasEdr(transferProcessId));
+            assertThat(consumer.pullDataStatus(consumer.getEdr(transferProcessId))).isEqualTo(200);
+        }
+        Thread.sleep(SETTLE_TIME.toMillis());
+        report(direction + " transfer", TRANSFERS, recorder.drain());
+    }
+
+    private void report(String row, int operations, List<HttpExchange> exchanges) {
+        assertThat(exchanges).isNotEmpty();
+        HttpTrafficRecorder.writeCsv(REPORTS_DIRECTORY.resolve(row.replaceAll("[^A-Za-z0-9-]+", "_") + ".csv"), exchanges);
+
+        var byKind = exchanges.stream().collect(Collectors.groupingBy(ProtocolTrafficBenchmarkTest::kind));
+        var metrics = new HashMap<String, Object>();
+        metrics.put("operations", operations);
+        metrics.put("round_trips_per_operation", exchanges.size() / (double) operations);
+        metrics.put("bytes_per_operation", exchanges.stream().mapToLong(HttpExchange::totalBytes).sum() / (double) operations);
+        byKind.forEach((kind, group) -> {
+            metrics.put(kind + "_round_trips_per_operation", group.size() / (double) operations);
+            metrics.put(kind + "_bytes_per_operation", group.stream().mapToLong(HttpExchange::totalBytes).sum() / (double) operations);
+            metrics.put(kind + "_gzip_bytes_per_operation", group.stream()
+                    .mapToLong(e -> e.requestCompressedBytes() + e.responseCompressedBytes()).sum() / (double) operations);
+        });
+        REPORT.add(row, metrics);
+        HttpTrafficRecorder.statistics(exchanges).forEach((type, statistics) -> REPORT.add(row + " " + type, statistics));
+
+        var largest = HttpTrafficRecorder.largest(exchanges, LARGEST);
+        for (var i = 0; i < largest.size(); i++) {
+            REPORT.add("%s largest %d".formatted(row, i + 1), largest.get(i).metrics());
+        }
+    }
+
+    private static String kind(HttpExchange exchange) {
+        return exchange.endpoint().substring(exchange.endpoint().indexOf(':') + 1);
+    }
+}
@@ -0,0 +1,291 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.benchmark;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.eclipse.edc.connector.controlplane.test.system.utils.PolicyFixtures;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.BaseParticipant;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.DataspaceExtension;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BenchmarkReport;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BenchmarkTest;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.GrowthTrend;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.LatencyRecorder;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.RuntimeProbe;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.sql.DatabaseConnections;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.sql.DatabaseUsage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferProcessStates.STARTED;
+import static org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferProcessStates.TERMINATED;
+import static org.eclipse.edc.util.io.Ports.getFreePort;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.TransferHelperFunctions.createResourcesOnProvider;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.TransferHelperFunctions.httpSourceDataAddress;
+
+/**
+ * Keeps negotiating, transferring, pulling and terminating at a fixed rate, alternating both directions, for
+ * {@code tx.benchmark.soak.minutes}, to find the slow leaks a short scenario does not show. The heap after a full
+ * collection, the threads and the open file descriptors of every runtime, the connections to each participant
+ * database and the rows of every table are sampled every {@code tx.benchmark.soak.sample-seconds}.
+ * <p>
+ * After a warm-up, a linear trend is fitted to each series, and the scenario fails if one grows steadily beyond its
+ * tolerance. The series of the test JVM, which hosts the snapshot runtimes together with the harness, are only
+ * reported. Most tables grow with every negotiation by design, so only the ones listed in
+ * {@code tx.benchmark.soak.bounded-tables} are checked, the others are reported in rows per iteration. The class
+ * histogram of the heap of each runtime is written at the end, next to the report.
+ */
+@BenchmarkTest
+public class SoakBenchmarkTest {
+
+    private static final Duration DURATION = Duration.ofMinutes(Long.getLong("tx.benchmark.soak.minutes", 60));
+    private static final int ITERATIONS_PER_MINUTE = Integer.getInteger("tx.benchmark.soak.iterations-per-minute", 30);
+    private static final Duration SAMPLE_INTERVAL = Duration.ofSeconds(Long.getLong("tx.benchmark.soak.sample-seconds", 30));
+    private static final double WARM_UP = 0.2;
+    private static final int MAX_IN_FLIGHT = Integer.getInteger("tx.benchmark.concurrency", 4);
+    private static final Set<String> BOUNDED_TABLES = Set.of(System.getProperty("tx.benchmark.soak.bounded-tables",
+            "edc_lease,edc_accesstokendata,edc_data_plane_instance").split(","));
+    private static final Map<String, Long> TOLERANCES = Map.of(
+            "heap_after_gc_mb", Long.getLong("tx.benchmark.soak.tolerance.heap-mb", 32),
+            "threads", Long.getLong("tx.benchmark.soak.tolerance.threads", 5),
+            "open_fds", Long.getLong("tx.benchmark.soak.tolerance.fds", 20),
+            "connections", Long.getLong("tx.benchmark.soak.tolerance.connections", 2),
+            "rows", Long.getLong("tx.benchmark.soak.tolerance.rows", 10));
+    private static final String TEST_JVM = "snapshot test-jvm";
+    private static final int CONTROL_PLANE_JMX_PORT = getFreePort();
+    private static final int DATA_PLANE_JMX_PORT = getFreePort();
+
+    @RegisterExtension
+    static final DataspaceExtension DATASPACE = DataspaceExtension.Builder.newInstance()
+            .remoteControlPlaneEnv("JAVA_TOOL_OPTIONS", RuntimeProbe.jmxOptions(CONTROL_PLANE_JMX_PORT))
+            .remoteDataPlaneEnv("JAVA_TOOL_OPTIONS", RuntimeProbe.jmxOptions(DATA_PLANE_JMX_PORT))
+            .build();
+
+    @RegisterExtension
+    static WireMockExtension providerDataSource = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort())
+            .build();
+
+    @RegisterExtension
+    static final BenchmarkReport REPORT = BenchmarkReport.create("soak");
+
+    private final Map<Series, List<GrowthTrend.Point>> series = new ConcurrentHashMap<>();
+
+    @Test
+    void soak() throws Exception {
+        providerDataSource.stubFor(any(anyUrl()).willReturn(ok("data")));
+        var directions = DATASPACE.directions()
+                .map(arguments -> new Direction((BaseParticipant) arguments.get()[0], (BaseParticipant) arguments.get()[1], (String) arguments.get()[2]))
+                .toList();
+        var assets = directions.stream().collect(Collectors.toMap(direction -> direction, this::createAsset));
+
+        var latencies = new LatencyRecorder();
+        var iterations = new AtomicLong();
+        var failures = new AtomicInteger();
+        var skipped = new AtomicInteger();
+        var inFlight = new AtomicInteger();
+        var workers = Executors.newFixedThreadPool(MAX_IN_FLIGHT);
+        var scheduler = Executors.newScheduledThreadPool(2);
+        var start = Instant.now();
+        try {
+            scheduler.scheduleAtFixedRate(() -> {
+                // a fixed rate, so that the iterations that cannot keep up are skipped instead of queued
+                if (inFlight.incrementAndGet() > MAX_IN_FLIGHT) {
+                    inFlight.decrementAndGet();
+                    skipped.incrementAndGet();
+                    return;
+                }
+                var direction = directions.get((int) (iterations.getAndIncrement() % directions.size()));
+                workers.submit(() -> {
+                    try {
+                        latencies.time(() -> iteration(direction, assets.get(direction)));
+                    } catch (RuntimeException | AssertionError e) {
+                        failures.incrementAndGet();
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            }, 0, Duration.ofMinutes(1).toNanos() / ITERATIONS_PER_MINUTE, TimeUnit.NANOSECONDS);
+            scheduler.scheduleAtFixedRate(this::sample, 0, SAMPLE_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+
+            Thread.sleep(DURATION.toMillis());
+        } finally {
+            scheduler.shutdownNow();
+            scheduler.awaitTermination(1, TimeUnit.MINUTES);
+            workers.shutdown();
+            workers.awaitTermination(5, TimeUnit.MINUTES);
+        }
+        sample();
+
+        REPORT.add("load", "duration_s", Duration.between(start, Instant.now()).toSeconds());
+        REPORT.add("load", "iterations", iterations.get());
+        REPORT.add("load", "failures", failures.get());
+        REPORT.add("load", "skipped", skipped.get());
+        REPORT.add("load", latencies.summary().metrics(""));
+        writeHistograms();
+
+        var leaks = analyze(latencies.count());
+        assertThat(failures.get()).as("failed iterations").isLessThanOrEqualTo((int) (iterations.get() / 100));
+        assertThat(leaks).as("series with sustained growth, see the soak report").isEmpty();
+    }
+
+    private void iteration(Direction direction, String assetId) {
+        var consumer = direction.consumer();
+        var transferProcessId = consumer.requestAssetFrom(assetId, direction.provider())
+                .withTransferType("HttpData-PULL")
+                .execute();
+        consumer.awaitTransferToBeInState(transferProcessId, STARTED);
+
+        var edr = await().atMost(consumer.getTimeout()).until(() -> consumer.getEdr(transferProcessId), Objects::nonNull);
+        await().atMost(consumer.getTimeout())
+                .untilAsserted(() -> consumer.pullData(edr, Map.of(), body -> assertThat(body).isEqualTo("data")));
+
+        consumer.terminateTransferProcess(transferProcessId, "soak");
+        consumer.awaitTransferToBeInState(transferProcessId, TERMINATED);
+    }
+
+    private void sample() {
+        var now = Instant.now();
+        runtimes().forEach((runtime, probe) -> {
+            // the test JVM also hosts the harness, so it is neither collected, which would stall the load, nor checked
+            var informational = runtime.equals(TEST_JVM);
+            try {
+                if (!informational) {
+                    probe.gc();
+                }
+                var sample = probe.sample();
+                add(new Series(runtime, "heap_after_gc_mb", null, informational), now, sample.heapAfterGcBytes() < 0 ? -1 : sample.heapAfterGcBytes() / (1024 * 1024));
+                add(new Series(runtime, "threads", null, informational), now, sample.threads());
+                add(new Series(runtime, "open_fds", null, informational), now, sample.openFileDescriptors());
+            } catch (IllegalStateException e) {
+                // a missed sample does not bias the trend
+            }
+        });
+        for (var participant : List.of(DATASPACE.getLocalParticipant(), DATASPACE.getRemoteParticipant())) {
+            var database = participant.getName();
+            var version = participant.getRuntimeVersion() + " database";
+            try (var connection = DatabaseConnections.open(DATASPACE.getPostgresql(), database)) {
+                add(new Series(version, "connections", null, false), now, DatabaseUsage.connections(connection, database));
+                DatabaseUsage.rowCounts(connection).forEach((table, rows) -> add(new Series(version, "rows", table, false), now, rows));
+            } catch (SQLException e) {
+                // a missed sample does not bias the trend
+            }
+        }
+    }
+
+    private void add(Series key, Instant time, long value) {
+        series.computeIfAbsent(key, k -> new ArrayList<>()).add(new GrowthTrend.Point(time, value));
+    }
+
+    private List<String> analyze(long iterations) {
+        var leaks = new ArrayList<String>();
+        var sorted = new TreeMap<String, Map.Entry<Series, List<GrowthTrend.Point>>>();
+        series.entrySet().forEach(entry -> sorted.put(entry.getKey().row(), entry));
+        sorted.forEach((row, entry) -> {
+            var key = entry.getKey();
+            var points = entry.getValue();
+            var trend = GrowthTrend.fit(points.subList((int) (points.size() * WARM_UP), points.size()));
+            var first = points.get(0).value();
+            var last = points.get(points.size() - 1).value();
+            var metrics = new LinkedHashMap<String, Object>();
+            metrics.put("first", first);
+            metrics.put("last", last);
+            metrics.put("slope_per_hour", Math.round(trend.slopePerHour() * 100) / 100.0);
+            metrics.put("r_squared", Math.round(trend.rSquared() * 100) / 100.0);
+            if (key.table() != null && !BOUNDED_TABLES.contains(key.table())) {
+                metrics.put("rows_per_iteration", iterations == 0 ? 0 : Math.round((last - first) * 100.0 / iterations) / 100.0);
+            } else {
+                var tolerance = TOLERANCES.get(key.kind());
+                var leak = trend.isSustainedGrowth(tolerance);
+                metrics.put("tolerance", tolerance);
+                metrics.put("leak", leak);
+                metrics.put("informational", key.informational());
+                if (leak && !key.informational()) {
+                    leaks.add("%s grew by %.1f (%.1f per hour, r2=%.2f)".formatted(row, trend.growth(), trend.slopePerHour(), trend.rSquared()));
+                }
+            }
+            REPORT.add(row, metrics);
+        });
+        return leaks;
+    }
+
+    private void writeHistograms() throws IOException {
+        Files.createDirectories(BenchmarkReport.REPORTS_DIRECTORY);
+        for (var runtime : runtimes().entrySet()) {
+            var file = "soak-heap-histogram-" + runtime.getKey().replace(' ', '-') + ".txt";
+            Files.writeString(BenchmarkReport.REPORTS_DIRECTORY.resolve(file), runtime.getValue().heapHistogram());
+        }
+    }
+
+    private String createAsset(Direction direction) {
+        direction.consumer().setProtocol(direction.protocol());
+        direction.provider().setProtocol(direction.protocol());
+        direction.provider().waitForDataPlane();
+        var assetId = UUID.randomUUID().toString();
+        createResourcesOnProvider(direction.provider(), assetId, PolicyFixtures.noConstraintPolicy(),
+                httpSourceDataAddress("http://localhost:" + providerDataSource.getPort() + "/source"));
+        return assetId;
+    }
+
+    // the snapshot runtimes are embedded, so they are probed together with the test JVM
+    private static Map<String, RuntimeProbe> runtimes() {
+        var remote = DATASPACE.getRemoteParticipantExtension();
+        var runtimes = new LinkedHashMap<String, RuntimeProbe>();
+        runtimes.put(TEST_JVM, RuntimeProbe.localJvm());
+        runtimes.put("stable control-plane", RuntimeProbe.jmx(remote.getControlPlane(), CONTROL_PLANE_JMX_PORT));
+        runtimes.put("stable data-plane", RuntimeProbe.jmx(remote.getDataPlane(), DATA_PLANE_JMX_PORT));
+        return runtimes;
+    }
+
+    private record Direction(BaseParticipant consumer, BaseParticipant provider, String protocol) {
+    }
+
+    private record Series(String subject, String kind, String table, boolean informational) {
+
+        String row() {
+            return table == null ? subject + " " + kind : subject + " " + table + " " + kind;
+        }
+    }
+}
@@ -0,0 +1,324 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.benchmark;
+
+import org.eclipse.edc.junit.extensions.EmbeddedRuntime;
+import org.eclipse.edc.spi.iam.AudienceResolver;
+import org.eclipse.edc.spi.result.Result;
+import org.eclipse.edc.sql.testfixtures.PostgresqlEndToEndExtension;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.EdcDockerRuntimes;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.IdentityHubParticipant;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.LocalParticipant;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.RemoteParticipant;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.Runtimes;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BenchmarkReport;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BenchmarkTest;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BootTimeline;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.LatencyRecorder;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.StandardOutputTap;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.sql.PgStatStatements;
+import org.eclipse.tractusx.edc.spi.identity.mapper.BdrsClient;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.testcontainers.containers.GenericContainer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.DcpHelperFunctions.bdrsClient;
+
+/**
+ * Boots every runtime {@code tx.benchmark.boots} times, one at a time, and breaks the boot down by phase: discovery
+ * of the extensions, then {@code initialize}, {@code prepare} and {@code start} of every extension, as logged at debug
+ * level, until the runtime is ready. It also measures the time until the control API answers the first request.
+ * The snapshot runtimes are embedded, so their boot does not include the start of a JVM, unlike the stable containers.
+ * <p>
+ * The extensions are ranked by their mean boot time, and the ones of the snapshot control and data plane are compared
+ * to the stable ones with the same name.
+ */
+@BenchmarkTest
+public class StartupBenchmarkTest {
+
+    private static final int BOOTS = Integer.getInteger("tx.benchmark.boots", 5);
+    private static final Duration ENDPOINT_TIMEOUT = Duration.ofMinutes(2);
+    private static final List<String> DEBUG = List.of("--log-level=DEBUG");
+
+    private static final IdentityHubParticipant IDENTITY_HUB = IdentityHubParticipant.Builder.newInstance()
+            .name("startup-identity-hub")
+            .id("startup-identity-hub")
+            .build();
+
+    private static final LocalParticipant SNAPSHOT = LocalParticipant.Builder.newInstance()
+            .name("startup_snapshot")
+            .id("startup_snapshot")
+            .sts(IDENTITY_HUB.getSts())
+            .did(IDENTITY_HUB.didFor("startup_snapshot"))
+            .trustedIssuer(IDENTITY_HUB.didFor("issuer"))
+            .build();
+
+    private static final RemoteParticipant STABLE = RemoteParticipant.Builder.newInstance()
+            .name("startup_stable")
+            .id("startup_stable")
+            .sts(IDENTITY_HUB.getSts())
+            .did(IDENTITY_HUB.didFor("startup_stable"))
+            .trustedIssuer(IDENTITY_HUB.didFor("issuer"))
+            .build();
+
+    private static final Map<String, String> DIDS = Map.of(
+            SNAPSHOT.getId(), SNAPSHOT.getDid(),
+            STABLE.getId(), STABLE.getDid()
+    );
+
+    @Order(0)
+    @RegisterExtension
+    static final PostgresqlEndToEndExtension POSTGRESQL = new PostgresqlEndToEndExtension(PgStatStatements.container());
+
+    @Order(1)
+    @RegisterExtension
+    static final BeforeAllCallback CREATE_DATABASES = context -> {
+        POSTGRESQL.createDatabase(SNAPSHOT.getName());
+        POSTGRESQL.createDatabase(STABLE.getName());
+    };
+
+    private static final HttpClient HTTP = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+    private static final ExecutorService PROBES = Executors.newCachedThreadPool();
+    private static final Map<String, List<Boot>> BOOTS_BY_RUNTIME = new LinkedHashMap<>();
+
+    @AfterAll
+    static void afterAll() {
+        PROBES.shutdownNow();
+
+        var report = BenchmarkReport.create("startup");
+        var extensions = new LinkedHashMap<String, BenchmarkReport>();
+        BOOTS_BY_RUNTIME.forEach((runtime, boots) -> {
+            var booted = new LatencyRecorder();
+            var firstResponse = new LatencyRecorder();
+            boots.forEach(boot -> {
+                booted.record(boot.booted().toNanos());
+                firstResponse.record(boot.firstResponse().toNanos());
+            });
+            report.add(runtime, "first_boot_ms", millis(boots.get(0).booted()));
+            report.add(runtime, booted.summary().metrics("boot_"));
+            report.add(runtime, firstResponse.summary().metrics("first_response_"));
+            report.add(runtime, "discovery_mean_ms", mean(boots, boot -> boot.timeline().discovery()));
+            for (var phase : BootTimeline.Phase.values()) {
+                report.add(runtime, phase.name().toLowerCase() + "_mean_ms",
+                        mean(boots, boot -> boot.timeline().phases().getOrDefault(phase, Duration.ZERO)));
+            }
+            report.add(runtime, "ready_mean_ms", mean(boots, boot -> boot.timeline().untilReady()));
+            extensions.put(runtime, extensionReport(runtime, boots));
+        });
+        report.write();
+        extensions.values().forEach(BenchmarkReport::write);
+
+        for (var component : List.of("controlplane", "dataplane")) {
+            var snapshot = extensions.get(component + "-snapshot");
+            var stable = extensions.get(component + "-stable");
+            if (snapshot != null && stable != null) {
+                System.out.println(snapshot.diff(stable));
+            }
+        }
+    }
+
+    @Test
+    void snapshotRuntimes() {
+        for (var i = 0; i < BOOTS; i++) {
+            var controlPlane = Runtimes.CONTROL_PLANE.create("startup-control-plane")
+                    .configurationProvider(() -> POSTGRESQL.configFor(SNAPSHOT.getName()))
+                    .configurationProvider(SNAPSHOT::controlPlaneConfig)
+                    .registerServiceMock(BdrsClient.class, bdrsClient(DIDS))
+                    .registerServiceMock(AudienceResolver.class, message -> Result.success(DIDS.get(message.getCounterPartyId())));
+            try {
+                record("controlplane-snapshot", boot(controlPlane, SNAPSHOT.getControlPlaneControlEndpoint()));
+
+                // the data plane registers with the control plane when it starts
+                var dataPlane = Runtimes.DATA_PLANE.create("startup-data-plane")
+                        .configurationProvider(() -> POSTGRESQL.configFor(SNAPSHOT.getName()))
+                        .configurationProvider(SNAPSHOT::dataPlaneConfig);
+                try {
+                    record("dataplane-snapshot", boot(dataPlane, SNAPSHOT.getDataPlaneControlEndpoint()));
+                } finally {
+                    dataPlane.shutdown();
+                }
+            } finally {
+                controlPlane.shutdown();
+            }
+
+            var identityHub = Runtimes.IDENTITY_HUB.create("startup-identity-hub")
+                    .configurationProvider(IDENTITY_HUB::getConfig);
+            try {
+                record("identityhub-snapshot", boot(identityHub, IDENTITY_HUB.getSts()));
+            } finally {
+                identityHub.shutdown();
+            }
+        }
+    }
+
+    @Test
+    void stableRuntimes() {
+        for (var i = 0; i < BOOTS; i++) {
+            var controlPlane = EdcDockerRuntimes.CONTROL_PLANE.create("startup-controlplane",
+                    STABLE.controlPlaneEnv(List.of(SNAPSHOT), POSTGRESQL), DEBUG);
+            try {
+                record("controlplane-stable", boot(controlPlane, STABLE.getControlPlaneControlEndpoint()));
+
+                var dataPlane = EdcDockerRuntimes.DATA_PLANE.create("startup-dataplane",
+                        STABLE.dataPlaneEnv(List.of(SNAPSHOT), POSTGRESQL), DEBUG);
+                try {
+                    record("dataplane-stable", boot(dataPlane, STABLE.getDataPlaneControlEndpoint()));
+                } finally {
+                    dataPlane.stop();
+                }
+            } finally {
+                controlPlane.stop();
+            }
+        }
+    }
+
+    private Boot boot(EmbeddedRuntime runtime, URI endpoint) {
+        var timeline = new BootTimeline(LocalDateTime.now(ZoneOffset.UTC));
+        return measure(timeline, endpoint, () -> {
+            try (var tap = StandardOutputTap.start(timeline::accept)) {
+                runtime.boot(false);
+            }
+        });
+    }
+
+    private Boot boot(GenericContainer<?> container, URI endpoint) {
+        var timeline = new BootTimeline();
+        container.withLogConsumer(frame -> timeline.accept(frame.getUtf8StringWithoutLineEnding()));
+        var boot = measure(timeline, endpoint, container::start);
+        // the log is consumed asynchronously, it may lag behind the wait strategy of the container
+        await().atMost(Duration.ofSeconds(10)).until(timeline::isReady);
+        return boot;
+    }
+
+    private Boot measure(BootTimeline timeline, URI endpoint, Runnable boot) {
+        var start = System.nanoTime();
+        var firstResponse = firstResponse(endpoint);
+        boot.run();
+        var booted = System.nanoTime() - start;
+        try {
+            return new Boot(timeline, Duration.ofNanos(booted), Duration.ofNanos(firstResponse.get(ENDPOINT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS) - start));
+        } catch (ExecutionException | TimeoutException e) {
+            throw new AssertionError("No response from " + endpoint, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Polls an endpoint until it answers, whatever the status code.
+     *
+     * @param endpoint the endpoint
+     * @return the {@link System#nanoTime()} of the first response
+     */
+    private CompletableFuture<Long> firstResponse(URI endpoint) {
+        var request = HttpRequest.newBuilder(endpoint).timeout(Duration.ofSeconds(1)).GET().build();
+        var deadline = System.nanoTime() + ENDPOINT_TIMEOUT.toNanos();
+        return CompletableFuture.supplyAsync(() -> {
+            while (System.nanoTime() < deadline) {
+                try {
+                    HTTP.send(request, HttpResponse.BodyHandlers.discarding());
+                    return System.nanoTime();
+                } catch (IOException e) {
+                    sleep(Duration.ofMillis(10));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                }
+            }
+            throw new IllegalStateException("No response from " + endpoint);
+        }, PROBES);
+    }
+
+    private void record(String runtime, Boot boot) {
+        assertThat(boot.timeline().isReady()).isTrue();
+        BOOTS_BY_RUNTIME.computeIfAbsent(runtime, k -> new ArrayList<>()).add(boot);
+    }
+
+    private static BenchmarkReport extensionReport(String runtime, List<Boot> boots) {
+        var durations = new LinkedHashMap<String, Map<BootTimeline.Phase, List<Duration>>>();
+        boots.forEach(boot -> boot.timeline().extensions().forEach((extension, phases) -> phases.forEach((phase, duration) -> durations
+                .computeIfAbsent(extension, k -> new LinkedHashMap<>())
+                .computeIfAbsent(phase, k -> new ArrayList<>())
+                .add(duration))));
+
+        var report = BenchmarkReport.create("startup-extensions-" + runtime);
+        Function<String, Double> total = extension -> durations.get(extension).values().stream()
+                .mapToDouble(phase -> millis(phase.stream().reduce(Duration.ZERO, Duration::plus)) / boots.size())
+                .sum();
+        durations.keySet().stream()
+                .sorted(Comparator.comparing(total).reversed())
+                .forEach(extension -> {
+                    for (var phase : BootTimeline.Phase.values()) {
+                        var phaseDurations = durations.get(extension).getOrDefault(phase, List.of());
+                        report.add(extension, phase.name().toLowerCase() + "_ms",
+                                millis(phaseDurations.stream().reduce(Duration.ZERO, Duration::plus)) / boots.size());
+                    }
+                    report.add(extension, "total_ms", total.apply(extension));
+                });
+        return report;
+    }
+
+    private static double mean(List<Boot> boots, Function<Boot, Duration> duration) {
+        return boots.stream().map(duration).mapToDouble(StartupBenchmarkTest::millis).average().orElse(0);
+    }
+
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 1_000_000.0;
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Boot(BootTimeline timeline, Duration booted, Duration firstResponse) {
+    }
+}
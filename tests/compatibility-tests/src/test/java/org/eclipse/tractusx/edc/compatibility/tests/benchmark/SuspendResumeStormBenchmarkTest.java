@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.benchmark;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.eclipse.edc.connector.controlplane.test.system.utils.PolicyFixtures;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.BaseParticipant;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.DataspaceDirections;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.DataspaceExtension;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.LocalParticipant;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BenchmarkReport;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BenchmarkTest;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.LatencyRecorder;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.RuntimeProbe;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.RuntimeSampler;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferProcessStates.STARTED;
+import static org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferProcessStates.SUSPENDED;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.TransferHelperFunctions.createResourcesOnProvider;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.TransferHelperFunctions.httpSourceDataAddress;
+
+/**
+ * Runs many transfers concurrently through repeated suspend/resume cycles, like
+ * {@code suspendAndResume_httpPull_dataTransfer} does once. It records the latency of the lifecycle operations, the
+ * time until the EDR is invalidated and re-issued, and samples the memory and threads of the provider runtime, before,
+ * during and after the storm, to reveal leaks and slowing state machines. The stable provider is sampled in its data
+ * plane container, the snapshot provider in the test JVM, which hosts all the embedded runtimes.
+ */
+@BenchmarkTest
+public class SuspendResumeStormBenchmarkTest {
+
+    private static final int TRANSFERS = Integer.getInteger("tx.benchmark.transfers", 50);
+    private static final int CYCLES = Integer.getInteger("tx.benchmark.cycles", 10);
+    private static final int CONCURRENCY = Integer.getInteger("tx.benchmark.concurrency", 20);
+    private static final Duration SAMPLE_INTERVAL = Duration.ofSeconds(1);
+    private static final Duration SETTLE_TIME = Duration.ofSeconds(30);
+
+    @Order(0)
+    @RegisterExtension
+    static final DataspaceExtension DATASPACE = DataspaceExtension.Builder.newInstance().build();
+
+    @RegisterExtension
+    static WireMockExtension providerDataSource = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort())
+            .build();
+
+    @RegisterExtension
+    static final BenchmarkReport REPORT = BenchmarkReport.create("suspend-resume-storm");
+
+    @ParameterizedTest
+    @ArgumentsSource(DataspaceDirections.class)
+    void suspendResumeStorm(BaseParticipant consumer, BaseParticipant provider, String protocol) throws Exception {
+        consumer.setProtocol(protocol);
+        provider.setProtocol(protocol);
+        provider.waitForDataPlane();
+        providerDataSource.stubFor(any(anyUrl()).willReturn(ok("data")));
+        var assetId = UUID.randomUUID().toString();
+        createResourcesOnProvider(provider, assetId, PolicyFixtures.noConstraintPolicy(),
+                httpSourceDataAddress("http://localhost:" + providerDataSource.getPort() + "/source"));
+
+        var suspend = new LatencyRecorder();
+        var invalidate = new LatencyRecorder();
+        var resume = new LatencyRecorder();
+        var reissue = new LatencyRecorder();
+        var firstCycle = new LatencyRecorder();
+        var lastCycle = new LatencyRecorder();
+
+        var executor = Executors.newFixedThreadPool(CONCURRENCY);
+        try (var sampler = RuntimeSampler.start(probe(provider), SAMPLE_INTERVAL)) {
+            var futures = new ArrayList<Future<?>>();
+            for (var i = 0; i < TRANSFERS; i++) {
+                futures.add(executor.submit(() -> {
+                    var transferProcessId = consumer.requestAssetFrom(assetId, provider)
+                            .withTransferType("HttpData-PULL")
+                            .execute();
+                    consumer.awaitTransferToBeInState(transferProcessId, STARTED);
+                    await().atMost(consumer.getTimeout()).until(() -> consumer.hasEdr(transferProcessId));
+
+                    for (var cycle = 0; cycle < CYCLES; cycle++) {
+                        var start = System.nanoTime();
+                        consumer.suspendTransfer(transferProcessId, "storm");
+                        consumer.awaitTransferToBeInState(transferProcessId, SUSPENDED);
+                        var suspended = System.nanoTime();
+                        await().atMost(consumer.getTimeout()).until(() -> !consumer.hasEdr(transferProcessId));
+                        var invalidated = System.nanoTime();
+
+                        consumer.resumeTransfer(transferProcessId);
+                        consumer.awaitTransferToBeInState(transferProcessId, STARTED);
+                        var resumed = System.nanoTime();
+                        await().atMost(consumer.getTimeout()).until(() -> consumer.hasEdr(transferProcessId));
+                        var reissued = System.nanoTime();
+
+                        suspend.record(suspended - start);
+                        invalidate.record(invalidated - start);
+                        resume.record(resumed - invalidated);
+                        reissue.record(reissued - invalidated);
+                        if (cycle == 0) {
+                            firstCycle.record(reissued - start);
+                        } else if (cycle == CYCLES - 1) {
+                            lastCycle.record(reissued - start);
+                        }
+                    }
+
+                    var edr = consumer.getEdr(transferProcessId);
+                    assertThat(consumer.pullDataStatus(edr)).isEqualTo(200);
+                }));
+            }
+            for (var future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    throw new AssertionError("Suspend/resume cycle failed", e.getCause());
+                }
+            }
+
+            Thread.sleep(SETTLE_TIME.toMillis());
+            var settled = sampler.sample();
+
+            var row = "%s->%s".formatted(consumer.getRuntimeVersion(), provider.getRuntimeVersion());
+            REPORT.add(row, "transfers", TRANSFERS);
+            REPORT.add(row, "cycles", CYCLES);
+            REPORT.add(row, suspend.summary().metrics("suspend_"));
+            REPORT.add(row, invalidate.summary().metrics("edr_invalidated_"));
+            REPORT.add(row, resume.summary().metrics("resume_"));
+            REPORT.add(row, reissue.summary().metrics("edr_reissued_"));
+            REPORT.add(row, firstCycle.summary().metrics("first_cycle_"));
+            REPORT.add(row, lastCycle.summary().metrics("last_cycle_"));
+            REPORT.add(row, "provider_runtime", probeLabel(provider));
+            REPORT.add(row, sampler.metrics("provider_runtime_"));
+            REPORT.add(row, "provider_runtime_rss_mb_settled", settled.rssBytes() / (1024 * 1024));
+            REPORT.add(row, "provider_runtime_threads_settled", settled.threads());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private String probeLabel(BaseParticipant provider) {
+        return provider instanceof LocalParticipant ? "snapshot test-jvm" : "stable data-plane";
+    }
+
+    private RuntimeProbe probe(BaseParticipant provider) {
+        return provider instanceof LocalParticipant
+                ? RuntimeProbe.localJvm()
+                : RuntimeProbe.container(DATASPACE.getRemoteParticipantExtension().getDataPlane());
+    }
+}
@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+package org.eclipse.tractusx.edc.compatibility.tests.benchmark;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.eclipse.edc.connector.controlplane.test.system.utils.PolicyFixtures;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.BaseParticipant;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.DataspaceDirections;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.DataspaceExtension;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BenchmarkReport;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.BenchmarkTest;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.LatencyRecorder;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.RuntimeProbe;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.VaultStatistics;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferProcessStates.STARTED;
+import static org.eclipse.edc.util.io.Ports.getFreePort;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.TransferHelperFunctions.createResourcesOnProvider;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.TransferHelperFunctions.httpSourceDataAddress;
+
+/**
+ * Runs transfers and pulls with the vault of the stable runtimes behind a simulated remote backend of
+ * {@code tx.benchmark.vault.latency-ms}, with or without caching the resolved secrets for
+ * {@code tx.benchmark.vault.cache-ttl-ms}, and reports the latencies and the throughput together with the secret
+ * lookups of the stable control plane and data plane, read over JMX. A cached run is compared with the uncached run
+ * of the same backend latency, see the {@code vaultCacheComparison} task.
+ */
+@BenchmarkTest
+public class VaultCacheBenchmarkTest {
+
+    private static final long LATENCY_MS = Long.getLong("tx.benchmark.vault.latency-ms", 20);
+    private static final long CACHE_TTL_MS = Long.getLong("tx.benchmark.vault.cache-ttl-ms", 0);
+    private static final int TRANSFERS = Integer.getInteger("tx.benchmark.transfers", 20);
+    private static final int PULLS = Integer.getInteger("tx.benchmark.pulls", 200);
+    private static final int CONCURRENCY = Integer.getInteger("tx.benchmark.concurrency", 10);
+    private static final int CONTROL_PLANE_JMX_PORT = getFreePort();
+    private static final int DATA_PLANE_JMX_PORT = getFreePort();
+
+    static {
+        // the stable runtimes only decorate their vault, and export its metrics, with a latency or a cache
+        if (LATENCY_MS == 0 && CACHE_TTL_MS == 0) {
+            throw new IllegalStateException("The vault benchmark needs tx.benchmark.vault.latency-ms or tx.benchmark.vault.cache-ttl-ms");
+        }
+    }
+
+    @Order(0)
+    @RegisterExtension
+    static final DataspaceExtension DATASPACE = DataspaceExtension.Builder.newInstance()
+            .remoteControlPlaneEnv("JAVA_TOOL_OPTIONS", RuntimeProbe.jmxOptions(CONTROL_PLANE_JMX_PORT))
+            .remoteControlPlaneEnv("TESTING_EDC_VAULT_LATENCY_MS", String.valueOf(LATENCY_MS))
+            .remoteControlPlaneEnv("TESTING_EDC_VAULT_CACHE_TTL_MS", String.valueOf(CACHE_TTL_MS))
+            .remoteDataPlaneEnv("JAVA_TOOL_OPTIONS", RuntimeProbe.jmxOptions(DATA_PLANE_JMX_PORT))
+            .remoteDataPlaneEnv("TESTING_EDC_VAULT_LATENCY_MS", String.valueOf(LATENCY_MS))
+            .remoteDataPlaneEnv("TESTING_EDC_VAULT_CACHE_TTL_MS", String.valueOf(CACHE_TTL_MS))
+            .build();
+
+    @RegisterExtension
+    static WireMockExtension providerDataSource = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort())
+            .build();
+
+    @RegisterExtension
+    static final BenchmarkReport REPORT = BenchmarkReport.create(reportName(CACHE_TTL_MS > 0))
+            .comparedTo(CACHE_TTL_MS > 0 ? reportName(false) : null);
+
+    @ParameterizedTest(name = "{0} -> {1}")
+    @ArgumentsSource(DataspaceDirections.class)
+    void transfersAndPulls(BaseParticipant consumer, BaseParticipant provider, String protocol) {
+        consumer.setProtocol(protocol);
+        provider.setProtocol(protocol);
+        provider.waitForDataPlane();
+        providerDataSource.stubFor(any(anyUrl()).willReturn(ok("data")));
+        var assetId = UUID.randomUUID().toString();
+        createResourcesOnProvider(provider, assetId, PolicyFixtures.noConstraintPolicy(),
+                httpSourceDataAddress("http://localhost:" + providerDataSource.getPort() + "/source"));
+
+        var row = "%s->%s".formatted(consumer.getRuntimeVersion(), provider.getRuntimeVersion());
+        REPORT.add(row, "vault_latency_ms", LATENCY_MS);
+        REPORT.add(row, "cache_ttl_ms", CACHE_TTL_MS);
+
+        resetVaultStatistics();
+        var transferProcessIds = new ArrayList<String>();
+        var transfers = new LatencyRecorder();
+        var transferSeconds = run(TRANSFERS, transfers, () -> {
+            var transferProcessId = consumer.requestAssetFrom(assetId, provider)
+                    .withTransferType("HttpData-PULL")
+                    .execute();
+            consumer.awaitTransferToBeInState(transferProcessId, STARTED);
+            synchronized (transferProcessIds) {
+                transferProcessIds.add(transferProcessId);
+            }
+        });
+        REPORT.add(row, transfers.summary().metrics("started_"));
+        REPORT.add(row, "transfers_per_s", Math.round(TRANSFERS * 100 / transferSeconds) / 100.0);
+        reportVaultStatistics(row, "transfer_");
+
+        var edr = await().atMost(consumer.getTimeout()).until(() -> consumer.getEdr(transferProcessIds.get(0)), Objects::nonNull);
+        resetVaultStatistics();
+        var pulls = new LatencyRecorder();
+        var pullSeconds = run(PULLS, pulls, () -> assertThat(consumer.pullDataStatus(edr)).isEqualTo(200));
+        REPORT.add(row, pulls.summary().metrics("pull_"));
+        REPORT.add(row, "pulls_per_s", Math.round(PULLS * 100 / pullSeconds) / 100.0);
+        reportVaultStatistics(row, "pull_");
+    }
+
+    private double run(int operations, LatencyRecorder latencies, Runnable operation) {
+        var executor = Executors.newFixedThreadPool(CONCURRENCY);
+        var start = System.nanoTime();
+        try {
+            var futures = new ArrayList<Future<?>>();
+            for (var i = 0; i < operations; i++) {
+                futures.add(executor.submit(() -> latencies.time(operation)));
+            }
+            for (var future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new AssertionError("Operation failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError("Interrupted while running the operations", e);
+        } finally {
+            executor.shutdownNow();
+        }
+        return (System.nanoTime() - start) / 1_000_000_000.0;
+    }
+
+    private void resetVaultStatistics() {
+        VaultStatistics.reset(CONTROL_PLANE_JMX_PORT);
+        VaultStatistics.reset(DATA_PLANE_JMX_PORT);
+    }
+
+    private void reportVaultStatistics(String row, String phase) {
+        REPORT.add(row, VaultStatistics.read(CONTROL_PLANE_JMX_PORT).metrics(phase + "cp_vault_"));
+        REPORT.add(row, VaultStatistics.read(DATA_PLANE_JMX_PORT).metrics(phase + "dp_vault_"));
+    }
+
+    private static String reportName(boolean cached) {
+        return "vault-%dms-%s".formatted(LATENCY_MS, cached ? "cached" : "uncached");
+    }
+}
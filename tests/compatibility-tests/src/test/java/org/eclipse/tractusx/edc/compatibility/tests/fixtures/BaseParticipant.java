@@ -21,40 +21,52 @@ package org.eclipse.tractusx.edc.compatibility.tests.fixtures;
 
 import com.nimbusds.jose.jwk.JWK;
 import io.restassured.common.mapper.TypeRef;
+import io.restassured.response.Response;
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
 import org.assertj.core.api.ThrowingConsumer;
 import org.eclipse.edc.connector.controlplane.test.system.utils.Participant;
 import org.eclipse.edc.junit.utils.LazySupplier;
 import org.eclipse.edc.security.token.jwt.CryptoConverter;
 import org.eclipse.edc.spi.types.domain.DataAddress;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.network.NetworkEmulation;
 import org.testcontainers.shaded.org.bouncycastle.jce.provider.BouncyCastleProvider;
 
 import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
 import java.security.NoSuchAlgorithmException;
 import java.security.spec.ECGenParameterSpec;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static io.restassured.RestAssured.given;
 import static io.restassured.http.ContentType.JSON;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.awaitility.Awaitility.await;
+import static org.eclipse.edc.spi.constants.CoreConstants.EDC_NAMESPACE;
 import static org.eclipse.edc.util.io.Ports.getFreePort;
 
 public abstract class BaseParticipant extends Participant {
 
-    protected final LazySupplier<URI> controlPlaneControl = new LazySupplier<>(() -> URI.create("http://localhost:" + getFreePort() + "/control"));
-    protected final LazySupplier<URI> dataPlaneControl = new LazySupplier<>(() -> URI.create("http://localhost:" + getFreePort() + "/control"));
-    protected final LazySupplier<URI> dataPlanePublic = new LazySupplier<>(() -> URI.create("http://localhost:" + getFreePort() + "/public"));
-    protected final LazySupplier<URI> consumerPublic = new LazySupplier<>(() -> URI.create("http://localhost:" + getFreePort() + "/public"));
-    protected final LazySupplier<URI> controlPlaneVersion = new LazySupplier<>(() -> URI.create("http://localhost:" + getFreePort() + "/version"));
-    protected final LazySupplier<URI> dataPlaneVersion = new LazySupplier<>(() -> URI.create("http://localhost:" + getFreePort() + "/version"));
+    protected final LazySupplier<URI> controlPlaneControl = new LazySupplier<>(() -> URI.create("http://localhost:" + port("control-plane-control") + "/control"));
+    protected final LazySupplier<URI> dataPlaneControl = new LazySupplier<>(() -> URI.create("http://localhost:" + port("data-plane-control") + "/control"));
+    protected final LazySupplier<URI> dataPlanePublic = new LazySupplier<>(() -> URI.create("http://localhost:" + port("data-plane-public") + "/public"));
+    protected final LazySupplier<URI> consumerPublic = new LazySupplier<>(() -> URI.create("http://localhost:" + port("consumer-public") + "/proxy"));
+    protected final LazySupplier<URI> controlPlaneVersion = new LazySupplier<>(() -> URI.create("http://localhost:" + port("control-plane-version") + "/version"));
+    protected final LazySupplier<URI> dataPlaneVersion = new LazySupplier<>(() -> URI.create("http://localhost:" + port("data-plane-version") + "/version"));
     protected URI sts;
     protected KeyPair keyPair;
     protected JWK keyPairJwk;
     protected String did;
     protected String trustedIssuer;
+    protected NetworkEmulation network = NetworkEmulation.none();
 
     public static KeyPair generateKeyPair() {
         try {
@@ -66,6 +78,17 @@ public abstract class BaseParticipant extends Participant {
         }
     }
 
+    /**
+     * A free port for an endpoint of the participant, which stays the same across runs when the stable runtimes are
+     * reused.
+     *
+     * @param endpoint the endpoint
+     * @return the port
+     */
+    protected int port(String endpoint) {
+        return StableReuse.ENABLED ? StableReuse.port(name + "." + endpoint) : getFreePort();
+    }
+
     public JWK getKeyPairJwk() {
         return keyPairJwk;
     }
@@ -94,6 +117,34 @@ public abstract class BaseParticipant extends Participant {
         return keyPairJwk.toPublicJWK().toJSONString();
     }
 
+    /**
+     * Version of the runtimes backing the participant, used to label measurements.
+     *
+     * @return the runtime version
+     */
+    public String getRuntimeVersion() {
+        return getName();
+    }
+
+    /**
+     * The control API of the control plane, which every version exposes, e.g. to probe when the runtime starts to
+     * accept requests.
+     *
+     * @return the endpoint
+     */
+    public URI getControlPlaneControlEndpoint() {
+        return controlPlaneControl.get();
+    }
+
+    /**
+     * The control API of the data plane, which every version exposes, e.g. to probe when the runtime starts to
+     * accept requests.
+     *
+     * @return the endpoint
+     */
+    public URI getDataPlaneControlEndpoint() {
+        return dataPlaneControl.get();
+    }
 
     /**
      * Pull data from provider using EDR.
@@ -133,6 +184,74 @@ public abstract class BaseParticipant extends Participant {
 
     }
 
+    /**
+     * The URL of the DID document of the participant, following the {@code did:web} method without HTTPS, like the
+     * runtimes of the tests resolve it.
+     *
+     * @return the URL
+     */
+    public URI getDidDocumentUrl() {
+        var segments = did.substring("did:web:".length()).split(":");
+        var path = segments.length == 1
+                ? "/.well-known"
+                : "/" + String.join("/", Arrays.copyOfRange(segments, 1, segments.length));
+        return URI.create("http://" + URLDecoder.decode(segments[0], StandardCharsets.UTF_8) + path + "/did.json");
+    }
+
+    /**
+     * Waits until the DID document of the participant is published, which the counter-parties need to verify its
+     * tokens.
+     */
+    public void waitForDidDocument() {
+        await().atMost(timeout)
+                .untilAsserted(() -> given()
+                        .get(getDidDocumentUrl())
+                        .then()
+                        .statusCode(200));
+    }
+
+    /**
+     * Waits until the given number of data planes is registered, and all of them are available.
+     *
+     * @param count the expected number of data planes
+     */
+    public void waitForDataPlanes(int count) {
+        await().atMost(timeout)
+                .untilAsserted(() -> {
+                    var jp = baseManagementRequest()
+                            .get("/v3/dataplanes")
+                            .then()
+                            .statusCode(200)
+                            .log().ifValidationFails()
+                            .extract().body().jsonPath();
+
+                    List<String> states = jp.getList("state");
+                    assertThat(states).hasSize(count);
+                    assertThat(states).allSatisfy(state -> assertThat(state).isIn("AVAILABLE", null));
+                });
+    }
+
+    /**
+     * The state of each data plane registered with the control plane.
+     *
+     * @return the states by data plane id, {@code null} when the runtime does not report one
+     */
+    public Map<String, String> getDataPlaneStates() {
+        var jp = baseManagementRequest()
+                .get("/v3/dataplanes")
+                .then()
+                .statusCode(200)
+                .extract().body().jsonPath();
+
+        List<String> ids = jp.getList("'@id'");
+        List<String> states = jp.getList("state");
+        var result = new HashMap<String, String>();
+        for (var i = 0; i < ids.size(); i++) {
+            result.put(ids.get(i), states.get(i));
+        }
+        return result;
+    }
+
     /**
      * Get the EDR from the EDR cache by transfer process id.
      *
@@ -158,6 +277,113 @@ public abstract class BaseParticipant extends Participant {
 
     }
 
+    /**
+     * Whether the EDR of a transfer process is in the EDR cache. Unlike {@link #getEdr(String)}, it does not fail
+     * when the EDR is gone.
+     *
+     * @param transferProcessId the transfer process id
+     * @return true if the EDR is cached
+     */
+    public boolean hasEdr(String transferProcessId) {
+        return baseManagementRequest()
+                .when()
+                .get("/v3/edrs/{id}/dataaddress", transferProcessId)
+                .statusCode() == 200;
+    }
+
+    /**
+     * Pull data from provider using EDR, without asserting on the response.
+     *
+     * @param edr endpoint data reference
+     * @return the status code of the response
+     */
+    public int pullDataStatus(DataAddress edr) {
+        return given()
+                .baseUri(edr.getStringProperty("endpoint"))
+                .header("Authorization", edr.getStringProperty("authorization"))
+                .when()
+                .get()
+                .statusCode();
+    }
+
+    /**
+     * Pull data through the consumer proxy of the data plane, which resolves the EDR itself, without asserting on the
+     * response. The consumer proxy is secured with the same API key as the management API.
+     *
+     * @param assetRequest the request, with the {@code transferProcessId}, or the {@code assetId} and the {@code providerId}
+     * @return the status code of the response
+     */
+    public int pullDataThroughConsumerProxy(Map<String, String> assetRequest) {
+        return enrichManagementRequest.apply(given())
+                .baseUri(consumerPublic.get().toString())
+                .contentType(JSON)
+                .body(assetRequest)
+                .when()
+                .post("/aas/request")
+                .statusCode();
+    }
+
+    /**
+     * Terminates a transfer process, which releases its resources, e.g. the access token of its EDR.
+     *
+     * @param transferProcessId the transfer process id
+     * @param reason            the reason of the termination
+     */
+    public void terminateTransferProcess(String transferProcessId, String reason) {
+        var body = Json.createObjectBuilder()
+                .add("@type", EDC_NAMESPACE + "TerminateTransfer")
+                .add(EDC_NAMESPACE + "reason", reason)
+                .build();
+        baseManagementRequest()
+                .contentType(JSON)
+                .body(body.toString())
+                .when()
+                .post("/v3/transferprocesses/{id}/terminate", transferProcessId)
+                .then()
+                .log().ifError()
+                .statusCode(204);
+    }
+
+    /**
+     * Get the signing date of the contract agreement of a transfer process, the reference of the
+     * {@code contractAgreement+} in-force dates.
+     *
+     * @param transferProcessId the transfer process id
+     * @return the signing date, with a precision of seconds
+     */
+    public Instant getContractSigningDate(String transferProcessId) {
+        var contractId = baseManagementRequest()
+                .when()
+                .get("/v3/transferprocesses/{id}", transferProcessId)
+                .then()
+                .statusCode(200)
+                .extract().jsonPath().getString("contractId");
+
+        var signingDate = baseManagementRequest()
+                .when()
+                .get("/v3/contractagreements/{id}", contractId)
+                .then()
+                .statusCode(200)
+                .extract().jsonPath().getLong("contractSigningDate");
+
+        return Instant.ofEpochSecond(signingDate);
+    }
+
+    /**
+     * Posts a query to a management API request endpoint, e.g. {@code /v3/transferprocesses/request}.
+     *
+     * @param path      the path of the endpoint
+     * @param querySpec the query
+     * @return the response
+     */
+    public Response queryManagementApi(String path, JsonObject querySpec) {
+        return baseManagementRequest()
+                .contentType(JSON)
+                .body(querySpec)
+                .when()
+                .post(path);
+    }
+
     public static class Builder<P extends BaseParticipant, B extends Participant.Builder<P, B>> extends Participant.Builder<P, B> {
 
         protected Builder(P participant) {
@@ -174,6 +400,17 @@ public abstract class BaseParticipant extends Participant {
             return self();
         }
 
+        /**
+         * Puts the protocol and the public data plane endpoints of the participant behind the emulated network.
+         *
+         * @param network the network emulation
+         * @return the builder
+         */
+        public B network(NetworkEmulation network) {
+            participant.network = network;
+            return self();
+        }
+
         public B trustedIssuer(String trustedIssuer) {
             participant.trustedIssuer = trustedIssuer;
             return self();
@@ -187,7 +424,13 @@ public abstract class BaseParticipant extends Participant {
                 participant.did = "did:web:" + participant.name.toLowerCase();
             }
 
-            participant.keyPair = generateKeyPair();
+            if (StableReuse.ENABLED) {
+                participant.controlPlaneManagement = new LazySupplier<>(() -> URI.create("http://localhost:" + participant.port("management") + "/management"));
+                participant.controlPlaneProtocol = new LazySupplier<>(() -> URI.create("http://localhost:" + participant.port("protocol") + "/protocol"));
+                participant.keyPair = StableReuse.keyPair(participant.name);
+            } else {
+                participant.keyPair = generateKeyPair();
+            }
 
             var jwk = CryptoConverter.createJwk(participant.keyPair).toJSONObject();
             jwk.put("kid", participant.did + "#key-1");
@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures;
+
+import org.eclipse.edc.junit.extensions.EmbeddedRuntime;
+import org.eclipse.edc.spi.security.Vault;
+import org.eclipse.edc.spi.system.configuration.ConfigFactory;
+import org.eclipse.edc.sql.testfixtures.PostgresqlEndToEndExtension;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.eclipse.edc.util.io.Ports.getFreePort;
+
+/**
+ * Additional data plane instances of a participant, which register with its control plane next to the default one.
+ * Snapshot replicas are embedded runtimes, stable replicas are containers. Each replica has its own ports and
+ * component id, and shares the database of the participant.
+ */
+public class DataPlaneReplicas implements AutoCloseable {
+
+    private final String participantName;
+    private final Function<String, Runnable> starter;
+    private final Map<String, Runnable> running = new LinkedHashMap<>();
+    private int started;
+
+    private DataPlaneReplicas(String participantName, Function<String, Runnable> starter) {
+        this.participantName = participantName;
+        this.starter = starter;
+    }
+
+    /**
+     * Replicas of the embedded data plane of a snapshot participant.
+     *
+     * @param participant the participant
+     * @param postgresql  the database
+     * @param config      additional configuration of the replicas
+     * @return the replicas, none started yet
+     */
+    public static DataPlaneReplicas local(LocalParticipant participant, PostgresqlEndToEndExtension postgresql, Map<String, String> config) {
+        return new DataPlaneReplicas(participant.getName(), componentId -> {
+            var publicPort = getFreePort();
+            var settings = new HashMap<>(config);
+            settings.put("web.http.port", String.valueOf(getFreePort()));
+            settings.put("web.http.public.port", String.valueOf(publicPort));
+            settings.put("web.http.control.port", String.valueOf(getFreePort()));
+            settings.put("edc.dataplane.api.public.baseurl", "http://localhost:%d%s/v2/".formatted(publicPort, participant.dataPlanePublic.get().getPath()));
+            settings.put("tx.edc.dpf.consumer.proxy.port", String.valueOf(getFreePort()));
+            settings.put("edc.component.id", componentId);
+
+            var runtime = Runtimes.DATA_PLANE.create(componentId)
+                    .configurationProvider(() -> postgresql.configFor(participant.getName()))
+                    .configurationProvider(participant::dataPlaneConfig)
+                    .configurationProvider(() -> ConfigFactory.fromMap(settings));
+            runtime.boot(false);
+
+            var vault = runtime.getService(Vault.class);
+            vault.storeSecret("private-key", participant.getPrivateKeyAsString());
+            vault.storeSecret("public-key", participant.getPublicKeyAsString());
+            vault.storeSecret(participant.getId() + "-secret", "clientSecret");
+            return runtime::shutdown;
+        });
+    }
+
+    /**
+     * Replicas of the data plane container of a stable participant.
+     *
+     * @param participant the participant
+     * @param peers       the counter-parties
+     * @param postgresql  the database
+     * @param env         additional environment of the replicas
+     * @return the replicas, none started yet
+     */
+    public static DataPlaneReplicas remote(RemoteParticipant participant, List<? extends BaseParticipant> peers,
+                                           PostgresqlEndToEndExtension postgresql, Map<String, String> env) {
+        return new DataPlaneReplicas(participant.getName(), componentId -> {
+            var publicPort = getFreePort();
+            var environment = new HashMap<>(participant.dataPlaneEnv(peers, postgresql));
+            environment.putAll(env);
+            environment.put("WEB_HTTP_PORT", String.valueOf(getFreePort()));
+            environment.put("WEB_HTTP_VERSION_PORT", String.valueOf(getFreePort()));
+            environment.put("WEB_HTTP_CONTROL_PORT", String.valueOf(getFreePort()));
+            environment.put("WEB_HTTP_PUBLIC_PORT", String.valueOf(publicPort));
+            environment.put("EDC_DATAPLANE_API_PUBLIC_BASEURL", "http://localhost:%d%s/v2/".formatted(publicPort, participant.dataPlanePublic.get().getPath()));
+            environment.put("TX_EDC_DPF_CONSUMER_PROXY_PORT", String.valueOf(getFreePort()));
+            environment.put("EDC_COMPONENT_ID", componentId);
+
+            var container = EdcDockerRuntimes.DATA_PLANE.create(componentId, environment);
+            container.start();
+            return container::stop;
+        });
+    }
+
+    /**
+     * Starts one more replica and waits until its runtime is ready.
+     *
+     * @return the component id of the replica, which is also its data plane instance id
+     */
+    public synchronized String start() {
+        var componentId = participantName + "-dataplane-" + ++started;
+        running.put(componentId, starter.apply(componentId));
+        return componentId;
+    }
+
+    /**
+     * Stops a replica, without unregistering it from the control plane.
+     *
+     * @param componentId the component id of the replica
+     */
+    public synchronized void stop(String componentId) {
+        var stop = running.remove(componentId);
+        if (stop == null) {
+            throw new IllegalStateException("No running data plane replica " + componentId);
+        }
+        stop.run();
+    }
+
+    public synchronized List<String> running() {
+        return new ArrayList<>(running.keySet());
+    }
+
+    @Override
+    public synchronized void close() {
+        running().forEach(this::stop);
+    }
+}
@@ -0,0 +1,55 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.ArgumentsProvider;
+
+import java.lang.reflect.Modifier;
+import java.util.stream.Stream;
+
+/**
+ * Provides both transfer directions of the {@link DataspaceExtension} registered in a static field of the test class,
+ * or of one of its super classes, see {@link DataspaceExtension#directions()}.
+ */
+public class DataspaceDirections implements ArgumentsProvider {
+
+    @Override
+    public Stream<? extends Arguments> provideArguments(ExtensionContext context) {
+        return dataspace(context.getRequiredTestClass()).directions();
+    }
+
+    private static DataspaceExtension dataspace(Class<?> testClass) {
+        for (var type = testClass; type != null; type = type.getSuperclass()) {
+            for (var field : type.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers()) && DataspaceExtension.class.isAssignableFrom(field.getType())) {
+                    try {
+                        field.setAccessible(true);
+                        return (DataspaceExtension) field.get(null);
+                    } catch (IllegalAccessException e) {
+                        throw new IllegalStateException("Cannot read the dataspace of " + testClass.getName(), e);
+                    }
+                }
+            }
+        }
+        throw new IllegalStateException("No static DataspaceExtension field in " + testClass.getName());
+    }
+}
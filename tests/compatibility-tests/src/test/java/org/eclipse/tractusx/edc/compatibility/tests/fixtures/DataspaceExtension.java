@@ -0,0 +1,216 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures;
+
+import org.eclipse.edc.junit.extensions.RuntimeExtension;
+import org.eclipse.edc.spi.security.Vault;
+import org.eclipse.edc.sql.testfixtures.PostgresqlEndToEndExtension;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.network.HttpTrafficRecorder;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.network.NetworkEmulation;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.network.NetworkProfile;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.params.provider.Arguments;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * The dataspace of the compatibility tests as a single extension: a {@link DataspaceTopology} of one local
+ * (snapshot) participant running embedded and one remote (stable) participant running in containers, so that tests
+ * and scenarios only have to register this extension.
+ */
+public class DataspaceExtension implements BeforeAllCallback, AfterAllCallback {
+
+    public static final String PROTOCOL = "dataspace-protocol-http";
+
+    private static final String EDR_VAULT_PREFIX = "edr--";
+
+    private DataspaceTopology topology;
+
+    private DataspaceExtension() {
+    }
+
+    @Override
+    public void beforeAll(ExtensionContext context) throws Exception {
+        topology.beforeAll(context);
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) throws Exception {
+        topology.afterAll(context);
+    }
+
+    /**
+     * Both transfer directions, as arguments (consumer, provider, protocol) of a parameterized test.
+     *
+     * @return the arguments
+     */
+    public Stream<Arguments> directions() {
+        return Stream.of(
+                Arguments.of(getRemoteParticipant(), getLocalParticipant(), PROTOCOL),
+                Arguments.of(getLocalParticipant(), getRemoteParticipant(), PROTOCOL)
+        );
+    }
+
+    /**
+     * Copies the EDR of a transfer process of the local participant from the vault of its control plane to the one of
+     * its data plane, where the consumer proxy resolves it. Unlike the runtimes of a deployment, which share a vault
+     * server, the local runtimes have a vault each.
+     *
+     * @param transferProcessId the consumer transfer process id
+     */
+    public void shareLocalEdr(String transferProcessId) {
+        var key = EDR_VAULT_PREFIX + transferProcessId;
+        var edr = getLocalControlPlane().getService(Vault.class).resolveSecret(key);
+        if (edr == null) {
+            throw new IllegalStateException("No EDR of transfer process %s in the vault of the local control plane".formatted(transferProcessId));
+        }
+        getLocalDataPlane().getService(Vault.class).storeSecret(key, edr);
+    }
+
+    public DataspaceTopology getTopology() {
+        return topology;
+    }
+
+    public LocalParticipant getLocalParticipant() {
+        return topology.getSnapshotParticipants().get(0);
+    }
+
+    public RemoteParticipant getRemoteParticipant() {
+        return topology.getStableParticipants().get(0);
+    }
+
+    public IdentityHubParticipant getIdentityHubParticipant() {
+        return topology.getIdentityHubParticipant();
+    }
+
+    public DataspaceIssuer getIssuer() {
+        return topology.getIssuer();
+    }
+
+    public PostgresqlEndToEndExtension getPostgresql() {
+        return topology.getPostgresql();
+    }
+
+    public RuntimeExtension getLocalControlPlane() {
+        return topology.getControlPlane(getLocalParticipant());
+    }
+
+    public RuntimeExtension getLocalIdentityHub() {
+        return topology.getIdentityHub();
+    }
+
+    public RuntimeExtension getLocalDataPlane() {
+        return topology.getDataPlane(getLocalParticipant());
+    }
+
+    public RemoteParticipantExtension getRemoteParticipantExtension() {
+        return topology.getContainers(getRemoteParticipant());
+    }
+
+    public NetworkEmulation getNetwork() {
+        return topology.getNetwork();
+    }
+
+    public HttpTrafficRecorder getTrafficRecorder() {
+        return topology.getTrafficRecorder();
+    }
+
+    public static class Builder {
+
+        private final DataspaceExtension dataspace;
+        private final DataspaceTopology.Builder topology = DataspaceTopology.Builder.newInstance()
+                .snapshotParticipant("local")
+                .stableParticipant("remote");
+
+        private Builder() {
+            dataspace = new DataspaceExtension();
+        }
+
+        public static Builder newInstance() {
+            return new Builder();
+        }
+
+        public Builder postgresql(PostgresqlEndToEndExtension postgresql) {
+            topology.postgresql(postgresql);
+            return this;
+        }
+
+        /**
+         * Puts the participant and identity hub endpoints behind an emulated network, see {@link DataspaceTopology.Builder#network(NetworkProfile)}.
+         *
+         * @param profile the initial network profile
+         * @return the builder
+         */
+        public Builder network(NetworkProfile profile) {
+            topology.network(profile);
+            return this;
+        }
+
+        /**
+         * Records the HTTP exchanges of the dataspace, see {@link DataspaceTopology.Builder#recordTraffic()}.
+         *
+         * @return the builder
+         */
+        public Builder recordTraffic() {
+            topology.recordTraffic();
+            return this;
+        }
+
+        /**
+         * Notifies a listener after each component has started, in boot order: {@code postgresql},
+         * {@code identity-hub}, {@code local-control-plane}, {@code local-data-plane} and {@code remote}.
+         *
+         * @param listener the listener, called with the name of the component
+         * @return the builder
+         */
+        public Builder afterStart(Consumer<String> listener) {
+            topology.afterStart(listener);
+            return this;
+        }
+
+        public Builder localControlPlaneConfig(String key, String value) {
+            topology.snapshotControlPlaneConfig(key, value);
+            return this;
+        }
+
+        public Builder localDataPlaneConfig(String key, String value) {
+            topology.snapshotDataPlaneConfig(key, value);
+            return this;
+        }
+
+        public Builder remoteControlPlaneEnv(String key, String value) {
+            topology.stableControlPlaneEnv(key, value);
+            return this;
+        }
+
+        public Builder remoteDataPlaneEnv(String key, String value) {
+            topology.stableDataPlaneEnv(key, value);
+            return this;
+        }
+
+        public DataspaceExtension build() {
+            dataspace.topology = topology.build();
+            return dataspace;
+        }
+    }
+}
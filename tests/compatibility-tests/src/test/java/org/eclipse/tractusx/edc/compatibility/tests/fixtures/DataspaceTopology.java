@@ -0,0 +1,406 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures;
+
+import org.eclipse.edc.junit.extensions.RuntimeExtension;
+import org.eclipse.edc.junit.extensions.RuntimePerClassExtension;
+import org.eclipse.edc.spi.iam.AudienceResolver;
+import org.eclipse.edc.spi.result.Result;
+import org.eclipse.edc.spi.security.Vault;
+import org.eclipse.edc.spi.system.configuration.ConfigFactory;
+import org.eclipse.edc.sql.testfixtures.PostgresqlEndToEndExtension;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.network.HttpTrafficRecorder;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.network.NetworkEmulation;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.network.NetworkProfile;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.sql.PgStatStatements;
+import org.eclipse.tractusx.edc.spi.identity.mapper.BdrsClient;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.Extension;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.params.provider.Arguments;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.DcpHelperFunctions.bdrsClient;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.DcpHelperFunctions.configureParticipant;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.DcpHelperFunctions.configureParticipantContext;
+
+/**
+ * A dataspace of any number of snapshot (embedded) and stable (containers) participants, sharing the database,
+ * the identity hub and the issuer. Every participant gets its credentials from the {@link DataspaceIssuer}, and
+ * resolves the DIDs of all the others through its BDRS client. This is the only place where the dataspace is
+ * bootstrapped, the {@link DataspaceExtension} of most scenarios is a topology of one participant of each version.
+ */
+public class DataspaceTopology implements BeforeAllCallback, AfterAllCallback {
+
+    private final IdentityHubParticipant identityHubParticipant;
+    private final DataspaceIssuer issuer;
+    private final List<LocalParticipant> snapshotParticipants = new ArrayList<>();
+    private final List<RemoteParticipant> stableParticipants = new ArrayList<>();
+    private final Map<String, String> dids = new LinkedHashMap<>();
+    private final Map<LocalParticipant, RuntimeExtension> controlPlanes = new HashMap<>();
+    private final Map<LocalParticipant, RuntimeExtension> dataPlanes = new HashMap<>();
+    private final Map<RemoteParticipant, RemoteParticipantExtension> containers = new HashMap<>();
+    private final Map<String, String> snapshotControlPlaneConfig = new HashMap<>();
+    private final Map<String, String> snapshotDataPlaneConfig = new HashMap<>();
+    private final Map<String, String> stableControlPlaneEnv = new HashMap<>();
+    private final Map<String, String> stableDataPlaneEnv = new HashMap<>();
+    private final List<Extension> started = new ArrayList<>();
+
+    private PostgresqlEndToEndExtension postgresql;
+    private RuntimeExtension identityHub;
+    private NetworkEmulation network = NetworkEmulation.none();
+    private HttpTrafficRecorder trafficRecorder;
+    private Consumer<String> startListener = component -> {
+    };
+
+    private DataspaceTopology() {
+        identityHubParticipant = IdentityHubParticipant.Builder.newInstance()
+                .name("identity-hub")
+                .id("identity-hub")
+                .build();
+
+        issuer = DataspaceIssuer.Builder.newInstance().id("issuer").name("issuer")
+                .did(identityHubParticipant.didFor("issuer"))
+                .build();
+    }
+
+    @Override
+    public void beforeAll(ExtensionContext context) throws Exception {
+        start("postgresql", postgresql, context);
+        for (var participant : getParticipants()) {
+            postgresql.createDatabase(participant.getName());
+        }
+
+        start("identity-hub", identityHub, context);
+        for (var participant : snapshotParticipants) {
+            start(participant.getName() + "-control-plane", controlPlanes.get(participant), context);
+            start(participant.getName() + "-data-plane", dataPlanes.get(participant), context);
+        }
+        for (var participant : stableParticipants) {
+            start(participant.getName(), containers.get(participant), context);
+        }
+
+        for (var participant : getParticipants()) {
+            configureParticipant(participant, issuer, identityHubParticipant, identityHub);
+        }
+        configureParticipantContext(issuer, identityHubParticipant, identityHub);
+
+        for (var participant : getParticipants()) {
+            participant.waitForDidDocument();
+        }
+        for (var participant : stableParticipants) {
+            containers.get(participant).getReadiness().record("did-resolvable");
+        }
+
+        for (var participant : snapshotParticipants) {
+            var vault = dataPlanes.get(participant).getService(Vault.class);
+            vault.storeSecret("private-key", participant.getPrivateKeyAsString());
+            vault.storeSecret("public-key", participant.getPublicKeyAsString());
+            vault.storeSecret(participant.getId() + "-secret", "clientSecret");
+
+            controlPlanes.get(participant).getService(Vault.class).storeSecret(participant.getId() + "-secret", "clientSecret");
+        }
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) throws Exception {
+        Exception failure = null;
+        for (var i = started.size() - 1; i >= 0; i--) {
+            try {
+                if (started.get(i) instanceof AfterAllCallback callback) {
+                    callback.afterAll(context);
+                }
+            } catch (Exception e) {
+                failure = failure == null ? e : failure;
+            }
+        }
+        started.clear();
+        network.close();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    public List<BaseParticipant> getParticipants() {
+        var participants = new ArrayList<BaseParticipant>(snapshotParticipants);
+        participants.addAll(stableParticipants);
+        return participants;
+    }
+
+    public List<LocalParticipant> getSnapshotParticipants() {
+        return snapshotParticipants;
+    }
+
+    public List<RemoteParticipant> getStableParticipants() {
+        return stableParticipants;
+    }
+
+    public IdentityHubParticipant getIdentityHubParticipant() {
+        return identityHubParticipant;
+    }
+
+    public DataspaceIssuer getIssuer() {
+        return issuer;
+    }
+
+    public PostgresqlEndToEndExtension getPostgresql() {
+        return postgresql;
+    }
+
+    public RuntimeExtension getIdentityHub() {
+        return identityHub;
+    }
+
+    public RuntimeExtension getControlPlane(LocalParticipant participant) {
+        return controlPlanes.get(participant);
+    }
+
+    public RuntimeExtension getDataPlane(LocalParticipant participant) {
+        return dataPlanes.get(participant);
+    }
+
+    public RemoteParticipantExtension getContainers(RemoteParticipant participant) {
+        return containers.get(participant);
+    }
+
+    public NetworkEmulation getNetwork() {
+        return network;
+    }
+
+    public HttpTrafficRecorder getTrafficRecorder() {
+        return trafficRecorder;
+    }
+
+    /**
+     * Every ordered pair of distinct participants, as arguments (consumer, provider) of a parameterized test.
+     *
+     * @return the arguments
+     */
+    public Stream<Arguments> pairs() {
+        var participants = getParticipants();
+        return participants.stream()
+                .flatMap(consumer -> participants.stream()
+                        .filter(provider -> provider != consumer)
+                        .map(provider -> Arguments.of(consumer, provider)));
+    }
+
+    private void start(String component, Extension extension, ExtensionContext context) throws Exception {
+        started.add(extension);
+        if (extension instanceof BeforeAllCallback callback) {
+            callback.beforeAll(context);
+        }
+        startListener.accept(component);
+    }
+
+    public static class Builder {
+
+        private final DataspaceTopology topology;
+        private final List<String> snapshotNames = new ArrayList<>();
+        private final List<String> stableNames = new ArrayList<>();
+
+        private Builder() {
+            topology = new DataspaceTopology();
+        }
+
+        public static Builder newInstance() {
+            return new Builder();
+        }
+
+        /**
+         * Adds snapshot participants named {@code snapshot_<n>}.
+         *
+         * @param count the number of participants
+         * @return the builder
+         */
+        public Builder snapshotParticipants(int count) {
+            for (var i = 1; i <= count; i++) {
+                snapshotNames.add("snapshot_" + i);
+            }
+            return this;
+        }
+
+        /**
+         * Adds stable participants named {@code stable_<n>}.
+         *
+         * @param count the number of participants
+         * @return the builder
+         */
+        public Builder stableParticipants(int count) {
+            for (var i = 1; i <= count; i++) {
+                stableNames.add("stable_" + i);
+            }
+            return this;
+        }
+
+        public Builder snapshotParticipant(String name) {
+            snapshotNames.add(name);
+            return this;
+        }
+
+        public Builder stableParticipant(String name) {
+            stableNames.add(name);
+            return this;
+        }
+
+        public Builder postgresql(PostgresqlEndToEndExtension postgresql) {
+            topology.postgresql = postgresql;
+            return this;
+        }
+
+        /**
+         * Puts the protocol, STS, DID, credential service and public data plane endpoints behind an emulated network, whose profile can
+         * be changed while the runtimes run, see {@link DataspaceTopology#getNetwork()}.
+         *
+         * @param profile the initial network profile
+         * @return the builder
+         */
+        public Builder network(NetworkProfile profile) {
+            if (topology.network.isEnabled()) {
+                topology.network.setProfile(profile);
+                return this;
+            }
+            topology.network = NetworkEmulation.create(profile);
+            topology.identityHubParticipant.network = topology.network;
+            return this;
+        }
+
+        /**
+         * Records the HTTP exchanges between the participants and with the identity hub, see
+         * {@link DataspaceTopology#getTrafficRecorder()}. Puts the endpoints behind a network without any degradation,
+         * unless a profile is set with {@link #network(NetworkProfile)}.
+         *
+         * @return the builder
+         */
+        public Builder recordTraffic() {
+            if (!topology.network.isEnabled()) {
+                network(NetworkProfile.LOCALHOST);
+            }
+            topology.trafficRecorder = new HttpTrafficRecorder();
+            topology.network.record(topology.trafficRecorder);
+            return this;
+        }
+
+        /**
+         * Notifies a listener after each component has started, in boot order: {@code postgresql}, {@code identity-hub},
+         * {@code <participant>-control-plane} and {@code <participant>-data-plane} of every snapshot participant, then
+         * {@code <participant>} of every stable participant, e.g. to measure what each embedded runtime adds to the
+         * test JVM.
+         *
+         * @param listener the listener, called with the name of the component
+         * @return the builder
+         */
+        public Builder afterStart(Consumer<String> listener) {
+            topology.startListener = listener;
+            return this;
+        }
+
+        public Builder snapshotControlPlaneConfig(String key, String value) {
+            topology.snapshotControlPlaneConfig.put(key, value);
+            return this;
+        }
+
+        public Builder snapshotDataPlaneConfig(String key, String value) {
+            topology.snapshotDataPlaneConfig.put(key, value);
+            return this;
+        }
+
+        public Builder stableControlPlaneEnv(String key, String value) {
+            topology.stableControlPlaneEnv.put(key, value);
+            return this;
+        }
+
+        public Builder stableDataPlaneEnv(String key, String value) {
+            topology.stableDataPlaneEnv.put(key, value);
+            return this;
+        }
+
+        public DataspaceTopology build() {
+            if (topology.postgresql == null) {
+                topology.postgresql = new PostgresqlEndToEndExtension(PgStatStatements.container());
+            }
+            var postgresql = topology.postgresql;
+            var identityHubParticipant = topology.identityHubParticipant;
+            var trustedIssuer = topology.issuer.getDid();
+
+            for (var name : snapshotNames) {
+                var participant = LocalParticipant.Builder.newInstance()
+                        .name(name)
+                        .id(name)
+                        .sts(identityHubParticipant.getSts())
+                        .did(identityHubParticipant.didFor(name))
+                        .trustedIssuer(trustedIssuer)
+                        .build();
+                participant.network = topology.network;
+                topology.snapshotParticipants.add(participant);
+            }
+            for (var name : stableNames) {
+                var participant = RemoteParticipant.Builder.newInstance()
+                        .name(name)
+                        .id(name)
+                        .sts(identityHubParticipant.getSts())
+                        .did(identityHubParticipant.didFor(name))
+                        .trustedIssuer(trustedIssuer)
+                        .build();
+                participant.network = topology.network;
+                topology.stableParticipants.add(participant);
+            }
+            topology.getParticipants().forEach(participant -> topology.dids.put(participant.getId(), participant.getDid()));
+
+            topology.identityHub = new RuntimePerClassExtension(
+                    Runtimes.IDENTITY_HUB.create("identity-hub")
+                            .configurationProvider(identityHubParticipant::getConfig));
+
+            var dids = topology.dids;
+            for (var participant : topology.snapshotParticipants) {
+                topology.controlPlanes.put(participant, new RuntimePerClassExtension(
+                        Runtimes.CONTROL_PLANE.create(participant.getName() + "-control-plane")
+                                .configurationProvider(() -> postgresql.configFor(participant.getName()))
+                                .configurationProvider(participant::controlPlaneConfig)
+                                .configurationProvider(() -> ConfigFactory.fromMap(topology.snapshotControlPlaneConfig))
+                                .registerServiceMock(BdrsClient.class, bdrsClient(dids))
+                                .registerServiceMock(AudienceResolver.class, message -> Result
+                                        .success(dids.get(message.getCounterPartyId())))));
+
+                topology.dataPlanes.put(participant, new RuntimePerClassExtension(
+                        Runtimes.DATA_PLANE.create(participant.getName() + "-data-plane")
+                                .configurationProvider(() -> postgresql.configFor(participant.getName()))
+                                .configurationProvider(participant::dataPlaneConfig)
+                                .configurationProvider(() -> ConfigFactory.fromMap(topology.snapshotDataPlaneConfig))));
+            }
+
+            for (var participant : topology.stableParticipants) {
+                var peers = topology.getParticipants().stream()
+                        .filter(peer -> peer != participant)
+                        .toList();
+                topology.containers.put(participant, new RemoteParticipantExtension(participant, peers, postgresql,
+                        topology.stableControlPlaneEnv, topology.stableDataPlaneEnv));
+            }
+            return topology;
+        }
+    }
+}
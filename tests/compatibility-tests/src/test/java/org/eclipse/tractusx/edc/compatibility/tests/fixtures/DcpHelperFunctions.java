@@ -31,9 +31,11 @@ import org.eclipse.edc.identityhub.spi.participantcontext.model.ParticipantManif
 import org.eclipse.edc.identityhub.spi.verifiablecredentials.store.CredentialStore;
 import org.eclipse.edc.junit.extensions.RuntimeExtension;
 import org.eclipse.edc.spi.security.Vault;
+import org.eclipse.tractusx.edc.spi.identity.mapper.BdrsClient;
 
 import java.time.Instant;
 import java.util.Base64;
+import java.util.Map;
 
 public class DcpHelperFunctions {
 
@@ -144,6 +146,28 @@ public class DcpHelperFunctions {
 
     }
 
+    /**
+     * A BDRS client resolving the given BPN to DID mappings, to be registered as mock in the snapshot control planes.
+     *
+     * @param dids the DIDs by BPN
+     * @return the client
+     */
+    public static BdrsClient bdrsClient(Map<String, String> dids) {
+        return new BdrsClient() {
+            @Override
+            public String resolveDid(String bpn) {
+                return dids.get(bpn);
+            }
+
+            @Override
+            public String resolveBpn(String did) {
+                return dids.entrySet().stream()
+                        .filter(entry -> entry.getValue().equals(did))
+                        .findFirst().orElseThrow().getKey();
+            }
+        };
+    }
+
     static String toBase64(String s) {
         return Base64.getUrlEncoder().encodeToString(s.getBytes());
     }
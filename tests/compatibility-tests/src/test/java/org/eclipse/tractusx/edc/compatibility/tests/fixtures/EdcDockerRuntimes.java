@@ -19,29 +19,137 @@
 
 package org.eclipse.tractusx.edc.compatibility.tests.fixtures;
 
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.logs.ContainerLogPipeline;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.readiness.HttpReadinessWaitStrategy;
+import org.testcontainers.containers.BindMode;
 import org.testcontainers.containers.GenericContainer;
-import org.testcontainers.containers.wait.strategy.Wait;
 
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public enum EdcDockerRuntimes {
 
-    CONTROL_PLANE("controlplane-stable:latest"),
-    DATA_PLANE("dataplane-stable:latest");
+    CONTROL_PLANE("controlplane-stable", "edc-controlplane.jar"),
+    DATA_PLANE("dataplane-stable", "edc-dataplane.jar");
 
-    private final String image;
+    /**
+     * Variant of the images to run, empty for the default ones, {@code optimized} or {@code optimized-base} for the
+     * ones built by {@code dockerizeOptimizedCds} and {@code dockerizeOptimized}.
+     */
+    public static final String VARIANT = System.getProperty("tx.test.stable.variant", "");
 
-    EdcDockerRuntimes(String image) {
-        this.image = image;
+    private static final String CDS_TRAINING_DIRECTORY = System.getProperty("tx.test.stable.cds-training-dir");
+    private static final String RUN_ID = Long.toString(ProcessHandle.current().pid(), 36);
+    private static final AtomicInteger CONTAINERS = new AtomicInteger();
+
+    private final String module;
+    private final String jar;
+
+    EdcDockerRuntimes(String module, String jar) {
+        this.module = module;
+        this.jar = jar;
+    }
+
+    /**
+     * Stops a container. While training the AppCDS archives of the optimized images, the runtime is stopped
+     * gracefully first, so that its JVM writes the archive on exit.
+     *
+     * @param container the container
+     */
+    public static void stop(GenericContainer<?> container) {
+        if (CDS_TRAINING_DIRECTORY != null && container.isRunning()) {
+            container.getDockerClient().stopContainerCmd(container.getContainerId()).withTimeout(60).exec();
+        }
+        container.stop();
     }
 
+    /**
+     * The image of a variant.
+     *
+     * @param variant the variant, empty for the default image
+     * @return the image name
+     */
+    public String image(String variant) {
+        return (variant.isEmpty() ? module : module + "-" + variant) + ":latest";
+    }
+
+    /**
+     * Creates the container of a runtime. The container name is made unique with the test JVM and a counter, so that
+     * test classes running in parallel, or left-overs of an aborted run, do not clash.
+     *
+     * @param name the name of the runtime, used as prefix of the container name and as name of its log file
+     * @param env  the environment of the runtime
+     * @return the container, not started
+     */
     public GenericContainer<?> create(String name, Map<String, String> env) {
-        return new GenericContainer<>(image)
-                .withCreateContainerCmdModifier(cmd -> cmd.withName(name))
+        return create(name, env, VARIANT);
+    }
+
+    /**
+     * Creates the container of a runtime from a variant of the image. Optimized images write an AppCDS archive to
+     * {@code tx.test.stable.cds-training-dir} on exit, if set.
+     *
+     * @param name    the name of the runtime
+     * @param env     the environment of the runtime
+     * @param variant the variant of the image, empty for the default one
+     * @return the container, not started
+     */
+    public GenericContainer<?> create(String name, Map<String, String> env, String variant) {
+        var containerName = "%s-%s-%d".formatted(name, RUN_ID, CONTAINERS.incrementAndGet());
+        var container = new GenericContainer<>(image(variant))
+                .withCreateContainerCmdModifier(cmd -> cmd.withName(containerName))
                 .withNetworkMode("host")
-                .withLogConsumer(it -> System.out.println("[%s] %s".formatted(name, it.getUtf8StringWithoutLineEnding())))
-                .waitingFor(Wait.forLogMessage(".*Runtime .* ready.*", 1))
+                .withLogConsumer(ContainerLogPipeline.consumer(name))
+                .waitingFor(HttpReadinessWaitStrategy.forEnvironment(name, env))
                 .withEnv(env);
+        if (CDS_TRAINING_DIRECTORY != null && !variant.isEmpty()) {
+            container.withFileSystemBind(CDS_TRAINING_DIRECTORY, "/cds", BindMode.READ_WRITE)
+                    .withEnv("CDS_TRAINING_ARCHIVE", "/cds/%s.jsa".formatted(module));
+        }
+        return container;
+    }
+
+    /**
+     * Creates the container of a runtime which is kept alive after the tests and reused by the next run with the same
+     * image and environment, see {@link StableReuse}. The container name is derived from both instead of the test JVM,
+     * and the containers of the runtime with another environment are removed. A stopped container is started again.
+     *
+     * @param name the name of the runtime
+     * @param env  the environment of the runtime
+     * @return the container, not started
+     */
+    public GenericContainer<?> createReusable(String name, Map<String, String> env) {
+        StableReuse.checkEnabled();
+        var containerName = "%s-%s".formatted(name, StableReuse.hash(image(VARIANT), env));
+        StableReuse.evict(name, containerName);
+        StableReuse.restart(name, containerName);
+        return new GenericContainer<>(image(VARIANT))
+                .withCreateContainerCmdModifier(cmd -> cmd.withName(containerName))
+                .withNetworkMode("host")
+                .withLabel(StableReuse.LABEL, name)
+                .withReuse(true)
+                .withLogConsumer(ContainerLogPipeline.consumer(name))
+                .waitingFor(HttpReadinessWaitStrategy.forEnvironment(name, env))
+                .withEnv(env);
+    }
+
+    /**
+     * Creates the container of a runtime with program arguments, e.g. {@code --log-level=DEBUG}, which the command of
+     * the image does not take.
+     *
+     * @param name      the name of the runtime
+     * @param env       the environment of the runtime
+     * @param arguments the program arguments
+     * @return the container, not started
+     */
+    public GenericContainer<?> create(String name, Map<String, String> env, List<String> arguments) {
+        if (!VARIANT.isEmpty()) {
+            // the entrypoint of the optimized images passes the arguments on
+            return create(name, env).withCommand(arguments.toArray(String[]::new));
+        }
+        var command = "exec java -Djava.security.egd=file:/dev/urandom -jar %s %s".formatted(jar, String.join(" ", arguments));
+        return create(name, env).withCommand("sh", "-c", command);
     }
 
 }
@@ -22,6 +22,7 @@ package org.eclipse.tractusx.edc.compatibility.tests.fixtures;
 import org.eclipse.edc.junit.utils.LazySupplier;
 import org.eclipse.edc.spi.system.configuration.Config;
 import org.eclipse.edc.spi.system.configuration.ConfigFactory;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.network.NetworkEmulation;
 
 import java.net.URI;
 import java.net.URLEncoder;
@@ -34,28 +35,29 @@ import static org.eclipse.edc.util.io.Ports.getFreePort;
 
 public class IdentityHubParticipant {
 
-    protected final LazySupplier<URI> sts = new LazySupplier<>(() -> URI.create("http://localhost:" + getFreePort() + "/api/sts"));
-    protected final LazySupplier<URI> accountsApi = new LazySupplier<>(() -> URI.create("http://localhost:" + getFreePort() + "/api/accounts"));
-    protected final LazySupplier<URI> credentialsApi = new LazySupplier<>(() -> URI.create("http://localhost:" + getFreePort() + "/api/credentials"));
-    protected final LazySupplier<URI> identityApi = new LazySupplier<>(() -> URI.create("http://localhost:" + getFreePort() + "/api/identity"));
-    protected final LazySupplier<URI> didApi = new LazySupplier<>(() -> URI.create("http://localhost:" + getFreePort() + "/"));
+    protected final LazySupplier<URI> sts = new LazySupplier<>(() -> URI.create("http://localhost:" + port("sts") + "/api/sts"));
+    protected final LazySupplier<URI> accountsApi = new LazySupplier<>(() -> URI.create("http://localhost:" + port("accounts") + "/api/accounts"));
+    protected final LazySupplier<URI> credentialsApi = new LazySupplier<>(() -> URI.create("http://localhost:" + port("credentials") + "/api/credentials"));
+    protected final LazySupplier<URI> identityApi = new LazySupplier<>(() -> URI.create("http://localhost:" + port("identity") + "/api/identity"));
+    protected final LazySupplier<URI> didApi = new LazySupplier<>(() -> URI.create("http://localhost:" + port("did") + "/"));
     protected String id;
     protected String name;
+    protected NetworkEmulation network = NetworkEmulation.none();
 
     public Config getConfig() {
         Map<String, String> settings = new HashMap<>();
 
-        settings.put("web.http.port", String.valueOf(getFreePort()));
+        settings.put("web.http.port", String.valueOf(port("default")));
         settings.put("web.http.path", "/api");
-        settings.put("web.http.credentials.port", String.valueOf(credentialsApi.get().getPort()));
+        settings.put("web.http.credentials.port", String.valueOf(network.bindPort("identity-hub:credentials", credentialsApi.get().getPort())));
         settings.put("web.http.credentials.path", credentialsApi.get().getPath());
         settings.put("web.http.identity.port", String.valueOf(identityApi.get().getPort()));
         settings.put("web.http.identity.path", identityApi.get().getPath());
-        settings.put("web.http.sts.port", String.valueOf(sts.get().getPort()));
+        settings.put("web.http.sts.port", String.valueOf(network.bindPort("identity-hub:sts", sts.get().getPort())));
         settings.put("web.http.sts.path", sts.get().getPath());
         settings.put("web.http.accounts.port", String.valueOf(accountsApi.get().getPort()));
         settings.put("web.http.accounts.path", accountsApi.get().getPath());
-        settings.put("web.http.did.port", String.valueOf(didApi.get().getPort()));
+        settings.put("web.http.did.port", String.valueOf(network.bindPort("identity-hub:did", didApi.get().getPort())));
         settings.put("web.http.did.path", didApi.get().getPath());
         settings.put("edc.iam.did.web.use.https", "false");
         settings.put("edc.api.accounts.key", "password");
@@ -84,6 +86,10 @@ public class IdentityHubParticipant {
         return "did:web:" + URLEncoder.encode(didUri.getHost() + ":" + didUri.getPort(), StandardCharsets.UTF_8) + ":" + participantId;
     }
 
+    private int port(String endpoint) {
+        return StableReuse.ENABLED ? StableReuse.port(name + "." + endpoint) : getFreePort();
+    }
+
     public static class Builder {
         protected final IdentityHubParticipant participant;
 
@@ -105,6 +111,11 @@ public class IdentityHubParticipant {
             return this;
         }
 
+        public Builder network(NetworkEmulation network) {
+            this.participant.network = network;
+            return this;
+        }
+
         public IdentityHubParticipant build() {
             Objects.requireNonNull(this.participant.id, "id");
             Objects.requireNonNull(this.participant.name, "name");
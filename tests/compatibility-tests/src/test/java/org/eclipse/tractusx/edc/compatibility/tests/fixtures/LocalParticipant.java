@@ -30,6 +30,11 @@ import static org.eclipse.edc.util.io.Ports.getFreePort;
 
 public class LocalParticipant extends BaseParticipant {
 
+    /**
+     * Type of the asset data addresses that are provisioned by the {@code provisioner.http} entry of the control plane.
+     */
+    public static final String HTTP_PROVISION_TYPE = "HttpProvision";
+
     private static final String API_KEY = "password";
 
     private final int httpProvisionerPort = getFreePort();
@@ -41,7 +46,7 @@ public class LocalParticipant extends BaseParticipant {
                 put("tractusx.edc.participant.bpn", id);
                 put("web.http.port", String.valueOf(getFreePort()));
                 put("web.http.path", "/api");
-                put("web.http.protocol.port", String.valueOf(controlPlaneProtocol.get().getPort()));
+                put("web.http.protocol.port", String.valueOf(network.bindPort(getRuntimeVersion() + ":protocol", controlPlaneProtocol.get().getPort())));
                 put("web.http.protocol.path", controlPlaneProtocol.get().getPath());
                 put("web.http.management.port", String.valueOf(controlPlaneManagement.get().getPort()));
                 put("web.http.management.path", controlPlaneManagement.get().getPath());
@@ -65,7 +70,7 @@ public class LocalParticipant extends BaseParticipant {
 
                 put("provisioner.http.entries.default.provisioner.type", "provider");
                 put("provisioner.http.entries.default.endpoint", "http://localhost:%d/provision".formatted(httpProvisionerPort));
-                put("provisioner.http.entries.default.data.address.type", "HttpProvision");
+                put("provisioner.http.entries.default.data.address.type", HTTP_PROVISION_TYPE);
                 put("edc.iam.sts.oauth.token.url", sts.toString() + "/token");
                 put("edc.iam.sts.oauth.client.id", getDid());
                 put("edc.iam.sts.oauth.client.secret.alias", id + "-secret");
@@ -84,10 +89,12 @@ public class LocalParticipant extends BaseParticipant {
             {
                 put("web.http.port", String.valueOf(getFreePort()));
                 put("web.http.path", "/api");
-                put("web.http.public.port", String.valueOf(dataPlanePublic.get().getPort()));
+                put("web.http.public.port", String.valueOf(network.bindPort(getRuntimeVersion() + ":public", dataPlanePublic.get().getPort())));
                 put("web.http.public.path", dataPlanePublic.get().getPath());
                 put("web.http.control.port", String.valueOf(dataPlaneControl.get().getPort()));
                 put("web.http.control.path", dataPlaneControl.get().getPath());
+                put("tx.edc.dpf.consumer.proxy.port", String.valueOf(consumerPublic.get().getPort()));
+                put("tx.edc.dpf.consumer.proxy.auth.apikey", API_KEY);
                 put("edc.dataplane.api.public.baseurl", dataPlanePublic.get() + "/v2/");
                 put("edc.dataplane.token.validation.endpoint", controlPlaneControl.get() + "/token");
                 put("edc.transfer.proxy.token.signer.privatekey.alias", "private-key");
@@ -108,6 +115,15 @@ public class LocalParticipant extends BaseParticipant {
         return ConfigFactory.fromMap(settings);
     }
 
+    public int getHttpProvisionerPort() {
+        return httpProvisionerPort;
+    }
+
+    @Override
+    public String getRuntimeVersion() {
+        return "snapshot";
+    }
+
     public static class Builder extends BaseParticipant.Builder<LocalParticipant, Builder> {
 
         protected Builder() {
@@ -34,7 +34,21 @@ public class PolicyHelperFunctions {
         return inForceDatePolicyLegacy("gteq", "contractAgreement+0s", "lteq", "contractAgreement+" + offset);
     }
 
+    /**
+     * The single permission of the {@link #contractExpiresIn(String)} policy.
+     *
+     * @param offset the offset after which the contract expires
+     * @return the permission
+     */
+    public static JsonObject contractExpiresInPermission(String offset) {
+        return inForceDatePermissionLegacy("gteq", "contractAgreement+0s", "lteq", "contractAgreement+" + offset);
+    }
+
     private static JsonObject inForceDatePolicyLegacy(String operatorStart, Object startDate, String operatorEnd, Object endDate) {
+        return policy(List.of(inForceDatePermissionLegacy(operatorStart, startDate, operatorEnd, endDate)));
+    }
+
+    private static JsonObject inForceDatePermissionLegacy(String operatorStart, Object startDate, String operatorEnd, Object endDate) {
         var constraint = Json.createObjectBuilder()
                 .add("@type", "LogicalConstraint")
                 .add("and", Json.createArrayBuilder()
@@ -44,9 +58,9 @@ public class PolicyHelperFunctions {
                         .build())
                 .build();
 
-        return policy(List.of(Json.createObjectBuilder()
+        return Json.createObjectBuilder()
                 .add("action", "use")
                 .add("constraint", constraint)
-                .build()));
+                .build();
     }
 }
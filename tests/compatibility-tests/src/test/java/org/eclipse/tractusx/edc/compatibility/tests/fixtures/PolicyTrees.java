@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures;
+
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+
+import java.util.List;
+
+import static org.eclipse.edc.connector.controlplane.test.system.utils.PolicyFixtures.atomicConstraint;
+import static org.eclipse.edc.connector.controlplane.test.system.utils.PolicyFixtures.policy;
+
+/**
+ * Generates contract policies made of {@code and}, {@code or} and {@code xone} trees of Catena-X constraints, like the
+ * {@link PolicyHelperFunctions}, but of configurable depth and width. The operators alternate by level, and the
+ * atoms are chosen so that the tree is satisfied by the credentials of the {@link DataspaceIssuer}: {@code or} and
+ * {@code xone} nodes get unsatisfied siblings, which are evaluated as well.
+ */
+public class PolicyTrees {
+
+    private static final String CX_POLICY = "https://w3id.org/catenax/policy/";
+    private static final String EDC_NAMESPACE = "https://w3id.org/edc/v0.0.1/ns/";
+    private static final List<String> OPERATORS = List.of("and", "or", "xone");
+
+    private final String consumerBpn;
+    private int atoms;
+
+    private PolicyTrees(String consumerBpn) {
+        this.consumerBpn = consumerBpn;
+    }
+
+    /**
+     * Generates a policy whose permission holds a tree of the given shape.
+     *
+     * @param consumerBpn the BPN of the consumer, that satisfies the policy
+     * @param depth       number of logical levels
+     * @param width       number of children of each logical constraint
+     * @return the policy
+     */
+    public static JsonObject policyTree(String consumerBpn, int depth, int width) {
+        var permission = Json.createObjectBuilder()
+                .add("action", "use")
+                .add("constraint", new PolicyTrees(consumerBpn).node(depth, width, true))
+                .build();
+        return policy(List.of(permission));
+    }
+
+    /**
+     * Number of atomic constraints of a tree.
+     *
+     * @param depth number of logical levels
+     * @param width number of children of each logical constraint
+     * @return the number of atoms
+     */
+    public static long atoms(int depth, int width) {
+        return (long) Math.pow(width, depth);
+    }
+
+    private JsonObject node(int depth, int width, boolean satisfied) {
+        if (depth == 0) {
+            return satisfied ? satisfiedAtom() : unsatisfiedAtom();
+        }
+        var operator = OPERATORS.get(depth % OPERATORS.size());
+        var children = Json.createArrayBuilder();
+        for (var i = 0; i < width; i++) {
+            children.add(node(depth - 1, width, childSatisfied(operator, i, satisfied)));
+        }
+        return Json.createObjectBuilder()
+                .add("@type", "LogicalConstraint")
+                .add(operator, children)
+                .build();
+    }
+
+    private boolean childSatisfied(String operator, int index, boolean satisfied) {
+        return switch (operator) {
+            // a satisfied "and" needs all its children, an unsatisfied one only misses its first child
+            case "and" -> satisfied || index > 0;
+            // a satisfied "or" or "xone" has exactly one satisfied child, an unsatisfied one none
+            default -> satisfied && index == 0;
+        };
+    }
+
+    private JsonObject satisfiedAtom() {
+        return switch (atoms++ % 5) {
+            case 0 -> atomicConstraint(CX_POLICY + "Membership", "eq", "active");
+            case 1 -> atomicConstraint(CX_POLICY + "FrameworkAgreement", "eq", "DataExchangeGovernance:1.0");
+            case 2 -> isAnyOf(CX_POLICY + "BusinessPartnerNumber", consumerBpn);
+            case 3 -> isAnyOf(CX_POLICY + "Dismantler.allowedBrands", "Moskvich");
+            default -> atomicConstraint(EDC_NAMESPACE + "inForceDate", "gteq", "contractAgreement+0s");
+        };
+    }
+
+    private JsonObject unsatisfiedAtom() {
+        return switch (atoms++ % 3) {
+            case 0 -> atomicConstraint(CX_POLICY + "FrameworkAgreement", "eq", "Pcf:1.0");
+            case 1 -> isAnyOf(CX_POLICY + "BusinessPartnerNumber", "BPNL000000000000");
+            default -> isAnyOf(CX_POLICY + "Dismantler.allowedBrands", "Trabant");
+        };
+    }
+
+    /**
+     * List-valued constraint, as the BPN and the dismantler brands are compared as sets: the dismantler credential of
+     * the {@link DataspaceIssuer} holds several brands, which {@code eq} would compare as a whole.
+     */
+    private JsonObject isAnyOf(String leftOperand, String value) {
+        return Json.createObjectBuilder()
+                .add("@type", "AtomicConstraint")
+                .add("leftOperand", leftOperand)
+                .add("operator", "isAnyOf")
+                .add("rightOperand", Json.createArrayBuilder().add(value))
+                .build();
+    }
+}
@@ -26,8 +26,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import static org.eclipse.edc.util.io.Ports.getFreePort;
-
 public class RemoteParticipant extends BaseParticipant {
 
     private static final String API_KEY = "password";
@@ -37,15 +35,35 @@ public class RemoteParticipant extends BaseParticipant {
             "policy-monitor", "edr", "dataplane", "accesstokendata", "dataplaneinstance");
 
     public Map<String, String> controlPlaneEnv(BaseParticipant participant, PostgresqlEndToEndExtension postgresql) {
-        var postgresqlConfig = postgresql.configFor(getName());
+        return controlPlaneEnv(List.of(participant), postgresql);
+    }
+
+    /**
+     * The environment of the control plane, with BDRS mappings for all the given counter-parties.
+     *
+     * @param peers      the counter-parties
+     * @param postgresql the database
+     * @return the environment
+     */
+    public Map<String, String> controlPlaneEnv(List<? extends BaseParticipant> peers, PostgresqlEndToEndExtension postgresql) {
+        return controlPlaneEnv(peers, postgresql.configFor(getName()));
+    }
 
+    /**
+     * The environment of the control plane, with a database of its own, e.g. the one of {@link StableReuse}.
+     *
+     * @param peers            the counter-parties
+     * @param postgresqlConfig the datasource configuration
+     * @return the environment
+     */
+    public Map<String, String> controlPlaneEnv(List<? extends BaseParticipant> peers, Config postgresqlConfig) {
         return new HashMap<>() {
             {
                 put("EDC_PARTICIPANT_ID", id);
                 put("EDC_API_AUTH_KEY", API_KEY);
-                put("WEB_HTTP_PORT", String.valueOf(getFreePort()));
+                put("WEB_HTTP_PORT", String.valueOf(port("control-plane-default")));
                 put("WEB_HTTP_PATH", "/api");
-                put("WEB_HTTP_PROTOCOL_PORT", String.valueOf(controlPlaneProtocol.get().getPort()));
+                put("WEB_HTTP_PROTOCOL_PORT", String.valueOf(network.bindPort(getRuntimeVersion() + ":protocol", controlPlaneProtocol.get().getPort())));
                 put("WEB_HTTP_PROTOCOL_PATH", controlPlaneProtocol.get().getPath());
                 put("WEB_HTTP_MANAGEMENT_PORT", String.valueOf(controlPlaneManagement.get().getPort()));
                 put("WEB_HTTP_MANAGEMENT_PATH", controlPlaneManagement.get().getPath());
@@ -53,7 +71,7 @@ public class RemoteParticipant extends BaseParticipant {
                 put("WEB_HTTP_VERSION_PATH", controlPlaneVersion.get().getPath());
                 put("WEB_HTTP_CONTROL_PORT", String.valueOf(controlPlaneControl.get().getPort()));
                 put("WEB_HTTP_CONTROL_PATH", controlPlaneControl.get().getPath());
-                put("WEB_HTTP_CATALOG_PORT", String.valueOf(getFreePort()));
+                put("WEB_HTTP_CATALOG_PORT", String.valueOf(port("catalog")));
                 put("WEB_HTTP_CATALOG_PATH", "/catalog");
                 put("EDC_DSP_CALLBACK_ADDRESS", controlPlaneProtocol.get().toString());
                 putAll(datasourceEnvironmentVariables("default", postgresqlConfig));
@@ -64,8 +82,7 @@ public class RemoteParticipant extends BaseParticipant {
                 put("TESTING_EDC_VAULTS_1_VALUE", "clientSecret");
                 put("EDC_IAM_ISSUER_ID", getDid());
                 put("EDC_IAM_DID_WEB_USE_HTTPS", "false");
-                put("TESTING_EDC_BDRS_1_KEY", participant.getId());
-                put("TESTING_EDC_BDRS_1_VALUE", participant.getDid());
+                putAll(bdrsEnvironmentVariables(peers));
                 put("EDC_IAM_TRUSTED-ISSUER_ISSUER_ID", trustedIssuer);
 
                 putAll(datasourceConfig(postgresqlConfig));
@@ -74,22 +91,43 @@ public class RemoteParticipant extends BaseParticipant {
     }
 
     public Map<String, String> dataPlaneEnv(BaseParticipant participant, PostgresqlEndToEndExtension postgresql) {
-        var postgresqlConfig = postgresql.configFor(getName());
+        return dataPlaneEnv(List.of(participant), postgresql);
+    }
+
+    /**
+     * The environment of the data plane, with BDRS mappings for all the given counter-parties.
+     *
+     * @param peers      the counter-parties
+     * @param postgresql the database
+     * @return the environment
+     */
+    public Map<String, String> dataPlaneEnv(List<? extends BaseParticipant> peers, PostgresqlEndToEndExtension postgresql) {
+        return dataPlaneEnv(peers, postgresql.configFor(getName()));
+    }
 
+    /**
+     * The environment of the data plane, with a database of its own, e.g. the one of {@link StableReuse}.
+     *
+     * @param peers            the counter-parties
+     * @param postgresqlConfig the datasource configuration
+     * @return the environment
+     */
+    public Map<String, String> dataPlaneEnv(List<? extends BaseParticipant> peers, Config postgresqlConfig) {
         return new HashMap<>() {
             {
                 put("EDC_PARTICIPANT_ID", id);
                 put("EDC_COMPONENT_ID", id);
                 put("EDC_API_AUTH_KEY", API_KEY);
-                put("WEB_HTTP_PORT", String.valueOf(getFreePort()));
+                put("WEB_HTTP_PORT", String.valueOf(port("data-plane-default")));
                 put("WEB_HTTP_PATH", "/api");
                 put("WEB_HTTP_VERSION_PORT", String.valueOf(dataPlaneVersion.get().getPort()));
                 put("WEB_HTTP_VERSION_PATH", dataPlaneVersion.get().getPath());
                 put("WEB_HTTP_CONTROL_PORT", String.valueOf(dataPlaneControl.get().getPort()));
                 put("WEB_HTTP_CONTROL_PATH", dataPlaneControl.get().getPath());
-                put("WEB_HTTP_PUBLIC_PORT", String.valueOf(dataPlanePublic.get().getPort()));
+                put("WEB_HTTP_PUBLIC_PORT", String.valueOf(network.bindPort(getRuntimeVersion() + ":public", dataPlanePublic.get().getPort())));
                 put("WEB_HTTP_PUBLIC_PATH", dataPlanePublic.get().getPath());
                 put("TX_EDC_DPF_CONSUMER_PROXY_PORT", String.valueOf(consumerPublic.get().getPort()));
+                put("TX_EDC_DPF_CONSUMER_PROXY_AUTH_APIKEY", API_KEY);
                 putAll(datasourceEnvironmentVariables("default", postgresqlConfig));
                 put("EDC_TRANSFER_PROXY_TOKEN_SIGNER_PRIVATEKEY_ALIAS", "private-key");
                 put("EDC_TRANSFER_PROXY_TOKEN_VERIFIER_PUBLICKEY_ALIAS", "public-key");
@@ -103,16 +141,28 @@ public class RemoteParticipant extends BaseParticipant {
                 put("TESTING_EDC_VAULTS_2_VALUE", getPrivateKeyAsString());
                 put("TESTING_EDC_VAULTS_3_KEY", "public-key");
                 put("TESTING_EDC_VAULTS_3_VALUE", getPublicKeyAsString());
-                put("TESTING_EDC_BDRS_1_KEY", participant.getId());
-                put("TESTING_EDC_BDRS_1_VALUE", participant.getDid());
+                putAll(bdrsEnvironmentVariables(peers));
                 put("EDC_IAM_ISSUER_ID", getDid());
                 put("EDC_IAM_TRUSTED-ISSUER_ISSUER_ID", trustedIssuer);
+                if (network.isEnabled()) {
+                    // the default public URL is derived from the bound port, which bypasses the network proxy
+                    put("EDC_DATAPLANE_API_PUBLIC_BASEURL", dataPlanePublic.get() + "/v2/");
+                }
 
                 putAll(datasourceConfig(postgresqlConfig));
             }
         };
     }
 
+    private Map<String, String> bdrsEnvironmentVariables(List<? extends BaseParticipant> peers) {
+        var config = new HashMap<String, String>();
+        for (var i = 0; i < peers.size(); i++) {
+            config.put("TESTING_EDC_BDRS_" + (i + 1) + "_KEY", peers.get(i).getId());
+            config.put("TESTING_EDC_BDRS_" + (i + 1) + "_VALUE", peers.get(i).getDid());
+        }
+        return config;
+    }
+
     private Map<String, String> datasourceConfig(Config postgresqlConfig) {
         var config = new HashMap<String, String>();
         datasources.forEach(ds -> {
@@ -130,6 +180,11 @@ public class RemoteParticipant extends BaseParticipant {
         );
     }
 
+    @Override
+    public String getRuntimeVersion() {
+        return "stable";
+    }
+
     public static class Builder extends BaseParticipant.Builder<RemoteParticipant, Builder> {
 
         protected Builder() {
@@ -20,42 +20,151 @@
 package org.eclipse.tractusx.edc.compatibility.tests.fixtures;
 
 import org.eclipse.edc.sql.testfixtures.PostgresqlEndToEndExtension;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.readiness.HttpReadinessWaitStrategy;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.readiness.ReadinessTimeline;
 import org.junit.jupiter.api.extension.AfterAllCallback;
 import org.junit.jupiter.api.extension.BeforeAllCallback;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.testcontainers.containers.GenericContainer;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 public class RemoteParticipantExtension implements BeforeAllCallback, AfterAllCallback {
 
     private final RemoteParticipant participant;
-    private final LocalParticipant localParticipant;
+    private final List<? extends BaseParticipant> peers;
     private final PostgresqlEndToEndExtension postgresql;
+    private final Map<String, String> controlPlaneEnv;
+    private final Map<String, String> dataPlaneEnv;
 
+    private final ReadinessTimeline readiness = new ReadinessTimeline();
     private GenericContainer<?> controlPlane;
     private GenericContainer<?> dataPlane;
 
     public RemoteParticipantExtension(RemoteParticipant participant, LocalParticipant localParticipant, PostgresqlEndToEndExtension postgresql) {
+        this(participant, localParticipant, postgresql, Map.of(), Map.of());
+    }
+
+    /**
+     * Creates the extension with additional environment variables for the containers, which take precedence over
+     * the ones of the participant.
+     *
+     * @param participant      the remote participant
+     * @param localParticipant the counter-party
+     * @param postgresql       the database
+     * @param controlPlaneEnv  additional environment of the control plane
+     * @param dataPlaneEnv     additional environment of the data plane
+     */
+    public RemoteParticipantExtension(RemoteParticipant participant, LocalParticipant localParticipant, PostgresqlEndToEndExtension postgresql,
+                                      Map<String, String> controlPlaneEnv, Map<String, String> dataPlaneEnv) {
+        this(participant, List.of(localParticipant), postgresql, controlPlaneEnv, dataPlaneEnv);
+    }
+
+    /**
+     * Creates the extension for a participant with several counter-parties, e.g. in a {@link DataspaceTopology}.
+     *
+     * @param participant     the remote participant
+     * @param peers           the counter-parties
+     * @param postgresql      the database
+     * @param controlPlaneEnv additional environment of the control plane
+     * @param dataPlaneEnv    additional environment of the data plane
+     */
+    public RemoteParticipantExtension(RemoteParticipant participant, List<? extends BaseParticipant> peers, PostgresqlEndToEndExtension postgresql,
+                                      Map<String, String> controlPlaneEnv, Map<String, String> dataPlaneEnv) {
         this.participant = participant;
-        this.localParticipant = localParticipant;
+        this.peers = peers;
         this.postgresql = postgresql;
+        this.controlPlaneEnv = controlPlaneEnv;
+        this.dataPlaneEnv = dataPlaneEnv;
     }
 
     @Override
     public void beforeAll(ExtensionContext context) {
-        controlPlane = EdcDockerRuntimes.CONTROL_PLANE.create("remote-controlplane", participant.controlPlaneEnv(localParticipant, postgresql));
-        dataPlane = EdcDockerRuntimes.DATA_PLANE.create("remote-dataplane", participant.dataPlaneEnv(localParticipant, postgresql));
+        if (StableReuse.ENABLED) {
+            startReusable();
+            return;
+        }
 
-        controlPlane.start();
-        dataPlane.start();
+        var controlPlaneEnvironment = new HashMap<>(participant.controlPlaneEnv(peers, postgresql));
+        controlPlaneEnvironment.putAll(controlPlaneEnv);
+        var dataPlaneEnvironment = new HashMap<>(participant.dataPlaneEnv(peers, postgresql));
+        dataPlaneEnvironment.putAll(dataPlaneEnv);
+
+        controlPlane = EdcDockerRuntimes.CONTROL_PLANE.create(participant.getName() + "-controlplane", controlPlaneEnvironment);
+        dataPlane = EdcDockerRuntimes.DATA_PLANE.create(participant.getName() + "-dataplane", dataPlaneEnvironment);
+
+        start(controlPlaneEnvironment, dataPlaneEnvironment);
+    }
+
+    /**
+     * When the runtimes of the participant reached each readiness stage, e.g. to add stages which depend on the
+     * dataspace, such as the resolution of the DID.
+     *
+     * @return the timeline
+     */
+    public ReadinessTimeline getReadiness() {
+        return readiness;
+    }
+
+    public GenericContainer<?> getControlPlane() {
+        return controlPlane;
+    }
+
+    public GenericContainer<?> getDataPlane() {
+        return dataPlane;
     }
 
     @Override
     public void afterAll(ExtensionContext context) {
+        if (StableReuse.ENABLED) {
+            // kept alive for the next run
+            return;
+        }
         if (controlPlane != null) {
-            controlPlane.stop();
+            EdcDockerRuntimes.stop(controlPlane);
         }
         if (dataPlane != null) {
-            dataPlane.stop();
+            EdcDockerRuntimes.stop(dataPlane);
         }
     }
+
+    /**
+     * Starts the runtimes in reuse mode, see {@link StableReuse}: they use a database of their own, which is reset
+     * rather than recreated while the containers are stopped, and the containers of a previous run are picked up if the
+     * environment did not change.
+     */
+    private void startReusable() {
+        var database = participant.getName().replace('-', '_');
+        var postgresqlConfig = StableReuse.databaseConfig(database);
+        StableReuse.stop(participant.getName() + "-controlplane");
+        StableReuse.stop(participant.getName() + "-dataplane");
+        StableReuse.reset(database);
+
+        var controlPlaneEnvironment = new HashMap<>(participant.controlPlaneEnv(peers, postgresqlConfig));
+        controlPlaneEnvironment.putAll(controlPlaneEnv);
+        var dataPlaneEnvironment = new HashMap<>(participant.dataPlaneEnv(peers, postgresqlConfig));
+        dataPlaneEnvironment.putAll(dataPlaneEnv);
+
+        controlPlane = EdcDockerRuntimes.CONTROL_PLANE.createReusable(participant.getName() + "-controlplane", controlPlaneEnvironment);
+        dataPlane = EdcDockerRuntimes.DATA_PLANE.createReusable(participant.getName() + "-dataplane", dataPlaneEnvironment);
+
+        start(controlPlaneEnvironment, dataPlaneEnvironment);
+    }
+
+    /**
+     * Starts the control plane, then the data plane, each one ready once its endpoints answer, and waits until the
+     * data plane is registered with the control plane.
+     */
+    private void start(Map<String, String> controlPlaneEnvironment, Map<String, String> dataPlaneEnvironment) {
+        readiness.start();
+        controlPlane.waitingFor(HttpReadinessWaitStrategy.forEnvironment("controlplane", controlPlaneEnvironment).recordingTo(readiness));
+        dataPlane.waitingFor(HttpReadinessWaitStrategy.forEnvironment("dataplane", dataPlaneEnvironment).recordingTo(readiness));
+
+        controlPlane.start();
+        dataPlane.start();
+        participant.waitForDataPlane();
+        readiness.record("dataplane-registered");
+    }
 }
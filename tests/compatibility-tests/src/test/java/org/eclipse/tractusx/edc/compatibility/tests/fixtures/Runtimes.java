@@ -28,7 +28,8 @@ public enum Runtimes {
 
     CONTROL_PLANE(":runtimes:snapshot:controlplane-snapshot"),
     IDENTITY_HUB(":runtimes:snapshot:identityhub-snapshot"),
-    DATA_PLANE(":runtimes:snapshot:dataplane-snapshot");
+    DATA_PLANE(":runtimes:snapshot:dataplane-snapshot"),
+    STABLE_CONTROL_PLANE(":runtimes:stable:controlplane-stable");
 
     private final String[] modules;
     private URL[] classpathEntries;
@@ -38,10 +39,19 @@ public enum Runtimes {
     }
 
     public EmbeddedRuntime create(String name) {
+        return new EmbeddedRuntime(name, classpath());
+    }
+
+    /**
+     * Resolves the classpath of the runtime modules, e.g. for loading them in an isolated class loader.
+     *
+     * @return the classpath entries of the runtime
+     */
+    public synchronized URL[] classpath() {
         if (classpathEntries == null) {
             classpathEntries = ClasspathReader.classpathFor(modules);
         }
-        return new EmbeddedRuntime(name, classpathEntries);
+        return classpathEntries;
     }
 
 }
@@ -0,0 +1,301 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures;
+
+import org.eclipse.edc.spi.system.configuration.Config;
+import org.eclipse.edc.spi.system.configuration.ConfigFactory;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.sql.PgStatStatements;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+import org.testcontainers.shaded.org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.testcontainers.utility.TestcontainersConfiguration;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import static org.eclipse.edc.util.io.Ports.getFreePort;
+
+/**
+ * Opt-in reuse of the stable runtimes between local test runs, enabled with {@code tx.test.stable.reuse}. The stable
+ * containers, and a Postgres container of their own, are kept after the tests and picked up again by the next run if
+ * their image and environment did not change, so that they are neither pulled, created nor migrated on every run.
+ * <p>
+ * For the environment to stay the same, the ports and the key pairs of the participants and of the identity hub are
+ * kept in {@code build/reuse/state.properties}. The state of a reused runtime is reset by truncating its tables, while
+ * its containers are stopped, see {@link #stop(String)}.
+ * Reuse has to be enabled in Testcontainers too, with {@code testcontainers.reuse.enable=true} in
+ * {@code ~/.testcontainers.properties}. Test classes must not run in parallel, since they share the ports.
+ */
+public final class StableReuse {
+
+    public static final boolean ENABLED = Boolean.getBoolean("tx.test.stable.reuse");
+
+    /**
+     * Label of the reused containers, which can be removed with
+     * {@code docker rm -f $(docker ps -aq --filter label=tx.test.reuse)}.
+     */
+    public static final String LABEL = "tx.test.reuse";
+
+    private static final Path STATE = Path.of("build", "reuse", "state.properties");
+    private static final String KEY_ALGORITHM = "EC";
+    // the table of the shared vault of the stable runtimes, see testing.edc.vault.shared.enabled
+    private static final String SHARED_VAULT_TABLE = "testing_edc_vault";
+
+    private static Properties state;
+    private static PostgreSQLContainer postgresql;
+
+    private StableReuse() {
+    }
+
+    /**
+     * A port that stays the same across runs.
+     *
+     * @param key the name of the port, unique across all participants
+     * @return the port
+     */
+    public static synchronized int port(String key) {
+        var property = "port." + key;
+        var port = state().getProperty(property);
+        if (port == null) {
+            port = String.valueOf(getFreePort());
+            state().setProperty(property, port);
+            save();
+        }
+        return Integer.parseInt(port);
+    }
+
+    /**
+     * A key pair that stays the same across runs.
+     *
+     * @param key the name of the key pair, unique across all participants
+     * @return the key pair
+     */
+    public static synchronized KeyPair keyPair(String key) {
+        var privateKey = state().getProperty("key." + key + ".private");
+        var publicKey = state().getProperty("key." + key + ".public");
+        try {
+            var factory = KeyFactory.getInstance(KEY_ALGORITHM, new BouncyCastleProvider());
+            if (privateKey != null && publicKey != null) {
+                return new KeyPair(factory.generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(publicKey))),
+                        factory.generatePrivate(new PKCS8EncodedKeySpec(Base64.getDecoder().decode(privateKey))));
+            }
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot read key pair " + key, e);
+        }
+        var keyPair = BaseParticipant.generateKeyPair();
+        state().setProperty("key." + key + ".private", Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded()));
+        state().setProperty("key." + key + ".public", Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()));
+        save();
+        return keyPair;
+    }
+
+    /**
+     * The configuration of a database in the reused Postgres, which is started, or picked up, on first use. The
+     * database is created if it does not exist yet.
+     *
+     * @param database the database name
+     * @return the datasource configuration, with the keys of {@code PostgresqlEndToEndExtension#configFor}
+     */
+    public static synchronized Config databaseConfig(String database) {
+        var container = postgresql();
+        try (var connection = DriverManager.getConnection(container.getJdbcUrl(), container.getUsername(), container.getPassword());
+             var exists = connection.prepareStatement("SELECT 1 FROM pg_database WHERE datname = ?")) {
+            exists.setString(1, database);
+            if (!exists.executeQuery().next()) {
+                try (var create = connection.createStatement()) {
+                    create.execute("CREATE DATABASE " + database);
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot create database " + database, e);
+        }
+        return ConfigFactory.fromMap(Map.of(
+                "edc.datasource.default.url", "jdbc:postgresql://localhost:%d/%s".formatted(container.getMappedPort(5432), database),
+                "edc.datasource.default.user", container.getUsername(),
+                "edc.datasource.default.password", container.getPassword()));
+    }
+
+    /**
+     * Stops the running reused containers of a runtime, so that none of its state machines writes back an entity it
+     * leased before the tables are truncated by {@link #reset(String)}. The container is started again by
+     * {@link #restart(String, String)}.
+     *
+     * @param name the name of the runtime, the value of the {@link #LABEL}
+     */
+    public static void stop(String name) {
+        var client = DockerClientFactory.instance().client();
+        client.listContainersCmd()
+                .withLabelFilter(Map.of(LABEL, name))
+                .exec()
+                .forEach(container -> client.stopContainerCmd(container.getId()).exec());
+    }
+
+    /**
+     * Starts the stopped reused container of a runtime, if there is one, since Testcontainers only picks up running
+     * containers and would otherwise clash with its name.
+     *
+     * @param name          the name of the runtime, the value of the {@link #LABEL}
+     * @param containerName the name of the container
+     */
+    public static void restart(String name, String containerName) {
+        var client = DockerClientFactory.instance().client();
+        client.listContainersCmd()
+                .withStatusFilter(List.of("created", "exited"))
+                .withLabelFilter(Map.of(LABEL, name))
+                .exec().stream()
+                .filter(container -> List.of(container.getNames()).contains("/" + containerName))
+                .forEach(container -> client.startContainerCmd(container.getId()).exec());
+    }
+
+    /**
+     * Resets the state of a reused runtime by truncating the tables of its database. Its containers have to be
+     * stopped, see {@link #stop(String)}. The schema history, the
+     * registered data planes and the shared vault are kept, since the runtimes fill them once, when they start.
+     *
+     * @param database the database name
+     */
+    public static synchronized void reset(String database) {
+        var config = databaseConfig(database);
+        try (var connection = DriverManager.getConnection(config.getString("edc.datasource.default.url"),
+                config.getString("edc.datasource.default.user"), config.getString("edc.datasource.default.password"));
+             var statement = connection.createStatement()) {
+            var tables = new ArrayList<String>();
+            var result = statement.executeQuery("SELECT tablename FROM pg_tables WHERE schemaname = 'public'");
+            while (result.next()) {
+                var table = result.getString(1);
+                if (!table.startsWith("flyway") && !table.equals("edc_data_plane_instance") && !table.equals(SHARED_VAULT_TABLE)) {
+                    tables.add(table);
+                }
+            }
+            if (!tables.isEmpty()) {
+                statement.execute("TRUNCATE TABLE " + String.join(", ", tables) + " CASCADE");
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot reset database " + database, e);
+        }
+    }
+
+    /**
+     * A hash of the image and the environment of a container, which names the reused container, so that a changed
+     * environment gets a new container rather than a clash with the old one.
+     *
+     * @param image the image
+     * @param env   the environment
+     * @return the hash
+     */
+    public static String hash(String image, Map<String, String> env) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            digest.update(image.getBytes(StandardCharsets.UTF_8));
+            new TreeMap<>(env).forEach((key, value) -> digest.update(("\n" + key + "=" + value).getBytes(StandardCharsets.UTF_8)));
+            return HexFormat.of().formatHex(digest.digest()).substring(0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Removes the reused containers of a runtime other than the given one, e.g. the ones left by a test class which ran
+     * the runtime with a different environment, since they would hold the same ports.
+     *
+     * @param name          the name of the runtime, the value of the {@link #LABEL}
+     * @param containerName the name of the container to keep
+     */
+    public static void evict(String name, String containerName) {
+        var client = DockerClientFactory.instance().client();
+        client.listContainersCmd()
+                .withShowAll(true)
+                .withLabelFilter(Map.of(LABEL, name))
+                .exec().stream()
+                .filter(container -> !List.of(container.getNames()).contains("/" + containerName))
+                .forEach(container -> client.removeContainerCmd(container.getId()).withForce(true).exec());
+    }
+
+    /**
+     * Fails if Testcontainers would silently create new containers instead of reusing them, or if test classes run in
+     * parallel, since they would share the reused containers and their state.
+     */
+    public static void checkEnabled() {
+        if (!TestcontainersConfiguration.getInstance().environmentSupportsReuse()) {
+            throw new IllegalStateException("Container reuse is disabled in Testcontainers, "
+                    + "set testcontainers.reuse.enable=true in ~/.testcontainers.properties");
+        }
+        if (Boolean.getBoolean("junit.jupiter.execution.parallel.enabled")) {
+            throw new IllegalStateException("Container reuse cannot be combined with parallel test execution, "
+                    + "unset tx.test.parallelism or tx.test.stable.reuse");
+        }
+    }
+
+    private static PostgreSQLContainer postgresql() {
+        if (postgresql == null) {
+            checkEnabled();
+            postgresql = PgStatStatements.container()
+                    .withReuse(true)
+                    .withLabel(LABEL, "postgresql");
+            postgresql.start();
+        }
+        return postgresql;
+    }
+
+    private static Properties state() {
+        if (state == null) {
+            state = new Properties();
+            if (Files.exists(STATE)) {
+                try (Reader reader = Files.newBufferedReader(STATE)) {
+                    state.load(reader);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Cannot read " + STATE, e);
+                }
+            }
+        }
+        return state;
+    }
+
+    private static void save() {
+        try {
+            Files.createDirectories(STATE.getParent());
+            try (Writer writer = Files.newBufferedWriter(STATE)) {
+                state.store(writer, "ports and keys of the reused stable runtimes, delete to start over");
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot write " + STATE, e);
+        }
+    }
+}
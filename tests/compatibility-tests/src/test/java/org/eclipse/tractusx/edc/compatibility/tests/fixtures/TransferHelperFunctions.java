@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures;
+
+import jakarta.json.JsonObject;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.eclipse.edc.connector.controlplane.test.system.utils.PolicyFixtures.noConstraintPolicy;
+import static org.eclipse.edc.spi.constants.CoreConstants.EDC_NAMESPACE;
+
+public class TransferHelperFunctions {
+
+    public static void createResourcesOnProvider(BaseParticipant provider, String assetId, JsonObject contractPolicy, Map<String, Object> dataAddressProperties) {
+        provider.createAsset(assetId, Map.of("description", "description"), dataAddressProperties);
+        var contractPolicyId = provider.createPolicyDefinition(contractPolicy);
+        var noConstraintPolicyId = provider.createPolicyDefinition(noConstraintPolicy());
+
+        provider.createContractDefinition(assetId, UUID.randomUUID().toString(), noConstraintPolicyId, contractPolicyId);
+    }
+
+    public static Map<String, Object> httpSourceDataAddress(String baseUrl) {
+        return Map.of(
+                EDC_NAMESPACE + "name", "transfer-test",
+                EDC_NAMESPACE + "baseUrl", baseUrl,
+                EDC_NAMESPACE + "type", "HttpData",
+                EDC_NAMESPACE + "proxyQueryParams", "true"
+        );
+    }
+}
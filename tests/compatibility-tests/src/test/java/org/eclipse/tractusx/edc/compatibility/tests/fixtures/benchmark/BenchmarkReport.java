@@ -0,0 +1,257 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark;
+
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Results of a benchmark, as rows of named metrics. Reports are printed and written as CSV to
+ * {@code build/reports/benchmarks}, where they can be picked up as baseline by a later run. Registered as extension
+ * of a benchmark, the report is written once all its tests have run.
+ */
+public class BenchmarkReport implements AfterAllCallback {
+
+    public static final Path REPORTS_DIRECTORY = Path.of("build", "reports", "benchmarks");
+
+    private static final String SEPARATOR = ",";
+
+    private final String name;
+    private final Map<String, Map<String, Object>> rows = new LinkedHashMap<>();
+    private String baseline;
+
+    private BenchmarkReport(String name) {
+        this.name = name;
+    }
+
+    public static BenchmarkReport create(String name) {
+        return new BenchmarkReport(name);
+    }
+
+    /**
+     * Reads a report written by a previous run.
+     *
+     * @param name the report name
+     * @return the report, empty if it does not exist
+     */
+    public static Optional<BenchmarkReport> read(String name) {
+        var file = REPORTS_DIRECTORY.resolve(name + ".csv");
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        try {
+            var report = new BenchmarkReport(name);
+            Files.readAllLines(file).stream()
+                    .skip(1)
+                    .map(BenchmarkReport::fields)
+                    .filter(columns -> columns.length == 3)
+                    .forEach(columns -> report.add(columns[0], columns[1], parse(columns[2])));
+            return Optional.of(report);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read report " + file, e);
+        }
+    }
+
+    /**
+     * Prints the change compared to a report of a previous run when this one is written, if that report exists.
+     *
+     * @param baseline the name of the baseline report
+     * @return the report
+     */
+    public BenchmarkReport comparedTo(String baseline) {
+        this.baseline = baseline;
+        return this;
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        write();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized BenchmarkReport add(String row, String metric, Object value) {
+        rows.computeIfAbsent(row, k -> new LinkedHashMap<>()).put(metric, value);
+        return this;
+    }
+
+    public synchronized BenchmarkReport add(String row, Map<String, Object> metrics) {
+        metrics.forEach((metric, value) -> add(row, metric, value));
+        return this;
+    }
+
+    public synchronized Optional<Object> get(String row, String metric) {
+        return Optional.ofNullable(rows.getOrDefault(row, Map.of()).get(metric));
+    }
+
+    /**
+     * Prints the report and writes it to the reports directory.
+     */
+    public synchronized void write() {
+        var lines = new ArrayList<String>();
+        lines.add("row,metric,value");
+        rows.forEach((row, metrics) -> metrics.forEach((metric, value) -> lines.add(String.join(SEPARATOR, field(row), field(metric), field(format(value))))));
+        try {
+            Files.createDirectories(REPORTS_DIRECTORY);
+            Files.write(REPORTS_DIRECTORY.resolve(name + ".csv"), lines);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot write report " + name, e);
+        }
+        System.out.println(toTable());
+        if (baseline != null) {
+            read(baseline).ifPresent(report -> System.out.println(diff(report)));
+        }
+    }
+
+    /**
+     * Renders the report as a table, one line per row and one column per metric.
+     *
+     * @return the table
+     */
+    public synchronized String toTable() {
+        Set<String> metrics = new LinkedHashSet<>();
+        rows.values().forEach(row -> metrics.addAll(row.keySet()));
+
+        var table = new ArrayList<String[]>();
+        var header = new ArrayList<String>();
+        header.add(name);
+        header.addAll(metrics);
+        table.add(header.toArray(String[]::new));
+        rows.forEach((row, values) -> {
+            var line = new ArrayList<String>();
+            line.add(row);
+            metrics.forEach(metric -> line.add(Optional.ofNullable(values.get(metric)).map(BenchmarkReport::format).orElse("")));
+            table.add(line.toArray(String[]::new));
+        });
+        return render(table);
+    }
+
+    /**
+     * Renders the relative change of every numeric metric compared to a baseline report.
+     *
+     * @param baseline the baseline
+     * @return the table of changes
+     */
+    public synchronized String diff(BenchmarkReport baseline) {
+        var table = new ArrayList<String[]>();
+        table.add(new String[]{ "row", "metric", baseline.getName(), name, "change" });
+        rows.forEach((row, values) -> values.forEach((metric, value) -> baseline.get(row, metric)
+                .ifPresent(base -> table.add(new String[]{ row, metric, format(base), format(value), change(base, value) }))));
+        return render(table);
+    }
+
+    private static String change(Object baseline, Object value) {
+        if (baseline instanceof Number base && value instanceof Number current && base.doubleValue() != 0) {
+            return String.format(Locale.ROOT, "%+.1f%%", (current.doubleValue() - base.doubleValue()) * 100 / base.doubleValue());
+        }
+        return "";
+    }
+
+    private static String render(List<String[]> table) {
+        var widths = new int[table.get(0).length];
+        table.forEach(line -> {
+            for (var i = 0; i < line.length; i++) {
+                widths[i] = Math.max(widths[i], line[i].length());
+            }
+        });
+        var builder = new StringBuilder();
+        table.forEach(line -> {
+            var cells = new ArrayList<String>();
+            for (var i = 0; i < line.length; i++) {
+                var padding = " ".repeat(widths[i] - line[i].length());
+                cells.add(i == 0 ? line[i] + padding : padding + line[i]);
+            }
+            builder.append(String.join(" | ", cells)).append(System.lineSeparator());
+        });
+        return builder.toString();
+    }
+
+    private static String format(Object value) {
+        if (value instanceof Double || value instanceof Float) {
+            return String.format(Locale.ROOT, "%.3f", ((Number) value).doubleValue());
+        }
+        return String.valueOf(value);
+    }
+
+    /**
+     * Quotes a CSV field that contains the separator or a quote, doubling its quotes. Line breaks become spaces, so
+     * that every line of the file stays a record.
+     */
+    private static String field(String value) {
+        var line = value.replaceAll("[\r\n]+", " ");
+        if (line.contains(SEPARATOR) || line.contains("\"")) {
+            return "\"" + line.replace("\"", "\"\"") + "\"";
+        }
+        return line;
+    }
+
+    private static String[] fields(String line) {
+        var fields = new ArrayList<String>();
+        var field = new StringBuilder();
+        var quoted = false;
+        for (var i = 0; i < line.length(); i++) {
+            var c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append(c);
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (SEPARATOR.charAt(0) == c) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields.toArray(String[]::new);
+    }
+
+    private static Object parse(String value) {
+        try {
+            if (value.contains(".")) {
+                return Double.parseDouble(value);
+            }
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return value;
+        }
+    }
+}
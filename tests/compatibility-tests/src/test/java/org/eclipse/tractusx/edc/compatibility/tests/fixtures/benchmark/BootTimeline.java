@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.regex.Pattern;
+
+/**
+ * Timeline of the boot of a runtime, read from its console log at debug level: the {@code Initialized},
+ * {@code Prepared} and {@code Started} messages of the extension lifecycle and the final {@code Runtime ... ready}.
+ * Extensions go through each phase one after the other, so the time spent by an extension in a phase is the time
+ * since the previous lifecycle message.
+ */
+public class BootTimeline {
+
+    private static final Pattern COLOR = Pattern.compile("\u001B\\[[;\\d]*m");
+    private static final Pattern LOG_LINE = Pattern.compile(".*?(?:DEBUG|INFO|WARNING|SEVERE) (\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}(?:\\.\\d+)?) (.*)");
+    private static final Pattern LIFECYCLE = Pattern.compile("(Initialized|Prepared|Started) (.+)");
+    private static final Pattern READY = Pattern.compile("Runtime .* ready.*");
+
+    private final List<Event> events = new ArrayList<>();
+    private LocalDateTime start;
+    private LocalDateTime ready;
+
+    /**
+     * Creates a timeline that starts with the first log line, e.g. for a runtime in a container.
+     */
+    public BootTimeline() {
+        this(null);
+    }
+
+    /**
+     * Creates a timeline that starts at the given time of the local clock, e.g. right before an embedded runtime
+     * boots.
+     *
+     * @param start the start of the boot
+     */
+    public BootTimeline(LocalDateTime start) {
+        this.start = start;
+    }
+
+    /**
+     * Reads a log line, ignoring the ones that are not part of the boot.
+     *
+     * @param line the log line
+     */
+    public synchronized void accept(String line) {
+        var matcher = LOG_LINE.matcher(COLOR.matcher(line).replaceAll(""));
+        if (!matcher.matches() || ready != null) {
+            return;
+        }
+        var time = LocalDateTime.parse(matcher.group(1));
+        var message = matcher.group(2).trim();
+        if (start == null) {
+            start = time;
+        }
+        var lifecycle = LIFECYCLE.matcher(message);
+        if (lifecycle.matches()) {
+            events.add(new Event(time, Phase.of(lifecycle.group(1)), lifecycle.group(2)));
+        } else if (READY.matcher(message).matches()) {
+            ready = time;
+        }
+    }
+
+    public synchronized boolean isReady() {
+        return ready != null;
+    }
+
+    /**
+     * Time from the start until the first extension is initialized: loading the classpath, discovering the
+     * extensions, ordering them by their dependencies and reading the configuration.
+     *
+     * @return the discovery time, zero if no extension was initialized
+     */
+    public synchronized Duration discovery() {
+        return events.isEmpty() ? Duration.ZERO : Duration.between(start, events.get(0).time());
+    }
+
+    /**
+     * Time from the start until the runtime reports to be ready.
+     *
+     * @return the time to ready, zero if the runtime is not ready
+     */
+    public synchronized Duration untilReady() {
+        return ready == null ? Duration.ZERO : Duration.between(start, ready);
+    }
+
+    /**
+     * Total time spent in each phase.
+     *
+     * @return the time by phase
+     */
+    public synchronized Map<Phase, Duration> phases() {
+        var phases = new EnumMap<Phase, Duration>(Phase.class);
+        forEachDuration((event, duration) -> phases.merge(event.phase(), duration, Duration::plus));
+        return phases;
+    }
+
+    /**
+     * Time spent by each extension in each phase, in boot order.
+     *
+     * @return the time by phase and by extension name
+     */
+    public synchronized Map<String, Map<Phase, Duration>> extensions() {
+        var extensions = new LinkedHashMap<String, Map<Phase, Duration>>();
+        forEachDuration((event, duration) -> extensions
+                .computeIfAbsent(event.extension(), k -> new EnumMap<>(Phase.class))
+                .merge(event.phase(), duration, Duration::plus));
+        return extensions;
+    }
+
+    private void forEachDuration(BiConsumer<Event, Duration> consumer) {
+        var previous = start;
+        for (var event : events) {
+            consumer.accept(event, Duration.between(previous, event.time()));
+            previous = event.time();
+        }
+    }
+
+    public enum Phase {
+        INITIALIZE, PREPARE, START;
+
+        static Phase of(String message) {
+            return switch (message) {
+                case "Initialized" -> INITIALIZE;
+                case "Prepared" -> PREPARE;
+                default -> START;
+            };
+        }
+    }
+
+    private record Event(LocalDateTime time, Phase phase, String extension) {
+    }
+}
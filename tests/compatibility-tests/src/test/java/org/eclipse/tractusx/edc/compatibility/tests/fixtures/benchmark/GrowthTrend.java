@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Least-squares linear trend of a series sampled over time, to tell sustained growth, e.g. a leak, from the sawtooth
+ * of the heap or from a pool warming up.
+ *
+ * @param slopePerHour the fitted growth per hour
+ * @param rSquared     the coefficient of determination of the fit, close to 1 when the series grows steadily
+ * @param growth       the fitted growth over the whole series
+ * @param samples      number of samples of the series
+ */
+public record GrowthTrend(double slopePerHour, double rSquared, double growth, int samples) {
+
+    private static final double MIN_R_SQUARED = 0.6;
+    private static final int MIN_SAMPLES = 5;
+
+    /**
+     * Fits the trend of a series. Negative values, which the probes return when they cannot read a value, are
+     * skipped.
+     *
+     * @param points the series
+     * @return the trend
+     */
+    public static GrowthTrend fit(List<Point> points) {
+        var valid = points.stream().filter(point -> point.value() >= 0).toList();
+        if (valid.size() < 2) {
+            return new GrowthTrend(0, 0, 0, valid.size());
+        }
+        var origin = valid.get(0).time();
+        var n = valid.size();
+        double sumX = 0;
+        double sumY = 0;
+        for (var point : valid) {
+            sumX += seconds(origin, point);
+            sumY += point.value();
+        }
+        var meanX = sumX / n;
+        var meanY = sumY / n;
+        double covariance = 0;
+        double varianceX = 0;
+        double varianceY = 0;
+        for (var point : valid) {
+            var dx = seconds(origin, point) - meanX;
+            var dy = point.value() - meanY;
+            covariance += dx * dy;
+            varianceX += dx * dx;
+            varianceY += dy * dy;
+        }
+        if (varianceX == 0) {
+            return new GrowthTrend(0, 0, 0, n);
+        }
+        var slope = covariance / varianceX;
+        var rSquared = varianceY == 0 ? 0 : covariance * covariance / (varianceX * varianceY);
+        var span = seconds(origin, valid.get(n - 1));
+        return new GrowthTrend(slope * Duration.ofHours(1).toSeconds(), rSquared, slope * span, n);
+    }
+
+    /**
+     * Whether the series grows steadily by more than a tolerance over its span.
+     *
+     * @param tolerance the growth that is not considered a leak, in the unit of the series
+     * @return true on sustained growth
+     */
+    public boolean isSustainedGrowth(double tolerance) {
+        return samples >= MIN_SAMPLES && growth > tolerance && rSquared >= MIN_R_SQUARED;
+    }
+
+    private static double seconds(Instant origin, Point point) {
+        return Duration.between(origin, point.time()).toMillis() / 1000.0;
+    }
+
+    /**
+     * A sample of a series.
+     *
+     * @param time  the time of the sample
+     * @param value the value
+     */
+    public record Point(Instant time, long value) {
+    }
+}
@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntToLongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class GrowthTrendTest {
+
+    private static final Instant ORIGIN = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Test
+    void fit_flat() {
+        var trend = GrowthTrend.fit(series(60, i -> 100));
+
+        assertThat(trend.slopePerHour()).isZero();
+        assertThat(trend.growth()).isZero();
+        assertThat(trend.isSustainedGrowth(0)).isFalse();
+    }
+
+    @Test
+    void fit_sawtooth_isNotSustainedGrowth() {
+        var trend = GrowthTrend.fit(series(60, i -> 100 + (i % 10) * 10));
+
+        assertThat(trend.growth()).as("the fitted line of a sawtooth rises").isGreaterThan(10);
+        assertThat(trend.rSquared()).isLessThan(0.1);
+        assertThat(trend.isSustainedGrowth(10)).isFalse();
+    }
+
+    @Test
+    void fit_steadyGrowth() {
+        // 2 per sample of 30 seconds
+        var trend = GrowthTrend.fit(series(60, i -> 100 + 2L * i));
+
+        assertThat(trend.slopePerHour()).isCloseTo(240, within(1e-9));
+        assertThat(trend.rSquared()).isCloseTo(1, within(1e-9));
+        assertThat(trend.growth()).isCloseTo(118, within(1e-9));
+        assertThat(trend.isSustainedGrowth(10)).isTrue();
+        assertThat(trend.isSustainedGrowth(118)).isFalse();
+    }
+
+    @Test
+    void fit_growthUnderASawtooth_isSustainedGrowth() {
+        var trend = GrowthTrend.fit(series(60, i -> 100 + i + (i % 10) * 3));
+
+        assertThat(trend.isSustainedGrowth(10)).isTrue();
+    }
+
+    @Test
+    void fit_skipsMissedSamples() {
+        var trend = GrowthTrend.fit(series(60, i -> i % 7 == 0 ? -1 : 100 + 2L * i));
+
+        assertThat(trend.samples()).isEqualTo(51);
+        assertThat(trend.slopePerHour()).isCloseTo(240, within(1e-9));
+    }
+
+    @Test
+    void isSustainedGrowth_needsEnoughSamples() {
+        assertThat(GrowthTrend.fit(series(4, i -> 100 + 100L * i)).isSustainedGrowth(10)).isFalse();
+        assertThat(GrowthTrend.fit(series(1, i -> 100)).samples()).isEqualTo(1);
+    }
+
+    private static List<GrowthTrend.Point> series(int samples, IntToLongFunction value) {
+        var points = new ArrayList<GrowthTrend.Point>();
+        for (var i = 0; i < samples; i++) {
+            points.add(new GrowthTrend.Point(ORIGIN.plusSeconds(30L * i), value.applyAsLong(i)));
+        }
+        return points;
+    }
+}
@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import javax.management.MBeanServerConnection;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+
+/**
+ * Probe of a containerized JVM: resident set size and threads of the process from {@code /proc}, heap and metaspace
+ * from the platform MXBeans over JMX. A connection is opened for each sample, so that the probe survives restarts
+ * of the JVM.
+ */
+class JmxRuntimeProbe implements RuntimeProbe {
+
+    private final RuntimeProbe process;
+    private final JMXServiceURL url;
+
+    JmxRuntimeProbe(RuntimeProbe process, int port) {
+        this.process = process;
+        try {
+            this.url = new JMXServiceURL("service:jmx:rmi:///jndi/rmi://localhost:%d/jmxrmi".formatted(port));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public Sample sample() {
+        var status = process.sample();
+        try (var connector = JMXConnectorFactory.connect(url)) {
+            var connection = connector.getMBeanServerConnection();
+            var pools = ManagementFactory.getPlatformMXBeans(connection, MemoryPoolMXBean.class);
+            return new Sample(status.time(), status.rssBytes(), status.threads(), status.openFileDescriptors(),
+                    memory(connection).getHeapMemoryUsage().getUsed(), RuntimeProbe.heapAfterGc(pools), RuntimeProbe.metaspace(pools));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot connect to " + url, e);
+        }
+    }
+
+    @Override
+    public void gc() {
+        try (var connector = JMXConnectorFactory.connect(url)) {
+            memory(connector.getMBeanServerConnection()).gc();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot connect to " + url, e);
+        }
+    }
+
+    @Override
+    public String heapHistogram() {
+        try (var connector = JMXConnectorFactory.connect(url)) {
+            return RuntimeProbe.heapHistogram(connector.getMBeanServerConnection());
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot connect to " + url, e);
+        }
+    }
+
+    private MemoryMXBean memory(MBeanServerConnection connection) throws IOException {
+        return ManagementFactory.getPlatformMXBean(connection, MemoryMXBean.class);
+    }
+}
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with log-linear buckets, in the spirit of HdrHistogram: values up to 127 microseconds
+ * are exact, larger ones are kept with 64 buckets per power of two, i.e. within 1.6%, up to about 50 days. Unlike
+ * {@link LatencyRecorder}, its memory does not grow with the number of operations, so it can record every operation
+ * of a long load test.
+ */
+public class LatencyHistogram {
+
+    private static final int EXACT = 128;
+    private static final int SUB_BUCKETS = 64;
+    private static final int SUB_BUCKET_BITS = 6;
+    static final long MAX_MICROS = (1L << 42) - 1;
+    private static final int BUCKETS = index(MAX_MICROS) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sumMicros = new AtomicLong();
+    private final AtomicLong minMicros = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    public void record(long nanos) {
+        var micros = Math.min(MAX_MICROS, Math.max(0, nanos / 1000));
+        counts.incrementAndGet(index(micros));
+        count.incrementAndGet();
+        sumMicros.addAndGet(micros);
+        minMicros.accumulateAndGet(micros, Math::min);
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    public long count() {
+        return count.get();
+    }
+
+    /**
+     * The value at a percentile, as the highest value of its bucket.
+     *
+     * @param percentile the percentile, between 0 and 1
+     * @return the value
+     */
+    public Duration percentile(double percentile) {
+        var total = count.get();
+        if (total == 0) {
+            return Duration.ZERO;
+        }
+        var rank = Math.max(1, (long) Math.ceil(percentile * total));
+        var seen = 0L;
+        for (var i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Duration.ofNanos(Math.min(highestValue(i), maxMicros.get()) * 1000);
+            }
+        }
+        return Duration.ofNanos(maxMicros.get() * 1000);
+    }
+
+    public LatencyRecorder.Summary summary() {
+        var total = count.get();
+        if (total == 0) {
+            return new LatencyRecorder.Summary(0, Duration.ZERO, Duration.ZERO, Duration.ZERO, Duration.ZERO, Duration.ZERO, Duration.ZERO);
+        }
+        return new LatencyRecorder.Summary((int) Math.min(Integer.MAX_VALUE, total),
+                Duration.ofNanos(minMicros.get() * 1000),
+                Duration.ofNanos(sumMicros.get() / total * 1000),
+                percentile(0.5),
+                percentile(0.9),
+                percentile(0.99),
+                Duration.ofNanos(maxMicros.get() * 1000));
+    }
+
+    static int index(long micros) {
+        if (micros < EXACT) {
+            return (int) micros;
+        }
+        var shift = 63 - Long.numberOfLeadingZeros(micros) - SUB_BUCKET_BITS;
+        var subBucket = (int) (micros >> shift) - SUB_BUCKETS;
+        return EXACT + (shift - 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long highestValue(int index) {
+        if (index < EXACT) {
+            return index;
+        }
+        var shift = (index - EXACT) / SUB_BUCKETS + 1;
+        var subBucket = (index - EXACT) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((long) (subBucket + 1) << shift) - 1;
+    }
+}
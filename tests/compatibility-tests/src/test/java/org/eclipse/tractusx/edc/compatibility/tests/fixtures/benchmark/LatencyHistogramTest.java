@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.LatencyHistogram.MAX_MICROS;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.LatencyHistogram.highestValue;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark.LatencyHistogram.index;
+
+class LatencyHistogramTest {
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    @ParameterizedTest
+    @CsvSource({
+            "0, 0, 0",
+            "127, 127, 127",
+            "128, 128, 129",
+            "129, 128, 129",
+            "130, 129, 131",
+            "255, 191, 255",
+            "256, 192, 259",
+            "259, 192, 259",
+            "260, 193, 263"
+    })
+    void index_atTheBucketBoundaries(long micros, int index, long highestValue) {
+        assertThat(index(micros)).isEqualTo(index);
+        assertThat(highestValue(index)).isEqualTo(highestValue);
+    }
+
+    @Test
+    void index_ofTheMaximum_isTheLastBucket() {
+        var last = index(MAX_MICROS);
+
+        assertThat(highestValue(last)).isEqualTo(MAX_MICROS);
+        assertThat(index(highestValue(last - 1) + 1)).isEqualTo(last);
+    }
+
+    @Test
+    void highestValue_roundTripsThroughIndex() {
+        for (var i = 0; i <= index(MAX_MICROS); i++) {
+            var highest = highestValue(i);
+            var lowest = i == 0 ? 0 : highestValue(i - 1) + 1;
+
+            assertThat(index(highest)).as("highest value of bucket %d", i).isEqualTo(i);
+            assertThat(index(lowest)).as("lowest value of bucket %d", i).isEqualTo(i);
+            assertThat(highest - lowest).as("width of bucket %d", i).isLessThanOrEqualTo(Math.max(0, lowest / 64));
+        }
+    }
+
+    @Test
+    void record_clampsToTheSupportedRange() {
+        histogram.record(-1);
+        histogram.record(Long.MAX_VALUE);
+
+        var summary = histogram.summary();
+        assertThat(summary.min()).isEqualTo(Duration.ZERO);
+        assertThat(summary.max()).isEqualTo(Duration.ofNanos(MAX_MICROS * 1000));
+        assertThat(histogram.percentile(1)).isEqualTo(Duration.ofNanos(MAX_MICROS * 1000));
+    }
+
+    @Test
+    void percentile_ofAUniformDistribution_isTheHighestValueOfItsBucket() {
+        for (var micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1000L);
+        }
+
+        assertThat(histogram.percentile(0.5)).isEqualTo(micros(503));
+        assertThat(histogram.percentile(0.9)).isEqualTo(micros(903));
+        assertThat(histogram.percentile(0.99)).isEqualTo(micros(991));
+        assertThat(histogram.percentile(1)).as("capped at the maximum").isEqualTo(micros(1000));
+    }
+
+    @Test
+    void percentile_ofABimodalDistribution() {
+        for (var i = 0; i < 990; i++) {
+            histogram.record(100_000);
+        }
+        for (var i = 0; i < 10; i++) {
+            histogram.record(1_000_000_000);
+        }
+
+        assertThat(histogram.percentile(0.5)).isEqualTo(micros(100));
+        assertThat(histogram.percentile(0.99)).isEqualTo(micros(100));
+        assertThat(histogram.percentile(0.991)).isEqualTo(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void summary() {
+        for (var micros = 1; micros <= 1000; micros++) {
+            histogram.record(micros * 1000L);
+        }
+
+        var summary = histogram.summary();
+        assertThat(summary.count()).isEqualTo(1000);
+        assertThat(summary.min()).isEqualTo(micros(1));
+        assertThat(summary.mean()).isEqualTo(micros(500));
+        assertThat(summary.p50()).isEqualTo(micros(503));
+        assertThat(summary.max()).isEqualTo(micros(1000));
+    }
+
+    @Test
+    void summary_whenEmpty() {
+        assertThat(histogram.count()).isZero();
+        assertThat(histogram.percentile(0.5)).isEqualTo(Duration.ZERO);
+        assertThat(histogram.summary().count()).isZero();
+    }
+
+    private static Duration micros(long micros) {
+        return Duration.ofNanos(micros * 1000);
+    }
+}
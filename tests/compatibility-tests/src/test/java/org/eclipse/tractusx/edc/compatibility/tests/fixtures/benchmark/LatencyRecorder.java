@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Thread-safe recorder of operation latencies.
+ */
+public class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int count;
+
+    public synchronized void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    public void record(Duration duration) {
+        record(duration.toNanos());
+    }
+
+    /**
+     * Records the latency of the given operation.
+     *
+     * @param operation the operation
+     */
+    public void time(Runnable operation) {
+        var start = System.nanoTime();
+        operation.run();
+        record(System.nanoTime() - start);
+    }
+
+    public synchronized int count() {
+        return count;
+    }
+
+    public synchronized Summary summary() {
+        var sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        if (sorted.length == 0) {
+            return new Summary(0, Duration.ZERO, Duration.ZERO, Duration.ZERO, Duration.ZERO, Duration.ZERO, Duration.ZERO);
+        }
+        return new Summary(sorted.length,
+                Duration.ofNanos(sorted[0]),
+                Duration.ofNanos((long) Arrays.stream(sorted).average().orElse(0)),
+                percentile(sorted, 0.5),
+                percentile(sorted, 0.9),
+                percentile(sorted, 0.99),
+                Duration.ofNanos(sorted[sorted.length - 1]));
+    }
+
+    private Duration percentile(long[] sorted, double percentile) {
+        var index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return Duration.ofNanos(sorted[Math.max(0, index)]);
+    }
+
+    public record Summary(int count, Duration min, Duration mean, Duration p50, Duration p90, Duration p99, Duration max) {
+
+        /**
+         * The summary as report metrics, latencies in milliseconds.
+         *
+         * @param prefix prefix of the metric names
+         * @return the metrics
+         */
+        public Map<String, Object> metrics(String prefix) {
+            var metrics = new LinkedHashMap<String, Object>();
+            metrics.put(prefix + "count", count);
+            metrics.put(prefix + "mean_ms", millis(mean));
+            metrics.put(prefix + "p50_ms", millis(p50));
+            metrics.put(prefix + "p90_ms", millis(p90));
+            metrics.put(prefix + "p99_ms", millis(p99));
+            metrics.put(prefix + "max_ms", millis(max));
+            return metrics;
+        }
+
+        private static double millis(Duration duration) {
+            return duration.toNanos() / 1_000_000.0;
+        }
+    }
+}
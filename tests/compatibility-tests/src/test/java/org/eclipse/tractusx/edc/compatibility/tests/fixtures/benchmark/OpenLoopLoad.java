@@ -0,0 +1,367 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load: operations are started on a fixed arrival schedule, whether or not the previous ones completed, as
+ * the requests of independent users would. A closed loop, where each worker waits for its response before sending the
+ * next request, sends less when the runtime slows down, so its latencies omit the queueing delay that real users see
+ * (coordinated omission). Here the response time of an operation is measured from the time it was scheduled to
+ * start, not from the time it actually started, so that delays of the load generator and of the runtime are counted.
+ * <p>
+ * Every operation runs on a thread of its own, the number of operations in flight is only capped to protect the
+ * test JVM; arrivals beyond the cap are rejected and counted. Operations still in flight when the drain timeout expires
+ * are recorded with the response time they had reached by then, so that the slowest ones are not dropped from the
+ * percentiles.
+ */
+public class OpenLoopLoad {
+
+    private final List<Operation> operations = new ArrayList<>();
+    private double ratePerSecond = 1;
+    private Duration duration = Duration.ofSeconds(60);
+    private Duration warmUp = Duration.ZERO;
+    private Duration drainTimeout = Duration.ofSeconds(60);
+    private int maxInFlight = 10_000;
+    private long seed = 42;
+
+    private OpenLoopLoad() {
+    }
+
+    /**
+     * Runs the load, and waits until the operations in flight complete.
+     *
+     * @return the results of the operations started after the warm-up
+     */
+    public Result run() {
+        var results = new LinkedHashMap<String, OperationResult>();
+        operations.forEach(operation -> results.put(operation.name(), new OperationResult()));
+        var totalWeight = operations.stream().mapToInt(Operation::weight).sum();
+        var random = new Random(seed);
+        var inFlight = new AtomicInteger();
+        var period = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        Set<InFlight> pending = ConcurrentHashMap.newKeySet();
+
+        var threads = new AtomicInteger();
+        var executor = Executors.newCachedThreadPool(runnable -> {
+            var thread = new Thread(runnable, "open-loop-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        var start = System.nanoTime();
+        var end = start + duration.toNanos();
+        var measuredFrom = start + warmUp.toNanos();
+        for (var i = 0L; start + i * period < end; i++) {
+            var intended = start + i * period;
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            var operation = pick(random.nextInt(totalWeight));
+            var result = intended >= measuredFrom ? results.get(operation.name()) : null;
+            if (inFlight.incrementAndGet() > maxInFlight) {
+                inFlight.decrementAndGet();
+                if (result != null) {
+                    result.rejected.incrementAndGet();
+                }
+                continue;
+            }
+            if (result != null) {
+                result.started.incrementAndGet();
+            }
+            var flight = new InFlight(intended, result, new AtomicBoolean());
+            pending.add(flight);
+            executor.submit(() -> {
+                var actual = System.nanoTime();
+                try {
+                    operation.task().run();
+                    var done = System.nanoTime();
+                    if (flight.settle() && result != null) {
+                        result.completed.incrementAndGet();
+                        result.responseTime.record(done - intended);
+                        result.serviceTime.record(done - actual);
+                    }
+                } catch (RuntimeException | AssertionError e) {
+                    if (flight.settle() && result != null) {
+                        result.failed.incrementAndGet();
+                    }
+                } finally {
+                    pending.remove(flight);
+                    inFlight.decrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(drainTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                timeOut(pending, System.nanoTime());
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            timeOut(pending, System.nanoTime());
+            executor.shutdownNow();
+        }
+        return new Result(ratePerSecond, duration.minus(warmUp), results);
+    }
+
+    /**
+     * Records the operations still in flight as timed out, with the time from their scheduled start to the drain
+     * deadline as response time, a lower bound of the one they would have had.
+     */
+    private void timeOut(Set<InFlight> pending, long drainDeadline) {
+        for (var flight : pending) {
+            if (flight.settle() && flight.result() != null) {
+                flight.result().timedOut.incrementAndGet();
+                flight.result().responseTime.record(drainDeadline - flight.intended());
+            }
+        }
+    }
+
+    private Operation pick(int ticket) {
+        var remaining = ticket;
+        for (var operation : operations) {
+            remaining -= operation.weight();
+            if (remaining < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("No operation for ticket " + ticket);
+    }
+
+    /**
+     * An operation of the mix.
+     *
+     * @param name   the name of the operation
+     * @param weight the relative share of the arrivals
+     * @param task   the operation, which fails with an exception or an assertion error
+     */
+    public record Operation(String name, int weight, Runnable task) {
+    }
+
+    /**
+     * An operation started and not yet completed, failed or timed out, whichever settles it first.
+     */
+    private record InFlight(long intended, OperationResult result, AtomicBoolean settled) {
+
+        boolean settle() {
+            return settled.compareAndSet(false, true);
+        }
+    }
+
+    /**
+     * Results of an operation.
+     */
+    public static class OperationResult {
+
+        private final LatencyHistogram responseTime = new LatencyHistogram();
+        private final LatencyHistogram serviceTime = new LatencyHistogram();
+        private final AtomicLong started = new AtomicLong();
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong timedOut = new AtomicLong();
+
+        /**
+         * Time from the scheduled start of the operations to their completion, corrected for coordinated omission.
+         * Operations that timed out are recorded up to the drain deadline.
+         *
+         * @return the histogram
+         */
+        public LatencyHistogram responseTime() {
+            return responseTime;
+        }
+
+        /**
+         * Time from the actual start of the operations to their completion, as a closed loop would measure it.
+         *
+         * @return the histogram
+         */
+        public LatencyHistogram serviceTime() {
+            return serviceTime;
+        }
+
+        public long completed() {
+            return completed.get();
+        }
+
+        public long failed() {
+            return failed.get();
+        }
+
+        public long rejected() {
+            return rejected.get();
+        }
+
+        public long timedOut() {
+            return timedOut.get();
+        }
+
+        /**
+         * The results as report metrics, latencies in milliseconds.
+         *
+         * @param prefix prefix of the metric names
+         * @return the metrics
+         */
+        public Map<String, Object> metrics(String prefix) {
+            var metrics = new LinkedHashMap<>(responseTime.summary().metrics(prefix));
+            metrics.put(prefix + "service_p99_ms", serviceTime.percentile(0.99).toNanos() / 1_000_000.0);
+            metrics.put(prefix + "failed", failed());
+            metrics.put(prefix + "rejected", rejected());
+            metrics.put(prefix + "timed_out", timedOut());
+            return metrics;
+        }
+    }
+
+    /**
+     * Results of a run.
+     *
+     * @param offeredRate the arrival rate, per second
+     * @param measured    the measured part of the run, after the warm-up
+     * @param operations  the results by operation
+     */
+    public record Result(double offeredRate, Duration measured, Map<String, OperationResult> operations) {
+
+        /**
+         * The rate of completed operations, per second, which falls behind the offered rate once the runtime
+         * saturates.
+         *
+         * @return the rate
+         */
+        public double achievedRate() {
+            var completed = operations.values().stream().mapToLong(OperationResult::completed).sum();
+            return completed * 1000.0 / measured.toMillis();
+        }
+
+        /**
+         * The share of the arrivals that failed, were rejected or did not complete in time.
+         *
+         * @return the ratio, between 0 and 1
+         */
+        public double errorRatio() {
+            var errors = operations.values().stream().mapToLong(result -> result.failed() + result.rejected() + result.timedOut()).sum();
+            var arrivals = operations.values().stream().mapToLong(result -> result.started.get() + result.rejected()).sum();
+            return arrivals == 0 ? 0 : (double) errors / arrivals;
+        }
+
+        /**
+         * The response time at a percentile over all the operations.
+         *
+         * @param percentile the percentile, between 0 and 1
+         * @return the highest response time of the operations at that percentile
+         */
+        public Duration responseTime(double percentile) {
+            return operations.values().stream()
+                    .map(result -> result.responseTime().percentile(percentile))
+                    .max(Duration::compareTo)
+                    .orElse(Duration.ZERO);
+        }
+    }
+
+    public static class Builder {
+
+        private final OpenLoopLoad load = new OpenLoopLoad();
+
+        private Builder() {
+        }
+
+        public static Builder newInstance() {
+            return new Builder();
+        }
+
+        public Builder rate(double ratePerSecond) {
+            load.ratePerSecond = ratePerSecond;
+            return this;
+        }
+
+        public Builder duration(Duration duration) {
+            load.duration = duration;
+            return this;
+        }
+
+        /**
+         * Operations scheduled during the warm-up run, but are not measured.
+         *
+         * @param warmUp the warm-up, part of the duration
+         * @return the builder
+         */
+        public Builder warmUp(Duration warmUp) {
+            load.warmUp = warmUp;
+            return this;
+        }
+
+        /**
+         * How long to wait for the operations in flight after the last arrival, the ones still running are counted
+         * as timed out.
+         *
+         * @param drainTimeout the timeout
+         * @return the builder
+         */
+        public Builder drainTimeout(Duration drainTimeout) {
+            load.drainTimeout = drainTimeout;
+            return this;
+        }
+
+        public Builder maxInFlight(int maxInFlight) {
+            load.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        /**
+         * Seed of the choice of the operations, so that runs at different rates send the same mix.
+         *
+         * @param seed the seed
+         * @return the builder
+         */
+        public Builder seed(long seed) {
+            load.seed = seed;
+            return this;
+        }
+
+        public Builder operation(String name, int weight, Runnable task) {
+            load.operations.add(new Operation(name, weight, task));
+            return this;
+        }
+
+        public OpenLoopLoad build() {
+            if (load.operations.stream().mapToInt(Operation::weight).sum() <= 0) {
+                throw new IllegalStateException("The load needs operations with a positive weight");
+            }
+            if (load.ratePerSecond <= 0) {
+                throw new IllegalStateException("The rate must be positive");
+            }
+            return load;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark;
+
+import org.testcontainers.containers.GenericContainer;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import javax.management.JMException;
+import javax.management.MBeanServerConnection;
+import javax.management.ObjectName;
+
+/**
+ * Samples the memory and thread usage of a runtime, either the JVM of the tests, which hosts the embedded snapshot
+ * runtimes, or the JVM in a container of a stable runtime.
+ */
+public interface RuntimeProbe {
+
+    Sample sample();
+
+    /**
+     * Requests a full garbage collection in the runtime, so that the next sample shows the retained heap. Probes that
+     * cannot reach the JVM ignore it.
+     */
+    default void gc() {
+    }
+
+    /**
+     * The class histogram of the heap after a full collection, as printed by {@code jcmd <pid> GC.class_histogram}.
+     * Probes that cannot reach the JVM return an empty histogram.
+     *
+     * @return the histogram
+     */
+    default String heapHistogram() {
+        return "";
+    }
+
+    /**
+     * Probe of the JVM of the tests. Since the embedded runtimes share it, its samples cover all of them.
+     *
+     * @return the probe
+     */
+    static RuntimeProbe localJvm() {
+        return new RuntimeProbe() {
+            @Override
+            public Sample sample() {
+                var status = Path.of("/proc/self/status");
+                var descriptors = Path.of("/proc/self/fd");
+                var rss = -1L;
+                var openFileDescriptors = -1L;
+                try {
+                    if (Files.exists(status)) {
+                        rss = Sample.parse(Files.readAllLines(status)).rssBytes();
+                    }
+                    if (Files.exists(descriptors)) {
+                        try (var files = Files.list(descriptors)) {
+                            openFileDescriptors = files.count();
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new IllegalStateException("Cannot read " + status, e);
+                }
+                var pools = ManagementFactory.getMemoryPoolMXBeans();
+                return new Sample(Instant.now(), rss, ManagementFactory.getThreadMXBean().getThreadCount(), openFileDescriptors,
+                        ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed(), heapAfterGc(pools), metaspace(pools));
+            }
+
+            @Override
+            public void gc() {
+                System.gc();
+            }
+
+            @Override
+            public String heapHistogram() {
+                return RuntimeProbe.heapHistogram(ManagementFactory.getPlatformMBeanServer());
+            }
+        };
+    }
+
+    /**
+     * Probe of the JVM running as process 1 of a container.
+     *
+     * @param container the container
+     * @return the probe
+     */
+    static RuntimeProbe container(GenericContainer<?> container) {
+        return () -> {
+            try {
+                var result = container.execInContainer("sh", "-c", "cat /proc/1/status; echo \"OpenFds: $(ls /proc/1/fd | wc -l)\"");
+                return Sample.parse(result.getStdout().lines().toList());
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot read the status of container " + container.getContainerName(), e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    /**
+     * Probe of the JVM running as process 1 of a container, which reads the heap and the metaspace over JMX. The JVM
+     * has to be started with {@link #jmxOptions(int)}, e.g. in {@code JAVA_TOOL_OPTIONS}, and the container has to run
+     * in the host network.
+     *
+     * @param container the container
+     * @param jmxPort   the JMX port of the JVM
+     * @return the probe
+     */
+    static RuntimeProbe jmx(GenericContainer<?> container, int jmxPort) {
+        return new JmxRuntimeProbe(container(container), jmxPort);
+    }
+
+    /**
+     * JVM options that open an unauthenticated JMX port on localhost, for {@link #jmx(GenericContainer, int)}.
+     *
+     * @param port the JMX port
+     * @return the options
+     */
+    static String jmxOptions(int port) {
+        return String.join(" ",
+                "-Dcom.sun.management.jmxremote",
+                "-Dcom.sun.management.jmxremote.port=" + port,
+                "-Dcom.sun.management.jmxremote.rmi.port=" + port,
+                "-Dcom.sun.management.jmxremote.local.only=false",
+                "-Dcom.sun.management.jmxremote.authenticate=false",
+                "-Dcom.sun.management.jmxremote.ssl=false",
+                "-Djava.rmi.server.hostname=localhost");
+    }
+
+    /**
+     * The class histogram of a JVM, through its diagnostic command MBean, which also runs a full collection.
+     *
+     * @param connection the MBean server of the JVM
+     * @return the histogram
+     */
+    static String heapHistogram(MBeanServerConnection connection) {
+        try {
+            return (String) connection.invoke(new ObjectName("com.sun.management:type=DiagnosticCommand"), "gcClassHistogram",
+                    new Object[]{ new String[0] }, new String[]{ String[].class.getName() });
+        } catch (JMException | IOException e) {
+            throw new IllegalStateException("Cannot get the class histogram", e);
+        }
+    }
+
+    /**
+     * The heap in use after the last collection of each heap pool, which is the retained heap right after a full
+     * collection.
+     *
+     * @param pools the memory pools of the JVM
+     * @return the heap after collection, -1 if no pool reports it
+     */
+    static long heapAfterGc(List<MemoryPoolMXBean> pools) {
+        var usages = pools.stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .map(MemoryPoolMXBean::getCollectionUsage)
+                .filter(Objects::nonNull)
+                .toList();
+        return usages.isEmpty() ? -1 : usages.stream().mapToLong(MemoryUsage::getUsed).sum();
+    }
+
+    /**
+     * The metaspace in use.
+     *
+     * @param pools the memory pools of the JVM
+     * @return the metaspace, -1 if there is no such pool
+     */
+    static long metaspace(List<MemoryPoolMXBean> pools) {
+        return pools.stream()
+                .filter(pool -> pool.getName().equals("Metaspace"))
+                .mapToLong(pool -> pool.getUsage().getUsed())
+                .findFirst()
+                .orElse(-1);
+    }
+
+    /**
+     * A sample, values that cannot be read are -1.
+     *
+     * @param time                the time of the sample
+     * @param rssBytes            resident set size of the process
+     * @param threads             number of threads
+     * @param openFileDescriptors number of open file descriptors of the process, sockets included
+     * @param heapUsedBytes       used heap of the JVM
+     * @param heapAfterGcBytes    used heap after the last collection, see {@link RuntimeProbe#heapAfterGc(List)}
+     * @param metaspaceBytes      used metaspace of the JVM
+     */
+    record Sample(Instant time, long rssBytes, int threads, long openFileDescriptors, long heapUsedBytes, long heapAfterGcBytes, long metaspaceBytes) {
+
+        static Sample parse(List<String> procStatus) {
+            var rss = -1L;
+            var threads = -1;
+            var openFileDescriptors = -1L;
+            for (var line : procStatus) {
+                var columns = line.split("\\s+");
+                if (line.startsWith("VmRSS:") && columns.length > 1) {
+                    rss = Long.parseLong(columns[1]) * 1024;
+                } else if (line.startsWith("Threads:") && columns.length > 1) {
+                    threads = Integer.parseInt(columns[1]);
+                } else if (line.startsWith("OpenFds:") && columns.length > 1) {
+                    openFileDescriptors = Long.parseLong(columns[1]);
+                }
+            }
+            return new Sample(Instant.now(), rss, threads, openFileDescriptors, -1, -1, -1);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * Samples a {@link RuntimeProbe} periodically in the background, e.g. while a scenario runs. A failing periodic sample
+ * does not stop the sampling, failures are counted and reported with the metrics.
+ */
+public class RuntimeSampler implements AutoCloseable {
+
+    private final RuntimeProbe probe;
+    private final List<RuntimeProbe.Sample> samples = new ArrayList<>();
+    private final List<String> failures = new ArrayList<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "runtime-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private RuntimeSampler(RuntimeProbe probe) {
+        this.probe = probe;
+    }
+
+    /**
+     * Starts sampling.
+     *
+     * @param probe    the probe
+     * @param interval the interval between samples
+     * @return the sampler
+     */
+    public static RuntimeSampler start(RuntimeProbe probe, Duration interval) {
+        var sampler = new RuntimeSampler(probe);
+        sampler.scheduler.scheduleAtFixedRate(sampler::sampleQuietly, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+        return sampler;
+    }
+
+    /**
+     * Takes a sample immediately, in addition to the periodic ones.
+     *
+     * @return the sample
+     */
+    public RuntimeProbe.Sample sample() {
+        var sample = probe.sample();
+        synchronized (samples) {
+            samples.add(sample);
+        }
+        return sample;
+    }
+
+    /**
+     * The failures of the periodic samples, e.g. a container that could not be reached.
+     *
+     * @return the failure messages, in order
+     */
+    public List<String> failures() {
+        synchronized (samples) {
+            return List.copyOf(failures);
+        }
+    }
+
+    public List<RuntimeProbe.Sample> samples() {
+        synchronized (samples) {
+            return List.copyOf(samples);
+        }
+    }
+
+    /**
+     * The first, last and maximum values of the samples as report metrics, memory in megabytes.
+     *
+     * @param prefix prefix of the metric names
+     * @return the metrics
+     */
+    public Map<String, Object> metrics(String prefix) {
+        var samples = samples();
+        var metrics = new LinkedHashMap<String, Object>();
+        metrics.put(prefix + "sample_failures", failures().size());
+        if (samples.isEmpty()) {
+            return metrics;
+        }
+        addMetrics(metrics, prefix + "rss_mb", samples, RuntimeProbe.Sample::rssBytes, 1024 * 1024);
+        addMetrics(metrics, prefix + "heap_mb", samples, RuntimeProbe.Sample::heapUsedBytes, 1024 * 1024);
+        addMetrics(metrics, prefix + "heap_after_gc_mb", samples, RuntimeProbe.Sample::heapAfterGcBytes, 1024 * 1024);
+        addMetrics(metrics, prefix + "metaspace_mb", samples, RuntimeProbe.Sample::metaspaceBytes, 1024 * 1024);
+        addMetrics(metrics, prefix + "threads", samples, RuntimeProbe.Sample::threads, 1);
+        addMetrics(metrics, prefix + "open_fds", samples, RuntimeProbe.Sample::openFileDescriptors, 1);
+        return metrics;
+    }
+
+    /**
+     * An exception escaping a task of {@code scheduleAtFixedRate} cancels all its further runs, so failures are caught
+     * and recorded instead.
+     */
+    private void sampleQuietly() {
+        try {
+            sample();
+        } catch (RuntimeException e) {
+            synchronized (samples) {
+                failures.add("%s: %s".formatted(e.getClass().getSimpleName(), e.getMessage()));
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void addMetrics(Map<String, Object> metrics, String name, List<RuntimeProbe.Sample> samples, ToLongFunction<RuntimeProbe.Sample> value, long unit) {
+        if (value.applyAsLong(samples.get(0)) < 0) {
+            return;
+        }
+        metrics.put(name + "_first", value.applyAsLong(samples.get(0)) / unit);
+        metrics.put(name + "_last", value.applyAsLong(samples.get(samples.size() - 1)) / unit);
+        metrics.put(name + "_max", samples.stream().mapToLong(value).max().orElse(0) / unit);
+    }
+}
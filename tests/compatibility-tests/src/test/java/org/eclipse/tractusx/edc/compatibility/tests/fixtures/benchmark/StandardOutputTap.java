@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Passes the lines written to {@link System#out} to a listener, in addition to printing them, e.g. to read the
+ * console log of embedded runtimes while they boot. It captures every thread of the test JVM.
+ */
+public class StandardOutputTap implements AutoCloseable {
+
+    private final PrintStream original;
+
+    private StandardOutputTap(PrintStream original) {
+        this.original = original;
+    }
+
+    /**
+     * Starts passing the lines to the listener, until closed.
+     *
+     * @param listener the listener
+     * @return the tap
+     */
+    public static StandardOutputTap start(Consumer<String> listener) {
+        var tap = new StandardOutputTap(System.out);
+        System.setOut(new PrintStream(new LineSplitter(tap.original, listener), true, StandardCharsets.UTF_8));
+        return tap;
+    }
+
+    @Override
+    public void close() {
+        System.setOut(original);
+    }
+
+    private static class LineSplitter extends OutputStream {
+
+        private final PrintStream target;
+        private final Consumer<String> listener;
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+        LineSplitter(PrintStream target, Consumer<String> listener) {
+            this.target = target;
+            this.listener = listener;
+        }
+
+        @Override
+        public synchronized void write(int b) {
+            target.write(b);
+            if (b == '\n') {
+                listener.accept(line.toString(StandardCharsets.UTF_8));
+                line.reset();
+            } else if (b != '\r') {
+                line.write(b);
+            }
+        }
+
+        @Override
+        public void flush() {
+            target.flush();
+        }
+    }
+}
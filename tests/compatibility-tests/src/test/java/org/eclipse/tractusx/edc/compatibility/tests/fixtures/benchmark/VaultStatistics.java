@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.benchmark;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+
+/**
+ * Secret lookup statistics of a stable runtime, read over JMX from the vault metrics of the stable extensions. The JVM
+ * has to be started with {@link RuntimeProbe#jmxOptions(int)}.
+ *
+ * @param lookups                 the number of resolved secrets
+ * @param hits                    the lookups served from the cache
+ * @param hitRatio                the share of the lookups served from the cache
+ * @param meanLookupMicros        the mean latency of a lookup
+ * @param maxLookupMicros         the highest latency of a lookup
+ * @param meanBackendLookupMicros the mean latency of the lookups that went to the backend
+ * @param stores                  the number of stored secrets
+ */
+public record VaultStatistics(long lookups, long hits, double hitRatio, double meanLookupMicros, double maxLookupMicros,
+                              double meanBackendLookupMicros, long stores) {
+
+    private static final String OBJECT_NAME = "org.eclipse.tractusx.edc.compatibility:type=Vault";
+    private static final String[] ATTRIBUTES = { "Lookups", "Hits", "HitRatio", "MeanLookupMicros", "MaxLookupMicros", "MeanBackendLookupMicros", "Stores" };
+
+    /**
+     * Reads the statistics of a runtime.
+     *
+     * @param jmxPort the JMX port of the runtime
+     * @return the statistics since the start of the runtime or the last {@link #reset(int)}
+     */
+    public static VaultStatistics read(int jmxPort) {
+        try (var connector = JMXConnectorFactory.connect(url(jmxPort))) {
+            var values = new LinkedHashMap<String, Object>();
+            connector.getMBeanServerConnection().getAttributes(new ObjectName(OBJECT_NAME), ATTRIBUTES).asList()
+                    .forEach(attribute -> values.put(attribute.getName(), attribute.getValue()));
+            return new VaultStatistics((long) values.get("Lookups"), (long) values.get("Hits"), (double) values.get("HitRatio"),
+                    (double) values.get("MeanLookupMicros"), (double) values.get("MaxLookupMicros"),
+                    (double) values.get("MeanBackendLookupMicros"), (long) values.get("Stores"));
+        } catch (IOException | JMException e) {
+            throw new IllegalStateException("Cannot read the vault metrics on JMX port " + jmxPort, e);
+        }
+    }
+
+    /**
+     * Starts the statistics of a runtime over.
+     *
+     * @param jmxPort the JMX port of the runtime
+     */
+    public static void reset(int jmxPort) {
+        try (var connector = JMXConnectorFactory.connect(url(jmxPort))) {
+            connector.getMBeanServerConnection().invoke(new ObjectName(OBJECT_NAME), "reset", new Object[0], new String[0]);
+        } catch (IOException | JMException e) {
+            throw new IllegalStateException("Cannot reset the vault metrics on JMX port " + jmxPort, e);
+        }
+    }
+
+    public Map<String, Object> metrics(String prefix) {
+        var metrics = new LinkedHashMap<String, Object>();
+        metrics.put(prefix + "lookups", lookups);
+        metrics.put(prefix + "hits", hits);
+        metrics.put(prefix + "hit_ratio", Math.round(hitRatio * 1000) / 1000.0);
+        metrics.put(prefix + "mean_lookup_us", Math.round(meanLookupMicros * 10) / 10.0);
+        metrics.put(prefix + "max_lookup_us", Math.round(maxLookupMicros * 10) / 10.0);
+        metrics.put(prefix + "mean_backend_lookup_us", Math.round(meanBackendLookupMicros * 10) / 10.0);
+        metrics.put(prefix + "stores", stores);
+        return metrics;
+    }
+
+    private static JMXServiceURL url(int port) throws IOException {
+        return new JMXServiceURL("service:jmx:rmi:///jndi/rmi://localhost:%d/jmxrmi".formatted(port));
+    }
+}
@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.logs;
+
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.TestWatcher;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Prints the container log lines written while a test ran, if it failed, see {@link ContainerLogPipeline}. When the
+ * tests run concurrently, the lines of the other tests running at the same time are printed too.
+ */
+public class ContainerLogExtension implements BeforeEachCallback, TestWatcher {
+
+    private final Map<String, Long> marks = new ConcurrentHashMap<>();
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        marks.put(context.getUniqueId(), ContainerLogPipeline.instance().mark());
+    }
+
+    @Override
+    public void testSuccessful(ExtensionContext context) {
+        marks.remove(context.getUniqueId());
+    }
+
+    @Override
+    public void testFailed(ExtensionContext context, Throwable cause) {
+        var mark = marks.remove(context.getUniqueId());
+        if (mark == null) {
+            return;
+        }
+        var pipeline = ContainerLogPipeline.instance();
+        var lines = pipeline.since(mark);
+        var output = new StringBuilder()
+                .append("---- container logs of ").append(context.getDisplayName())
+                .append(", ").append(lines.size()).append(" lines, all of them in ").append(RollingLogFile.DIRECTORY.toAbsolutePath())
+                .append(" ----").append(System.lineSeparator());
+        lines.forEach(line -> output.append('[').append(line.runtime()).append("] ").append(line.text()).append(System.lineSeparator()));
+        output.append("---- ").append(pipeline.dropped()).append(" lines dropped, ")
+                .append(pipeline.sampled()).append(" skipped by sampling since the tests started ----");
+        System.out.println(output);
+    }
+}
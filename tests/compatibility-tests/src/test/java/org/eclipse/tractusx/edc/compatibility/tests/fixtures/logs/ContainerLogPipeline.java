@@ -0,0 +1,253 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.logs;
+
+import org.testcontainers.containers.output.OutputFrame;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Moves the log lines of the containers to a file per runtime in {@code build/container-logs}, instead of the
+ * standard output of the test JVM. The containers only put the lines on a bounded lock-free queue, a single thread
+ * writes them, so that logging does not slow down the runtimes nor the tests under load.
+ * <p>
+ * Lines below {@code tx.test.logs.level} are filtered out. When the queue is three quarters full, only one in
+ * ten lines below {@code WARNING} is kept, and when it is full, lines are dropped; both are counted. The most recent
+ * lines are kept in memory as well, for {@link ContainerLogExtension} to print the ones of a failing test. With
+ * {@code tx.test.logs.console}, every line is printed to the standard output as well.
+ */
+public final class ContainerLogPipeline {
+
+    private static final int CAPACITY = Integer.getInteger("tx.test.logs.capacity", 65_536);
+    private static final int SAMPLING_THRESHOLD = CAPACITY / 4 * 3;
+    private static final int SAMPLING_RATE = 10;
+    private static final int RECENT_LINES = Integer.getInteger("tx.test.logs.recent", 20_000);
+    private static final Level LEVEL = Level.valueOf(System.getProperty("tx.test.logs.level", "INFO"));
+    private static final boolean CONSOLE = Boolean.getBoolean("tx.test.logs.console");
+    private static final Pattern COLOR = Pattern.compile("\u001B\\[[;\\d]*m");
+    private static final Duration FLUSH_TIMEOUT = Duration.ofSeconds(10);
+    private static final ContainerLogPipeline INSTANCE = new ContainerLogPipeline();
+
+    private final Queue<Line> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong sampling = new AtomicLong();
+    private final AtomicLong sampled = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Deque<Line> recent = new ArrayDeque<>();
+    private final Map<String, RollingLogFile> files = new HashMap<>();
+    private boolean closed;
+
+    private ContainerLogPipeline() {
+        var writer = new Thread(this::drain, "container-logs");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "container-logs-shutdown"));
+    }
+
+    public static ContainerLogPipeline instance() {
+        return INSTANCE;
+    }
+
+    /**
+     * A log consumer for a container, see {@code GenericContainer#withLogConsumer}.
+     *
+     * @param runtime the name of the runtime, which names its log file
+     * @return the consumer
+     */
+    public static Consumer<OutputFrame> consumer(String runtime) {
+        return new Consumer<>() {
+            // stack traces and other continuation lines have the level of the line before
+            private volatile Level level = Level.INFO;
+
+            @Override
+            public void accept(OutputFrame frame) {
+                if (frame.getType() == OutputFrame.OutputType.END) {
+                    return;
+                }
+                var text = frame.getUtf8StringWithoutLineEnding();
+                if (text.indexOf('\u001B') >= 0) {
+                    text = COLOR.matcher(text).replaceAll("");
+                }
+                level = Level.of(text, level);
+                INSTANCE.accept(runtime, level, text);
+            }
+        };
+    }
+
+    /**
+     * The position of the pipeline, from which {@link #since(long)} returns the lines.
+     *
+     * @return the sequence number of the last accepted line
+     */
+    public long mark() {
+        return sequence.get();
+    }
+
+    /**
+     * The lines accepted after a mark, once they are written. Lines that no longer are in memory are only in the files.
+     *
+     * @param mark the mark, see {@link #mark()}
+     * @return the lines, in the order they were written
+     */
+    public List<Line> since(long mark) {
+        flush();
+        synchronized (recent) {
+            return recent.stream().filter(line -> line.sequence() > mark).toList();
+        }
+    }
+
+    /**
+     * Number of lines dropped because the queue was full.
+     *
+     * @return the number of lines
+     */
+    public long dropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Number of lines skipped by sampling, because the queue was about to be full.
+     *
+     * @return the number of lines
+     */
+    public long sampled() {
+        return sampled.get();
+    }
+
+    private void accept(String runtime, Level level, String text) {
+        if (CONSOLE) {
+            System.out.println("[" + runtime + "] " + text);
+        }
+        if (level.compareTo(LEVEL) < 0) {
+            return;
+        }
+        int current;
+        do {
+            current = size.get();
+            if (current >= CAPACITY) {
+                dropped.incrementAndGet();
+                return;
+            }
+            if (current >= SAMPLING_THRESHOLD && level.compareTo(Level.WARNING) < 0
+                    && sampling.incrementAndGet() % SAMPLING_RATE != 0) {
+                sampled.incrementAndGet();
+                return;
+            }
+        } while (!size.compareAndSet(current, current + 1));
+        accepted.incrementAndGet();
+        queue.offer(new Line(sequence.incrementAndGet(), runtime, text));
+    }
+
+    private void drain() {
+        while (true) {
+            var line = queue.poll();
+            if (line == null) {
+                synchronized (files) {
+                    try {
+                        files.values().forEach(RollingLogFile::flush);
+                    } catch (UncheckedIOException e) {
+                        // retried on the next idle round
+                    }
+                }
+                LockSupport.parkNanos(Duration.ofMillis(5).toNanos());
+                continue;
+            }
+            size.decrementAndGet();
+            synchronized (files) {
+                try {
+                    if (!closed) {
+                        files.computeIfAbsent(line.runtime(), RollingLogFile::new).write(line.text());
+                    }
+                } catch (UncheckedIOException e) {
+                    dropped.incrementAndGet();
+                }
+            }
+            synchronized (recent) {
+                recent.addLast(line);
+                if (recent.size() > RECENT_LINES) {
+                    recent.removeFirst();
+                }
+            }
+            processed.incrementAndGet();
+        }
+    }
+
+    private void flush() {
+        var target = accepted.get();
+        var deadline = System.nanoTime() + FLUSH_TIMEOUT.toNanos();
+        while (processed.get() < target && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(Duration.ofMillis(1).toNanos());
+        }
+    }
+
+    private void close() {
+        flush();
+        synchronized (files) {
+            closed = true;
+            files.values().forEach(RollingLogFile::close);
+        }
+        if (dropped.get() > 0 || sampled.get() > 0) {
+            System.out.printf("Container logs: %d lines dropped, %d lines skipped by sampling, see %s%n",
+                    dropped.get(), sampled.get(), RollingLogFile.DIRECTORY.toAbsolutePath());
+        }
+    }
+
+    /**
+     * Level of the lines of the EDC console monitor.
+     */
+    public enum Level {
+        DEBUG, INFO, WARNING, SEVERE;
+
+        private static Level of(String line, Level previous) {
+            for (var level : values()) {
+                if (line.startsWith(level.name())) {
+                    return level;
+                }
+            }
+            return previous;
+        }
+    }
+
+    /**
+     * A log line of a container.
+     *
+     * @param sequence the sequence number, in the order the lines were accepted
+     * @param runtime  the name of the runtime
+     * @param text     the line, without colors
+     */
+    public record Line(long sequence, String runtime, String text) {
+    }
+}
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.logs;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Log file of a runtime, rolled over when it reaches {@code tx.test.logs.max-file-mb}, keeping the last
+ * {@code tx.test.logs.max-files} files. The file is truncated when the test JVM opens it.
+ */
+class RollingLogFile {
+
+    static final Path DIRECTORY = Path.of("build", "container-logs");
+
+    private static final long MAX_BYTES = Long.getLong("tx.test.logs.max-file-mb", 50) * 1024 * 1024;
+    private static final int MAX_FILES = Math.max(2, Integer.getInteger("tx.test.logs.max-files", 3));
+
+    private final Path path;
+    private BufferedWriter writer;
+    private long bytes;
+
+    RollingLogFile(String runtime) {
+        this.path = DIRECTORY.resolve(runtime.replaceAll("[^A-Za-z0-9-]+", "_") + ".log");
+        try {
+            Files.createDirectories(DIRECTORY);
+            writer = Files.newBufferedWriter(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void write(String line) {
+        try {
+            if (bytes >= MAX_BYTES) {
+                roll();
+            }
+            writer.write(line);
+            writer.newLine();
+            // close enough for the size limit, the lines are mostly ASCII
+            bytes += line.length() + 1;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void flush() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void close() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void roll() throws IOException {
+        writer.close();
+        Files.deleteIfExists(rolled(MAX_FILES - 1));
+        for (var i = MAX_FILES - 2; i >= 1; i--) {
+            if (Files.exists(rolled(i))) {
+                Files.move(rolled(i), rolled(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(path, rolled(1), StandardCopyOption.REPLACE_EXISTING);
+        writer = Files.newBufferedWriter(path);
+        bytes = 0;
+    }
+
+    private Path rolled(int index) {
+        return path.resolveSibling(path.getFileName() + "." + index);
+    }
+}
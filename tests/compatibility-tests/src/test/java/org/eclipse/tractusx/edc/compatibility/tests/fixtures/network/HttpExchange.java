@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.network;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * An HTTP request and its response, as seen on the wire by a {@link NetworkProxy}.
+ *
+ * @param endpoint                the endpoint of the proxy, e.g. {@code stable:protocol}
+ * @param method                  the request method
+ * @param path                    the request path, without query
+ * @param messageType             the JSON-LD type of the request, or its normalized path if it has none
+ * @param status                  the response status
+ * @param requestBytes            the size of the request on the wire
+ * @param responseBytes           the size of the response on the wire
+ * @param requestCompressedBytes  the size of the request body, gzipped
+ * @param responseCompressedBytes the size of the response body, gzipped
+ * @param serverTime              the time from the last byte of the request to the first byte of the response
+ */
+public record HttpExchange(String endpoint, String method, String path, String messageType, int status,
+                           long requestBytes, long responseBytes, long requestCompressedBytes, long responseCompressedBytes,
+                           Duration serverTime) {
+
+    public static String csvHeader() {
+        return "endpoint,method,path,message_type,status,request_bytes,response_bytes,request_gzip_bytes,response_gzip_bytes,server_time_ms";
+    }
+
+    public String toCsv() {
+        return "%s,%s,%s,%s,%d,%d,%d,%d,%d,%.3f".formatted(endpoint, method, path, messageType, status, requestBytes, responseBytes,
+                requestCompressedBytes, responseCompressedBytes, serverTime.toNanos() / 1_000_000.0);
+    }
+
+    public long totalBytes() {
+        return requestBytes + responseBytes;
+    }
+
+    public Map<String, Object> metrics() {
+        return Map.of(
+                "endpoint", endpoint,
+                "message_type", messageType,
+                "request_bytes", requestBytes,
+                "response_bytes", responseBytes,
+                "server_time_ms", serverTime.toMillis());
+    }
+}
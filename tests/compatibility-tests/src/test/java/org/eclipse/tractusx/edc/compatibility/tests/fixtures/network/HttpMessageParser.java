@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.network;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Incremental parser of the HTTP/1.1 messages of one direction of a connection. Bodies are delimited by
+ * {@code Content-Length}, chunked encoding, or the end of the connection. At most {@link #MAX_BODY} bytes of a body are
+ * kept, the size on the wire is always complete.
+ */
+class HttpMessageParser {
+
+    static final int MAX_BODY = 8 * 1024 * 1024;
+
+    private enum State {
+        HEAD, BODY, CHUNK_SIZE, CHUNK_DATA, CHUNK_END, TRAILER, UNTIL_CLOSE
+    }
+
+    private final boolean responses;
+    private final Consumer<HttpMessage> listener;
+    private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+    private State state = State.HEAD;
+    private String startLine;
+    private Map<String, String> headers = new HashMap<>();
+    private long remaining;
+    private long wireBytes;
+    private long firstByteNanos;
+
+    /**
+     * Creates the parser.
+     *
+     * @param responses whether the direction carries responses, which can have no body or end with the connection
+     * @param listener  receives every complete message
+     */
+    HttpMessageParser(boolean responses, Consumer<HttpMessage> listener) {
+        this.responses = responses;
+        this.listener = listener;
+    }
+
+    void accept(byte[] data, long nanos) {
+        var offset = 0;
+        while (offset < data.length) {
+            if (state == State.HEAD && startLine == null && line.size() == 0 && headers.isEmpty()) {
+                firstByteNanos = nanos;
+            }
+            switch (state) {
+                case BODY, CHUNK_DATA, UNTIL_CLOSE -> {
+                    var length = state == State.UNTIL_CLOSE ? data.length - offset : (int) Math.min(remaining, data.length - offset);
+                    keepBody(data, offset, length);
+                    offset += length;
+                    wireBytes += length;
+                    remaining -= length;
+                    if (state == State.BODY && remaining == 0) {
+                        complete(nanos);
+                    } else if (state == State.CHUNK_DATA && remaining == 0) {
+                        state = State.CHUNK_END;
+                    }
+                }
+                default -> {
+                    var b = data[offset++];
+                    wireBytes++;
+                    if (b != '\n') {
+                        line.write(b);
+                        continue;
+                    }
+                    var text = line.toString(StandardCharsets.ISO_8859_1).stripTrailing();
+                    line.reset();
+                    onLine(text, nanos);
+                }
+            }
+        }
+    }
+
+    /**
+     * Signals the end of the connection, which completes a message delimited by it.
+     *
+     * @param nanos the time
+     */
+    void close(long nanos) {
+        if (state == State.UNTIL_CLOSE) {
+            complete(nanos);
+        }
+    }
+
+    private void onLine(String text, long nanos) {
+        switch (state) {
+            case HEAD -> {
+                if (startLine == null) {
+                    if (!text.isEmpty()) {
+                        startLine = text;
+                    }
+                } else if (!text.isEmpty()) {
+                    var colon = text.indexOf(':');
+                    if (colon > 0) {
+                        headers.put(text.substring(0, colon).trim().toLowerCase(Locale.ROOT), text.substring(colon + 1).trim());
+                    }
+                } else {
+                    startBody(nanos);
+                }
+            }
+            case CHUNK_SIZE -> {
+                var size = Long.parseLong(text.split(";")[0].trim(), 16);
+                if (size == 0) {
+                    state = State.TRAILER;
+                } else {
+                    remaining = size;
+                    state = State.CHUNK_DATA;
+                }
+            }
+            case CHUNK_END -> state = State.CHUNK_SIZE;
+            case TRAILER -> {
+                if (text.isEmpty()) {
+                    complete(nanos);
+                }
+            }
+            default -> throw new IllegalStateException("Unexpected line in state " + state);
+        }
+    }
+
+    private void startBody(long nanos) {
+        var contentLength = headers.get("content-length");
+        if ("chunked".equalsIgnoreCase(headers.get("transfer-encoding"))) {
+            state = State.CHUNK_SIZE;
+        } else if (contentLength != null) {
+            remaining = Long.parseLong(contentLength);
+            state = State.BODY;
+            if (remaining == 0) {
+                complete(nanos);
+            }
+        } else if (responses && hasBody()) {
+            state = State.UNTIL_CLOSE;
+        } else {
+            complete(nanos);
+        }
+    }
+
+    private boolean hasBody() {
+        var status = startLine.split(" ");
+        if (status.length < 2) {
+            return false;
+        }
+        var code = status[1];
+        return !code.startsWith("1") && !code.equals("204") && !code.equals("304");
+    }
+
+    private void keepBody(byte[] data, int offset, int length) {
+        var kept = Math.min(length, MAX_BODY - body.size());
+        if (kept > 0) {
+            body.write(data, offset, kept);
+        }
+    }
+
+    private void complete(long nanos) {
+        listener.accept(new HttpMessage(startLine, headers, body.toByteArray(), wireBytes, firstByteNanos, nanos));
+        state = State.HEAD;
+        startLine = null;
+        headers = new HashMap<>();
+        body.reset();
+        wireBytes = 0;
+        remaining = 0;
+    }
+
+    /**
+     * A parsed message.
+     *
+     * @param startLine      the request or status line
+     * @param headers        the headers, with lower-case names
+     * @param body           the body, decoded from chunks, possibly truncated
+     * @param wireBytes      the size of the message on the wire
+     * @param firstByteNanos the time of the first byte
+     * @param lastByteNanos  the time of the last byte
+     */
+    record HttpMessage(String startLine, Map<String, String> headers, byte[] body, long wireBytes, long firstByteNanos, long lastByteNanos) {
+    }
+}
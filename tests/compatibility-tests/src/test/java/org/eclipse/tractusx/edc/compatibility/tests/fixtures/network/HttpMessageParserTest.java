@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.network;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HttpMessageParserTest {
+
+    private final List<HttpMessageParser.HttpMessage> messages = new ArrayList<>();
+
+    @Test
+    void contentLength() {
+        var wire = "POST /protocol HTTP/1.1\r\nContent-Length: 5\r\nContent-Type: application/json\r\n\r\nhello";
+        var parser = new HttpMessageParser(false, messages::add);
+
+        parser.accept(bytes(wire), 1);
+
+        assertThat(messages).singleElement().satisfies(message -> {
+            assertThat(message.startLine()).isEqualTo("POST /protocol HTTP/1.1");
+            assertThat(message.headers()).containsEntry("content-type", "application/json");
+            assertThat(message.body()).asString(StandardCharsets.UTF_8).isEqualTo("hello");
+            assertThat(message.wireBytes()).isEqualTo(wire.length());
+        });
+    }
+
+    @Test
+    void chunked_decodesTheBodyAcrossReads() {
+        var wire = "HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\n5;ext=1\r\nhello\r\n7\r\n, world\r\n0\r\nX-Trailer: yes\r\n\r\n";
+        var parser = new HttpMessageParser(true, messages::add);
+
+        var data = bytes(wire);
+        for (var i = 0; i < data.length; i++) {
+            parser.accept(new byte[]{ data[i] }, i);
+        }
+
+        assertThat(messages).singleElement().satisfies(message -> {
+            assertThat(message.body()).asString(StandardCharsets.UTF_8).isEqualTo("hello, world");
+            assertThat(message.wireBytes()).isEqualTo(wire.length());
+            assertThat(message.firstByteNanos()).isEqualTo(0);
+            assertThat(message.lastByteNanos()).isEqualTo(data.length - 1);
+        });
+    }
+
+    @Test
+    void chunked_followedByAnotherMessage() {
+        var parser = new HttpMessageParser(true, messages::add);
+
+        parser.accept(bytes("HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\n2\r\nok\r\n0\r\n\r\nHTTP/1.1 200 OK\r\nContent-Length: 2\r\n\r\nno"), 1);
+
+        assertThat(messages).extracting(message -> new String(message.body(), StandardCharsets.UTF_8)).containsExactly("ok", "no");
+    }
+
+    @Test
+    void connectionDelimited_completesOnClose() {
+        var wire = "HTTP/1.0 200 OK\r\nContent-Type: text/plain\r\n\r\nuntil the end";
+        var parser = new HttpMessageParser(true, messages::add);
+
+        parser.accept(bytes(wire), 1);
+        assertThat(messages).isEmpty();
+
+        parser.close(2);
+
+        assertThat(messages).singleElement().satisfies(message -> {
+            assertThat(message.body()).asString(StandardCharsets.UTF_8).isEqualTo("until the end");
+            assertThat(message.wireBytes()).isEqualTo(wire.length());
+            assertThat(message.lastByteNanos()).isEqualTo(2);
+        });
+    }
+
+    @Test
+    void request_withoutLength_hasNoBody() {
+        var parser = new HttpMessageParser(false, messages::add);
+
+        parser.accept(bytes("GET /source HTTP/1.1\r\nHost: localhost\r\n\r\nGET /other HTTP/1.1\r\n\r\n"), 1);
+
+        assertThat(messages).extracting(HttpMessageParser.HttpMessage::startLine).containsExactly("GET /source HTTP/1.1", "GET /other HTTP/1.1");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "100 Continue", "204 No Content", "304 Not Modified" })
+    void response_withoutBody_completesAtTheEndOfTheHead(String status) {
+        var parser = new HttpMessageParser(true, messages::add);
+
+        parser.accept(bytes("HTTP/1.1 " + status + "\r\n\r\nHTTP/1.1 200 OK\r\nContent-Length: 4\r\n\r\ndata"), 1);
+
+        assertThat(messages).extracting(HttpMessageParser.HttpMessage::startLine).containsExactly("HTTP/1.1 " + status, "HTTP/1.1 200 OK");
+        assertThat(messages.get(0).body()).isEmpty();
+        assertThat(messages.get(1).body()).asString(StandardCharsets.UTF_8).isEqualTo("data");
+    }
+
+    @Test
+    void close_doesNotCompleteAMessageDelimitedByLength() {
+        var parser = new HttpMessageParser(true, messages::add);
+
+        parser.accept(bytes("HTTP/1.1 200 OK\r\nContent-Length: 10\r\n\r\nshort"), 1);
+        parser.close(2);
+
+        assertThat(messages).isEmpty();
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.network;
+
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.network.HttpMessageParser.HttpMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Records the HTTP exchanges going through the proxies of a {@link NetworkEmulation}, e.g. the DSP messages between
+ * the participants, the DCP presentation queries and the STS token requests.
+ */
+public class HttpTrafficRecorder {
+
+    private static final Pattern TYPE = Pattern.compile("\"@type\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern ID_SEGMENT = Pattern.compile("[0-9a-fA-F-]{32,36}|[^/]*[:%][^/]*|[A-Za-z0-9_-]{40,}");
+
+    private final Queue<HttpExchange> exchanges = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Takes the exchanges recorded so far.
+     *
+     * @return the exchanges, in the order of their responses
+     */
+    public List<HttpExchange> drain() {
+        var drained = new ArrayList<HttpExchange>();
+        HttpExchange exchange;
+        while ((exchange = exchanges.poll()) != null) {
+            drained.add(exchange);
+        }
+        return drained;
+    }
+
+    /**
+     * Aggregates exchanges per endpoint and message type.
+     *
+     * @param exchanges the exchanges
+     * @return the count, sizes and server times, by {@code endpoint messageType}
+     */
+    public static Map<String, Map<String, Object>> statistics(List<HttpExchange> exchanges) {
+        var groups = exchanges.stream().collect(Collectors.groupingBy(e -> e.endpoint() + " " + e.messageType(), TreeMap::new, Collectors.toList()));
+        var statistics = new LinkedHashMap<String, Map<String, Object>>();
+        groups.forEach((key, group) -> {
+            var serverTimes = group.stream().map(HttpExchange::serverTime).sorted().toList();
+            statistics.put(key, Map.of(
+                    "count", group.size(),
+                    "request_bytes", group.stream().mapToLong(HttpExchange::requestBytes).sum(),
+                    "response_bytes", group.stream().mapToLong(HttpExchange::responseBytes).sum(),
+                    "request_gzip_bytes", group.stream().mapToLong(HttpExchange::requestCompressedBytes).sum(),
+                    "response_gzip_bytes", group.stream().mapToLong(HttpExchange::responseCompressedBytes).sum(),
+                    "max_bytes", group.stream().mapToLong(HttpExchange::totalBytes).max().orElse(0),
+                    "server_p50_ms", serverTimes.get(serverTimes.size() / 2).toMillis(),
+                    "server_max_ms", serverTimes.get(serverTimes.size() - 1).toMillis()));
+        });
+        return statistics;
+    }
+
+    /**
+     * The largest exchanges, by request and response size.
+     *
+     * @param exchanges the exchanges
+     * @param count     the number of exchanges to return
+     * @return the largest exchanges, largest first
+     */
+    public static List<HttpExchange> largest(List<HttpExchange> exchanges, int count) {
+        return exchanges.stream().sorted(Comparator.comparingLong(HttpExchange::totalBytes).reversed()).limit(count).toList();
+    }
+
+    public static void writeCsv(Path file, List<HttpExchange> exchanges) {
+        try {
+            Files.createDirectories(file.getParent());
+            Files.write(file, Stream.concat(Stream.of(HttpExchange.csvHeader()), exchanges.stream().map(HttpExchange::toCsv)).toList());
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot write HTTP exchanges to " + file, e);
+        }
+    }
+
+    NetworkProxy.Tap open(String endpoint) {
+        Deque<HttpMessage> requests = new ConcurrentLinkedDeque<>();
+        var requestParser = new HttpMessageParser(false, requests::add);
+        var responseParser = new HttpMessageParser(true, response -> {
+            var request = requests.poll();
+            if (request != null) {
+                exchanges.add(exchange(endpoint, request, response));
+            }
+        });
+        return new NetworkProxy.Tap() {
+            @Override
+            public void request(byte[] data, long nanos) {
+                requestParser.accept(data, nanos);
+            }
+
+            @Override
+            public void response(byte[] data, long nanos) {
+                responseParser.accept(data, nanos);
+            }
+
+            @Override
+            public void close(long nanos) {
+                responseParser.close(nanos);
+            }
+        };
+    }
+
+    private HttpExchange exchange(String endpoint, HttpMessage request, HttpMessage response) {
+        var requestLine = request.startLine().split(" ");
+        var method = requestLine[0];
+        var path = requestLine.length > 1 ? requestLine[1].split("\\?")[0] : "";
+        var statusLine = response.startLine().split(" ");
+        var status = statusLine.length > 1 ? Integer.parseInt(statusLine[1]) : 0;
+        return new HttpExchange(endpoint, method, path, messageType(method, path, request.body()), status,
+                request.wireBytes(), response.wireBytes(), gzipSize(request.body()), gzipSize(response.body()),
+                Duration.ofNanos(Math.max(0, response.firstByteNanos() - request.lastByteNanos())));
+    }
+
+    private String messageType(String method, String path, byte[] body) {
+        if (path.endsWith("did.json")) {
+            return "DidDocument";
+        }
+        if (path.endsWith("/token")) {
+            return "StsToken";
+        }
+        var matcher = TYPE.matcher(new String(body, StandardCharsets.UTF_8));
+        if (matcher.find()) {
+            var type = matcher.group(1);
+            return type.substring(Math.max(type.lastIndexOf(':'), Math.max(type.lastIndexOf('/'), type.lastIndexOf('#'))) + 1);
+        }
+        var normalized = Stream.of(path.split("/"))
+                .map(segment -> ID_SEGMENT.matcher(segment).matches() ? "{id}" : segment)
+                .collect(Collectors.joining("/"));
+        return method + " " + normalized;
+    }
+
+    private long gzipSize(byte[] body) {
+        if (body.length == 0) {
+            return 0;
+        }
+        var out = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot compress body", e);
+        }
+        return out.size();
+    }
+}
@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.network;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.eclipse.edc.util.io.Ports.getFreePort;
+
+/**
+ * Emulates a network between the participants. The runtimes bind the proxied endpoints to internal ports, while a
+ * {@link NetworkProxy} listens on the advertised ports, so that the callers go through the proxy without any change of
+ * their addresses. {@link #none()} binds the endpoints directly.
+ */
+public class NetworkEmulation implements AutoCloseable {
+
+    private static final NetworkEmulation NONE = new NetworkEmulation(null);
+
+    private final Map<Integer, NetworkProxy> proxies = new ConcurrentHashMap<>();
+    private volatile NetworkProfile profile;
+    private volatile HttpTrafficRecorder recorder;
+
+    private NetworkEmulation(NetworkProfile profile) {
+        this.profile = profile;
+    }
+
+    public static NetworkEmulation create(NetworkProfile profile) {
+        return new NetworkEmulation(profile);
+    }
+
+    public static NetworkEmulation none() {
+        return NONE;
+    }
+
+    public boolean isEnabled() {
+        return this != NONE;
+    }
+
+    /**
+     * The port a runtime has to bind an advertised endpoint to. Starts the proxy of the endpoint on first use.
+     *
+     * @param endpoint       the name of the endpoint, e.g. {@code stable:protocol}, used to label recorded exchanges
+     * @param advertisedPort the port the callers use
+     * @return the port to bind to, the advertised port itself when the emulation is disabled
+     */
+    public int bindPort(String endpoint, int advertisedPort) {
+        if (!isEnabled()) {
+            return advertisedPort;
+        }
+        return proxies.computeIfAbsent(advertisedPort, port -> new NetworkProxy(port, getFreePort(), () -> profile, () -> tap(endpoint)))
+                .getTargetPort();
+    }
+
+    /**
+     * Records the HTTP exchanges of the new connections, or stops recording.
+     *
+     * @param recorder the recorder, null to stop recording
+     */
+    public void record(HttpTrafficRecorder recorder) {
+        if (!isEnabled()) {
+            throw new IllegalStateException("The network emulation is disabled");
+        }
+        this.recorder = recorder;
+    }
+
+    public NetworkProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * Changes the conditions of the network for the new connections.
+     *
+     * @param profile the profile
+     */
+    public void setProfile(NetworkProfile profile) {
+        if (!isEnabled()) {
+            throw new IllegalStateException("The network emulation is disabled");
+        }
+        this.profile = profile;
+    }
+
+    /**
+     * Counters of all the proxies since they started.
+     *
+     * @return the connections, the reset connections and the forwarded bytes
+     */
+    public Map<String, Object> metrics() {
+        return Map.of(
+                "connections", proxies.values().stream().mapToLong(NetworkProxy::getConnections).sum(),
+                "resets", proxies.values().stream().mapToLong(NetworkProxy::getResets).sum(),
+                "bytes", proxies.values().stream().mapToLong(NetworkProxy::getBytes).sum());
+    }
+
+    private NetworkProxy.Tap tap(String endpoint) {
+        var current = recorder;
+        return current == null ? NetworkProxy.Tap.NONE : current.open(endpoint);
+    }
+
+    @Override
+    public void close() {
+        proxies.values().forEach(NetworkProxy::close);
+        proxies.clear();
+    }
+}
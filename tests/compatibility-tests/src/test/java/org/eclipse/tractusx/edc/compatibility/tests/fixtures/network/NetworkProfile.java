@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.network;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conditions of the network between the participants: one-way latency and jitter, bandwidth of each connection and
+ * direction ({@code 0} for unlimited), and probability that a connection is reset while a request is in flight.
+ *
+ * @param name             the name, used to label measurements
+ * @param latency          the one-way latency
+ * @param jitter           the maximum deviation from the latency, uniformly distributed
+ * @param bytesPerSecond   the bandwidth cap, {@code 0} for none
+ * @param resetProbability the probability of a connection to be reset, from 0 to 1
+ */
+public record NetworkProfile(String name, Duration latency, Duration jitter, long bytesPerSecond, double resetProbability) {
+
+    public static final NetworkProfile LOCALHOST = new NetworkProfile("localhost", Duration.ZERO, Duration.ZERO, 0, 0);
+
+    private static final Map<String, NetworkProfile> PRESETS = Map.of(
+            "localhost", LOCALHOST,
+            "metro", new NetworkProfile("metro", Duration.ofMillis(2), Duration.ofMillis(1), 0, 0),
+            "wan", new NetworkProfile("wan", Duration.ofMillis(20), Duration.ofMillis(5), 12_500_000, 0),
+            "intercontinental", new NetworkProfile("intercontinental", Duration.ofMillis(75), Duration.ofMillis(15), 1_250_000, 0),
+            "lossy", new NetworkProfile("lossy", Duration.ofMillis(20), Duration.ofMillis(20), 1_250_000, 0.02)
+    );
+
+    /**
+     * Parses a profile, either the name of a preset ({@code localhost}, {@code metro}, {@code wan},
+     * {@code intercontinental}, {@code lossy}) or {@code name:latencyMillis:jitterMillis:bytesPerSecond:resetProbability}.
+     *
+     * @param spec the profile specification
+     * @return the profile
+     */
+    public static NetworkProfile parse(String spec) {
+        var preset = PRESETS.get(spec.trim());
+        if (preset != null) {
+            return preset;
+        }
+        var parts = spec.trim().split(":");
+        if (parts.length != 5) {
+            throw new IllegalArgumentException("Invalid network profile '%s', expected a preset among %s or name:latencyMillis:jitterMillis:bytesPerSecond:resetProbability"
+                    .formatted(spec, PRESETS.keySet()));
+        }
+        return new NetworkProfile(parts[0], Duration.ofMillis(Long.parseLong(parts[1])), Duration.ofMillis(Long.parseLong(parts[2])),
+                Long.parseLong(parts[3]), Double.parseDouble(parts[4]));
+    }
+
+    /**
+     * Parses a comma-separated list of profiles.
+     *
+     * @param specs the profile specifications
+     * @return the profiles
+     */
+    public static List<NetworkProfile> parseAll(String specs) {
+        return Arrays.stream(specs.split(",")).filter(spec -> !spec.isBlank()).map(NetworkProfile::parse).toList();
+    }
+
+    public Map<String, Object> metrics() {
+        return Map.of(
+                "latency_ms", latency.toMillis(),
+                "jitter_ms", jitter.toMillis(),
+                "bytes_per_s", bytesPerSecond,
+                "reset_probability", resetProbability);
+    }
+}
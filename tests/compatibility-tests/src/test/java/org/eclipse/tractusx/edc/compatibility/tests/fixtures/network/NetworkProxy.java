@@ -0,0 +1,281 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.network;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * TCP proxy that forwards the connections of a port to another local port, under the conditions of a
+ * {@link NetworkProfile}. The profile is read for every new connection, so it can be changed while the proxy runs.
+ * Data is forwarded in chunks: each chunk is delayed by the latency and jitter of the profile, in order, and then
+ * written no faster than its bandwidth. A connection picked for a reset is aborted with a TCP RST as soon as the
+ * client sends data. A {@link Tap} can observe the forwarded bytes, e.g. to record the HTTP exchanges.
+ */
+public class NetworkProxy implements AutoCloseable {
+
+    private static final int CHUNK_SIZE = 16 * 1024;
+    private static final Chunk END = new Chunk(new byte[0], 0);
+
+    private final int port;
+    private final int targetPort;
+    private final Supplier<NetworkProfile> profile;
+    private final Supplier<Tap> taps;
+    private final ServerSocket server;
+    private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+    private final AtomicLong connections = new AtomicLong();
+    private final AtomicLong resets = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final ExecutorService threads;
+    private volatile boolean closed;
+
+    /**
+     * Starts listening.
+     *
+     * @param port       the port to listen on
+     * @param targetPort the local port to forward to
+     * @param profile    the current network profile
+     * @param taps        creates the tap of every new connection
+     */
+    public NetworkProxy(int port, int targetPort, Supplier<NetworkProfile> profile, Supplier<Tap> taps) {
+        this.port = port;
+        this.targetPort = targetPort;
+        this.profile = profile;
+        this.taps = taps;
+        try {
+            server = new ServerSocket();
+            server.setReuseAddress(true);
+            server.bind(new InetSocketAddress(port));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot listen on port " + port, e);
+        }
+        var count = new AtomicInteger();
+        threads = Executors.newCachedThreadPool(runnable -> {
+            var thread = new Thread(runnable, "network-proxy-%d-%d".formatted(port, count.incrementAndGet()));
+            thread.setDaemon(true);
+            return thread;
+        });
+        threads.execute(this::accept);
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public int getTargetPort() {
+        return targetPort;
+    }
+
+    public long getConnections() {
+        return connections.get();
+    }
+
+    public long getResets() {
+        return resets.get();
+    }
+
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        closeQuietly(server);
+        sockets.forEach(this::closeQuietly);
+        threads.shutdownNow();
+    }
+
+    private void accept() {
+        while (!closed) {
+            try {
+                var client = server.accept();
+                threads.execute(() -> forward(client));
+            } catch (IOException e) {
+                if (!closed) {
+                    System.err.printf("Network proxy on port %d cannot accept connection: %s%n", port, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void forward(Socket client) {
+        connections.incrementAndGet();
+        var conditions = profile.get();
+        var reset = conditions.resetProbability() > 0 && ThreadLocalRandom.current().nextDouble() < conditions.resetProbability();
+        var tap = taps.get();
+        sockets.add(client);
+        try (var upstream = new Socket("localhost", targetPort)) {
+            sockets.add(upstream);
+            client.setTcpNoDelay(true);
+            upstream.setTcpNoDelay(true);
+            var request = threads.submit(() -> pipe(client, upstream, conditions, reset, Observer.NONE, tap::request));
+            pipe(upstream, client, conditions, false, tap::response, Observer.NONE);
+            join(request);
+            sockets.remove(upstream);
+        } catch (IOException e) {
+            // the target is not listening (yet), the client sees the connection closed
+        } finally {
+            tap.close(System.nanoTime());
+            closeQuietly(client);
+            sockets.remove(client);
+        }
+    }
+
+    private void pipe(Socket from, Socket to, NetworkProfile conditions, boolean reset, Observer onRead, Observer onWritten) {
+        BlockingQueue<Chunk> queue = new LinkedBlockingQueue<>();
+        var writer = threads.submit(() -> write(queue, from, to, conditions, onWritten));
+        try {
+            var in = from.getInputStream();
+            var buffer = new byte[CHUNK_SIZE];
+            var lastDue = 0L;
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                if (reset) {
+                    resets.incrementAndGet();
+                    from.setSoLinger(true, 0);
+                    closeQuietly(from);
+                    closeQuietly(to);
+                    break;
+                }
+                var chunk = Arrays.copyOf(buffer, read);
+                onRead.accept(chunk, System.nanoTime());
+                lastDue = Math.max(lastDue, System.nanoTime() + delayNanos(conditions));
+                queue.put(new Chunk(chunk, lastDue));
+            }
+        } catch (IOException e) {
+            closeQuietly(to);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            queue.add(END);
+        }
+        join(writer);
+    }
+
+    private void write(BlockingQueue<Chunk> queue, Socket from, Socket to, NetworkProfile conditions, Observer onWritten) {
+        try {
+            var out = to.getOutputStream();
+            Chunk chunk;
+            while ((chunk = queue.take()) != END) {
+                var wait = chunk.due() - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+                out.write(chunk.data());
+                out.flush();
+                onWritten.accept(chunk.data(), System.nanoTime());
+                bytes.addAndGet(chunk.data().length);
+                if (conditions.bytesPerSecond() > 0) {
+                    TimeUnit.NANOSECONDS.sleep(chunk.data().length * 1_000_000_000L / conditions.bytesPerSecond());
+                }
+            }
+            if (!to.isClosed()) {
+                to.shutdownOutput();
+            }
+        } catch (IOException e) {
+            closeQuietly(from);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long delayNanos(NetworkProfile conditions) {
+        var latency = conditions.latency().toNanos();
+        var jitter = conditions.jitter().toNanos();
+        if (jitter > 0) {
+            latency += ThreadLocalRandom.current().nextLong(-jitter, jitter + 1);
+        }
+        return Math.max(0, latency);
+    }
+
+    private void join(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            // already closed
+        }
+    }
+
+    /**
+     * Observes the bytes of a connection: the requests once forwarded to the target, the responses as soon as they are
+     * received from it.
+     */
+    public interface Tap {
+
+        Tap NONE = new Tap() {
+            @Override
+            public void request(byte[] data, long nanos) {
+            }
+
+            @Override
+            public void response(byte[] data, long nanos) {
+            }
+
+            @Override
+            public void close(long nanos) {
+            }
+        };
+
+        void request(byte[] data, long nanos);
+
+        void response(byte[] data, long nanos);
+
+        void close(long nanos);
+    }
+
+    @FunctionalInterface
+    private interface Observer {
+
+        Observer NONE = (data, nanos) -> {
+        };
+
+        void accept(byte[] data, long nanos);
+    }
+
+    private record Chunk(byte[] data, long due) {
+    }
+}
@@ -0,0 +1,218 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.provision;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stands in for the backend system behind the {@code provisioner.http} entries of a control plane. Every provision
+ * request is answered after a response delay, which blocks the provisioner of the control plane, and completed after a
+ * further callback delay by calling the provisioning webhook of the control plane with the content data address the
+ * transfer should use. Deprovision requests are acknowledged without a callback.
+ */
+public class HttpProvisionerStandIn implements AutoCloseable {
+
+    public static final String PATH = "/provision";
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {
+    };
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpServer server;
+    private final AtomicInteger handlerThreads = new AtomicInteger();
+    private final ExecutorService handlers = Executors.newCachedThreadPool(runnable -> {
+        var thread = new Thread(runnable, "provisioner-handler-" + handlerThreads.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ScheduledExecutorService callbacks = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "provisioner-callbacks");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final Map<String, Object> contentDataAddress;
+    private final ConcurrentLinkedQueue<Provisioning> provisionings = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private volatile Duration responseDelay = Duration.ZERO;
+    private volatile Duration callbackDelay = Duration.ZERO;
+
+    private HttpProvisionerStandIn(HttpServer server, Map<String, Object> contentDataAddress) {
+        this.server = server;
+        this.contentDataAddress = contentDataAddress;
+    }
+
+    /**
+     * Starts the stand-in on the port the control plane sends its provision requests to.
+     *
+     * @param port               the port of the {@code provisioner.http} endpoint
+     * @param contentDataAddress the properties of the data address returned for every provisioned transfer
+     * @return the running stand-in
+     */
+    public static HttpProvisionerStandIn start(int port, Map<String, Object> contentDataAddress) {
+        try {
+            var server = HttpServer.create(new InetSocketAddress("localhost", port), 256);
+            var standIn = new HttpProvisionerStandIn(server, contentDataAddress);
+            server.createContext(PATH, standIn::handle);
+            server.setExecutor(standIn.handlers);
+            server.start();
+            return standIn;
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot start the provisioner stand-in on port " + port, e);
+        }
+    }
+
+    /**
+     * Sets the delays of the following provision requests.
+     *
+     * @param responseDelay the time before a provision request is answered
+     * @param callbackDelay the time between the answer and the webhook call
+     */
+    public void delays(Duration responseDelay, Duration callbackDelay) {
+        this.responseDelay = responseDelay;
+        this.callbackDelay = callbackDelay;
+    }
+
+    /**
+     * Forgets the completed provisionings and the peak of concurrent ones.
+     */
+    public void reset() {
+        provisionings.clear();
+        peakInFlight.set(inFlight.get());
+    }
+
+    /**
+     * The provisionings completed since the last {@link #reset()}, in the order of their completion.
+     *
+     * @return the provisionings
+     */
+    public List<Provisioning> provisionings() {
+        return new ArrayList<>(provisionings);
+    }
+
+    /**
+     * The highest number of provisionings that were requested but not yet called back at the same time, which shows
+     * how far the control plane overlaps the calls to the backend system.
+     *
+     * @return the peak since the last {@link #reset()}
+     */
+    public int peakInFlight() {
+        return peakInFlight.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        callbacks.shutdownNow();
+        handlers.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            var receivedAt = System.nanoTime();
+            var request = mapper.readValue(exchange.getRequestBody(), MAP_TYPE);
+            if (!"provision".equals(request.get("type"))) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(responseDelay.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                inFlight.decrementAndGet();
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, -1);
+            var respondedAt = System.nanoTime();
+            callbacks.schedule(() -> callback(request, receivedAt, respondedAt), callbackDelay.toNanos(), TimeUnit.NANOSECONDS);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void callback(Map<String, Object> request, long receivedAt, long respondedAt) {
+        var transferProcessId = (String) request.get("transferProcessId");
+        var body = new HashMap<String, Object>();
+        body.put("resourceDefinitionId", request.get("resourceDefinitionId"));
+        body.put("assetId", request.get("assetId"));
+        body.put("resourceName", "provisioned-" + transferProcessId);
+        body.put("contentDataAddress", Map.of("properties", contentDataAddress));
+        body.put("apiKeyJwt", "unused");
+        body.put("hasToken", false);
+        HttpRequest webhook;
+        try {
+            webhook = HttpRequest.newBuilder(URI.create(request.get("callbackAddress") + "/" + transferProcessId + "/provision"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            complete(transferProcessId, receivedAt, respondedAt, -1);
+            return;
+        }
+        client.sendAsync(webhook, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, failure) -> complete(transferProcessId, receivedAt, respondedAt,
+                        failure == null ? response.statusCode() : -1));
+    }
+
+    private void complete(String transferProcessId, long receivedAt, long respondedAt, int callbackStatus) {
+        inFlight.decrementAndGet();
+        provisionings.add(new Provisioning(transferProcessId, Duration.ofNanos(respondedAt - receivedAt),
+                Duration.ofNanos(System.nanoTime() - receivedAt), callbackStatus));
+    }
+
+    /**
+     * A provisioning as seen by the backend system.
+     *
+     * @param transferProcessId the id of the provider transfer process
+     * @param response          the time until the provision request was answered
+     * @param total             the time until the webhook call was answered
+     * @param callbackStatus    the status code of the webhook call, -1 if it failed
+     */
+    public record Provisioning(String transferProcessId, Duration response, Duration total, int callbackStatus) {
+
+        public boolean isSuccessful() {
+            return callbackStatus >= 200 && callbackStatus < 300;
+        }
+    }
+}
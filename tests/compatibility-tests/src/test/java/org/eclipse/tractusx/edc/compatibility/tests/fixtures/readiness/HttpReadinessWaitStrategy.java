@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.readiness;
+
+import org.testcontainers.containers.ContainerLaunchException;
+import org.testcontainers.containers.wait.strategy.AbstractWaitStrategy;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Waits until the unauthenticated resources of a runtime answer with a 2xx status, probing all of them concurrently,
+ * instead of matching every log line against the {@code Runtime ... ready} message: the version of the version API and
+ * the health of the default API, whose check only succeeds once all the health checks of the runtime pass. The
+ * endpoints are taken from the {@code WEB_HTTP_VERSION_*} and {@code WEB_HTTP_*} variables of the environment. Each
+ * resource is recorded as a stage {@code <runtime>:<resource>} of a {@link ReadinessTimeline}, and the runtime as
+ * {@code <runtime>:ready} once all of them answer.
+ */
+public class HttpReadinessWaitStrategy extends AbstractWaitStrategy {
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(1);
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(50);
+
+    private final String runtime;
+    private final Map<String, URI> endpoints;
+    private ReadinessTimeline timeline = new ReadinessTimeline();
+
+    private HttpReadinessWaitStrategy(String runtime, Map<String, URI> endpoints) {
+        this.runtime = runtime;
+        this.endpoints = endpoints;
+    }
+
+    /**
+     * Creates the strategy for the endpoints a runtime is configured with. The containers run on the host network, so
+     * the endpoints are probed on localhost.
+     *
+     * @param runtime the name of the runtime, prefix of the stages
+     * @param env     the environment of the runtime
+     * @return the strategy
+     */
+    public static HttpReadinessWaitStrategy forEnvironment(String runtime, Map<String, String> env) {
+        var endpoints = new LinkedHashMap<String, URI>();
+        resource(env, "WEB_HTTP_VERSION", "/v1/version").ifPresent(uri -> endpoints.put("version", uri));
+        resource(env, "WEB_HTTP", "/check/health").ifPresent(uri -> endpoints.put("health", uri));
+        if (endpoints.isEmpty()) {
+            throw new IllegalStateException("No HTTP endpoint to probe in the environment of " + runtime);
+        }
+        return new HttpReadinessWaitStrategy(runtime, endpoints);
+    }
+
+    /**
+     * Records the stages to a timeline shared with the other runtimes of the participant.
+     *
+     * @param timeline the timeline
+     * @return the strategy
+     */
+    public HttpReadinessWaitStrategy recordingTo(ReadinessTimeline timeline) {
+        this.timeline = timeline;
+        return this;
+    }
+
+    @Override
+    protected void waitUntilReady() {
+        var client = HttpClient.newBuilder().connectTimeout(CONNECT_TIMEOUT).build();
+        var deadline = System.nanoTime() + startupTimeout.toNanos();
+        var probes = new LinkedHashMap<String, Future<?>>();
+        var executor = Executors.newCachedThreadPool();
+        try {
+            endpoints.forEach((resource, uri) -> probes.put(resource, executor.submit(() -> probe(client, resource, uri))));
+            awaitProbes(probes, deadline);
+        } finally {
+            executor.shutdownNow();
+        }
+        timeline.record(runtime + ":ready");
+    }
+
+    private void awaitProbes(Map<String, Future<?>> probes, long deadline) {
+        var pending = new ArrayList<String>();
+        for (var probe : probes.entrySet()) {
+            try {
+                probe.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                pending.add(probe.getKey());
+            } catch (ExecutionException e) {
+                throw new ContainerLaunchException("Cannot probe the %s endpoint of %s".formatted(probe.getKey(), runtime), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ContainerLaunchException("Interrupted while waiting for " + runtime, e);
+            }
+        }
+        if (!pending.isEmpty()) {
+            throw new ContainerLaunchException("Timed out after %ds waiting for the %s endpoints of %s, reached: %s"
+                    .formatted(startupTimeout.toSeconds(), pending, runtime, timeline));
+        }
+    }
+
+    private Void probe(HttpClient client, String resource, URI uri) throws InterruptedException {
+        var request = HttpRequest.newBuilder(uri).timeout(CONNECT_TIMEOUT).GET().build();
+        while (true) {
+            try {
+                var status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status >= 200 && status < 300) {
+                    timeline.record(runtime + ":" + resource);
+                    return null;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(POLL_INTERVAL.toMillis());
+        }
+    }
+
+    private static Optional<URI> resource(Map<String, String> env, String prefix, String resource) {
+        return Optional.ofNullable(env.get(prefix + "_PORT"))
+                .map(port -> URI.create("http://localhost:" + port + env.getOrDefault(prefix + "_PATH", "").replaceAll("/$", "") + resource));
+    }
+}
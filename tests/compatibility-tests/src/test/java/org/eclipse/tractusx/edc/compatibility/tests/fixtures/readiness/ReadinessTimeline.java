@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.readiness;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * When each readiness stage of a participant was reached, e.g. {@code controlplane:management} when the management API
+ * of the control plane answers, or {@code dataplane-registered}, relative to the start of the timeline.
+ */
+public class ReadinessTimeline {
+
+    private final Map<String, Duration> stages = new LinkedHashMap<>();
+    private volatile long start = System.nanoTime();
+
+    /**
+     * Restarts the timeline, forgetting the stages recorded so far.
+     */
+    public synchronized void start() {
+        stages.clear();
+        start = System.nanoTime();
+    }
+
+    /**
+     * Records that a stage is reached now. A stage is only recorded the first time.
+     *
+     * @param stage the stage
+     */
+    public synchronized void record(String stage) {
+        stages.putIfAbsent(stage, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /**
+     * The stages reached so far, in the order they were reached.
+     *
+     * @return the time each stage was reached at, since the start
+     */
+    public synchronized Map<String, Duration> stages() {
+        return new LinkedHashMap<>(stages);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return stages.entrySet().stream()
+                .map(entry -> "%s=%dms".formatted(entry.getKey(), entry.getValue().toMillis()))
+                .collect(Collectors.joining(", ", "readiness[", "]"));
+    }
+}
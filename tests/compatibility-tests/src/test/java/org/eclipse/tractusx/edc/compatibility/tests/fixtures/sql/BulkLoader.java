@@ -0,0 +1,222 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.sql;
+
+import org.eclipse.edc.sql.testfixtures.PostgresqlEndToEndExtension;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Bulk-loads synthetic rows into the tables of a participant database with {@code COPY}. The columns are read from
+ * the {@code information_schema}, so that the same table definition works for the schemas of different versions:
+ * columns without a generator are left to their default, if nullable or defaulted, or get a type-based value.
+ */
+public class BulkLoader {
+
+    private static final int BATCH_SIZE = 10_000;
+
+    private final PostgresqlEndToEndExtension postgresql;
+    private final String database;
+
+    public BulkLoader(PostgresqlEndToEndExtension postgresql, String database) {
+        this.postgresql = postgresql;
+        this.database = database;
+    }
+
+    /**
+     * Copies the given number of rows into the table.
+     *
+     * @param table the table definition
+     * @param rows  number of rows
+     * @return the result, empty if the table does not exist in the database
+     */
+    public Result load(Table table, long rows) {
+        try (var connection = DatabaseConnections.open(postgresql, database)) {
+            var columns = columns(connection, table);
+            if (columns.isEmpty()) {
+                return new Result(table.name(), 0, Duration.ZERO);
+            }
+            var start = System.nanoTime();
+            var copy = connection.unwrap(PGConnection.class).getCopyAPI()
+                    .copyIn("COPY %s (%s) FROM STDIN WITH (FORMAT csv)".formatted(table.name(), String.join(", ", columns.keySet())));
+            try {
+                var random = new Random(table.name().hashCode());
+                var batch = new StringBuilder();
+                for (var index = 0L; index < rows; index++) {
+                    var row = table.row(index, rows, random);
+                    var first = true;
+                    for (var generator : columns.values()) {
+                        if (!first) {
+                            batch.append(',');
+                        }
+                        first = false;
+                        appendCsv(batch, generator.apply(row));
+                    }
+                    batch.append('\n');
+                    if (index % BATCH_SIZE == BATCH_SIZE - 1) {
+                        write(copy, batch);
+                    }
+                }
+                write(copy, batch);
+                copy.endCopy();
+            } finally {
+                if (copy.isActive()) {
+                    copy.cancelCopy();
+                }
+            }
+            try (var statement = connection.createStatement()) {
+                statement.execute("ANALYZE " + table.name());
+            }
+            return new Result(table.name(), rows, Duration.ofNanos(System.nanoTime() - start));
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot load table %s of %s".formatted(table.name(), database), e);
+        }
+    }
+
+    private Map<String, Function<Row, String>> columns(Connection connection, Table table) throws SQLException {
+        var columns = new LinkedHashMap<String, Function<Row, String>>();
+        try (var statement = connection.prepareStatement("""
+                SELECT column_name, data_type, is_nullable, column_default FROM information_schema.columns
+                WHERE table_schema = current_schema() AND table_name = ? ORDER BY ordinal_position
+                """)) {
+            statement.setString(1, table.name());
+            try (var resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    var name = resultSet.getString("column_name");
+                    var generator = table.generators().get(name);
+                    if (generator != null) {
+                        columns.put(name, generator);
+                    } else if ("NO".equals(resultSet.getString("is_nullable")) && resultSet.getString("column_default") == null) {
+                        columns.put(name, byType(table, name, resultSet.getString("data_type")));
+                    }
+                }
+            }
+        }
+        return columns;
+    }
+
+    private Function<Row, String> byType(Table table, String column, String dataType) {
+        return switch (dataType) {
+            case "text", "character varying", "character" -> row -> new UUID(row.random().nextLong(), row.random().nextLong()).toString();
+            case "integer", "smallint" -> row -> "0";
+            case "bigint" -> row -> String.valueOf(row.createdAt());
+            case "boolean" -> row -> "false";
+            case "json", "jsonb" -> row -> "{}";
+            default -> throw new IllegalStateException("No generator for column %s.%s of type %s".formatted(table.name(), column, dataType));
+        };
+    }
+
+    private void write(CopyIn copy, StringBuilder batch) throws SQLException {
+        var bytes = batch.toString().getBytes(StandardCharsets.UTF_8);
+        copy.writeToCopy(bytes, 0, bytes.length);
+        batch.setLength(0);
+    }
+
+    private void appendCsv(StringBuilder builder, String value) {
+        if (value != null) {
+            builder.append('"').append(value.replace("\"", "\"\"")).append('"');
+        }
+    }
+
+    /**
+     * A generated row, shared by the column generators.
+     *
+     * @param index     row index
+     * @param id        deterministic id of the row
+     * @param createdAt creation time, in epoch milliseconds, spread over the last year
+     * @param state     state code drawn from the state distribution of the table
+     * @param random    the random source
+     */
+    public record Row(long index, String id, long createdAt, int state, Random random) {
+    }
+
+    /**
+     * Definition of a table to load.
+     *
+     * @param name       the table name
+     * @param states     relative weights of the state codes
+     * @param generators generators of the column values by column name, {@code null} for {@code NULL}
+     */
+    public record Table(String name, Map<Integer, Integer> states, Map<String, Function<Row, String>> generators) {
+
+        private static final long YEAR = Duration.ofDays(365).toMillis();
+
+        /**
+         * The deterministic id of a row, e.g. to reference rows of another table.
+         *
+         * @param table the table
+         * @param index row index
+         * @return the id
+         */
+        public static String id(String table, long index) {
+            return new UUID(table.hashCode(), index).toString();
+        }
+
+        Row row(long index, long rows, Random random) {
+            var createdAt = System.currentTimeMillis() - YEAR + index * YEAR / rows;
+            return new Row(index, id(name, index), createdAt, state(random), random);
+        }
+
+        private int state(Random random) {
+            if (states.isEmpty()) {
+                return 0;
+            }
+            var total = 0;
+            for (var weight : states.values()) {
+                total += weight;
+            }
+            var draw = random.nextInt(total);
+            for (var entry : states.entrySet()) {
+                draw -= entry.getValue();
+                if (draw < 0) {
+                    return entry.getKey();
+                }
+            }
+            throw new IllegalStateException("Unreachable");
+        }
+    }
+
+    public record Result(String table, long rows, Duration duration) {
+
+        /**
+         * The result as report metrics.
+         *
+         * @return the metrics
+         */
+        public Map<String, Object> metrics() {
+            var seconds = duration.toNanos() / 1_000_000_000.0;
+            var metrics = new LinkedHashMap<String, Object>();
+            metrics.put("rows", rows);
+            metrics.put("load_s", seconds);
+            metrics.put("rows_per_s", seconds == 0 ? 0 : rows / seconds);
+            return metrics;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.sql;
+
+import org.eclipse.edc.sql.testfixtures.PostgresqlEndToEndExtension;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Data planes selected for the provider transfer processes of a participant, as stored in its database.
+ */
+public class DataPlaneAssignments {
+
+    private static final String QUERY = "SELECT data_plane_id, count(*) FROM " + EdcTables.TRANSFER_PROCESS
+            + " WHERE type = 'PROVIDER' AND created_at >= ? GROUP BY data_plane_id";
+
+    private final PostgresqlEndToEndExtension postgresql;
+    private final String database;
+
+    public DataPlaneAssignments(PostgresqlEndToEndExtension postgresql, String database) {
+        this.postgresql = postgresql;
+        this.database = database;
+    }
+
+    /**
+     * Counts the provider transfer processes per data plane instance.
+     *
+     * @param sinceMillis only count the transfer processes created from this epoch millisecond on
+     * @return the number of transfer processes by data plane id, {@code "none"} for the ones without a data plane
+     */
+    public Map<String, Long> countSince(long sinceMillis) {
+        try (var connection = DatabaseConnections.open(postgresql, database);
+             var statement = connection.prepareStatement(QUERY)) {
+            statement.setLong(1, sinceMillis);
+            var counts = new TreeMap<String, Long>();
+            try (var resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    var dataPlaneId = resultSet.getString(1);
+                    counts.put(dataPlaneId == null ? "none" : dataPlaneId, resultSet.getLong(2));
+                }
+            }
+            return counts;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot count data plane assignments on " + database, e);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.sql;
+
+import org.eclipse.edc.sql.testfixtures.PostgresqlEndToEndExtension;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * Plain JDBC connections to the participant databases of the {@link PostgresqlEndToEndExtension}.
+ */
+public final class DatabaseConnections {
+
+    private DatabaseConnections() {
+    }
+
+    public static Connection open(PostgresqlEndToEndExtension postgresql, String database) throws SQLException {
+        var config = postgresql.configFor(database);
+        return DriverManager.getConnection(config.getString("edc.datasource.default.url"),
+                config.getString("edc.datasource.default.user"), config.getString("edc.datasource.default.password"));
+    }
+}
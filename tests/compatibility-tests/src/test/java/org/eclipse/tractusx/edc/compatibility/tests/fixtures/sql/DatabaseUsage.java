@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.sql;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Usage of a participant database over time: the connections the runtimes hold, and the rows of each table.
+ */
+public final class DatabaseUsage {
+
+    private DatabaseUsage() {
+    }
+
+    /**
+     * Number of connections to a database, idle ones of the connection pools included.
+     *
+     * @param connection a connection to any database of the server, which is not counted
+     * @param database   the database
+     * @return the number of connections
+     */
+    public static long connections(Connection connection, String database) throws SQLException {
+        try (var statement = connection.prepareStatement("SELECT count(*) FROM pg_stat_activity WHERE datname = ? AND pid <> pg_backend_pid()")) {
+            statement.setString(1, database);
+            var result = statement.executeQuery();
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
+    /**
+     * Exact number of rows of each table of the database, which is fine for the small databases of the tests.
+     *
+     * @param connection a connection to the database
+     * @return the number of rows by table
+     */
+    public static Map<String, Long> rowCounts(Connection connection) throws SQLException {
+        var tables = new ArrayList<String>();
+        try (var statement = connection.createStatement()) {
+            var result = statement.executeQuery("SELECT tablename FROM pg_tables WHERE schemaname = 'public' ORDER BY tablename");
+            while (result.next()) {
+                tables.add(result.getString(1));
+            }
+        }
+        var counts = new LinkedHashMap<String, Long>();
+        try (var statement = connection.createStatement()) {
+            for (var table : tables) {
+                var result = statement.executeQuery("SELECT count(*) FROM \"" + table + "\"");
+                result.next();
+                counts.put(table, result.getLong(1));
+            }
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.sql;
+
+import org.eclipse.edc.connector.controlplane.contract.spi.types.negotiation.ContractNegotiationStates;
+import org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferProcessStates;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.sql.BulkLoader.Row;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.sql.BulkLoader.Table;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Historical rows of the EDC tables, as found in long-running production databases. Only final states are generated,
+ * so that the state machines of the running participants do not pick up the synthetic rows, but have to find their own
+ * few rows among them.
+ */
+public final class EdcTables {
+
+    public static final String TRANSFER_PROCESS = "edc_transfer_process";
+    public static final String CONTRACT_NEGOTIATION = "edc_contract_negotiation";
+    public static final String EDR_ENTRY = "edc_edr_entry";
+    public static final String LEASE = "edc_lease";
+
+    private static final String COUNTER_PARTY_ADDRESS = "http://historical-counter-party/api/dsp";
+    private static final String PROTOCOL = "dataspace-protocol-http";
+
+    private EdcTables() {
+    }
+
+    public static Table transferProcesses() {
+        var states = new LinkedHashMap<Integer, Integer>();
+        states.put(TransferProcessStates.COMPLETED.code(), 50);
+        states.put(TransferProcessStates.DEPROVISIONED.code(), 30);
+        states.put(TransferProcessStates.TERMINATED.code(), 20);
+
+        var generators = new HashMap<String, Function<Row, String>>();
+        generators.put("transferprocess_id", Row::id);
+        generators.put("type", EdcTables::type);
+        generators.put("state", row -> String.valueOf(row.state()));
+        generators.put("state_count", row -> "1");
+        generators.put("state_time_stamp", EdcTables::updatedAt);
+        generators.put("created_at", row -> String.valueOf(row.createdAt()));
+        generators.put("updated_at", EdcTables::updatedAt);
+        generators.put("trace_context", row -> "{}");
+        generators.put("resource_manifest", row -> "{\"definitions\":[]}");
+        generators.put("provisioned_resource_set", row -> "{\"resources\":[]}");
+        generators.put("deprovisioned_resources", row -> "[]");
+        generators.put("private_properties", row -> "{}");
+        generators.put("callback_addresses", row -> "[]");
+        generators.put("protocol_messages", row -> "{\"lastSent\":null,\"received\":[]}");
+        generators.put("pending", row -> "false");
+        generators.put("transfer_type", row -> "HttpData-PULL");
+        generators.put("data_plane_id", row -> "historical-data-plane");
+        generators.put("correlation_id", row -> Table.id("correlation", row.index()));
+        generators.put("counter_party_address", row -> COUNTER_PARTY_ADDRESS);
+        generators.put("protocol", row -> PROTOCOL);
+        generators.put("asset_id", EdcTables::assetId);
+        generators.put("contract_id", row -> Table.id(CONTRACT_NEGOTIATION, row.index()));
+        generators.put("data_destination", row -> "{\"properties\":{\"https://w3id.org/edc/v0.0.1/ns/type\":\"HttpProxy\"}}");
+        return new Table(TRANSFER_PROCESS, states, generators);
+    }
+
+    public static Table contractNegotiations() {
+        var states = new LinkedHashMap<Integer, Integer>();
+        states.put(ContractNegotiationStates.FINALIZED.code(), 80);
+        states.put(ContractNegotiationStates.TERMINATED.code(), 20);
+
+        var generators = new HashMap<String, Function<Row, String>>();
+        generators.put("id", Row::id);
+        generators.put("type", EdcTables::type);
+        generators.put("state", row -> String.valueOf(row.state()));
+        generators.put("state_count", row -> "1");
+        generators.put("state_timestamp", EdcTables::updatedAt);
+        generators.put("created_at", row -> String.valueOf(row.createdAt()));
+        generators.put("updated_at", EdcTables::updatedAt);
+        generators.put("correlation_id", row -> Table.id("correlation", row.index()));
+        generators.put("counterparty_id", row -> "historical-counter-party");
+        generators.put("counterparty_address", row -> COUNTER_PARTY_ADDRESS);
+        generators.put("protocol", row -> PROTOCOL);
+        generators.put("contract_offers", row -> "[]");
+        generators.put("callback_addresses", row -> "[]");
+        generators.put("trace_context", row -> "{}");
+        generators.put("protocol_messages", row -> "{\"lastSent\":null,\"received\":[]}");
+        generators.put("pending", row -> "false");
+        return new Table(CONTRACT_NEGOTIATION, states, generators);
+    }
+
+    public static Table edrEntries() {
+        var generators = new HashMap<String, Function<Row, String>>();
+        generators.put("transfer_process_id", row -> Table.id(TRANSFER_PROCESS, row.index()));
+        generators.put("asset_id", EdcTables::assetId);
+        generators.put("provider_id", row -> "historical-counter-party");
+        generators.put("agreement_id", row -> Table.id(CONTRACT_NEGOTIATION, row.index()));
+        generators.put("contract_negotiation_id", row -> Table.id(CONTRACT_NEGOTIATION, row.index()));
+        generators.put("created_at", row -> String.valueOf(row.createdAt()));
+        return new Table(EDR_ENTRY, Map.of(), generators);
+    }
+
+    /**
+     * Expired leases of transfer processes, left behind by crashed runtimes.
+     *
+     * @return the table
+     */
+    public static Table leases() {
+        var generators = new HashMap<String, Function<Row, String>>();
+        generators.put("lease_id", Row::id);
+        generators.put("resource_id", row -> Table.id(TRANSFER_PROCESS, row.index()));
+        generators.put("resource_kind", row -> "TransferProcess");
+        generators.put("leased_by", row -> "historical-runtime-" + row.index() % 3);
+        generators.put("leased_at", row -> String.valueOf(row.createdAt()));
+        generators.put("lease_duration", row -> "60000");
+        return new Table(LEASE, Map.of(), generators);
+    }
+
+    private static String type(Row row) {
+        return row.index() % 2 == 0 ? "CONSUMER" : "PROVIDER";
+    }
+
+    private static String assetId(Row row) {
+        return "historical-asset-" + row.index() % 1000;
+    }
+
+    private static String updatedAt(Row row) {
+        return String.valueOf(row.createdAt() + row.random().nextLong(Duration.ofHours(1).toMillis()));
+    }
+}
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.sql;
+
+import org.eclipse.edc.sql.testfixtures.PostgresqlEndToEndExtension;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Access to the {@code pg_stat_statements} view of the test database.
+ */
+public class PgStatStatements {
+
+    public static final String IMAGE = "postgres:17.3";
+
+    private static final String DUMP = """
+            SELECT s.query, sum(s.calls) AS calls, sum(s.total_exec_time) AS total_time, sum(s.rows) AS rows
+            FROM pg_stat_statements s JOIN pg_database d ON d.oid = s.dbid
+            WHERE d.datname = ? AND s.query NOT ILIKE '%pg_stat_statements%'
+            GROUP BY s.query
+            """;
+    private static final String RESET = "SELECT pg_stat_statements_reset(0::oid, d.oid, 0::bigint) FROM pg_database d WHERE d.datname = ?";
+
+    private final PostgresqlEndToEndExtension postgresql;
+
+    public PgStatStatements(PostgresqlEndToEndExtension postgresql) {
+        this.postgresql = postgresql;
+    }
+
+    /**
+     * Creates a Postgres container that tracks statements with {@code pg_stat_statements}, to be passed to the
+     * {@link PostgresqlEndToEndExtension}.
+     *
+     * @return the container
+     */
+    public static PostgreSQLContainer container() {
+        return new PostgreSQLContainer(IMAGE)
+                .withCommand("postgres",
+                        "-c", "fsync=off",
+                        "-c", "shared_preload_libraries=pg_stat_statements",
+                        "-c", "pg_stat_statements.track=all",
+                        "-c", "pg_stat_statements.max=10000");
+    }
+
+    /**
+     * Installs the extension in the database, if needed, keeping the statistics collected so far.
+     *
+     * @param database the database
+     */
+    public void install(String database) {
+        try (var connection = DatabaseConnections.open(postgresql, database); var statement = connection.createStatement()) {
+            statement.execute("CREATE EXTENSION IF NOT EXISTS pg_stat_statements");
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot install pg_stat_statements", e);
+        }
+    }
+
+    /**
+     * Installs the extension in the database, if needed, and discards the statistics of the statements of that
+     * database only, of all users. The statistics of the other databases of the container are kept.
+     *
+     * @param database the database
+     */
+    public void reset(String database) {
+        install(database);
+        try (var connection = DatabaseConnections.open(postgresql, database); var statement = connection.prepareStatement(RESET)) {
+            statement.setString(1, database);
+            statement.execute();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot reset pg_stat_statements", e);
+        }
+    }
+
+    /**
+     * Reads the statistics of the statements executed on the database since the last reset.
+     *
+     * @param database the database
+     * @return the statistics, one per normalized statement
+     */
+    public List<StatementStatistics> dump(String database) {
+        try (var connection = DatabaseConnections.open(postgresql, database); var statement = connection.prepareStatement(DUMP)) {
+            statement.setString(1, database);
+            var result = new ArrayList<StatementStatistics>();
+            try (var resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    result.add(new StatementStatistics(resultSet.getString("query"), resultSet.getLong("calls"),
+                            resultSet.getDouble("total_time"), resultSet.getLong("rows")));
+                }
+            }
+            return result;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot read pg_stat_statements of " + database, e);
+        }
+    }
+}
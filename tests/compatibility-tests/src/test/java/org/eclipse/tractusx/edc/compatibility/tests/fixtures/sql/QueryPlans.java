@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.sql;
+
+import org.eclipse.edc.sql.testfixtures.PostgresqlEndToEndExtension;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Query plans of the statements executed on a participant database.
+ */
+public class QueryPlans {
+
+    private final PostgresqlEndToEndExtension postgresql;
+    private final String database;
+
+    public QueryPlans(PostgresqlEndToEndExtension postgresql, String database) {
+        this.postgresql = postgresql;
+        this.database = database;
+    }
+
+    /**
+     * Plans a normalized statement, as captured by {@code pg_stat_statements}, without parameter values.
+     *
+     * @param query the statement, with {@code $n} placeholders
+     * @return the plan lines
+     */
+    public List<String> generic(String query) {
+        return explain("EXPLAIN (GENERIC_PLAN) " + query);
+    }
+
+    /**
+     * Executes and plans a statement.
+     *
+     * @param query the statement
+     * @return the plan lines, with actual row counts and timings
+     */
+    public List<String> analyze(String query) {
+        return explain("EXPLAIN (ANALYZE, BUFFERS) " + query);
+    }
+
+    /**
+     * Whether the plan reads the whole table instead of using an index.
+     *
+     * @param plan  the plan lines
+     * @param table the table
+     * @return true if the table is scanned sequentially
+     */
+    public static boolean isSequentialScan(List<String> plan, String table) {
+        return plan.stream().anyMatch(line -> line.contains("Seq Scan on " + table));
+    }
+
+    private List<String> explain(String statement) {
+        try (var connection = DatabaseConnections.open(postgresql, database);
+             var resultSet = connection.createStatement().executeQuery(statement)) {
+            var lines = new ArrayList<String>();
+            while (resultSet.next()) {
+                lines.add(resultSet.getString(1));
+            }
+            return lines;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot explain statement on %s: %s".formatted(database, statement), e);
+        }
+    }
+}
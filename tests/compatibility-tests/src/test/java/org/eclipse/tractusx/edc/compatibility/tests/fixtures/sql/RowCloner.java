@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.sql;
+
+import org.eclipse.edc.sql.testfixtures.PostgresqlEndToEndExtension;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Map;
+
+/**
+ * Multiplies a row written by a runtime, e.g. the contract negotiation of a real transfer, with a single
+ * {@code INSERT ... SELECT} over {@code generate_series}. Unlike synthetic rows, the clones hold the serialized
+ * objects of the runtime version that wrote the template, so they can be read back through its management API.
+ */
+public class RowCloner {
+
+    private final PostgresqlEndToEndExtension postgresql;
+    private final String database;
+
+    public RowCloner(PostgresqlEndToEndExtension postgresql, String database) {
+        this.postgresql = postgresql;
+        this.database = database;
+    }
+
+    /**
+     * Reads a column of a row.
+     *
+     * @param table     the table
+     * @param column    the column to read
+     * @param keyColumn the column identifying the row
+     * @param key       the value identifying the row
+     * @return the value
+     */
+    public String select(String table, String column, String keyColumn, String key) {
+        try (var connection = DatabaseConnections.open(postgresql, database);
+             var statement = connection.prepareStatement("SELECT %s FROM %s WHERE %s = ?".formatted(column, table, keyColumn))) {
+            statement.setString(1, key);
+            try (var resultSet = statement.executeQuery()) {
+                if (!resultSet.next()) {
+                    throw new IllegalStateException("No row in %s with %s = %s".formatted(table, keyColumn, key));
+                }
+                return resultSet.getString(1);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot read %s.%s of %s".formatted(table, column, database), e);
+        }
+    }
+
+    /**
+     * Clones the template row. Columns with an override get the value of its SQL expression, in which {@code g} is
+     * the index of the clone, starting at 1, the other columns are copied. Overrides of columns that do not exist in
+     * the table are ignored.
+     *
+     * @param table     the table
+     * @param keyColumn the column identifying the template row
+     * @param key       the value identifying the template row
+     * @param count     number of clones
+     * @param overrides SQL expressions by column name
+     * @return the result
+     */
+    public BulkLoader.Result clone(String table, String keyColumn, String key, long count, Map<String, String> overrides) {
+        try (var connection = DatabaseConnections.open(postgresql, database)) {
+            var columns = new ArrayList<String>();
+            var values = new ArrayList<String>();
+            try (var statement = connection.prepareStatement("""
+                    SELECT column_name FROM information_schema.columns
+                    WHERE table_schema = current_schema() AND table_name = ? ORDER BY ordinal_position
+                    """)) {
+                statement.setString(1, table);
+                try (var resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        var column = resultSet.getString(1);
+                        columns.add(column);
+                        values.add(overrides.getOrDefault(column, "t." + column));
+                    }
+                }
+            }
+
+            var start = System.nanoTime();
+            var insert = "INSERT INTO %s (%s) SELECT %s FROM %s t, generate_series(1, ?) AS g WHERE t.%s = ?"
+                    .formatted(table, String.join(", ", columns), String.join(", ", values), table, keyColumn);
+            try (var statement = connection.prepareStatement(insert)) {
+                statement.setLong(1, count);
+                statement.setString(2, key);
+                var inserted = statement.executeUpdate();
+                if (inserted != count) {
+                    throw new IllegalStateException("Cloned %d instead of %d rows of %s".formatted(inserted, count, table));
+                }
+            }
+            try (var statement = connection.createStatement()) {
+                statement.execute("ANALYZE " + table);
+            }
+            return new BulkLoader.Result(table, count, Duration.ofNanos(System.nanoTime() - start));
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot clone rows of %s in %s".formatted(table, database), e);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.sql;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Compares the SQL statements executed by two runtime versions, e.g. stable and snapshot, for the same scenarios.
+ * Statements that only the candidate executes, or that it executes more often, are flagged.
+ */
+public class SqlHotspotDiff {
+
+    private static final int QUERY_WIDTH = 100;
+    private static final StatementStatistics NONE = new StatementStatistics("", 0, 0, 0);
+
+    private final String baselineName;
+    private final Map<String, StatementStatistics> baseline;
+    private final String candidateName;
+    private final Map<String, StatementStatistics> candidate;
+
+    public SqlHotspotDiff(String baselineName, Map<String, StatementStatistics> baseline, String candidateName, Map<String, StatementStatistics> candidate) {
+        this.baselineName = baselineName;
+        this.baseline = baseline;
+        this.candidateName = candidateName;
+        this.candidate = candidate;
+    }
+
+    /**
+     * The flagged statements, new in the candidate or executed more often than in the baseline.
+     *
+     * @return the flagged statements
+     */
+    public Map<String, String> flagged() {
+        var flagged = new LinkedHashMap<String, String>();
+        candidate.forEach((query, statistics) -> {
+            var flag = flag(query);
+            if (!flag.isEmpty()) {
+                flagged.put(query, flag);
+            }
+        });
+        return flagged;
+    }
+
+    /**
+     * Renders the top statements by total time, calls and rows of both versions.
+     *
+     * @param top number of statements per ranking
+     * @return the diff as text
+     */
+    public String render(int top) {
+        var builder = new StringBuilder();
+        builder.append(String.format(Locale.ROOT, "SQL statements of %s (baseline) and %s (candidate)%n", baselineName, candidateName));
+        builder.append(String.format(Locale.ROOT, "%-10s %10s %10s %12s %12s%n", "", "statements", "calls", "time_ms", "rows"));
+        builder.append(totals(baselineName, baseline));
+        builder.append(totals(candidateName, candidate));
+
+        ranking(builder, "total time", StatementStatistics::totalTimeMillis, top);
+        ranking(builder, "calls", StatementStatistics::calls, top);
+        ranking(builder, "rows", StatementStatistics::rows, top);
+
+        var flagged = flagged();
+        builder.append(String.format(Locale.ROOT, "%n%d flagged statement(s)%n", flagged.size()));
+        flagged.forEach((query, flag) -> builder.append(String.format(Locale.ROOT, "%-8s %s%n", flag, candidate.get(query).oneLine())));
+        return builder.toString();
+    }
+
+    private void ranking(StringBuilder builder, String title, ToDoubleFunction<StatementStatistics> metric, int top) {
+        builder.append(String.format(Locale.ROOT, "%nTop %d by %s%n", top, title));
+        builder.append(String.format(Locale.ROOT, "%-8s %9s %9s %11s %11s %9s %9s  %s%n",
+                "flag", "calls(b)", "calls(c)", "time_ms(b)", "time_ms(c)", "rows(b)", "rows(c)", "query"));
+
+        var queries = new LinkedHashSet<String>();
+        queries.addAll(baseline.keySet());
+        queries.addAll(candidate.keySet());
+        queries.stream()
+                .sorted(Comparator.comparingDouble((String query) -> Math.max(
+                        metric.applyAsDouble(baseline.getOrDefault(query, NONE)),
+                        metric.applyAsDouble(candidate.getOrDefault(query, NONE)))).reversed())
+                .limit(top)
+                .forEach(query -> {
+                    var b = baseline.getOrDefault(query, NONE);
+                    var c = candidate.getOrDefault(query, NONE);
+                    builder.append(String.format(Locale.ROOT, "%-8s %9d %9d %11.1f %11.1f %9d %9d  %s%n",
+                            flag(query), b.calls(), c.calls(), b.totalTimeMillis(), c.totalTimeMillis(), b.rows(), c.rows(),
+                            abbreviate(candidate.getOrDefault(query, b).oneLine())));
+                });
+    }
+
+    private String flag(String query) {
+        var c = candidate.get(query);
+        if (c == null) {
+            return "";
+        }
+        var b = baseline.get(query);
+        if (b == null) {
+            return "NEW";
+        }
+        return c.calls() > b.calls() ? "+CALLS" : "";
+    }
+
+    private String totals(String name, Map<String, StatementStatistics> statistics) {
+        var total = statistics.values().stream().reduce(NONE, StatementStatistics::plus);
+        return String.format(Locale.ROOT, "%-10s %10d %10d %12.1f %12d%n", name, statistics.size(), total.calls(), total.totalTimeMillis(), total.rows());
+    }
+
+    private String abbreviate(String query) {
+        return query.length() <= QUERY_WIDTH ? query : query.substring(0, QUERY_WIDTH - 3) + "...";
+    }
+}
@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.sql;
+
+import org.eclipse.edc.sql.testfixtures.PostgresqlEndToEndExtension;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.StableReuse;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Captures the SQL statements of the stable and of the snapshot participant for every test, through
+ * {@code pg_stat_statements}. The statistics of each test are written as CSV to {@code build/reports/sql},
+ * and the top statements of both versions are compared once all the tests of the class have run.
+ * When the tests run concurrently, their statements cannot be told apart, so they are captured once for the whole class.
+ * The Postgres container has to be created with {@link PgStatStatements#container()}.
+ * With {@link StableReuse}, the stable participant uses a Postgres container of its own, so only the statements of the
+ * snapshot participant are captured, and they are not compared.
+ */
+public class SqlHotspotExtension implements BeforeEachCallback, AfterEachCallback, AfterAllCallback {
+
+    public static final Path REPORTS_DIRECTORY = Path.of("build", "reports", "sql");
+
+    private static final int TOP = Integer.getInteger("tx.sql.hotspots.top", 10);
+
+    private final PgStatStatements statements;
+    private final String stableDatabase;
+    private final boolean captureStable = !StableReuse.ENABLED;
+    private final String snapshotDatabase;
+    private final List<StatementStatistics> stable = new ArrayList<>();
+    private final List<StatementStatistics> snapshot = new ArrayList<>();
+    private volatile boolean concurrent;
+
+    /**
+     * Creates the extension.
+     *
+     * @param postgresql       the database
+     * @param stableDatabase   database of the participant running the stable version
+     * @param snapshotDatabase database of the participant running the snapshot version
+     */
+    public SqlHotspotExtension(PostgresqlEndToEndExtension postgresql, String stableDatabase, String snapshotDatabase) {
+        this.statements = new PgStatStatements(postgresql);
+        this.stableDatabase = stableDatabase;
+        this.snapshotDatabase = snapshotDatabase;
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        if (context.getExecutionMode() == ExecutionMode.CONCURRENT) {
+            concurrent = true;
+            return;
+        }
+        if (captureStable) {
+            statements.reset(stableDatabase);
+        }
+        statements.reset(snapshotDatabase);
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        if (context.getExecutionMode() == ExecutionMode.CONCURRENT) {
+            return;
+        }
+        capture(fileName(context.getRequiredTestMethod().getName() + "-" + context.getDisplayName()));
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        if (concurrent) {
+            if (captureStable) {
+                statements.install(stableDatabase);
+            }
+            statements.install(snapshotDatabase);
+            capture(fileName(context.getRequiredTestClass().getSimpleName()));
+        }
+        if (!captureStable || stable.isEmpty() && snapshot.isEmpty()) {
+            return;
+        }
+        var diff = new SqlHotspotDiff("stable", StatementStatistics.merge(stable), "snapshot", StatementStatistics.merge(snapshot)).render(TOP);
+        write(fileName(context.getRequiredTestClass().getSimpleName()) + "-diff.txt", diff.lines().toList());
+    }
+
+    private void capture(String scenario) {
+        if (captureStable) {
+            var stableStatistics = statements.dump(stableDatabase);
+            stable.addAll(stableStatistics);
+            write(scenario + "-stable.csv", csv(stableStatistics));
+        }
+        var snapshotStatistics = statements.dump(snapshotDatabase);
+        snapshot.addAll(snapshotStatistics);
+        write(scenario + "-snapshot.csv", csv(snapshotStatistics));
+    }
+
+    private List<String> csv(List<StatementStatistics> statistics) {
+        return Stream.concat(Stream.of(StatementStatistics.csvHeader()), StatementStatistics.toCsv(statistics).stream()).toList();
+    }
+
+    private void write(String fileName, List<String> lines) {
+        try {
+            Files.createDirectories(REPORTS_DIRECTORY);
+            Files.write(REPORTS_DIRECTORY.resolve(fileName), lines);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot write SQL report " + fileName, e);
+        }
+    }
+
+    private String fileName(String name) {
+        return name.replaceAll("[^A-Za-z0-9-]+", "_");
+    }
+}
@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.sql;
+
+import org.eclipse.edc.sql.testfixtures.PostgresqlEndToEndExtension;
+
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Retries of the state machines of a participant, as counted in the {@code state_count} of its entities: every
+ * attempt beyond the first in the same state, e.g. re-sending a protocol message, increments it.
+ */
+public class StateRetries {
+
+    private static final String QUERY = "SELECT count(*), coalesce(sum(greatest(state_count - 1, 0)), 0), count(*) FILTER (WHERE state_count > 1) FROM %s WHERE created_at >= ?";
+
+    private final PostgresqlEndToEndExtension postgresql;
+    private final String database;
+
+    public StateRetries(PostgresqlEndToEndExtension postgresql, String database) {
+        this.postgresql = postgresql;
+        this.database = database;
+    }
+
+    /**
+     * Counts the retries of the contract negotiations and of the transfer processes created since a point in time.
+     * The count only covers the state every entity is in, retries of the states it already left are not kept.
+     *
+     * @param prefix      the prefix of the metric names
+     * @param sinceMillis the epoch millisecond
+     * @return the number of entities, of retries and of retried entities per table
+     */
+    public Map<String, Object> countSince(String prefix, long sinceMillis) {
+        var negotiations = count(EdcTables.CONTRACT_NEGOTIATION, sinceMillis);
+        var transfers = count(EdcTables.TRANSFER_PROCESS, sinceMillis);
+        return Map.of(
+                prefix + "negotiations", negotiations[0],
+                prefix + "negotiation_retries", negotiations[1],
+                prefix + "retried_negotiations", negotiations[2],
+                prefix + "transfers", transfers[0],
+                prefix + "transfer_retries", transfers[1],
+                prefix + "retried_transfers", transfers[2]);
+    }
+
+    private long[] count(String table, long sinceMillis) {
+        try (var connection = DatabaseConnections.open(postgresql, database);
+             var statement = connection.prepareStatement(QUERY.formatted(table))) {
+            statement.setLong(1, sinceMillis);
+            try (var resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return new long[]{ resultSet.getLong(1), resultSet.getLong(2), resultSet.getLong(3) };
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot count the retries in %s of %s".formatted(table, database), e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.sql;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Statistics of a normalized SQL statement, as reported by {@code pg_stat_statements}.
+ *
+ * @param query           the normalized statement, parameters replaced by placeholders
+ * @param calls           number of executions
+ * @param totalTimeMillis total execution time
+ * @param rows            total number of rows retrieved or affected
+ */
+public record StatementStatistics(String query, long calls, double totalTimeMillis, long rows) {
+
+    /**
+     * Sums up the statistics of the same statements, e.g. across scenarios.
+     *
+     * @param statistics the statistics
+     * @return the statistics by statement
+     */
+    public static Map<String, StatementStatistics> merge(Collection<StatementStatistics> statistics) {
+        var merged = new LinkedHashMap<String, StatementStatistics>();
+        statistics.forEach(s -> merged.merge(s.query(), s, StatementStatistics::plus));
+        return merged;
+    }
+
+    public static String csvHeader() {
+        return "calls,total_time_ms,rows,query";
+    }
+
+    public static List<String> toCsv(Collection<StatementStatistics> statistics) {
+        return statistics.stream().map(StatementStatistics::toCsvLine).toList();
+    }
+
+    public StatementStatistics plus(StatementStatistics other) {
+        return new StatementStatistics(query, calls + other.calls, totalTimeMillis + other.totalTimeMillis, rows + other.rows);
+    }
+
+    public String toCsvLine() {
+        return String.format(Locale.ROOT, "%d,%.3f,%d,\"%s\"", calls, totalTimeMillis, rows, oneLine().replace("\"", "\"\""));
+    }
+
+    /**
+     * The statement on a single line, with collapsed whitespaces.
+     *
+     * @return the statement
+     */
+    public String oneLine() {
+        return query.replaceAll("\\s+", " ").trim();
+    }
+}
@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+package org.eclipse.tractusx.edc.compatibility.tests.fixtures.sql;
+
+import org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferProcessStates;
+import org.eclipse.edc.sql.testfixtures.PostgresqlEndToEndExtension;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * States of the provider transfer processes of a participant, as stored in its database, to follow the backlog of
+ * its state machine while transfers are running.
+ */
+public class TransferStates {
+
+    private static final String QUERY = "SELECT state, count(*) FROM " + EdcTables.TRANSFER_PROCESS
+            + " WHERE type = 'PROVIDER' AND created_at >= ? GROUP BY state";
+
+    private final PostgresqlEndToEndExtension postgresql;
+    private final String database;
+
+    public TransferStates(PostgresqlEndToEndExtension postgresql, String database) {
+        this.postgresql = postgresql;
+        this.database = database;
+    }
+
+    /**
+     * Counts the provider transfer processes per state.
+     *
+     * @param sinceMillis only count the transfer processes created from this epoch millisecond on
+     * @return the number of transfer processes by state name
+     */
+    public Map<String, Long> countSince(long sinceMillis) {
+        try (var connection = DatabaseConnections.open(postgresql, database);
+             var statement = connection.prepareStatement(QUERY)) {
+            statement.setLong(1, sinceMillis);
+            var counts = new TreeMap<String, Long>();
+            try (var resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    var state = TransferProcessStates.from(resultSet.getInt(1));
+                    counts.put(state == null ? String.valueOf(resultSet.getInt(1)) : state.name(), resultSet.getLong(2));
+                }
+            }
+            return counts;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot count transfer process states on " + database, e);
+        }
+    }
+}
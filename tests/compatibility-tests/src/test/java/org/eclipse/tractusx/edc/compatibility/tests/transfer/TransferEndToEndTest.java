@@ -20,262 +20,45 @@
 package org.eclipse.tractusx.edc.compatibility.tests.transfer;
 
 import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
-import jakarta.json.JsonObject;
-import org.eclipse.edc.connector.controlplane.test.system.utils.PolicyFixtures;
 import org.eclipse.edc.junit.annotations.EndToEndTest;
-import org.eclipse.edc.junit.extensions.RuntimeExtension;
-import org.eclipse.edc.junit.extensions.RuntimePerClassExtension;
-import org.eclipse.edc.spi.iam.AudienceResolver;
-import org.eclipse.edc.spi.result.Result;
-import org.eclipse.edc.spi.security.Vault;
 import org.eclipse.edc.sql.testfixtures.PostgresqlEndToEndExtension;
-import org.eclipse.tractusx.edc.compatibility.tests.fixtures.BaseParticipant;
-import org.eclipse.tractusx.edc.compatibility.tests.fixtures.DataspaceIssuer;
-import org.eclipse.tractusx.edc.compatibility.tests.fixtures.IdentityHubParticipant;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.DataspaceExtension;
 import org.eclipse.tractusx.edc.compatibility.tests.fixtures.LocalParticipant;
 import org.eclipse.tractusx.edc.compatibility.tests.fixtures.RemoteParticipant;
-import org.eclipse.tractusx.edc.compatibility.tests.fixtures.RemoteParticipantExtension;
-import org.eclipse.tractusx.edc.compatibility.tests.fixtures.Runtimes;
-import org.eclipse.tractusx.edc.spi.identity.mapper.BdrsClient;
-import org.jetbrains.annotations.NotNull;
-import org.junit.jupiter.api.BeforeAll;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.logs.ContainerLogExtension;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.sql.SqlHotspotExtension;
 import org.junit.jupiter.api.Order;
-import org.junit.jupiter.api.extension.BeforeAllCallback;
-import org.junit.jupiter.api.extension.ExtensionContext;
 import org.junit.jupiter.api.extension.RegisterExtension;
-import org.junit.jupiter.params.ParameterizedTest;
-import org.junit.jupiter.params.provider.Arguments;
-import org.junit.jupiter.params.provider.ArgumentsProvider;
-import org.junit.jupiter.params.provider.ArgumentsSource;
 
-import java.util.Map;
-import java.util.Objects;
-import java.util.UUID;
-import java.util.stream.Stream;
-
-import static com.github.tomakehurst.wiremock.client.WireMock.any;
-import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
-import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
-import static com.github.tomakehurst.wiremock.client.WireMock.ok;
-import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
-import static org.assertj.core.api.Assertions.assertThat;
-import static org.assertj.core.api.Assertions.assertThatThrownBy;
-import static org.awaitility.Awaitility.await;
-import static org.eclipse.edc.connector.controlplane.test.system.utils.PolicyFixtures.noConstraintPolicy;
-import static org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferProcessStates.STARTED;
-import static org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferProcessStates.SUSPENDED;
-import static org.eclipse.edc.spi.constants.CoreConstants.EDC_NAMESPACE;
-import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.DcpHelperFunctions.configureParticipant;
-import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.DcpHelperFunctions.configureParticipantContext;
-import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.PolicyHelperFunctions.contractExpiresIn;
 
 @EndToEndTest
-public class TransferEndToEndTest {
-
-    protected static final IdentityHubParticipant IDENTITY_HUB_PARTICIPANT = IdentityHubParticipant.Builder.newInstance()
-            .name("identity-hub")
-            .id("identity-hub")
-            .build();
-    
-    protected static final DataspaceIssuer ISSUER = DataspaceIssuer.Builder.newInstance().id("issuer").name("issuer")
-            .did(IDENTITY_HUB_PARTICIPANT.didFor("issuer"))
-            .build();
-
-    protected static final RemoteParticipant REMOTE_PARTICIPANT = RemoteParticipant.Builder.newInstance()
-            .name("remote")
-            .id("remote")
-            .sts(IDENTITY_HUB_PARTICIPANT.getSts())
-            .did(IDENTITY_HUB_PARTICIPANT.didFor("remote"))
-            .trustedIssuer(ISSUER.getDid())
-            .build();
-
-    protected static final LocalParticipant LOCAL_PARTICIPANT = LocalParticipant.Builder.newInstance()
-            .name("local")
-            .id("local")
-            .sts(IDENTITY_HUB_PARTICIPANT.getSts())
-            .did(IDENTITY_HUB_PARTICIPANT.didFor("local"))
-            .trustedIssuer(ISSUER.getDid())
-            .build();
-
-    private static final Map<String, String> DIDS = Map.of(
-            LOCAL_PARTICIPANT.getId(), LOCAL_PARTICIPANT.getDid(),
-            REMOTE_PARTICIPANT.getId(), REMOTE_PARTICIPANT.getDid()
-    );
+public class TransferEndToEndTest extends TransferScenarios {
 
     @Order(0)
     @RegisterExtension
-    static final PostgresqlEndToEndExtension POSTGRESQL = new PostgresqlEndToEndExtension();
-
-    @Order(1)
-    @RegisterExtension
-    static final BeforeAllCallback CREATE_DATABASES = context -> {
-        POSTGRESQL.createDatabase(LOCAL_PARTICIPANT.getName());
-        POSTGRESQL.createDatabase(REMOTE_PARTICIPANT.getName());
-    };
+    static final DataspaceExtension DATASPACE = DataspaceExtension.Builder.newInstance().build();
 
-    @Order(2)
-    @RegisterExtension
-    static final RuntimeExtension LOCAL_CONTROL_PLANE = new RuntimePerClassExtension(
-            Runtimes.CONTROL_PLANE.create("local-control-plane")
-                    .configurationProvider(() -> POSTGRESQL.configFor(LOCAL_PARTICIPANT.getName()))
-                    .configurationProvider(LOCAL_PARTICIPANT::controlPlaneConfig)
-                    .registerServiceMock(BdrsClient.class, new BdrsClient() {
-                        @Override
-                        public String resolveDid(String bpn) {
-                            return DIDS.get(bpn);
-                        }
+    static final LocalParticipant LOCAL_PARTICIPANT = DATASPACE.getLocalParticipant();
+    static final RemoteParticipant REMOTE_PARTICIPANT = DATASPACE.getRemoteParticipant();
+    static final PostgresqlEndToEndExtension POSTGRESQL = DATASPACE.getPostgresql();
 
-                        @Override
-                        public String resolveBpn(String did) {
-                            return DIDS.entrySet().stream()
-                                    .filter(entry -> entry.getValue().equals(did))
-                                    .findFirst().orElseThrow().getKey();
-                        }
-                    })
-                    .registerServiceMock(AudienceResolver.class, message -> Result
-                            .success(DIDS.get(message.getCounterPartyId()))));
-
-    @Order(2)
-    @RegisterExtension
-    static final RuntimeExtension LOCAL_IDENTITY_HUB = new RuntimePerClassExtension(
-            Runtimes.IDENTITY_HUB.create("local-identity-hub")
-                    .configurationProvider(IDENTITY_HUB_PARTICIPANT::getConfig));
-
-    @Order(3)
+    @Order(1)
     @RegisterExtension
-    static final RuntimeExtension LOCAL_DATA_PLANE = new RuntimePerClassExtension(
-            Runtimes.DATA_PLANE.create("local-data-plane")
-                    .configurationProvider(() -> POSTGRESQL.configFor(LOCAL_PARTICIPANT.getName()))
-                    .configurationProvider(LOCAL_PARTICIPANT::dataPlaneConfig)
-    );
+    static final SqlHotspotExtension SQL_HOTSPOTS = new SqlHotspotExtension(POSTGRESQL, REMOTE_PARTICIPANT.getName(), LOCAL_PARTICIPANT.getName());
 
-    @Order(4)
     @RegisterExtension
-    static final RemoteParticipantExtension REMOTE_PARTICIPANT_EXTENSION = new RemoteParticipantExtension(REMOTE_PARTICIPANT, LOCAL_PARTICIPANT, POSTGRESQL);
+    static final ContainerLogExtension CONTAINER_LOGS = new ContainerLogExtension();
 
+    // every scenario stubs and verifies a path of its own, keeping the stubs lets them share the data source
     @RegisterExtension
     static WireMockExtension providerDataSource = WireMockExtension.newInstance()
             .options(wireMockConfig().dynamicPort())
+            .resetOnEachTest(false)
             .build();
 
-    @BeforeAll
-    static void beforeAll() {
-        configureParticipant(LOCAL_PARTICIPANT, ISSUER, IDENTITY_HUB_PARTICIPANT, LOCAL_IDENTITY_HUB);
-        configureParticipant(REMOTE_PARTICIPANT, ISSUER, IDENTITY_HUB_PARTICIPANT, LOCAL_IDENTITY_HUB);
-        configureParticipantContext(ISSUER, IDENTITY_HUB_PARTICIPANT, LOCAL_IDENTITY_HUB);
-
-        var vault = LOCAL_DATA_PLANE.getService(Vault.class);
-        vault.storeSecret("private-key", LOCAL_PARTICIPANT.getPrivateKeyAsString());
-        vault.storeSecret("public-key", LOCAL_PARTICIPANT.getPublicKeyAsString());
-        vault.storeSecret("local-secret", "clientSecret");
-
-        var cpVault = LOCAL_CONTROL_PLANE.getService(Vault.class);
-        cpVault.storeSecret("local-secret", "clientSecret");
+    @Override
+    protected WireMockExtension providerDataSource() {
+        return providerDataSource;
     }
-
-    @ParameterizedTest
-    @ArgumentsSource(ParticipantsArgProvider.class)
-    void httpPullTransfer(BaseParticipant consumer, BaseParticipant provider, String protocol) {
-        consumer.setProtocol(protocol);
-        provider.setProtocol(protocol);
-        provider.waitForDataPlane();
-        providerDataSource.stubFor(any(anyUrl()).willReturn(ok("data")));
-        var assetId = UUID.randomUUID().toString();
-
-        createResourcesOnProvider(provider, assetId, contractExpiresIn("5s"), httpSourceDataAddress());
-
-        var transferProcessId = consumer.requestAssetFrom(assetId, provider)
-                .withTransferType("HttpData-PULL")
-                .execute();
-
-        consumer.awaitTransferToBeInState(transferProcessId, STARTED);
-
-        var edr = await().atMost(consumer.getTimeout())
-                .until(() -> consumer.getEdr(transferProcessId), Objects::nonNull);
-
-        // Do the transfer
-        var msg = UUID.randomUUID().toString();
-        await().atMost(consumer.getTimeout())
-                .untilAsserted(() -> consumer.pullData(edr, Map.of("message", msg), body -> assertThat(body).isEqualTo("data")));
-
-        // checks that the EDR is gone once the contract expires
-        await().atMost(consumer.getTimeout())
-                .untilAsserted(() -> assertThatThrownBy(() -> consumer.getEdr(transferProcessId)));
-
-        // checks that transfer fails
-        await().atMost(consumer.getTimeout())
-                .untilAsserted(() -> assertThatThrownBy(() -> consumer.pullData(edr, Map.of("message", msg), body -> assertThat(body).isEqualTo("data"))));
-
-        providerDataSource.verify(getRequestedFor(urlPathEqualTo("/source")));
-    }
-
-    @ParameterizedTest
-    @ArgumentsSource(ParticipantsArgProvider.class)
-    void suspendAndResume_httpPull_dataTransfer(BaseParticipant consumer, BaseParticipant provider, String protocol) {
-        consumer.setProtocol(protocol);
-        provider.setProtocol(protocol);
-        provider.waitForDataPlane();
-        providerDataSource.stubFor(any(anyUrl()).willReturn(ok("data")));
-        var assetId = UUID.randomUUID().toString();
-        createResourcesOnProvider(provider, assetId, PolicyFixtures.noConstraintPolicy(), httpSourceDataAddress());
-
-        var transferProcessId = consumer.requestAssetFrom(assetId, provider)
-                .withTransferType("HttpData-PULL")
-                .execute();
-
-        consumer.awaitTransferToBeInState(transferProcessId, STARTED);
-
-        var edr = await().atMost(consumer.getTimeout()).until(() -> consumer.getEdr(transferProcessId), Objects::nonNull);
-
-        var msg = UUID.randomUUID().toString();
-        await().atMost(consumer.getTimeout()).untilAsserted(() -> consumer.pullData(edr, Map.of("message", msg), body -> assertThat(body).isEqualTo("data")));
-
-        consumer.suspendTransfer(transferProcessId, "supension");
-
-        consumer.awaitTransferToBeInState(transferProcessId, SUSPENDED);
-
-        // checks that the EDR is gone once the transfer has been suspended
-        await().atMost(consumer.getTimeout()).untilAsserted(() -> assertThatThrownBy(() -> consumer.getEdr(transferProcessId)));
-        // checks that transfer fails
-        await().atMost(consumer.getTimeout()).untilAsserted(() -> assertThatThrownBy(() -> consumer.pullData(edr, Map.of("message", msg), body -> assertThat(body).isEqualTo("data"))));
-
-        consumer.resumeTransfer(transferProcessId);
-
-        // check that transfer is available again
-        consumer.awaitTransferToBeInState(transferProcessId, STARTED);
-        var secondEdr = await().atMost(consumer.getTimeout()).until(() -> consumer.getEdr(transferProcessId), Objects::nonNull);
-        var secondMessage = UUID.randomUUID().toString();
-        await().atMost(consumer.getTimeout()).untilAsserted(() -> consumer.pullData(secondEdr, Map.of("message", secondMessage), body -> assertThat(body).isEqualTo("data")));
-
-        providerDataSource.verify(getRequestedFor(urlPathEqualTo("/source")));
-    }
-
-    protected void createResourcesOnProvider(BaseParticipant provider, String assetId, JsonObject contractPolicy, Map<String, Object> dataAddressProperties) {
-        provider.createAsset(assetId, Map.of("description", "description"), dataAddressProperties);
-        var contractPolicyId = provider.createPolicyDefinition(contractPolicy);
-        var noConstraintPolicyId = provider.createPolicyDefinition(noConstraintPolicy());
-
-        provider.createContractDefinition(assetId, UUID.randomUUID().toString(), noConstraintPolicyId, contractPolicyId);
-    }
-
-    private @NotNull Map<String, Object> httpSourceDataAddress() {
-        return Map.of(
-                EDC_NAMESPACE + "name", "transfer-test",
-                EDC_NAMESPACE + "baseUrl", "http://localhost:" + providerDataSource.getPort() + "/source",
-                EDC_NAMESPACE + "type", "HttpData",
-                EDC_NAMESPACE + "proxyQueryParams", "true"
-        );
-    }
-
-    private static class ParticipantsArgProvider implements ArgumentsProvider {
-        @Override
-        public Stream<? extends Arguments> provideArguments(ExtensionContext context) {
-            return Stream.of(
-                    Arguments.of(REMOTE_PARTICIPANT, LOCAL_PARTICIPANT, "dataspace-protocol-http"),
-                    Arguments.of(LOCAL_PARTICIPANT, REMOTE_PARTICIPANT, "dataspace-protocol-http")
-            );
-        }
-    }
-
 }
@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2024 Bayerische Motoren Werke Aktiengesellschaft (BMW AG)
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ ******************************************************************************/
+
+package org.eclipse.tractusx.edc.compatibility.tests.transfer;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.eclipse.edc.connector.controlplane.test.system.utils.PolicyFixtures;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.BaseParticipant;
+import org.eclipse.tractusx.edc.compatibility.tests.fixtures.DataspaceDirections;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.ok;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferProcessStates.STARTED;
+import static org.eclipse.edc.connector.controlplane.transfer.spi.types.TransferProcessStates.SUSPENDED;
+import static org.eclipse.edc.spi.constants.CoreConstants.EDC_NAMESPACE;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.PolicyHelperFunctions.contractExpiresIn;
+import static org.eclipse.tractusx.edc.compatibility.tests.fixtures.TransferHelperFunctions.createResourcesOnProvider;
+
+/**
+ * The transfer scenarios between the local and the remote participant. Every subclass registers its own
+ * {@link org.eclipse.tractusx.edc.compatibility.tests.fixtures.DataspaceExtension} and data source in static fields,
+ * so that each test class runs on a participant stack of its own. Every scenario reads its asset from a path of its
+ * own on the data source, so that requests of other scenarios do not satisfy its verifications.
+ */
+public abstract class TransferScenarios {
+
+    @ParameterizedTest
+    @ArgumentsSource(DataspaceDirections.class)
+    void httpPullTransfer(BaseParticipant consumer, BaseParticipant provider, String protocol) {
+        consumer.setProtocol(protocol);
+        provider.setProtocol(protocol);
+        provider.waitForDataPlane();
+        var assetId = UUID.randomUUID().toString();
+        providerDataSource().stubFor(get(urlPathEqualTo(sourcePath(assetId))).willReturn(ok("data")));
+
+        createResourcesOnProvider(provider, assetId, contractExpiresIn("5s"), httpSourceDataAddress(assetId));
+
+        var transferProcessId = consumer.requestAssetFrom(assetId, provider)
+                .withTransferType("HttpData-PULL")
+                .execute();
+
+        consumer.awaitTransferToBeInState(transferProcessId, STARTED);
+
+        var edr = await().atMost(consumer.getTimeout())
+                .until(() -> consumer.getEdr(transferProcessId), Objects::nonNull);
+
+        // Do the transfer
+        var msg = UUID.randomUUID().toString();
+        await().atMost(consumer.getTimeout())
+                .untilAsserted(() -> consumer.pullData(edr, Map.of("message", msg), body -> assertThat(body).isEqualTo("data")));
+
+        // checks that the EDR is gone once the contract expires
+        await().atMost(consumer.getTimeout())
+                .untilAsserted(() -> assertThatThrownBy(() -> consumer.getEdr(transferProcessId)));
+
+        // checks that transfer fails
+        await().atMost(consumer.getTimeout())
+                .untilAsserted(() -> assertThatThrownBy(() -> consumer.pullData(edr, Map.of("message", msg), body -> assertThat(body).isEqualTo("data"))));
+
+        providerDataSource().verify(getRequestedFor(urlPathEqualTo(sourcePath(assetId))));
+    }
+
+    @ParameterizedTest
+    @ArgumentsSource(DataspaceDirections.class)
+    void suspendAndResume_httpPull_dataTransfer(BaseParticipant consumer, BaseParticipant provider, String protocol) {
+        consumer.setProtocol(protocol);
+        provider.setProtocol(protocol);
+        provider.waitForDataPlane();
+        var assetId = UUID.randomUUID().toString();
+        providerDataSource().stubFor(get(urlPathEqualTo(sourcePath(assetId))).willReturn(ok("data")));
+        createResourcesOnProvider(provider, assetId, PolicyFixtures.noConstraintPolicy(), httpSourceDataAddress(assetId));
+
+        var transferProcessId = consumer.requestAssetFrom(assetId, provider)
+                .withTransferType("HttpData-PULL")
+                .execute();
+
+        consumer.awaitTransferToBeInState(transferProcessId, STARTED);
+
+        var edr = await().atMost(consumer.getTimeout()).until(() -> consumer.getEdr(transferProcessId), Objects::nonNull);
+
+        var msg = UUID.randomUUID().toString();
+        await().atMost(consumer.getTimeout()).untilAsserted(() -> consumer.pullData(edr, Map.of("message", msg), body -> assertThat(body).isEqualTo("data")));
+
+        consumer.suspendTransfer(transferProcessId, "supension");
+
+        consumer.awaitTransferToBeInState(transferProcessId, SUSPENDED);
+
+        // checks that the EDR is gone once the transfer has been suspended
+        await().atMost(consumer.getTimeout()).untilAsserted(() -> assertThatThrownBy(() -> consumer.getEdr(transferProcessId)));
+        // checks that transfer fails
+        await().atMost(consumer.getTimeout()).untilAsserted(() -> assertThatThrownBy(() -> consumer.pullData(edr, Map.of("message", msg), body -> assertThat(body).isEqualTo("data"))));
+
+        consumer.resumeTransfer(transferProcessId);
+
+        // check that transfer is available again
+        consumer.awaitTransferToBeInState(transferProcessId, STARTED);
+        var secondEdr = await().atMost(consumer.getTimeout()).until(() -> consumer.getEdr(transferProcessId), Objects::nonNull);
+        var secondMessage = UUID.randomUUID().toString();
+        await().atMost(consumer.getTimeout()).untilAsserted(() -> consumer.pullData(secondEdr, Map.of("message", secondMessage), body -> assertThat(body).isEqualTo("data")));
+
+        providerDataSource().verify(getRequestedFor(urlPathEqualTo(sourcePath(assetId))));
+    }
+
+    /**
+     * The data source of the provider, registered by the subclass.
+     *
+     * @return the data source
+     */
+    protected abstract WireMockExtension providerDataSource();
+
+    private Map<String, Object> httpSourceDataAddress(String assetId) {
+        return Map.of(
+                EDC_NAMESPACE + "name", "transfer-test",
+                EDC_NAMESPACE + "baseUrl", "http://localhost:" + providerDataSource().getPort() + sourcePath(assetId),
+                EDC_NAMESPACE + "type", "HttpData",
+                EDC_NAMESPACE + "proxyQueryParams", "true"
+        );
+    }
+
+    private static String sourcePath(String assetId) {
+        return "/source/" + assetId;
+    }
+}